@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *******************************************************************************/
+
+package org.apache.wink.benchmarks;
+
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.wink.json4j.JSONException;
+import org.apache.wink.json4j.JSONObject;
+import org.apache.wink.json4j.internal.BeanSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the JSON4J {@link BeanSerializer} on a chain of beans.
+ * <p>
+ * The <tt>reflection*</tt> benchmarks are the baseline: they introspect
+ * every bean the way the serializer did before it cached the introspection
+ * results, calling {@link Class#getMethods()} and filtering the getters or
+ * the setters for each object. The other benchmarks run the current
+ * serializer, building a <tt>JSONObject</tt> per bean with
+ * {@link BeanSerializer#toJson} or writing the beans straight to the writer
+ * with {@link BeanSerializer#writeJson}. Add <tt>-prof gc</tt> to the JMH
+ * command line to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BeanSerializerBenchmark {
+
+    @Param( {"1", "10", "50"})
+    public int         depth;
+
+    private Node       bean;
+    private JSONObject json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        for (int i = 0; i < depth; i++) {
+            Node node = new Node();
+            node.setId(i);
+            node.setName("node" + i);
+            node.setPrice(i * 1.5);
+            node.setActive(i % 2 == 0);
+            node.setChild(bean);
+            bean = node;
+        }
+        json = (JSONObject)BeanSerializer.toJson(bean, true);
+
+        // fail fast if the baseline does not produce the same document
+        if (!reflectionToJson(bean, new ArrayList<Object>()).equals(json)) {
+            throw new IllegalStateException("The reflection baseline produced a different document");
+        }
+    }
+
+    @Benchmark
+    public String reflectionToJson() throws Exception {
+        StringWriter writer = new StringWriter();
+        reflectionToJson(bean, new ArrayList<Object>()).write(writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String toJson() throws Exception {
+        StringWriter writer = new StringWriter();
+        BeanSerializer.toJson(bean, true).write(writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String writeJson() throws Exception {
+        StringWriter writer = new StringWriter();
+        BeanSerializer.writeJson(bean, true, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public Object reflectionFromJson() throws Exception {
+        return reflectionFromJson(json);
+    }
+
+    @Benchmark
+    public Object fromJson() throws Exception {
+        return BeanSerializer.fromJson(json);
+    }
+
+    /**
+     * The uncached introspection of a bean whose properties are simple
+     * values or beans, as in the original <tt>BeanSerializer.toJson</tt>.
+     */
+    private static JSONObject reflectionToJson(Object obj, List<Object> parsedObjects)
+        throws JSONException {
+        if (parsedObjects.contains(obj)) {
+            return null;
+        }
+        parsedObjects.add(obj);
+        JSONObject jo = new JSONObject();
+        Class<?> clazz = obj.getClass();
+        jo.put("_type", "JavaClass");
+        jo.put("_classname", clazz.getName());
+        Method[] methods = clazz.getMethods();
+        for (int i = 0; i < methods.length; i++) {
+            Method m = methods[i];
+            String mName = m.getName();
+            if (mName.startsWith("get") && mName.length() > 3
+                && m.getParameterTypes().length == 0) {
+                String attr = mName.substring(3);
+                attr = Character.toLowerCase(attr.charAt(0)) + attr.substring(1);
+                try {
+                    Object val = m.invoke(obj);
+                    if (val == null || val instanceof String
+                        || val instanceof Boolean
+                        || val instanceof Number) {
+                        jo.put(attr, val);
+                    } else if (val instanceof Class) {
+                        jo.put(attr, ((Class<?>)val).getName());
+                    } else if (val != obj) {
+                        jo.put(attr, reflectionToJson(val, parsedObjects));
+                    }
+                } catch (Exception e) {
+                    jo.put(attr, (Object)null);
+                }
+            }
+        }
+        return jo;
+    }
+
+    /**
+     * The uncached counterpart of <tt>BeanSerializer.fromJson</tt>: looks up
+     * the setter of every key in {@link Class#getMethods()}.
+     */
+    private static Object reflectionFromJson(JSONObject jo) throws Exception {
+        Class<?> clazz = Class.forName((String)jo.get("_classname"));
+        Method[] methods = clazz.getMethods();
+        Object obj = clazz.newInstance();
+        Iterator<?> keys = jo.keys();
+        while (keys.hasNext()) {
+            String key = (String)keys.next();
+            if (key.equals("_classname") || key.equals("_type")) {
+                continue;
+            }
+            Object val = jo.get(key);
+            if (val == null) {
+                continue;
+            }
+            if (val instanceof JSONObject) {
+                val = reflectionFromJson((JSONObject)val);
+            }
+            String setter = "set" + Character.toUpperCase(key.charAt(0)) + key.substring(1);
+            for (int i = 0; i < methods.length; i++) {
+                Method m = methods[i];
+                Class<?>[] types = m.getParameterTypes();
+                if (m.getName().equals(setter) && types.length == 1) {
+                    m.invoke(obj, convert(val, types[0]));
+                    break;
+                }
+            }
+        }
+        return obj;
+    }
+
+    private static Object convert(Object val, Class<?> type) {
+        if (val instanceof Number) {
+            Number n = (Number)val;
+            if (type == Long.TYPE || type == Long.class) {
+                return n.longValue();
+            } else if (type == Double.TYPE || type == Double.class) {
+                return n.doubleValue();
+            }
+        }
+        return val;
+    }
+
+    public static class Node {
+        private long    id;
+        private String  name;
+        private double  price;
+        private boolean active;
+        private Node    child;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+
+        public boolean getActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public Node getChild() {
+            return child;
+        }
+
+        public void setChild(Node child) {
+            this.child = child;
+        }
+    }
+}
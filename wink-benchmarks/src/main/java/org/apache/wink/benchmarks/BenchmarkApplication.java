@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.benchmarks;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.wink.common.WinkApplication;
+
+/**
+ * An application with the specified number of root resources, mounted at
+ * <tt>/root0</tt> to <tt>/root{n-1}</tt>. The roots are dynamic resources, which
+ * are registered as instances of a {@link WinkApplication}.
+ */
+public class BenchmarkApplication extends WinkApplication {
+
+    private final int roots;
+
+    public BenchmarkApplication(int roots) {
+        this.roots = roots;
+    }
+
+    @Override
+    public Set<Object> getInstances() {
+        Set<Object> instances = new LinkedHashSet<Object>();
+        for (int i = 0; i < roots; ++i) {
+            instances.add(new RootResource("/root" + i));
+        }
+        return instances;
+    }
+}
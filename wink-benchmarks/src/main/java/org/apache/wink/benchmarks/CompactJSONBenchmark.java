@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *******************************************************************************/
+
+package org.apache.wink.benchmarks;
+
+import org.apache.wink.json4j.JSON;
+import org.apache.wink.json4j.JSONArtifact;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Memory benchmarks of the JSON4J in-memory representations: the
+ * <tt>JSONObject</tt> and <tt>JSONArray</tt> created by
+ * {@link JSON#parse(String)} against the <tt>CompactJSONObject</tt> and
+ * <tt>CompactJSONArray</tt> created by
+ * {@link JSON#parseCompact(String, boolean)}.
+ * <p>
+ * The document holds 50 objects of 7 attributes, with small string and
+ * integer arrays. {@link #parse()} measures the parsing, add <tt>-prof gc</tt>
+ * to the JMH command line to report the bytes allocated per document
+ * (<tt>gc.alloc.rate.norm</tt>). {@link #retain(RetainedHeap)} keeps many
+ * parsed copies of the document and reports the heap they retain after a
+ * garbage collection, per document, as the <tt>bytesPerDocument</tt>
+ * secondary result.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompactJSONBenchmark {
+
+    private static final int COPIES = 2000;
+
+    @Param( {"false", "true"})
+    public boolean           compact;
+
+    private String           document;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+
+        public long bytesPerDocument;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            bytesPerDocument = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < 50; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("{\"id\": ").append(i);
+            sb.append(", \"name\": \"item").append(i).append('"');
+            sb.append(", \"price\": ").append(i * 1.25);
+            sb.append(", \"available\": ").append(i % 2 == 0);
+            sb.append(", \"category\": null");
+            sb.append(", \"tags\": [\"a").append(i).append("\", \"b\", \"c\"]");
+            sb.append(", \"sizes\": [").append(i).append(", ").append(i + 1).append(", ")
+                .append(i + 2).append("]}");
+        }
+        document = sb.append("]}").toString();
+    }
+
+    @Benchmark
+    public JSONArtifact parse() throws Exception {
+        return parse(document);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public JSONArtifact[] retain(RetainedHeap heap) throws Exception {
+        long before = usedHeap();
+        JSONArtifact[] documents = new JSONArtifact[COPIES];
+        for (int i = 0; i < COPIES; i++) {
+            documents[i] = parse(document);
+        }
+        long after = usedHeap();
+        heap.bytesPerDocument = (after - before) / COPIES;
+        return documents;
+    }
+
+    private JSONArtifact parse(String text) throws Exception {
+        return compact ? JSON.parseCompact(text, false) : JSON.parse(text);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.benchmarks;
+
+import java.io.UnsupportedEncodingException;
+
+import javax.servlet.ServletContext;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.wink.server.internal.RequestProcessor;
+import org.apache.wink.server.internal.servlet.RestServlet;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.apache.wink.test.mock.ServletContextMock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.mock.web.MockServletContext;
+
+/**
+ * Benchmarks of a request going through
+ * {@link RequestProcessor#handleRequest} end to end: resource matching,
+ * handlers chains and providers lookup, reading and writing the entity.
+ * <p>
+ * The requests target the root resource in the middle of the registry, so
+ * that the cost of the matching grows with the number of roots. The request
+ * objects are created in each invocation, as the request processor keeps
+ * state in their attributes.
+ * <p>
+ * The scenarios are run by {@link DispatchThroughputBenchmark} (ops/s) and
+ * {@link DispatchLatencyBenchmark} (latency percentiles). Add
+ * <tt>-prof gc</tt> to the JMH command line to report the allocation rate
+ * of each scenario.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class DispatchBenchmark {
+
+    private static final String TEXT_PLAIN       = MediaType.TEXT_PLAIN;
+    private static final String APPLICATION_XML  = MediaType.APPLICATION_XML;
+    private static final String APPLICATION_JSON = MediaType.APPLICATION_JSON;
+
+    @Param( {"10", "100", "1000"})
+    public int                  roots;
+
+    private RestServlet         servlet;
+    private RequestProcessor    requestProcessor;
+    private String              root;
+    private byte[]              xmlItem;
+    private byte[]              jsonItem;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final Application application = new BenchmarkApplication(roots);
+        servlet = new RestServlet() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected Application getApplication() {
+                return application;
+            }
+        };
+        ServletContext servletContext = new ServletContextMock(new MockServletContext());
+        servlet.init(new MockServletConfig(servletContext));
+        requestProcessor = RequestProcessor.getRequestProcessor(servletContext, null);
+
+        root = "/root" + (roots / 2);
+        xmlItem = bytes(get(root + "/items/1", APPLICATION_XML));
+        jsonItem = bytes(get(root + "/items/1", APPLICATION_JSON));
+
+        // fail fast instead of measuring error responses
+        check(stringEntity());
+        check(jaxbXmlEntity());
+        check(jaxbJsonEntity());
+        check(postJaxbXmlEntity());
+        check(postJaxbJsonEntity());
+        check(subResourceLocator());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        servlet.destroy();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse stringEntity() throws Exception {
+        return get(root, TEXT_PLAIN);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse jaxbXmlEntity() throws Exception {
+        return get(root + "/items/1", APPLICATION_XML);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse jaxbJsonEntity() throws Exception {
+        return get(root + "/items/1", APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse postJaxbXmlEntity() throws Exception {
+        return post(root + "/items", APPLICATION_XML, xmlItem);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse postJaxbJsonEntity() throws Exception {
+        return post(root + "/items", APPLICATION_JSON, jsonItem);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse subResourceLocator() throws Exception {
+        return get(root + "/sub/1/2", TEXT_PLAIN);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse notFound() throws Exception {
+        return get("/missing", TEXT_PLAIN);
+    }
+
+    private MockHttpServletResponse get(String path, String accept) throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", path, accept);
+        return handle(request);
+    }
+
+    private MockHttpServletResponse post(String path, String mediaType, byte[] content)
+        throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("POST",
+                                                        path,
+                                                        mediaType,
+                                                        mediaType,
+                                                        content);
+        return handle(request);
+    }
+
+    private MockHttpServletResponse handle(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        requestProcessor.handleRequest(request, response);
+        return response;
+    }
+
+    private static byte[] bytes(MockHttpServletResponse response)
+        throws UnsupportedEncodingException {
+        check(response);
+        return response.getContentAsByteArray();
+    }
+
+    private static void check(MockHttpServletResponse response)
+        throws UnsupportedEncodingException {
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException("Unexpected response status " + response.getStatus()
+                + ": "
+                + response.getContentAsString());
+        }
+    }
+}
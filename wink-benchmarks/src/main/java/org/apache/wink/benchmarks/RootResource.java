@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.benchmarks;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.wink.common.AbstractDynamicResource;
+
+/**
+ * A root resource whose path is set at runtime, so that the application can
+ * register any number of distinct roots
+ */
+public class RootResource extends AbstractDynamicResource {
+
+    public RootResource(String path) {
+        setPath(path);
+    }
+
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    public String get() {
+        return getPath();
+    }
+
+    @GET
+    @Path("items/{id}")
+    @Produces( {MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Item getItem(@PathParam("id") String id) {
+        return new Item(id);
+    }
+
+    @POST
+    @Path("items")
+    @Consumes( {MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces( {MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Item postItem(Item item) {
+        return item;
+    }
+
+    @Path("sub/{id}")
+    public SubResource getSubResource(@PathParam("id") String id) {
+        return new SubResource(id);
+    }
+}
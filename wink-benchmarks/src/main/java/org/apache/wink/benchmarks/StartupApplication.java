@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.benchmarks;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.CookieParam;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.MatrixParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * An application of resource classes, registered by {@link StartupBenchmark}.
+ * Unlike the dynamic resources of {@link BenchmarkApplication}, resource
+ * classes can be initialized lazily.
+ * <p>
+ * The two classes are the usual shapes of a root resource: a collection with
+ * the create, read and delete methods of its items, and a resource with
+ * parameters of every kind and a sub-resource locator.
+ */
+public class StartupApplication extends Application {
+
+    @Override
+    public Set<Class<?>> getClasses() {
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        classes.add(ItemsResource.class);
+        classes.add(OrdersResource.class);
+        return classes;
+    }
+
+    @Path("items")
+    public static class ItemsResource {
+
+        @QueryParam("q")
+        private String query;
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String list(@QueryParam("start") @DefaultValue("0") int start) {
+            return "items";
+        }
+
+        @GET
+        @Path("{id}")
+        @Produces( {MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+        public Item get(@PathParam("id") long id) {
+            return new Item();
+        }
+
+        @POST
+        @Consumes( {MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+        public void create(Item item) {
+        }
+
+        @DELETE
+        @Path("{id}")
+        public void delete(@PathParam("id") long id, @HeaderParam("If-Match") String ifMatch) {
+        }
+    }
+
+    @Path("orders")
+    public static class OrdersResource {
+
+        @HeaderParam("Accept-Language")
+        private String language;
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String list(@MatrixParam("status") @DefaultValue("open") String status,
+                           @CookieParam("session") String session) {
+            return "orders";
+        }
+
+        @POST
+        @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
+        @Produces(MediaType.TEXT_PLAIN)
+        public String create(@FormParam("item") long item, @FormParam("quantity") int quantity) {
+            return "orders";
+        }
+
+        @PUT
+        @Path("{id}")
+        @Consumes( {MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+        public void update(@PathParam("id") long id, Item item) {
+        }
+
+        @Path("{id}/lines")
+        public SubResource getLines(@PathParam("id") String id) {
+            return new SubResource(id);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.benchmarks;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletContext;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.wink.server.internal.RequestProcessor;
+import org.apache.wink.server.internal.servlet.RestServlet;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.apache.wink.test.mock.ServletContextMock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.mock.web.MockServletContext;
+
+/**
+ * Benchmarks the deployment of the {@link StartupApplication} with eager and
+ * lazy initialization of the resource classes
+ * (<tt>wink.lazyResourceInitialization</tt>). {@link #deploy()} measures the
+ * time until the servlet is ready, {@link #deployAndFirstRequest()} adds the
+ * first request, which initializes one resource in the lazy mode.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    @Param( {"false", "true"})
+    public boolean lazy;
+
+    @Benchmark
+    public RestServlet deploy() throws Exception {
+        RestServlet servlet = createServlet();
+        servlet.init(new MockServletConfig(new ServletContextMock(new MockServletContext())));
+        servlet.destroy();
+        return servlet;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse deployAndFirstRequest() throws Exception {
+        RestServlet servlet = createServlet();
+        ServletContext servletContext = new ServletContextMock(new MockServletContext());
+        servlet.init(new MockServletConfig(servletContext));
+        try {
+            MockHttpServletRequest request =
+                MockRequestConstructor.constructMockRequest("GET",
+                                                            "/orders",
+                                                            MediaType.TEXT_PLAIN);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            RequestProcessor.getRequestProcessor(servletContext, null).handleRequest(request,
+                                                                                    response);
+            if (response.getStatus() != 200) {
+                throw new IllegalStateException("Unexpected response status " + response
+                    .getStatus());
+            }
+            return response;
+        } finally {
+            servlet.destroy();
+        }
+    }
+
+    private RestServlet createServlet() {
+        final Application application = new StartupApplication();
+        return new RestServlet() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected Application getApplication() {
+                return application;
+            }
+
+            @Override
+            protected Properties getProperties() throws IOException {
+                Properties properties = super.getProperties();
+                properties.setProperty("wink.lazyResourceInitialization", String.valueOf(lazy)); //$NON-NLS-1$
+                return properties;
+            }
+        };
+    }
+}
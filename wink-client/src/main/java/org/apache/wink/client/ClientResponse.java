@@ -112,6 +112,34 @@ public interface ClientResponse extends BaseRequestResponse {
      */
     public <T> T getEntity(EntityType<T> entityType);
 
+    /**
+     * Get the response entity as a lazy iterator over its elements.
+     * <p>
+     * The entity must be a collection, such as a JSON array or an XML element
+     * with repeated child elements. The elements are read one at a time by a
+     * provider that is able to read an {@link java.util.Iterator} of the
+     * element type, so the whole collection is never held in memory. The
+     * connection is released when the iterator is exhausted or closed.
+     * 
+     * @param <T> type of the collection elements
+     * @param cls class of the collection elements
+     * @return an iterator over the elements of the response entity
+     * @throws ClientRuntimeException if there are exceptions that the Wink client encounters
+     */
+    public <T> EntityIterator<T> getEntityIterator(Class<T> cls);
+
+    /**
+     * Get the response entity as a lazy iterator over its elements.
+     * 
+     * @param <T> type of the collection elements
+     * @param entityType an instance of {@link EntityType} specifying the type
+     *            of the collection elements
+     * @return an iterator over the elements of the response entity
+     * @throws ClientRuntimeException if there are exceptions that the Wink client encounters
+     * @see #getEntityIterator(Class)
+     */
+    public <T> EntityIterator<T> getEntityIterator(EntityType<T> entityType);
+
     /**
      * Set the response entity
      * 
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.client;
+
+import java.util.Iterator;
+
+/**
+ * An iterator over the elements of a response entity that are read lazily
+ * from the response stream. An EntityIterator is obtained from
+ * {@link ClientResponse#getEntityIterator(Class)}.
+ * <p>
+ * The underlying connection is released once the iterator is exhausted. If
+ * the iteration is stopped before the last element, {@link #close()} must be
+ * called to release it:
+ * 
+ * <pre>
+ * EntityIterator&lt;Item&gt; items = resource.get().getEntityIterator(Item.class);
+ * try {
+ *     while (items.hasNext()) {
+ *         process(items.next());
+ *     }
+ * } finally {
+ *     items.close();
+ * }
+ * </pre>
+ * 
+ * @param <T> the type of the elements
+ */
+public interface EntityIterator<T> extends Iterator<T> {
+
+    /**
+     * Stop the iteration and release the underlying connection. Calling this
+     * method multiple times will not cause an error.
+     */
+    public void close();
+}
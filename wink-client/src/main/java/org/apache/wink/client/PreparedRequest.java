@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.client;
+
+import java.util.Map;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * A request that was prepared once from a {@link Resource} and can be invoked
+ * any number of times with varying path and query values. The uri template is
+ * parsed, the headers and attributes are captured and the handler chain is
+ * resolved when the prepared request is created. The message body writer and
+ * reader used for the entities are resolved on the first invocation and
+ * reused by the following invocations as long as the entity class and media
+ * types stay the same.
+ * <p>
+ * Prepared requests are thread safe and are intended to be kept and reused
+ * across invocations:
+ * 
+ * <pre>
+ * Resource resource = client.resource(&quot;http://myhost:80/my/service&quot;);
+ * resource.accept(MediaType.APPLICATION_XML);
+ * PreparedRequest&lt;Item&gt; getItem = resource.prepare(&quot;GET&quot;, &quot;items/{id}&quot;, Item.class);
+ * for (String id : ids) {
+ *     Item item = getItem.invoke(null, id);
+ *     ...
+ * }
+ * </pre>
+ * 
+ * @param <T> the type of the response entity
+ */
+public interface PreparedRequest<T> {
+
+    /**
+     * Get the http request method of this prepared request
+     * 
+     * @return the http request method
+     */
+    String getMethod();
+
+    /**
+     * Get the uri template of this prepared request
+     * 
+     * @return the uri template
+     */
+    String getUriTemplate();
+
+    /**
+     * Invoke the prepared request. The path values are assigned to the
+     * template variables in the order in which the variables first appear in
+     * the uri template. If the response code represents an error code, then a
+     * {@link ClientWebException} is thrown, unless the response entity type is
+     * {@link ClientResponse}, in which case the response is returned.
+     * 
+     * @param requestEntity the request entity for methods that can send an
+     *            entity (PUT, POST), or null
+     * @param pathValues the values of the uri template variables
+     * @return an instance of the response entity as specified by the response
+     *         entity type
+     * @throws ClientWebException if the response code represents an error code
+     * @throws ClientRuntimeException if there are other exceptions that the
+     *             Wink client encounters
+     */
+    T invoke(Object requestEntity, Object... pathValues);
+
+    /**
+     * Invoke the prepared request. If the response code represents an error
+     * code, then a {@link ClientWebException} is thrown, unless the response
+     * entity type is {@link ClientResponse}, in which case the response is
+     * returned.
+     * 
+     * @param requestEntity the request entity for methods that can send an
+     *            entity (PUT, POST), or null
+     * @param pathValues map from uri template variable names to values
+     * @param queryParams query parameters to add to the uri of this
+     *            invocation, or null
+     * @return an instance of the response entity as specified by the response
+     *         entity type
+     * @throws ClientWebException if the response code represents an error code
+     * @throws ClientRuntimeException if there are other exceptions that the
+     *             Wink client encounters
+     */
+    T invoke(Object requestEntity,
+             Map<String, ? extends Object> pathValues,
+             MultivaluedMap<String, ? extends Object> queryParams);
+
+}
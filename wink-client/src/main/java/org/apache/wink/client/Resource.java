@@ -206,6 +206,37 @@ public interface Resource {
      */
     <T> T invoke(String method, EntityType<T> responseEntity, Object requestEntity);
 
+    /**
+     * Create a {@link PreparedRequest} for the uri associated with the
+     * resource, extended by the specified path template. The headers and
+     * attributes currently set on the resource are captured by the prepared
+     * request; later modifications to this resource do not affect it.
+     *
+     * @param <T> the type of response entity to return
+     * @param method the http request method
+     * @param path a uri template (e.g. <code>items/{id}</code>) to append to
+     *            the uri of this resource, or null to use the uri as is
+     * @param responseEntity the class of the response entity to return
+     * @return a new prepared request
+     */
+    <T> PreparedRequest<T> prepare(String method, String path, Class<T> responseEntity);
+
+    /**
+     * Create a {@link PreparedRequest} for the uri associated with the
+     * resource, extended by the specified path template. The headers and
+     * attributes currently set on the resource are captured by the prepared
+     * request; later modifications to this resource do not affect it.
+     *
+     * @param <T> the type of response entity to return
+     * @param method the http request method
+     * @param path a uri template (e.g. <code>items/{id}</code>) to append to
+     *            the uri of this resource, or null to use the uri as is
+     * @param responseEntity an instance of {@link EntityType} specifying the
+     *            response entity to return
+     * @return a new prepared request
+     */
+    <T> PreparedRequest<T> prepare(String method, String path, EntityType<T> responseEntity);
+
     /**
      * Invoke the HEAD method
      * 
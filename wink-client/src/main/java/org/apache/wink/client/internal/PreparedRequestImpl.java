@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.client.internal;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.wink.client.ClientConfig;
+import org.apache.wink.client.ClientResponse;
+import org.apache.wink.client.ClientWebException;
+import org.apache.wink.client.EntityType;
+import org.apache.wink.client.PreparedRequest;
+import org.apache.wink.client.handlers.ClientHandler;
+import org.apache.wink.client.internal.handlers.ClientRequestImpl;
+import org.apache.wink.client.internal.handlers.EntityProvidersCache;
+import org.apache.wink.common.internal.MultivaluedMapImpl;
+import org.apache.wink.common.internal.WinkConfiguration;
+import org.apache.wink.common.internal.i18n.Messages;
+import org.apache.wink.common.internal.registry.ProvidersRegistry;
+import org.apache.wink.common.internal.uri.UriEncoder;
+import org.apache.wink.common.internal.uritemplate.JaxRsUriTemplateProcessor;
+import org.apache.wink.common.internal.uritemplate.UriTemplateProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PreparedRequestImpl<T> implements PreparedRequest<T> {
+
+    private static final Logger                  logger =
+                                                            LoggerFactory.getLogger(PreparedRequestImpl.class);
+
+    private final String                         method;
+    private final UriTemplateProcessor           uriTemplate;
+    private final String[]                       variableNames;
+    private final boolean                        hasQuery;
+    private final Class<T>                       responseEntityClass;
+    private final EntityType<T>                  responseEntityType;
+    private final boolean                        returnsClientResponse;
+    private final MultivaluedMap<String, String> headers;
+    private final Map<String, Object>            attributes;
+    private final List<ClientHandler>            handlers;
+
+    public PreparedRequestImpl(String method,
+                               String uriTemplate,
+                               Class<T> responseEntityClass,
+                               EntityType<T> responseEntityType,
+                               MultivaluedMap<String, String> headers,
+                               Map<String, Object> attributes,
+                               ClientConfig config,
+                               ProvidersRegistry providersRegistry) {
+        this.method = method;
+        this.uriTemplate = new JaxRsUriTemplateProcessor(uriTemplate);
+        this.variableNames =
+            this.uriTemplate.getVariableNames()
+                .toArray(new String[this.uriTemplate.getVariableNames().size()]);
+        this.hasQuery = uriTemplate.indexOf('?') != -1;
+        this.responseEntityClass = responseEntityClass;
+        this.responseEntityType = responseEntityType;
+        this.returnsClientResponse =
+            ClientResponse.class.equals(responseEntityType != null ? responseEntityType
+                .getRawClass() : responseEntityClass);
+        this.headers = headers;
+        this.handlers = new ArrayList<ClientHandler>(config.getHandlers());
+
+        // the attributes that are copied to every request are assembled once
+        this.attributes = new HashMap<String, Object>(attributes);
+        this.attributes.put(ProvidersRegistry.class.getName(), providersRegistry);
+        this.attributes.put(WinkConfiguration.class.getName(), config);
+        this.attributes.put(ClientConfig.class.getName(), config); // legacy
+        this.attributes.put(EntityProvidersCache.class.getName(), new EntityProvidersCache());
+        if (responseEntityType != null) {
+            this.attributes.put(ClientRequestImpl.RESPONSE_ENTITY_GENERIC_TYPE, responseEntityType
+                .getType());
+            this.attributes.put(ClientRequestImpl.RESPONSE_ENTITY_CLASS_TYPE, responseEntityType
+                .getRawClass());
+        } else {
+            this.attributes.put(ClientRequestImpl.RESPONSE_ENTITY_GENERIC_TYPE,
+                                responseEntityClass);
+            this.attributes.put(ClientRequestImpl.RESPONSE_ENTITY_CLASS_TYPE, responseEntityClass);
+        }
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUriTemplate() {
+        return uriTemplate.getTemplate();
+    }
+
+    public T invoke(Object requestEntity, Object... pathValues) {
+        if (pathValues == null || pathValues.length < variableNames.length) {
+            throw new IllegalArgumentException(Messages.getMessage("missingVariable", "values")); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        MultivaluedMap<String, String> values = new MultivaluedMapImpl<String, String>();
+        for (int i = 0; i < variableNames.length; ++i) {
+            if (pathValues[i] == null) {
+                throw new IllegalArgumentException(Messages.getMessage("variableIsNull", //$NON-NLS-1$
+                                                                       variableNames[i]));
+            }
+            values.putSingle(variableNames[i], pathValues[i].toString());
+        }
+        return invoke(requestEntity, uriTemplate.expand(values), null);
+    }
+
+    public T invoke(Object requestEntity,
+                    Map<String, ? extends Object> pathValues,
+                    MultivaluedMap<String, ? extends Object> queryParams) {
+        String uri;
+        if (pathValues == null) {
+            uri = uriTemplate.expand((MultivaluedMap<String, String>)null);
+        } else {
+            uri = uriTemplate.expand(pathValues);
+        }
+        return invoke(requestEntity, uri, queryParams);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T invoke(Object requestEntity,
+                     String uri,
+                     MultivaluedMap<String, ? extends Object> queryParams) {
+        if (queryParams != null && !queryParams.isEmpty()) {
+            StringBuilder builder = new StringBuilder(uri);
+            char separator = hasQuery ? '&' : '?';
+            for (String name : queryParams.keySet()) {
+                String encodedName = UriEncoder.encodeQueryParam(name, false);
+                for (Object value : queryParams.get(name)) {
+                    builder.append(separator);
+                    builder.append(encodedName);
+                    if (value != null) {
+                        builder.append('=');
+                        builder.append(UriEncoder.encodeQueryParam(value.toString(), false));
+                    }
+                    separator = '&';
+                }
+            }
+            uri = builder.toString();
+        }
+
+        ClientRequestImpl request = new ClientRequestImpl();
+        request.setEntity(requestEntity);
+        request.setURI(URI.create(uri));
+        request.setMethod(method);
+        for (String name : headers.keySet()) {
+            request.getHeaders().put(name, new ArrayList<String>(headers.get(name)));
+        }
+        request.getAttributes().putAll(attributes);
+        if (logger.isTraceEnabled()) {
+            Integer requestEntityInfo =
+                (requestEntity == null) ? null : System.identityHashCode(requestEntity);
+            logger.trace(Messages.getMessage("clientIssueRequest", new Object[] {method, //$NON-NLS-1$
+                uri, requestEntityInfo, headers.keySet()}));
+        }
+
+        ClientResponse response;
+        try {
+            response = ResourceImpl.invoke(request, handlers);
+        } catch (ClientWebException e) {
+            if (returnsClientResponse) {
+                return (T)e.getResponse();
+            }
+            throw e;
+        }
+
+        if (returnsClientResponse) {
+            return (T)response;
+        }
+        if (responseEntityType != null) {
+            return response.getEntity(responseEntityType);
+        }
+        if (responseEntityClass == null) {
+            return null;
+        }
+        return response.getEntity(responseEntityClass);
+    }
+
+}
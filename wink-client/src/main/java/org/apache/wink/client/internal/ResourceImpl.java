@@ -22,7 +22,9 @@ package org.apache.wink.client.internal;
 
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -39,7 +41,9 @@ import org.apache.wink.client.ClientResponse;
 import org.apache.wink.client.ClientRuntimeException;
 import org.apache.wink.client.ClientWebException;
 import org.apache.wink.client.EntityType;
+import org.apache.wink.client.PreparedRequest;
 import org.apache.wink.client.Resource;
+import org.apache.wink.client.handlers.ClientHandler;
 import org.apache.wink.client.handlers.HandlerContext;
 import org.apache.wink.client.internal.handlers.ClientRequestImpl;
 import org.apache.wink.client.internal.handlers.HandlerContextImpl;
@@ -217,7 +221,15 @@ public class ResourceImpl implements Resource {
 
         ClientRequest request =
             createClientRequest(method, responseEntity, responseEntityType, requestEntity);
-        HandlerContext context = createHandlerContext();
+        return invoke(request, config.getHandlers());
+    }
+
+    /**
+     * Run the request through the given handlers chain, setting up the client
+     * runtime context for the duration of the invocation
+     */
+    static ClientResponse invoke(ClientRequest request, List<ClientHandler> handlers) {
+        HandlerContext context = new HandlerContextImpl(handlers);
 
         ProvidersRegistry providersRegistry = request.getAttribute(ProvidersRegistry.class);
         ClientRuntimeContext runtimeContext = new ClientRuntimeContext(providersRegistry);
@@ -274,9 +286,54 @@ public class ResourceImpl implements Resource {
         return request;
     }
 
-    private HandlerContext createHandlerContext() {
-        HandlerContext context = new HandlerContextImpl(config.getHandlers());
-        return context;
+    public <T> PreparedRequest<T> prepare(String method, String path, Class<T> responseEntity) {
+        return new PreparedRequestImpl<T>(method, createUriTemplate(path), responseEntity,
+                                          null, createPreparedHeaders(), attributes, config,
+                                          providersRegistry);
+    }
+
+    public <T> PreparedRequest<T> prepare(String method,
+                                          String path,
+                                          EntityType<T> responseEntity) {
+        return new PreparedRequestImpl<T>(method, createUriTemplate(path), null, responseEntity,
+                                          createPreparedHeaders(), attributes, config,
+                                          providersRegistry);
+    }
+
+    private String createUriTemplate(String path) {
+        String uri = uriBuilder.build().toString();
+        if (path == null || path.length() == 0) {
+            return uri;
+        }
+        int queryIndex = uri.indexOf('?');
+        String base = (queryIndex == -1) ? uri : uri.substring(0, queryIndex);
+        StringBuilder template = new StringBuilder(base);
+        boolean baseEndsWithSlash = base.endsWith("/"); //$NON-NLS-1$
+        boolean pathStartsWithSlash = path.startsWith("/"); //$NON-NLS-1$
+        if (baseEndsWithSlash && pathStartsWithSlash) {
+            template.append(path, 1, path.length());
+        } else {
+            if (!baseEndsWithSlash && !pathStartsWithSlash) {
+                template.append('/');
+            }
+            template.append(path);
+        }
+        if (queryIndex != -1) {
+            template.append(uri, queryIndex, uri.length());
+        }
+        return template.toString();
+    }
+
+    private MultivaluedMap<String, String> createPreparedHeaders() {
+        MultivaluedMap<String, String> preparedHeaders =
+            new CaseInsensitiveMultivaluedMap<String>();
+        for (String name : headers.keySet()) {
+            preparedHeaders.put(name, new ArrayList<String>(headers.get(name)));
+        }
+        if (preparedHeaders.getFirst(HttpHeaders.USER_AGENT) == null) {
+            preparedHeaders.add(HttpHeaders.USER_AGENT, USER_AGENT);
+        }
+        return preparedHeaders;
     }
 
     public ClientResponse head() {
@@ -89,30 +89,49 @@ public abstract class AbstractConnectionHandler implements ConnectionHandler {
             MessageBodyWriter writer = null;
             MediaType contentMediaType = null;
             String contentType = request.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE);
-            if (contentType == null) {
-                // attempt to infer the media type based on the providers
-                // available for this type
-                contentMediaType =
-                    providersRegistry
-                        .getMessageBodyWriterMediaTypeLimitByIsWritable(type, runtimeContext);
-                if (contentMediaType == null) {
-                    // default if we still couldn't find it
-                    contentType = MediaType.APPLICATION_OCTET_STREAM;
+            EntityProvidersCache providersCache =
+                request.getAttribute(EntityProvidersCache.class);
+            EntityProvidersCache.WriterEntry cached =
+                (providersCache == null) ? null : providersCache.getWriter(type,
+                                                                           genericType,
+                                                                           contentType);
+            if (cached != null) {
+                contentMediaType = cached.getMediaType();
+                writer = cached.getWriter();
+            } else {
+                String requestContentType = contentType;
+                if (contentType == null) {
+                    // attempt to infer the media type based on the providers
+                    // available for this type
+                    contentMediaType =
+                        providersRegistry
+                            .getMessageBodyWriterMediaTypeLimitByIsWritable(type, runtimeContext);
+                    if (contentMediaType == null) {
+                        // default if we still couldn't find it
+                        contentType = MediaType.APPLICATION_OCTET_STREAM;
+                    }
+                } else
+                    contentMediaType = MediaType.valueOf(contentType);
+                writer =
+                    providersRegistry.getMessageBodyWriter(type,
+                                                           genericType,
+                                                           null,
+                                                           contentMediaType,
+                                                           runtimeContext);
+                if (writer == null) {
+                    throw new RuntimeException(Messages.getMessage("clientNoWriterForTypeAndMediaType", //$NON-NLS-1$
+                                                                   String.valueOf(type),
+                                                                   contentType));
+                }
+                if (providersCache != null) {
+                    providersCache.putWriter(type,
+                                             genericType,
+                                             requestContentType,
+                                             contentMediaType,
+                                             writer);
                 }
-            } else
-                contentMediaType = MediaType.valueOf(contentType);
-            request.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, contentMediaType.toString());
-            writer =
-                providersRegistry.getMessageBodyWriter(type,
-                                                       genericType,
-                                                       null,
-                                                       contentMediaType,
-                                                       runtimeContext);
-            if (writer == null) {
-                throw new RuntimeException(Messages.getMessage("clientNoWriterForTypeAndMediaType", //$NON-NLS-1$
-                                                               String.valueOf(type),
-                                                               contentType));
             }
+            request.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, contentMediaType.toString());
             writer.writeTo(entity,
                            type,
                            genericType,
@@ -20,9 +20,15 @@
 
 package org.apache.wink.client.internal.handlers;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.HttpHeaders;
@@ -34,15 +40,20 @@ import javax.ws.rs.ext.MessageBodyReader;
 
 import org.apache.wink.client.ClientResponse;
 import org.apache.wink.client.ClientRuntimeException;
+import org.apache.wink.client.EntityIterator;
 import org.apache.wink.client.EntityType;
 import org.apache.wink.client.internal.ClientRuntimeContext;
 import org.apache.wink.common.RuntimeContext;
 import org.apache.wink.common.internal.i18n.Messages;
 import org.apache.wink.common.internal.registry.ProvidersRegistry;
 import org.apache.wink.common.internal.runtime.RuntimeContextTLS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ClientResponseImpl extends BaseRequestResponseImpl implements ClientResponse {
 
+    private static final Logger logger = LoggerFactory.getLogger(ClientResponseImpl.class);
+
     private Object   entity;
     private String   message;
     private int      status;
@@ -74,6 +85,46 @@ public class ClientResponseImpl extends BaseRequestResponseImpl implements Clien
                     type.getName()));
     }
 
+    public <T> EntityIterator<T> getEntityIterator(Class<T> type) {
+        return getEntityIterator(type, type);
+    }
+
+    public <T> EntityIterator<T> getEntityIterator(EntityType<T> entityType) {
+        return getEntityIterator(entityType.getRawClass(), entityType.getType());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> EntityIterator<T> getEntityIterator(Class<T> type, Type genericType) {
+        if (entity == null) {
+            return new EntityIteratorImpl<T>(Collections.EMPTY_LIST.iterator(), null);
+        }
+        if (!(entity instanceof InputStream)) {
+            throw new ClassCastException(Messages.getMessage("clientCannotConvertEntity", //$NON-NLS-1$
+                                                             entity.getClass().getName(),
+                                                             Iterator.class.getName()));
+        }
+        InputStream is = (InputStream)entity;
+        // the stream is owned by the iterator from now on
+        setEntity(null);
+        try {
+            Iterator<T> iterator =
+                readEntity(Iterator.class, new IteratorType(genericType), is, false);
+            return new EntityIteratorImpl<T>(iterator, is);
+        } catch (RuntimeException e) {
+            closeQuietly(is);
+            consumeContent();
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.trace(e.getMessage(), e);
+        }
+    }
+
     public String getMessage() {
         return message;
     }
@@ -94,8 +145,12 @@ public class ClientResponseImpl extends BaseRequestResponseImpl implements Clien
         this.status = code;
     }
 
-    @SuppressWarnings("unchecked")
     private <T> T readEntity(Class<T> type, Type genericType, InputStream is) {
+        return readEntity(type, genericType, is, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readEntity(Class<T> type, Type genericType, InputStream is, boolean consume) {
         if (type == null) {
             return null;
         }
@@ -111,17 +166,36 @@ public class ClientResponseImpl extends BaseRequestResponseImpl implements Clien
             if (contentType == null || contentType.length() == 0) {
                 contentType = MediaType.APPLICATION_OCTET_STREAM;
             }
-            MediaType contentMediaType = MediaType.valueOf(contentType);
-            MessageBodyReader<T> reader =
-                providersRegistry.getMessageBodyReader(type,
-                                                       genericType,
-                                                       null,
-                                                       contentMediaType,
-                                                       runtimeContext);
-            if (reader == null) {
-                throw new RuntimeException(Messages.getMessage("clientNoReaderForTypeAndMediaType", //$NON-NLS-1$
-                                                               String.valueOf(type),
-                                                               contentType));
+            MediaType contentMediaType;
+            MessageBodyReader<T> reader;
+            EntityProvidersCache providersCache = getAttribute(EntityProvidersCache.class);
+            EntityProvidersCache.ReaderEntry cached =
+                (providersCache == null) ? null : providersCache.getReader(type,
+                                                                           genericType,
+                                                                           contentType);
+            if (cached != null) {
+                contentMediaType = cached.getMediaType();
+                reader = (MessageBodyReader<T>)cached.getReader();
+            } else {
+                contentMediaType = MediaType.valueOf(contentType);
+                reader =
+                    providersRegistry.getMessageBodyReader(type,
+                                                           genericType,
+                                                           null,
+                                                           contentMediaType,
+                                                           runtimeContext);
+                if (reader == null) {
+                    throw new RuntimeException(Messages.getMessage("clientNoReaderForTypeAndMediaType", //$NON-NLS-1$
+                                                                   String.valueOf(type),
+                                                                   contentType));
+                }
+                if (providersCache != null) {
+                    providersCache.putReader(type,
+                                             genericType,
+                                             contentType,
+                                             contentMediaType,
+                                             reader);
+                }
             }
             T entity = reader.readFrom(type, genericType, null, contentMediaType, getHeaders(), is);
             return entity;
@@ -131,7 +205,9 @@ public class ClientResponseImpl extends BaseRequestResponseImpl implements Clien
             throw new ClientRuntimeException(e);
         } finally {
             RuntimeContextTLS.setRuntimeContext(saved);
-            consumeContent();
+            if (consume) {
+                consumeContent();
+            }
         }
     }
 
@@ -157,6 +233,105 @@ public class ClientResponseImpl extends BaseRequestResponseImpl implements Clien
         return statusType;
     }
 
+    private class EntityIteratorImpl<T> implements EntityIterator<T> {
+
+        private final Iterator<T> iterator;
+        private final InputStream is;
+        private boolean           closed;
+
+        EntityIteratorImpl(Iterator<T> iterator, InputStream is) {
+            this.iterator = iterator;
+            this.is = is;
+        }
+
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            try {
+                boolean hasNext = iterator.hasNext();
+                if (!hasNext) {
+                    close();
+                }
+                return hasNext;
+            } catch (WebApplicationException e) {
+                close();
+                throw new ClientRuntimeException(e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return iterator.next();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (iterator instanceof Closeable) {
+                closeQuietly((Closeable)iterator);
+            }
+            if (is != null) {
+                closeQuietly(is);
+                consumeContent();
+            }
+        }
+    }
+
+    /**
+     * The generic type <code>Iterator&lt;T&gt;</code> that is used to look up
+     * a reader for the elements of type T
+     */
+    private static class IteratorType implements ParameterizedType {
+
+        private final Type[] actualTypeArguments;
+
+        IteratorType(Type elementType) {
+            this.actualTypeArguments = new Type[] {elementType};
+        }
+
+        public Type[] getActualTypeArguments() {
+            return actualTypeArguments.clone();
+        }
+
+        public Type getOwnerType() {
+            return null;
+        }
+
+        public Type getRawType() {
+            return Iterator.class;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType other = (ParameterizedType)obj;
+            return other.getOwnerType() == null && Iterator.class.equals(other.getRawType())
+                && Arrays.equals(actualTypeArguments, other.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(actualTypeArguments) ^ Iterator.class.hashCode();
+        }
+    }
+
     static class ClientStatusType implements StatusType {
 
         final int    statusCode;
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.client.internal.handlers;
+
+import java.lang.reflect.Type;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+/**
+ * Holds the last message body writer and reader that were resolved for the
+ * requests of a prepared request, so that repeated invocations with the same
+ * entity types and media types do not need to go through the
+ * {@link org.apache.wink.common.internal.registry.ProvidersRegistry} again.
+ * <p>
+ * An instance is attached to a request as an attribute and is consulted by
+ * {@link AbstractConnectionHandler#writeEntity} and by
+ * {@link ClientResponseImpl} when reading the response entity.
+ */
+public class EntityProvidersCache {
+
+    private volatile WriterEntry writerEntry;
+    private volatile ReaderEntry readerEntry;
+
+    /**
+     * Get the cached writer for the given entity type and request
+     * Content-Type header
+     * 
+     * @return the cached entry, or null if there is no matching entry
+     */
+    public WriterEntry getWriter(Class<?> type, Type genericType, String contentType) {
+        WriterEntry entry = writerEntry;
+        if (entry != null && entry.matches(type, genericType, contentType)) {
+            return entry;
+        }
+        return null;
+    }
+
+    public void putWriter(Class<?> type,
+                          Type genericType,
+                          String contentType,
+                          MediaType mediaType,
+                          MessageBodyWriter<?> writer) {
+        writerEntry = new WriterEntry(type, genericType, contentType, mediaType, writer);
+    }
+
+    /**
+     * Get the cached reader for the given entity type and response
+     * Content-Type header
+     * 
+     * @return the cached entry, or null if there is no matching entry
+     */
+    public ReaderEntry getReader(Class<?> type, Type genericType, String contentType) {
+        ReaderEntry entry = readerEntry;
+        if (entry != null && entry.matches(type, genericType, contentType)) {
+            return entry;
+        }
+        return null;
+    }
+
+    public void putReader(Class<?> type,
+                          Type genericType,
+                          String contentType,
+                          MediaType mediaType,
+                          MessageBodyReader<?> reader) {
+        readerEntry = new ReaderEntry(type, genericType, contentType, mediaType, reader);
+    }
+
+    static abstract class Entry {
+
+        private final Class<?>  type;
+        private final Type      genericType;
+        private final String    contentType;
+        private final MediaType mediaType;
+
+        Entry(Class<?> type, Type genericType, String contentType, MediaType mediaType) {
+            this.type = type;
+            this.genericType = genericType;
+            this.contentType = contentType;
+            this.mediaType = mediaType;
+        }
+
+        boolean matches(Class<?> type, Type genericType, String contentType) {
+            if (this.type != type) {
+                return false;
+            }
+            if (this.genericType != genericType
+                && (this.genericType == null || !this.genericType.equals(genericType))) {
+                return false;
+            }
+            if (this.contentType == null) {
+                return contentType == null;
+            }
+            return this.contentType.equals(contentType);
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+
+    public static class WriterEntry extends Entry {
+
+        private final MessageBodyWriter<?> writer;
+
+        WriterEntry(Class<?> type,
+                    Type genericType,
+                    String contentType,
+                    MediaType mediaType,
+                    MessageBodyWriter<?> writer) {
+            super(type, genericType, contentType, mediaType);
+            this.writer = writer;
+        }
+
+        public MessageBodyWriter<?> getWriter() {
+            return writer;
+        }
+    }
+
+    public static class ReaderEntry extends Entry {
+
+        private final MessageBodyReader<?> reader;
+
+        ReaderEntry(Class<?> type,
+                    Type genericType,
+                    String contentType,
+                    MediaType mediaType,
+                    MessageBodyReader<?> reader) {
+            super(type, genericType, contentType, mediaType);
+            this.reader = reader;
+        }
+
+        public MessageBodyReader<?> getReader() {
+            return reader;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.text.MessageFormat;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -39,8 +40,11 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
 
 import org.apache.wink.client.MockHttpServer.MockHttpServerResponse;
+import org.apache.wink.common.internal.MultivaluedMapImpl;
 import org.apache.wink.common.utils.ProviderUtils;
 import org.apache.wink.logging.WinkLogHandler;
 
@@ -118,6 +122,12 @@ public class ClientTest extends BaseTest {
         }
     }
 
+    @XmlRootElement(name = "item")
+    public static class Item {
+        @XmlElement
+        public String name;
+    }
+
     private RestClient getRestClient() {
         return new RestClient(new ClientConfig().applications(new Application() {
             @Override
@@ -283,6 +293,93 @@ public class ClientTest extends BaseTest {
         assertEquals(RECEIVED_MESSAGE, tg.getT());
     }
 
+    public void testPreparedRequest() {
+        MockHttpServerResponse response1 = new MockHttpServerResponse();
+        response1.setMockResponseCode(200);
+        MockHttpServerResponse response2 = new MockHttpServerResponse();
+        response2.setMockResponseCode(200);
+        MockHttpServerResponse response3 = new MockHttpServerResponse();
+        response3.setMockResponseCode(404);
+        server.setMockHttpServerResponses(response1, response2, response3);
+        RestClient client = getRestClient();
+        Resource resource = client.resource(serviceURL).accept(MediaType.TEXT_PLAIN_TYPE);
+
+        PreparedRequest<String> prepared = resource.prepare("GET", "items/{id}", String.class);
+        assertEquals(serviceURL + "/items/{id}", prepared.getUriTemplate());
+        assertEquals(RECEIVED_MESSAGE, prepared.invoke(null, "a b"));
+        assertEquals("/some/service/items/a%20b", server.getRequestUrl());
+        assertEquals(MediaType.TEXT_PLAIN, server.getRequestHeaders().get("Accept").get(0));
+
+        // modifications to the resource do not affect the prepared request
+        resource.header("customHeader1", "abcd");
+        MultivaluedMap<String, Object> query = new MultivaluedMapImpl<String, Object>();
+        query.add("q", "x y");
+        query.add("q", 2);
+        assertEquals(RECEIVED_MESSAGE, prepared.invoke(null, Collections.singletonMap("id", 1),
+                                                       query));
+        assertEquals("/some/service/items/1?q=x+y&q=2", server.getRequestUrl());
+        assertNull(server.getRequestHeaders().get("customHeader1"));
+
+        // error responses are returned when the response type is ClientResponse
+        PreparedRequest<ClientResponse> preparedResponse =
+            resource.prepare("GET", "/items/{id}", ClientResponse.class);
+        assertEquals(404, preparedResponse.invoke(null, "2").getStatusCode());
+
+        try {
+            prepared.invoke(null);
+            fail("IllegalArgumentException must be thrown");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testPreparedRequestPost() throws IOException {
+        MockHttpServerResponse response1 = new MockHttpServerResponse();
+        response1.setMockResponseCode(200);
+        MockHttpServerResponse response2 = new MockHttpServerResponse();
+        response2.setMockResponseCode(200);
+        server.setMockHttpServerResponses(response1, response2);
+        RestClient client = getRestClient();
+        Resource resource = client.resource(serviceURL + "/").contentType("text/plain");
+        PreparedRequest<TestGenerics<String>> prepared =
+            resource.prepare("POST", null, new EntityType<TestGenerics<String>>() {
+            });
+
+        for (int i = 0; i < 2; ++i) {
+            TestGenerics<String> tg = prepared.invoke(SENT_MESSAGE + i);
+            assertEquals(RECEIVED_MESSAGE, tg.getT());
+            assertEquals(SENT_MESSAGE + i, server.getRequestContentAsString());
+            assertEquals("POST", server.getRequestMethod());
+        }
+    }
+
+    public void testEntityIterator() {
+        MockHttpServerResponse response1 = new MockHttpServerResponse();
+        response1.setMockResponseCode(200);
+        response1.setMockResponseContentType(MediaType.APPLICATION_XML);
+        response1
+            .setMockResponseContent("<items><item><name>a</name></item><item><name>b</name></item></items>");
+        MockHttpServerResponse response2 = new MockHttpServerResponse();
+        response2.setMockResponseCode(200);
+        response2.setMockResponseContentType(MediaType.APPLICATION_XML);
+        response2.setMockResponseContent("<items><item><name>c</name></item></items>");
+        server.setMockHttpServerResponses(response1, response2);
+        RestClient client = getRestClient();
+        Resource resource = client.resource(serviceURL);
+
+        EntityIterator<Item> iterator = resource.get().getEntityIterator(Item.class);
+        assertTrue(iterator.hasNext());
+        assertEquals("a", iterator.next().name);
+        assertEquals("b", iterator.next().name);
+        assertFalse(iterator.hasNext());
+        iterator.close();
+
+        // close before the end of the entity
+        iterator = resource.get().getEntityIterator(Item.class);
+        assertEquals("c", iterator.next().name);
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
     public void testHttpErrorNoResponse() throws IOException {
         server.getMockHttpServerResponses().get(0).setMockResponseCode(400);
         RestClient client = getRestClient();
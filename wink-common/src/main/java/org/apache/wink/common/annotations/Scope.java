@@ -36,6 +36,15 @@ public @interface Scope {
     ScopeType value();
 
     public enum ScopeType {
-        SINGLETON, PROTOTYPE;
+        SINGLETON, PROTOTYPE,
+        /**
+         * Like PROTOTYPE, but the resource instances are reused by later
+         * requests after the response is written. All the fields and
+         * properties that are injected are injected again for each request,
+         * so a pooled resource must not keep other per-request state, and
+         * its constructor must not have parameters. Providers are not
+         * released per request, so a pooled provider behaves as PROTOTYPE.
+         */
+        POOLED;
     }
 }
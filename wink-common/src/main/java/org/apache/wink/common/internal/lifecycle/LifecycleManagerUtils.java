@@ -67,6 +67,18 @@ public class LifecycleManagerUtils {
         return new PrototypeObjectFactory<T>(classMetadata);
     }
 
+    public static <T> ObjectFactory<T> createPooledObjectFactory(final Class<T> cls) {
+        ClassMetadata classMetadata = collectClassMetadata(cls, true);
+        if (!classMetadata.getConstructor().getFormalParameters().isEmpty()) {
+            // the constructor parameters cannot be injected again
+            if (logger.isWarnEnabled()) {
+                logger.warn(Messages.getMessage("pooledScopeIgnored", cls.getName())); //$NON-NLS-1$
+            }
+            return new PrototypeObjectFactory<T>(classMetadata);
+        }
+        return new PooledObjectFactory<T>(classMetadata);
+    }
+
     protected static <T> ClassMetadata collectClassMetadata(final Class<T> cls,
                                                           boolean validateConstructor) {
         ClassMetadata classMetadata = null;
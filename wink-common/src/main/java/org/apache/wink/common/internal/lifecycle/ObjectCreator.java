@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.lifecycle;
+
+import java.io.IOException;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.List;
+
+import org.apache.wink.common.RuntimeContext;
+import org.apache.wink.common.internal.registry.Injectable;
+import org.apache.wink.common.internal.registry.InjectableFactory;
+import org.apache.wink.common.internal.registry.metadata.ClassMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the instances of a class and injects their fields and properties.
+ * Unlike {@link CreationUtils}, the injected members are made accessible once
+ * when the creator is built, so that creating an instance does not run a
+ * privileged action and allocate per injected member. After a number of
+ * invocations the JVM replaces the reflective accessors of the members with
+ * generated bytecode.
+ */
+class ObjectCreator {
+
+    private static final Logger    logger = LoggerFactory.getLogger(ObjectCreator.class);
+
+    private final Constructor<?>   constructor;
+    private final List<Injectable> constructorParameters;
+    private final Injectable[]     injectables;
+    // for each injectable, either the field or the setter method
+    private final Field[]          fields;
+    private final Method[]         methods;
+
+    private ObjectCreator(ClassMetadata metadata) {
+        constructor = metadata.getConstructor().getConstructor();
+        constructorParameters = metadata.getConstructor().getFormalParameters();
+        List<Injectable> injectableFields = metadata.getInjectableFields();
+        injectables = injectableFields.toArray(new Injectable[injectableFields.size()]);
+        fields = new Field[injectables.length];
+        methods = new Method[injectables.length];
+        for (int i = 0; i < injectables.length; ++i) {
+            Member member = injectables[i].getMember();
+            if (member instanceof Field) {
+                fields[i] = (Field)member;
+                makeAccessible(fields[i], member);
+            } else if (member instanceof Method) {
+                methods[i] = (Method)member;
+                makeAccessible(methods[i], member);
+            } else {
+                throw new IllegalArgumentException(String.valueOf(member));
+            }
+        }
+    }
+
+    /**
+     * @return the creator of the instances of the class, or null if the
+     *         members of the class cannot be made accessible
+     */
+    static ObjectCreator newInstance(final ClassMetadata metadata) {
+        try {
+            return AccessController.doPrivileged(new PrivilegedAction<ObjectCreator>() {
+                public ObjectCreator run() {
+                    return new ObjectCreator(metadata);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.trace("Using CreationUtils to create the instances of {}", metadata, e); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    private static void makeAccessible(AccessibleObject object, Member member) {
+        if (!Modifier.isPublic(member.getModifiers()) || !Modifier.isPublic(member
+            .getDeclaringClass().getModifiers())) {
+            object.setAccessible(true);
+        }
+    }
+
+    Object createObject(RuntimeContext runtimeContext) {
+        try {
+            Object[] params =
+                InjectableFactory.getInstance().instantiate(constructorParameters, runtimeContext);
+            Object object = constructor.newInstance(params);
+            inject(object, runtimeContext);
+            return object;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InvocationTargetException e) {
+            throw wrap(e);
+        } catch (Exception e) {
+            throw new ObjectCreationException(e);
+        }
+    }
+
+    void injectFields(Object object, RuntimeContext runtimeContext) {
+        try {
+            inject(object, runtimeContext);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InvocationTargetException e) {
+            throw wrap(e);
+        } catch (Exception e) {
+            throw new ObjectCreationException(e);
+        }
+    }
+
+    private void inject(Object object, RuntimeContext runtimeContext) throws IOException,
+        IllegalAccessException, InvocationTargetException {
+        for (int i = 0; i < injectables.length; ++i) {
+            Object value = injectables[i].getValue(runtimeContext);
+            if (fields[i] != null) {
+                fields[i].set(object, value);
+            } else {
+                methods[i].invoke(object, value);
+            }
+        }
+    }
+
+    private static RuntimeException wrap(InvocationTargetException e) {
+        Throwable targetException = e.getTargetException();
+        if (targetException instanceof RuntimeException) {
+            return (RuntimeException)targetException;
+        }
+        return new ObjectCreationException(targetException);
+    }
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.lifecycle;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.wink.common.RuntimeContext;
+import org.apache.wink.common.internal.registry.metadata.ClassMetadata;
+
+/**
+ * Implements ObjectFactory that reuses the objects that were released instead
+ * of creating a new object for each call. The fields and properties of a
+ * reused object are injected again with the values of the current request.
+ * Objects that are released while the pool is full are discarded.
+ * 
+ * @param <T>
+ */
+class PooledObjectFactory<T> extends PrototypeObjectFactory<T> {
+
+    private static final int    MAX_IDLE = 4 * Runtime.getRuntime().availableProcessors();
+
+    private final Queue<T>      pool     = new ConcurrentLinkedQueue<T>();
+    private final AtomicInteger idle     = new AtomicInteger();
+    private final int           maxIdle;
+
+    public PooledObjectFactory(ClassMetadata metadata) {
+        this(metadata, MAX_IDLE);
+    }
+
+    PooledObjectFactory(ClassMetadata metadata, int maxIdle) {
+        super(metadata);
+        this.maxIdle = maxIdle;
+    }
+
+    @Override
+    public T getInstance(RuntimeContext context) {
+        T instance = pool.poll();
+        if (instance == null) {
+            return super.getInstance(context);
+        }
+        idle.decrementAndGet();
+        injectFields(instance, context);
+        return instance;
+    }
+
+    @Override
+    public void releaseInstance(T instance, RuntimeContext context) {
+        if (instance == null) {
+            return;
+        }
+        if (idle.incrementAndGet() > maxIdle) {
+            idle.decrementAndGet();
+            return;
+        }
+        pool.offer(instance);
+    }
+
+    @Override
+    public void releaseAll(RuntimeContext context) {
+        while (pool.poll() != null) {
+            idle.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of released objects waiting to be reused
+     */
+    int getIdleCount() {
+        return idle.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ClassMetadataPooledOF %s", getInstanceClass()); //$NON-NLS-1$
+    }
+}
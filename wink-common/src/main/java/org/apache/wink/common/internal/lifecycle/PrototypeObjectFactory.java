@@ -32,19 +32,42 @@ import org.apache.wink.common.internal.registry.metadata.ClassMetadata;
 class PrototypeObjectFactory<T> implements ObjectFactory<T> {
 
     private final ClassMetadata metadata;
+    private final ObjectCreator creator;
 
     public PrototypeObjectFactory(ClassMetadata metadata) {
         this.metadata = metadata;
         if (metadata == null) {
             throw new NullPointerException(Messages.getMessage("variableIsNull", "metadata")); //$NON-NLS-1$ //$NON-NLS-2$
         }
+        this.creator = ObjectCreator.newInstance(metadata);
     }
 
     @SuppressWarnings("unchecked")
     public T getInstance(RuntimeContext context) {
+        if (creator != null) {
+            return (T)creator.createObject(context);
+        }
         return (T)CreationUtils.createObject(metadata, context);
     }
 
+    /**
+     * Inject the fields and properties of an instance created by this factory
+     * again, with the values of the specified context
+     */
+    void injectFields(T instance, RuntimeContext context) {
+        if (creator != null) {
+            creator.injectFields(instance, context);
+            return;
+        }
+        try {
+            CreationUtils.injectFields(instance, metadata, context);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ObjectCreationException(e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public Class<T> getInstanceClass() {
         return (Class<T>)metadata.getResourceClass();
@@ -47,6 +47,8 @@ public class ScopeLifecycleManager<T> implements LifecycleManager<T> {
             } else if (scope.value() == ScopeType.PROTOTYPE) {
                 // It's a prototype
                 return LifecycleManagerUtils.createPrototypeObjectFactory(cls);
+            } else if (scope.value() == ScopeType.POOLED) {
+                return LifecycleManagerUtils.createPooledObjectFactory(cls);
             }
         }
         // has no Scope annotation, do nothing
@@ -65,6 +67,8 @@ public class ScopeLifecycleManager<T> implements LifecycleManager<T> {
                 return LifecycleManagerUtils.createSingletonObjectFactory(cls);
             } else if (scope.value() == ScopeType.PROTOTYPE) {
                 return LifecycleManagerUtils.createPrototypeObjectFactory(cls);
+            } else if (scope.value() == ScopeType.POOLED) {
+                return LifecycleManagerUtils.createPooledObjectFactory(cls);
             }
         }
         // has no Scope annotation, do nothing
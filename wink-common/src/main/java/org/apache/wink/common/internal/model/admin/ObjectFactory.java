@@ -99,6 +99,27 @@ public class ObjectFactory {
         return new Methods();
     }
 
+    /**
+     * Create an instance of {@link Timings }
+     */
+    public Timings createTimings() {
+        return new Timings();
+    }
+
+    /**
+     * Create an instance of {@link Timings.Method }
+     */
+    public Timings.Method createTimingsMethod() {
+        return new Timings.Method();
+    }
+
+    /**
+     * Create an instance of {@link Timings.Method.Phase }
+     */
+    public Timings.Method.Phase createTimingsMethodPhase() {
+        return new Timings.Method.Phase();
+    }
+
     /**
      * Create an instance of {@link Parameter }
      */
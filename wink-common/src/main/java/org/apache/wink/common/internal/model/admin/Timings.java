@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.model.admin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+
+/**
+ * <p>
+ * Java class for anonymous complex type.
+ * <p>
+ * The following schema fragment specifies the expected content contained within
+ * this class.
+ * 
+ * <pre>
+ * &lt;complexType&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;restriction base=&quot;{http://www.w3.org/2001/XMLSchema}anyType&quot;&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element name=&quot;method&quot; maxOccurs=&quot;unbounded&quot; minOccurs=&quot;0&quot;&gt;
+ *           &lt;complexType&gt;
+ *             &lt;complexContent&gt;
+ *               &lt;restriction base=&quot;{http://www.w3.org/2001/XMLSchema}anyType&quot;&gt;
+ *                 &lt;sequence&gt;
+ *                   &lt;element name=&quot;name&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}string&quot;/&gt;
+ *                   &lt;element name=&quot;phase&quot; maxOccurs=&quot;unbounded&quot; minOccurs=&quot;0&quot;&gt;
+ *                     &lt;complexType&gt;
+ *                       &lt;complexContent&gt;
+ *                         &lt;restriction base=&quot;{http://www.w3.org/2001/XMLSchema}anyType&quot;&gt;
+ *                           &lt;sequence&gt;
+ *                             &lt;element name=&quot;name&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}string&quot;/&gt;
+ *                             &lt;element name=&quot;count&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}long&quot;/&gt;
+ *                             &lt;element name=&quot;mean-nanos&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}long&quot;/&gt;
+ *                             &lt;element name=&quot;p50-nanos&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}long&quot;/&gt;
+ *                             &lt;element name=&quot;p90-nanos&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}long&quot;/&gt;
+ *                             &lt;element name=&quot;p99-nanos&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}long&quot;/&gt;
+ *                             &lt;element name=&quot;max-nanos&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}long&quot;/&gt;
+ *                           &lt;/sequence&gt;
+ *                         &lt;/restriction&gt;
+ *                       &lt;/complexContent&gt;
+ *                     &lt;/complexType&gt;
+ *                   &lt;/element&gt;
+ *                 &lt;/sequence&gt;
+ *               &lt;/restriction&gt;
+ *             &lt;/complexContent&gt;
+ *           &lt;/complexType&gt;
+ *         &lt;/element&gt;
+ *       &lt;/sequence&gt;
+ *     &lt;/restriction&gt;
+ *   &lt;/complexContent&gt;
+ * &lt;/complexType&gt;
+ * </pre>
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "", propOrder = {"method"})
+@XmlRootElement(name = "timings")
+public class Timings {
+
+    protected List<Timings.Method> method;
+
+    /**
+     * Gets the value of the method property.
+     * <p>
+     * This accessor method returns a reference to the live list, not a
+     * snapshot. Therefore any modification you make to the returned list will
+     * be present inside the JAXB object. This is why there is not a
+     * <CODE>set</CODE> method for the method property.
+     * <p>
+     * Objects of the following type(s) are allowed in the list
+     * {@link Timings.Method }
+     */
+    public List<Timings.Method> getMethod() {
+        if (method == null) {
+            method = new ArrayList<Timings.Method>();
+        }
+        return this.method;
+    }
+
+    /**
+     * <p>
+     * Java class for anonymous complex type: the timings of the requests
+     * dispatched to a single resource method.
+     */
+    @XmlAccessorType(XmlAccessType.FIELD)
+    @XmlType(name = "", propOrder = {"name", "phase"})
+    public static class Method {
+
+        @XmlElement(required = true)
+        protected String                     name;
+        protected List<Timings.Method.Phase> phase;
+
+        /**
+         * Gets the value of the name property.
+         * 
+         * @return possible object is {@link String }
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Sets the value of the name property.
+         * 
+         * @param value allowed object is {@link String }
+         */
+        public void setName(String value) {
+            this.name = value;
+        }
+
+        /**
+         * Gets the value of the phase property.
+         * <p>
+         * This accessor method returns a reference to the live list, not a
+         * snapshot.
+         * <p>
+         * Objects of the following type(s) are allowed in the list
+         * {@link Timings.Method.Phase }
+         */
+        public List<Timings.Method.Phase> getPhase() {
+            if (phase == null) {
+                phase = new ArrayList<Timings.Method.Phase>();
+            }
+            return this.phase;
+        }
+
+        /**
+         * <p>
+         * Java class for anonymous complex type: the durations of a request
+         * phase, in nanoseconds.
+         */
+        @XmlAccessorType(XmlAccessType.FIELD)
+        @XmlType(name = "", propOrder = {"name", "count", "meanNanos", "p50Nanos", "p90Nanos",
+            "p99Nanos", "maxNanos"})
+        public static class Phase {
+
+            @XmlElement(required = true)
+            protected String name;
+            protected long   count;
+            @XmlElement(name = "mean-nanos")
+            protected long   meanNanos;
+            @XmlElement(name = "p50-nanos")
+            protected long   p50Nanos;
+            @XmlElement(name = "p90-nanos")
+            protected long   p90Nanos;
+            @XmlElement(name = "p99-nanos")
+            protected long   p99Nanos;
+            @XmlElement(name = "max-nanos")
+            protected long   maxNanos;
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String value) {
+                this.name = value;
+            }
+
+            public long getCount() {
+                return count;
+            }
+
+            public void setCount(long value) {
+                this.count = value;
+            }
+
+            public long getMeanNanos() {
+                return meanNanos;
+            }
+
+            public void setMeanNanos(long value) {
+                this.meanNanos = value;
+            }
+
+            public long getP50Nanos() {
+                return p50Nanos;
+            }
+
+            public void setP50Nanos(long value) {
+                this.p50Nanos = value;
+            }
+
+            public long getP90Nanos() {
+                return p90Nanos;
+            }
+
+            public void setP90Nanos(long value) {
+                this.p90Nanos = value;
+            }
+
+            public long getP99Nanos() {
+                return p99Nanos;
+            }
+
+            public void setP99Nanos(long value) {
+                this.p99Nanos = value;
+            }
+
+            public long getMaxNanos() {
+                return maxNanos;
+            }
+
+            public void setMaxNanos(long value) {
+                this.maxNanos = value;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.providers.entity.atom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
+
+import org.apache.wink.common.model.atom.AtomEntry;
+import org.apache.wink.common.model.atom.AtomFeedStream;
+
+/**
+ * Reads the entries of an Atom feed as an <code>Iterator&lt;AtomEntry&gt;</code>
+ * by reading the feed as an {@link AtomFeedStream}. The header of the feed is
+ * dropped. Calling <code>close()</code> on the iterator releases the entity
+ * stream before all the entries are read.
+ */
+@Provider
+@Consumes(MediaType.APPLICATION_ATOM_XML)
+public class AtomEntryIteratorProvider implements MessageBodyReader<Iterator<?>> {
+
+    @Context
+    private Providers providers;
+
+    public boolean isReadable(Class<?> type,
+                              Type genericType,
+                              Annotation[] annotations,
+                              MediaType mediaType) {
+        if (type != Iterator.class || !(genericType instanceof ParameterizedType)) {
+            return false;
+        }
+        Type[] arguments = ((ParameterizedType)genericType).getActualTypeArguments();
+        return arguments.length == 1 && arguments[0] == AtomEntry.class;
+    }
+
+    public Iterator<?> readFrom(Class<Iterator<?>> type,
+                                Type genericType,
+                                Annotation[] annotations,
+                                MediaType mediaType,
+                                MultivaluedMap<String, String> httpHeaders,
+                                InputStream entityStream) throws IOException,
+        WebApplicationException {
+        MessageBodyReader<AtomFeedStream> reader =
+            providers.getMessageBodyReader(AtomFeedStream.class,
+                                           AtomFeedStream.class,
+                                           annotations,
+                                           mediaType);
+        AtomFeedStream feed =
+            reader.readFrom(AtomFeedStream.class,
+                            AtomFeedStream.class,
+                            annotations,
+                            mediaType,
+                            httpHeaders,
+                            entityStream);
+        return feed.getEntries();
+    }
+}
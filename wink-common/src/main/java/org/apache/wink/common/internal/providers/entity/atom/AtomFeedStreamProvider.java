@@ -0,0 +1,547 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.providers.entity.atom;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.wink.common.RestConstants;
+import org.apache.wink.common.RuntimeContext;
+import org.apache.wink.common.internal.i18n.Messages;
+import org.apache.wink.common.internal.providers.entity.xml.AbstractJAXBProvider;
+import org.apache.wink.common.internal.runtime.RuntimeContextTLS;
+import org.apache.wink.common.internal.utils.MediaTypeUtils;
+import org.apache.wink.common.model.atom.AtomContent;
+import org.apache.wink.common.model.atom.AtomEntry;
+import org.apache.wink.common.model.atom.AtomFeed;
+import org.apache.wink.common.model.atom.AtomFeedStream;
+import org.apache.wink.common.model.atom.ObjectFactory;
+import org.apache.wink.common.utils.ProviderUtils;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Writes and reads an {@link AtomFeedStream} as an Atom feed document,
+ * without holding all the entries in memory.
+ * <p>
+ * The header of the feed is marshalled first, leaving the feed element open,
+ * then each entry is marshalled with the same Marshaller as the iterator of
+ * the feed produces it, and the entity stream is flushed every
+ * {@link AtomFeedStream#getFlushInterval()} entries.
+ * <p>
+ * When reading, the elements that precede the first entry are unmarshalled
+ * into the header, and the entries are unmarshalled one at a time as the
+ * iterator is advanced. An Atom feed can also be read as an
+ * <code>Iterator&lt;AtomEntry&gt;</code>, which is what the client uses to
+ * iterate over the entries of a feed response.
+ */
+@Provider
+@Consumes(MediaType.APPLICATION_ATOM_XML)
+@Produces(MediaType.APPLICATION_ATOM_XML)
+public class AtomFeedStreamProvider extends AbstractJAXBProvider implements
+    MessageBodyReader<AtomFeedStream>, MessageBodyWriter<AtomFeedStream> {
+
+    private static final String           FEED              = "feed";                   //$NON-NLS-1$
+    private static final String           ENTRY             = "entry";                  //$NON-NLS-1$
+    private static final XMLOutputFactory xmlOutputFactory  = XMLOutputFactory.newInstance();
+    private static final ObjectFactory    objectFactory     = new ObjectFactory();
+
+    public boolean isReadable(Class<?> type,
+                              Type genericType,
+                              Annotation[] annotations,
+                              MediaType mediaType) {
+        return type == AtomFeedStream.class;
+    }
+
+    public AtomFeedStream readFrom(Class<AtomFeedStream> type,
+                                   Type genericType,
+                                   Annotation[] annotations,
+                                   MediaType mediaType,
+                                   MultivaluedMap<String, String> httpHeaders,
+                                   InputStream entityStream) throws IOException, WebApplicationException {
+        XMLStreamReader xsr = null;
+        JAXBContext context = null;
+        Unmarshaller unmarshaller = null;
+        EntryIterator entries = null;
+        try {
+            xsr = getXMLStreamReader(entityStream);
+            context = getContext(AtomFeed.class, mediaType);
+            unmarshaller = getJAXBUnmarshaller(AtomFeed.class, context, mediaType);
+            AtomFeed header = readHeader(xsr, unmarshaller);
+            // the providers are needed to read the content of the entries
+            // after the runtime context is gone
+            RuntimeContext runtimeContext = RuntimeContextTLS.getRuntimeContext();
+            Providers contentProviders =
+                (runtimeContext != null) ? runtimeContext.getAttribute(Providers.class) : null;
+            entries = new EntryIterator(xsr, context, unmarshaller, contentProviders);
+            return new AtomFeedStream(header, entries);
+        } catch (XMLStreamException e) {
+            logger.error(Messages.getMessage("jaxbFailToUnmarshal", type.getName()), e); //$NON-NLS-1$
+            throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+        } catch (JAXBException e) {
+            // the unmarshaller may be in an invalid state
+            unmarshaller = null;
+            logger.error(Messages.getMessage("jaxbFailToUnmarshal", type.getName()), e); //$NON-NLS-1$
+            throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+        } finally {
+            // once created, the iterator closes the reader and releases the
+            // unmarshaller
+            if (entries == null) {
+                closeXMLStreamReader(xsr);
+                if (unmarshaller != null) {
+                    releaseJAXBUnmarshaller(context, unmarshaller);
+                }
+            }
+        }
+    }
+
+    /**
+     * Unmarshal the elements of the feed that precede the first entry. The
+     * elements are copied to a small document that is unmarshalled as a feed.
+     * On return, the reader is positioned on the start of the first entry or
+     * on the end of the feed.
+     */
+    private static AtomFeed readHeader(XMLStreamReader xsr, Unmarshaller unmarshaller)
+        throws XMLStreamException, JAXBException {
+        // the reader is already past the prolog after checking for a DTD
+        if (xsr.getEventType() != XMLStreamConstants.START_ELEMENT) {
+            xsr.nextTag();
+        }
+        if (!isAtomElement(xsr, FEED)) {
+            throw new WebApplicationException(Response.Status.BAD_REQUEST);
+        }
+        StringWriter buffer = new StringWriter();
+        XMLStreamWriter xsw = xmlOutputFactory.createXMLStreamWriter(buffer);
+        copyStartElement(xsr, xsw);
+        int event = xsr.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (isAtomElement(xsr, ENTRY)) {
+                    break;
+                }
+                copyElement(xsr, xsw);
+            }
+            event = xsr.next();
+        }
+        xsw.writeEndElement();
+        xsw.writeEndDocument();
+        xsw.close();
+        return unmarshaller.unmarshal(new StreamSource(new StringReader(buffer.toString())),
+                                      AtomFeed.class).getValue();
+    }
+
+    private static boolean isAtomElement(XMLStreamReader xsr, String localName) {
+        return localName.equals(xsr.getLocalName())
+            && RestConstants.NAMESPACE_ATOM.equals(xsr.getNamespaceURI());
+    }
+
+    private static void copyStartElement(XMLStreamReader xsr, XMLStreamWriter xsw)
+        throws XMLStreamException {
+        String prefix = xsr.getPrefix();
+        String namespace = xsr.getNamespaceURI();
+        xsw.writeStartElement(prefix != null ? prefix : "", //$NON-NLS-1$
+                              xsr.getLocalName(),
+                              namespace != null ? namespace : ""); //$NON-NLS-1$
+        for (int i = 0; i < xsr.getNamespaceCount(); ++i) {
+            String nsPrefix = xsr.getNamespacePrefix(i);
+            if (nsPrefix == null || nsPrefix.length() == 0) {
+                xsw.writeDefaultNamespace(xsr.getNamespaceURI(i));
+            } else {
+                xsw.writeNamespace(nsPrefix, xsr.getNamespaceURI(i));
+            }
+        }
+        for (int i = 0; i < xsr.getAttributeCount(); ++i) {
+            String attributeNamespace = xsr.getAttributeNamespace(i);
+            if (attributeNamespace == null || attributeNamespace.length() == 0) {
+                xsw.writeAttribute(xsr.getAttributeLocalName(i), xsr.getAttributeValue(i));
+            } else {
+                xsw.writeAttribute(xsr.getAttributePrefix(i),
+                                   attributeNamespace,
+                                   xsr.getAttributeLocalName(i),
+                                   xsr.getAttributeValue(i));
+            }
+        }
+    }
+
+    /**
+     * Copy the element the reader is positioned on, leaving the reader on the
+     * end of the element
+     */
+    private static void copyElement(XMLStreamReader xsr, XMLStreamWriter xsw)
+        throws XMLStreamException {
+        int depth = 0;
+        do {
+            switch (xsr.getEventType()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    copyStartElement(xsr, xsw);
+                    ++depth;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    xsw.writeEndElement();
+                    --depth;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    xsw.writeCharacters(xsr.getTextCharacters(),
+                                        xsr.getTextStart(),
+                                        xsr.getTextLength());
+                    break;
+                case XMLStreamConstants.CDATA:
+                    xsw.writeCData(xsr.getText());
+                    break;
+                default:
+                    // comments and processing instructions are not needed
+                    break;
+            }
+        } while (depth > 0 && xsr.next() != XMLStreamConstants.END_DOCUMENT);
+    }
+
+    private class EntryIterator implements Iterator<AtomEntry>, Closeable {
+
+        private final XMLStreamReader xsr;
+        private final JAXBContext     context;
+        private final Providers       contentProviders;
+        private Unmarshaller          unmarshaller;
+        private AtomEntry             next;
+
+        EntryIterator(XMLStreamReader xsr,
+                      JAXBContext context,
+                      Unmarshaller unmarshaller,
+                      Providers contentProviders) {
+            this.xsr = xsr;
+            this.context = context;
+            this.unmarshaller = unmarshaller;
+            this.contentProviders = contentProviders;
+        }
+
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (unmarshaller == null) {
+                return false;
+            }
+            try {
+                int event = xsr.getEventType();
+                while (event != XMLStreamConstants.END_ELEMENT
+                    && event != XMLStreamConstants.END_DOCUMENT) {
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        if (isAtomElement(xsr, ENTRY)) {
+                            // leaves the reader after the end of the entry
+                            next = unmarshaller.unmarshal(xsr, AtomEntry.class).getValue();
+                            AtomContent content = next.getContent();
+                            if (content != null && contentProviders != null) {
+                                content.setProviders(contentProviders);
+                            }
+                            return true;
+                        }
+                        // elements of the feed that follow the entries are
+                        // skipped
+                        skipElement(xsr);
+                    }
+                    event = xsr.next();
+                }
+                close();
+                return false;
+            } catch (XMLStreamException e) {
+                close();
+                logger.error(Messages.getMessage("jaxbFailToUnmarshal", AtomEntry.class.getName()), e); //$NON-NLS-1$
+                throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+            } catch (JAXBException e) {
+                // the unmarshaller may be in an invalid state
+                unmarshaller = null;
+                closeXMLStreamReader(xsr);
+                logger.error(Messages.getMessage("jaxbFailToUnmarshal", AtomEntry.class.getName()), e); //$NON-NLS-1$
+                throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        public AtomEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            AtomEntry ret = next;
+            next = null;
+            return ret;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void close() {
+            if (unmarshaller != null) {
+                closeXMLStreamReader(xsr);
+                releaseJAXBUnmarshaller(context, unmarshaller);
+                unmarshaller = null;
+            }
+        }
+    }
+
+    private static void skipElement(XMLStreamReader xsr) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = xsr.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                ++depth;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                --depth;
+            }
+        }
+    }
+
+    public boolean isWriteable(Class<?> type,
+                               Type genericType,
+                               Annotation[] annotations,
+                               MediaType mediaType) {
+        return AtomFeedStream.class.isAssignableFrom(type);
+    }
+
+    public long getSize(AtomFeedStream t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType) {
+        return -1;
+    }
+
+    public void writeTo(AtomFeedStream t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException, WebApplicationException {
+        mediaType = MediaTypeUtils.setDefaultCharsetOnMediaTypeHeader(httpHeaders, mediaType);
+        String charset = ProviderUtils.getCharset(mediaType);
+        JAXBContext context = null;
+        Marshaller marshaller = null;
+        // a marshaller that failed is not put back into the pool
+        boolean marshalling = false;
+        try {
+            context = getContext(AtomFeed.class, mediaType);
+            marshaller = getJAXBMarshaller(AtomFeed.class, context, mediaType);
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            XMLStreamWriter xsw = xmlOutputFactory.createXMLStreamWriter(entityStream, charset);
+            xsw.writeStartDocument(charset, "1.0"); //$NON-NLS-1$
+            StreamWriterContentHandler handler = new StreamWriterContentHandler(xsw);
+
+            // the feed element is left open for the entries
+            handler.keepRootOpen = true;
+            marshalling = true;
+            marshaller.marshal(objectFactory.createFeed(t.getHeader()), handler);
+            marshalling = false;
+            handler.keepRootOpen = false;
+
+            // an exception of the iterator is propagated as is
+            int flushInterval = t.getFlushInterval();
+            int count = 0;
+            Iterator<AtomEntry> entries = t.getEntries();
+            while (entries.hasNext()) {
+                AtomEntry entry = entries.next();
+                marshalling = true;
+                marshaller.marshal(objectFactory.createEntry(entry), handler);
+                marshalling = false;
+                if (flushInterval > 0 && ++count % flushInterval == 0) {
+                    xsw.flush();
+                    entityStream.flush();
+                }
+            }
+            xsw.writeEndElement();
+            xsw.writeEndDocument();
+            closeXMLStreamWriter(xsw);
+        } catch (JAXBException e) {
+            logger.error(Messages.getMessage("jaxbFailToMarshal", type.getName()), e); //$NON-NLS-1$
+            throw new WebApplicationException(e);
+        } catch (XMLStreamException e) {
+            logger.error(Messages.getMessage("jaxbFailToMarshal", type.getName()), e); //$NON-NLS-1$
+            throw new WebApplicationException(e);
+        } finally {
+            if (marshaller != null && !marshalling) {
+                releaseFragmentMarshaller(context, marshaller);
+            }
+            t.close();
+        }
+    }
+
+    /**
+     * Closes the writer of a complete feed, which does not close the entity
+     * stream. The writer of a failed feed is not closed, since some StAX
+     * implementations end the open elements on close, and the truncated feed
+     * would look complete.
+     */
+    private static void closeXMLStreamWriter(XMLStreamWriter xsw) {
+        try {
+            xsw.close();
+        } catch (XMLStreamException e) {
+            logger.trace("Could not close the XMLStreamWriter", e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Put the marshaller back into the pool, as it was before it was used to
+     * marshal fragments
+     */
+    private void releaseFragmentMarshaller(JAXBContext context, Marshaller marshaller) {
+        try {
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+        } catch (JAXBException e) {
+            logger.trace("Could not reset the Marshaller", e); //$NON-NLS-1$
+            return;
+        }
+        releaseJAXBMarshaller(context, marshaller);
+    }
+
+    /**
+     * Writes the SAX events of the Marshaller to an XMLStreamWriter. Namespace
+     * declarations that are already in scope are not repeated, so the entries
+     * reuse the declarations of the feed element.
+     */
+    private static class StreamWriterContentHandler extends DefaultHandler {
+
+        private final XMLStreamWriter xsw;
+        private final List<String>    pendingNamespaces = new ArrayList<String>();
+        private int                   depth;
+        boolean                       keepRootOpen;
+
+        StreamWriterContentHandler(XMLStreamWriter xsw) {
+            this.xsw = xsw;
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) {
+            pendingNamespaces.add(prefix);
+            pendingNamespaces.add(uri);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes)
+            throws SAXException {
+            try {
+                xsw.writeStartElement(getPrefix(qName), localName, uri);
+                for (int i = 0; i < pendingNamespaces.size(); i += 2) {
+                    String prefix = pendingNamespaces.get(i);
+                    String namespace = pendingNamespaces.get(i + 1);
+                    if (namespace.equals(xsw.getNamespaceContext().getNamespaceURI(prefix))) {
+                        continue;
+                    }
+                    if (prefix.length() == 0) {
+                        xsw.setDefaultNamespace(namespace);
+                        xsw.writeDefaultNamespace(namespace);
+                    } else {
+                        xsw.setPrefix(prefix, namespace);
+                        xsw.writeNamespace(prefix, namespace);
+                    }
+                }
+                pendingNamespaces.clear();
+                for (int i = 0; i < attributes.getLength(); ++i) {
+                    String attributeNamespace = attributes.getURI(i);
+                    if (attributeNamespace == null || attributeNamespace.length() == 0) {
+                        xsw.writeAttribute(attributes.getLocalName(i), attributes.getValue(i));
+                    } else {
+                        xsw.writeAttribute(getPrefix(attributes.getQName(i)),
+                                           attributeNamespace,
+                                           attributes.getLocalName(i),
+                                           attributes.getValue(i));
+                    }
+                }
+                ++depth;
+            } catch (XMLStreamException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            if (--depth == 0 && keepRootOpen) {
+                return;
+            }
+            try {
+                xsw.writeEndElement();
+            } catch (XMLStreamException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            try {
+                xsw.writeCharacters(ch, start, length);
+            } catch (XMLStreamException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+            characters(ch, start, length);
+        }
+
+        @Override
+        public void processingInstruction(String target, String data) throws SAXException {
+            try {
+                xsw.writeProcessingInstruction(target, data);
+            } catch (XMLStreamException e) {
+                throw new SAXException(e);
+            }
+        }
+
+        private static String getPrefix(String qName) {
+            int colon = qName.indexOf(':');
+            return (colon > 0) ? qName.substring(0, colon) : ""; //$NON-NLS-1$
+        }
+    }
+}
@@ -23,137 +23,168 @@ package org.apache.wink.common.internal.providers.entity.csv;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
- * 
+ * Reads the rows of a CSV one at a time.
+ * <p>
+ * The characters are read into a buffer and scanned in place, so the cells
+ * are built from runs of characters rather than from one character at a time.
+ * {@link #readLine(List)} reuses the row list of the caller, which avoids
+ * creating an array for every row when the rows are processed one by one.
  */
 public final class CsvReader {
 
-    private Reader  reader;
-    private boolean endOfLine = false;
-    private boolean endOfFile = false;
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader        reader;
+    private final char[]        buffer;
+    private final StringBuilder cell      = new StringBuilder();
+    private final List<String>  row       = new ArrayList<String>();
+    private int                 position  = 0;
+    private int                 limit     = 0;
+    private boolean             endOfLine = false;
+    private boolean             endOfFile = false;
 
     public CsvReader(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvReader(Reader reader, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(String.valueOf(bufferSize));
+        }
         this.reader = reader;
+        this.buffer = new char[bufferSize];
     }
 
     public String[] readLine() {
-        if (endOfFile) {
+        if (!readLine(row)) {
             return null;
         }
-        ArrayList<String> list = new ArrayList<String>();
+        return row.toArray(new String[row.size()]);
+    }
+
+    /**
+     * Read the next row into the specified list. The list is cleared first.
+     * 
+     * @param row the list to fill with the cells of the row
+     * @return false if there are no more rows
+     */
+    public boolean readLine(List<String> row) {
+        row.clear();
+        if (endOfFile) {
+            return false;
+        }
         boolean startOfLine = true;
         while (!endOfLine && !endOfFile) {
             String cell = readCell();
             if (startOfLine) {
                 // if this is an empty line and the end of the file
                 if (endOfFile && cell.length() == 0) {
-                    return null;
+                    return false;
                 }
                 startOfLine = false;
             }
-            list.add(cell);
+            row.add(cell);
         }
         endOfLine = false;
-        return list.toArray(new String[list.size()]);
+        return true;
     }
 
     private String readCell() {
         try {
-            StringBuilder stringBuilder = new StringBuilder();
-
-            boolean processThisCharacter = false;
+            cell.setLength(0);
             boolean hadQuote = false;
-            int read = -1;
-            l: while (processThisCharacter || (read = reader.read()) != -1) {
-                processThisCharacter = false;
+            while (true) {
+                if (position == limit && !fill()) {
+                    endOfFile = true;
+                    break;
+                }
+                int start = position;
+                if (hadQuote) {
+                    // everything up to the next quote is part of the cell
+                    while (position < limit && buffer[position] != '"') {
+                        ++position;
+                    }
+                    cell.append(buffer, start, position - start);
+                    if (position == limit) {
+                        continue;
+                    }
+                    ++position;
+                    // check the next character
+                    if (position == limit && !fill()) {
+                        endOfFile = true;
+                        break;
+                    }
+                    if (buffer[position] == '"') {
+                        // middle of the cell, add one quote instead of two
+                        cell.append('"');
+                        ++position;
+                    } else {
+                        // it seems to be a closing quote, still need to
+                        // process the next character
+                        hadQuote = false;
+                    }
+                    continue;
+                }
 
-                char character = (char)read;
+                char character = 0;
+                while (position < limit) {
+                    character = buffer[position];
+                    if (character == '"' || character == ','
+                        || character == '\r'
+                        || character == '\n') {
+                        break;
+                    }
+                    ++position;
+                }
+                cell.append(buffer, start, position - start);
+                if (position == limit) {
+                    continue;
+                }
+                ++position;
                 switch (character) {
                     case '"':
-                        if (!hadQuote) {
-                            // first quote when processing cell, set hadQuote
-                            // indicator and continue
-                            hadQuote = true;
-                            continue l;
-                        } else {
-                            // middle of the string, and hadQuote.
-                            // Let's check the next character:
-                            read = reader.read();
-                            if (read == -1) {
-                                endOfFile = true;
-                                break l;
-                            }
-                            character = (char)read;
-                            switch (character) {
-                                case '"':
-                                    // middle of the cell, add one quote instead
-                                    // of two
-                                    stringBuilder.append(character);
-                                    continue l;
-                                default:
-                                    // it seems to be a closing quote
-                                    hadQuote = false;
-                                    // still need to process this character!
-                                    processThisCharacter = true;
-                                    continue l;
-                            }
-                        }
-                    case '\r':
-                        if (hadQuote) {
-                            stringBuilder.append(character);
-                            continue l;
-                        } else {
-                            // check the next character
-                            read = reader.read();
-                            if (read == -1) {
-                                endOfFile = true;
-                                break l;
-                            }
-                            character = (char)read;
-                            switch (character) {
-                                case '\n':
-                                    // end of line
-                                    endOfLine = true;
-                                    break l;
-                                default:
-                                    // append to string
-                                    stringBuilder.append('\r');
-
-                                    // still need to process this character!
-                                    processThisCharacter = true;
-                                    continue l;
-                            }
-                        }
+                        // first quote when processing cell
+                        hadQuote = true;
+                        continue;
+                    case ',':
+                        // end of cell
+                        return cell.toString();
                     case '\n':
-                        if (hadQuote) {
-                            stringBuilder.append(character);
-                            continue l;
-                        } else {
-                            endOfLine = true;
-                            break l;
+                        endOfLine = true;
+                        return cell.toString();
+                    default:
+                        // '\r', check the next character
+                        if (position == limit && !fill()) {
+                            endOfFile = true;
+                            return cell.toString();
                         }
-                    case ',':
-                        if (hadQuote) {
-                            stringBuilder.append(character);
-                            continue l;
-                        } else {
-                            // end of cell
-                            break l;
+                        if (buffer[position] == '\n') {
+                            // end of line
+                            ++position;
+                            endOfLine = true;
+                            return cell.toString();
                         }
-                    default:
-                        stringBuilder.append(character);
+                        // still need to process the next character
+                        cell.append('\r');
                 }
             }
-            if (read == -1) {
-                endOfFile = true;
-            }
-
-            return stringBuilder.toString();
+            return cell.toString();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+    }
 
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        while (read == 0) {
+            read = reader.read(buffer, 0, buffer.length);
+        }
+        position = 0;
+        limit = (read == -1) ? 0 : read;
+        return read != -1;
     }
 
 }
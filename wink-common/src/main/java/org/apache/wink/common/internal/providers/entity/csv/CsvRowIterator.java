@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.providers.entity.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the rows of a CSV, reading each row only when it is
+ * requested. The reader is closed when the last row was read or when the
+ * iterator is closed.
+ */
+public class CsvRowIterator implements Iterator<String[]>, Closeable {
+
+    private final Reader    reader;
+    private final CsvReader csvReader;
+    private String[]        next;
+    private boolean         done = false;
+
+    public CsvRowIterator(Reader reader) {
+        this.reader = reader;
+        this.csvReader = new CsvReader(reader);
+    }
+
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        next = csvReader.readLine();
+        if (next == null) {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String[] ret = next;
+        next = null;
+        return ret;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    public void close() {
+        if (!done) {
+            done = true;
+            next = null;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // nothing to do, the rows are not needed anymore
+            }
+        }
+    }
+}
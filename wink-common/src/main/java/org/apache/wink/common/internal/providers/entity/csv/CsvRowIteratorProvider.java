@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.providers.entity.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.wink.common.utils.ProviderUtils;
+
+/**
+ * Reads and writes a CSV as an <code>Iterator&lt;String[]&gt;</code>, one row
+ * at a time. A resource can consume or produce any number of rows without
+ * holding them in memory.
+ */
+@Provider
+@Consumes("text/csv")
+@Produces("text/csv")
+public class CsvRowIteratorProvider implements MessageBodyReader<Iterator<?>>,
+    MessageBodyWriter<Iterator<?>> {
+
+    public boolean isReadable(Class<?> type,
+                              Type genericType,
+                              Annotation[] annotations,
+                              MediaType mediaType) {
+        return type == Iterator.class && isRowIterator(genericType);
+    }
+
+    public Iterator<?> readFrom(Class<Iterator<?>> type,
+                                Type genericType,
+                                Annotation[] annotations,
+                                MediaType mediaType,
+                                MultivaluedMap<String, String> httpHeaders,
+                                InputStream entityStream) throws IOException,
+        WebApplicationException {
+        Charset charset = Charset.forName(ProviderUtils.getCharset(mediaType));
+        return new CsvRowIterator(new InputStreamReader(entityStream, charset));
+    }
+
+    public boolean isWriteable(Class<?> type,
+                               Type genericType,
+                               Annotation[] annotations,
+                               MediaType mediaType) {
+        return Iterator.class.isAssignableFrom(type) && isRowIterator(genericType);
+    }
+
+    public long getSize(Iterator<?> t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType) {
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void writeTo(Iterator<?> t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException, WebApplicationException {
+        CsvSerializerProvider.writeRows((Iterator<String[]>)t,
+                                        mediaType,
+                                        httpHeaders,
+                                        entityStream);
+    }
+
+    private static boolean isRowIterator(Type genericType) {
+        if (!(genericType instanceof ParameterizedType)) {
+            return false;
+        }
+        Type[] arguments = ((ParameterizedType)genericType).getActualTypeArguments();
+        if (arguments.length != 1) {
+            return false;
+        }
+        // Java 5 and 6 return a GenericArrayType for String[]
+        return arguments[0] == String[].class
+            || (arguments[0] instanceof GenericArrayType && ((GenericArrayType)arguments[0])
+                .getGenericComponentType() == String.class);
+    }
+}
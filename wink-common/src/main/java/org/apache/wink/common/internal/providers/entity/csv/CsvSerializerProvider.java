@@ -19,10 +19,11 @@
  *******************************************************************************/
 package org.apache.wink.common.internal.providers.entity.csv;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
@@ -48,6 +49,16 @@ public class CsvSerializerProvider implements MessageBodyWriter<CsvSerializer> {
 
     public static final String                                    CONTENT_DISPOSITION_HEADER =
                                                                                                  "Content-Disposition"; //$NON-NLS-1$
+
+    /**
+     * The number of rows that are written between two flushes of the entity
+     * stream
+     */
+    public static final int                                       FLUSH_INTERVAL             =
+                                                                                                 1000;
+    private static final String                                   LINE_SEPARATOR             =
+                                                                                                 System
+                                                                                                     .getProperty("line.separator"); //$NON-NLS-1$
     private final static HeaderDelegate<ContentDispositionHeader> header                     =
                                                                                                  RuntimeDelegate
                                                                                                      .getInstance()
@@ -75,6 +86,18 @@ public class CsvSerializerProvider implements MessageBodyWriter<CsvSerializer> {
                         MediaType mediaType,
                         MultivaluedMap<String, Object> httpHeaders,
                         OutputStream entityStream) throws IOException, WebApplicationException {
+        writeRows(t.getEntities(), mediaType, httpHeaders, entityStream);
+    }
+
+    /**
+     * Write the rows as they are produced by the iterator. The entity stream is
+     * flushed every {@link #FLUSH_INTERVAL} rows, so the client starts
+     * receiving a large CSV before all the rows are produced.
+     */
+    static void writeRows(Iterator<String[]> rows,
+                          MediaType mediaType,
+                          MultivaluedMap<String, Object> httpHeaders,
+                          OutputStream entityStream) throws IOException {
 
         // set content disposition. This will enable browsers to open excel
         ContentDispositionHeader contentDispositionHeader =
@@ -84,13 +107,16 @@ public class CsvSerializerProvider implements MessageBodyWriter<CsvSerializer> {
             .putSingle(CONTENT_DISPOSITION_HEADER, header.toString(contentDispositionHeader));
 
         Charset charset = Charset.forName(ProviderUtils.getCharset(mediaType));
-        OutputStreamWriter writer = new OutputStreamWriter(entityStream, charset);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(entityStream, charset));
 
-        PrintWriter printWriter = new PrintWriter(writer);
-        Iterator<String[]> rows = t.getEntities();
+        int count = 0;
         while (rows.hasNext()) {
-            printWriter.println(CsvWriter.getCSVRow(rows.next()));
+            CsvWriter.writeRow(writer, rows.next());
+            writer.write(LINE_SEPARATOR);
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
         }
-        printWriter.flush();
+        writer.flush();
     }
 }
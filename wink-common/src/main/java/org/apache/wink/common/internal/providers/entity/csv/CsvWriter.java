@@ -20,6 +20,9 @@
 
 package org.apache.wink.common.internal.providers.entity.csv;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  *
  */
@@ -49,6 +52,57 @@ public final class CsvWriter {
         return buf.toString();
     }
 
+    /**
+     * writes the string array as a CSV row, without the line separator. Unlike
+     * {@link #getCSVRow(String[])}, the array is not modified and the cells
+     * that do not need to be escaped are written as they are.
+     * 
+     * @param writer
+     * @param row
+     * @throws IOException
+     */
+    public static void writeRow(Writer writer, String[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i != 0) {
+                writer.write(',');
+            }
+            String cell = row[i];
+            if (cell != null) {
+                writeCell(writer, cell);
+            }
+        }
+    }
+
+    private static void writeCell(Writer writer, String cell) throws IOException {
+        int length = cell.length();
+        boolean surroundElementWithDoubleQuotes = false;
+        for (int index = 0; index < length && !surroundElementWithDoubleQuotes; ++index) {
+            switch (cell.charAt(index)) {
+                case '"':
+                case '\r':
+                case '\n':
+                case ',':
+                    surroundElementWithDoubleQuotes = true;
+                    break;
+            }
+        }
+        if (!surroundElementWithDoubleQuotes) {
+            writer.write(cell, 0, length);
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int index = 0; index < length; ++index) {
+            if (cell.charAt(index) == '"') {
+                // write the quote twice
+                writer.write(cell, start, index + 1 - start);
+                start = index;
+            }
+        }
+        writer.write(cell, start, length - start);
+        writer.write('"');
+    }
+
     /**
      * escape special characters
      * 
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.providers.entity.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.Providers;
+
+import org.apache.wink.common.internal.i18n.Messages;
+import org.apache.wink.common.internal.providers.entity.xml.AbstractJAXBCollectionProvider;
+
+/**
+ * Writes an {@link Iterator} or an {@link Iterable} of JAXB objects as a JSON
+ * array. Each element is written by the JSON provider of the element type
+ * and flushed as soon as the iterator produces it, so the elements never need
+ * to be held in memory together.
+ */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class JAXBIteratorJSONProvider extends AbstractJAXBCollectionProvider implements
+    MessageBodyWriter<Object> {
+
+    @Context
+    Providers injectedProviders;
+
+    public long getSize(Object t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType) {
+        return -1;
+    }
+
+    public boolean isWriteable(Class<?> type,
+                               Type genericType,
+                               Annotation[] annotations,
+                               MediaType mediaType) {
+        if (!isIteratorOrIterable(type)) {
+            return false;
+        }
+        Class<?> theType = getParameterizedTypeClassForWrite(type, genericType, false);
+        if (theType != null)
+            return (isJAXBObject(theType, genericType) && !isJAXBElement(theType, genericType));
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void writeTo(Object t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException, WebApplicationException {
+        Class<?> theType = getParameterizedTypeClassForWrite(type, genericType, false);
+        MessageBodyWriter<Object> writer =
+            injectedProviders.getMessageBodyWriter((Class<Object>)theType,
+                                                   theType,
+                                                   annotations,
+                                                   mediaType);
+        if (writer == null) {
+            throw new WebApplicationException(new IllegalStateException(Messages
+                .getMessage("noWriterFound", theType.getName(), mediaType.toString()))); //$NON-NLS-1$
+        }
+        boolean flushElements = isLazy(t);
+        Iterator<?> elements = getElementIterator(t);
+        entityStream.write('[');
+        boolean first = true;
+        while (elements.hasNext()) {
+            Object o = elements.next();
+            if (!first) {
+                entityStream.write(',');
+            }
+            first = false;
+            writer.writeTo(o, theType, theType, annotations, mediaType, httpHeaders, entityStream);
+            if (flushElements) {
+                entityStream.flush();
+            }
+        }
+        entityStream.write(']');
+    }
+
+}
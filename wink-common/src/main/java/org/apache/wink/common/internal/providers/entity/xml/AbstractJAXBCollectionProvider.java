@@ -20,6 +20,7 @@
 
 package org.apache.wink.common.internal.providers.entity.xml;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -29,9 +30,12 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import javax.ws.rs.WebApplicationException;
@@ -85,19 +89,12 @@ public abstract class AbstractJAXBCollectionProvider extends AbstractJAXBProvide
             while (nextEvent != XMLStreamReader.END_DOCUMENT) {
                 switch (nextEvent) {
                     case XMLStreamReader.START_ELEMENT:
-                        Class<?> parameterizedTypeClass = getParameterizedTypeClassForRead(type, genericType, false);
-                        if (parameterizedTypeClass == JAXBElement.class) {
-                            elementList.add(unmarshaller.unmarshal(xsr, theType));
-                        } else if (theType.isAnnotationPresent(XmlRootElement.class)) {
-                            Object o = unmarshaller.unmarshal(xsr);
-                            o = unmarshalWithXmlAdapter(o, type, getParameterizedTypeClassForRead(type, genericType, false), annotations);
-                            if (o instanceof JAXBElement) {
-                                o = ((JAXBElement)o).getValue();
-                            }
-                            elementList.add(o);
-                        } else {
-                            elementList.add(unmarshaller.unmarshal(xsr, theType).getValue());
-                        }
+                        elementList.add(unmarshalElement(xsr,
+                                                         unmarshaller,
+                                                         theType,
+                                                         type,
+                                                         genericType,
+                                                         annotations));
                         nextEvent = xsr.getEventType();
                         break;
                     default:
@@ -132,6 +129,162 @@ public abstract class AbstractJAXBCollectionProvider extends AbstractJAXBProvide
         }
     }
 
+    /**
+     * Unmarshal the element that the reader is currently positioned on. The
+     * reader is left positioned on the event following the element.
+     */
+    private Object unmarshalElement(XMLStreamReader xsr,
+                                    Unmarshaller unmarshaller,
+                                    Class<?> theType,
+                                    Class<?> type,
+                                    Type genericType,
+                                    Annotation[] annotations) throws JAXBException {
+        Class<?> parameterizedTypeClass = getParameterizedTypeClassForRead(type, genericType, false);
+        if (parameterizedTypeClass == JAXBElement.class) {
+            return unmarshaller.unmarshal(xsr, theType);
+        } else if (theType.isAnnotationPresent(XmlRootElement.class)) {
+            Object o = unmarshaller.unmarshal(xsr);
+            o = unmarshalWithXmlAdapter(o, type, parameterizedTypeClass, annotations);
+            if (o instanceof JAXBElement) {
+                o = ((JAXBElement)o).getValue();
+            }
+            return o;
+        } else {
+            return unmarshaller.unmarshal(xsr, theType).getValue();
+        }
+    }
+
+    /**
+     * Read the collection lazily. The returned iterator unmarshals one
+     * element of the collection at a time from the entity stream, so the
+     * elements can be processed without holding the whole collection in
+     * memory. The iterator also implements {@link Closeable}; the underlying
+     * reader and unmarshaller are released when the iterator is exhausted or
+     * closed.
+     */
+    public Iterator<Object> readIterator(Class<?> type,
+                                         Type genericType,
+                                         Annotation[] annotations,
+                                         MediaType mediaType,
+                                         MultivaluedMap<String, String> httpHeaders,
+                                         InputStream entityStream) throws IOException,
+        WebApplicationException {
+        XMLStreamReader xsr = null;
+        try {
+            xsr = getXMLStreamReader(entityStream);
+            Class<?> theType = getParameterizedTypeClassForRead(type, genericType, true);
+            theType = getConcreteTypeFromTypeMap(theType, annotations);
+            JAXBContext context = getContext(theType, mediaType);
+            Unmarshaller unmarshaller = getJAXBUnmarshaller(type, context, mediaType);
+
+            int nextEvent = xsr.getEventType();
+            while (nextEvent != XMLStreamReader.START_ELEMENT)
+                nextEvent = xsr.next();
+            // skip the plural tag
+            xsr.next();
+            return new ElementIterator(xsr, context, unmarshaller, theType, type, genericType,
+                                       annotations);
+        } catch (XMLStreamException e) {
+            closeXMLStreamReader(xsr);
+            logger.error(Messages.getMessage("jaxbFailToUnmarshal", type.getName()), e); //$NON-NLS-1$
+            throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+        } catch (JAXBException e) {
+            closeXMLStreamReader(xsr);
+            logger.error(Messages.getMessage("jaxbFailToUnmarshal", type.getName()), e); //$NON-NLS-1$
+            throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+        } catch (RuntimeException e) {
+            closeXMLStreamReader(xsr);
+            throw e;
+        }
+    }
+
+    private class ElementIterator implements Iterator<Object>, Closeable {
+
+        private final XMLStreamReader xsr;
+        private final JAXBContext     context;
+        private final Class<?>        theType;
+        private final Class<?>        type;
+        private final Type            genericType;
+        private final Annotation[]    annotations;
+        private Unmarshaller          unmarshaller;
+        private Object                next;
+
+        ElementIterator(XMLStreamReader xsr,
+                        JAXBContext context,
+                        Unmarshaller unmarshaller,
+                        Class<?> theType,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations) {
+            this.xsr = xsr;
+            this.context = context;
+            this.unmarshaller = unmarshaller;
+            this.theType = theType;
+            this.type = type;
+            this.genericType = genericType;
+            this.annotations = annotations;
+        }
+
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (unmarshaller == null) {
+                return false;
+            }
+            try {
+                int nextEvent = xsr.getEventType();
+                while (nextEvent != XMLStreamReader.END_DOCUMENT) {
+                    if (nextEvent == XMLStreamReader.START_ELEMENT) {
+                        next =
+                            unmarshalElement(xsr,
+                                             unmarshaller,
+                                             theType,
+                                             type,
+                                             genericType,
+                                             annotations);
+                        return true;
+                    }
+                    nextEvent = xsr.next();
+                }
+                close();
+                return false;
+            } catch (XMLStreamException e) {
+                close();
+                logger.error(Messages.getMessage("jaxbFailToUnmarshal", type.getName()), e); //$NON-NLS-1$
+                throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+            } catch (JAXBException e) {
+                close();
+                logger.error(Messages.getMessage("jaxbFailToUnmarshal", type.getName()), e); //$NON-NLS-1$
+                throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object ret = next;
+            next = null;
+            return ret;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void close() {
+            if (unmarshaller != null) {
+                closeXMLStreamReader(xsr);
+                releaseJAXBUnmarshaller(context, unmarshaller);
+                unmarshaller = null;
+            }
+        }
+    }
+
     public void write(Object t,
                       Class<?> type,
                       Type genericType,
@@ -145,11 +298,16 @@ public abstract class AbstractJAXBCollectionProvider extends AbstractJAXBProvide
         try {
             Class<?> adapterClass = getParameterizedTypeClassForWrite(type, genericType, true);
             Class<?> theType = getConcreteTypeFromTypeMap(adapterClass, annotations);
-            Object[] elementArray = type.isArray() ? (Object[])t : ((Collection<?>)t).toArray();
+            Class<?> elementClass = getParameterizedTypeClassForWrite(type, genericType, false);
+            // lazy sources are flushed element by element, so the client
+            // receives the first element without waiting for the last one
+            boolean flushElements = isLazy(t);
+            Iterator<?> elements = getElementIterator(t);
+            Object first = elements.hasNext() ? elements.next() : null;
             QName qname = null;
             boolean isJAXBElement = false;
-            if (elementArray.length > 0 && elementArray[0] instanceof JAXBElement<?>) {
-                JAXBElement<?> jaxbElement = (JAXBElement<?>)elementArray[0];
+            if (first instanceof JAXBElement<?>) {
+                JAXBElement<?> jaxbElement = (JAXBElement<?>)first;
                 qname = jaxbElement.getName();
                 isJAXBElement = true;
             } else {
@@ -160,32 +318,55 @@ public abstract class AbstractJAXBCollectionProvider extends AbstractJAXBProvide
                 writeStartTag(qname, entityStream, mediaType);
             }
 
+            // the marshaller is reused for as long as the elements are of the
+            // same class
             Marshaller marshaller = null;
             JAXBContext context = null;
-            for (Object o : elementArray) {
-                o = marshalWithXmlAdapter(o, type, getParameterizedTypeClassForWrite(type, genericType, false), annotations);
-                if(marshaller == null) {
+            Class<?> marshallerType = null;
+            try {
+                Object o = first;
+                boolean hasElement = (first != null) || elements.hasNext();
+                if (first == null && hasElement) {
+                    o = elements.next();
+                }
+                while (hasElement) {
+                    o = marshalWithXmlAdapter(o, type, elementClass, annotations);
                     Class<?> oType =
                         isJAXBElement ? ((JAXBElement<?>)o).getDeclaredType() : o.getClass();
+                    if (marshaller == null || oType != marshallerType) {
+                        if (marshaller != null) {
+                            releaseJAXBMarshaller(context, marshaller);
+                        }
                         context = getContext(oType, mediaType);
                         marshaller = getJAXBMarshaller(oType, context, mediaType);
                         marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
                         Charset charSet = getCharSet(mediaType);
                         marshaller.setProperty(Marshaller.JAXB_ENCODING, charSet.name());
+                        marshallerType = oType;
+                    }
+                    Object entityToMarshal = getEntityToMarshal(o, elementClass);
+                    if (qname == null) {
+                        if (entityToMarshal instanceof JAXBElement<?>)
+                            qname = ((JAXBElement<?>)entityToMarshal).getName();
+                        else
+                            qname =
+                                new QName(entityToMarshal.getClass().getPackage().getName(),
+                                          entityToMarshal.getClass().getSimpleName());
+                        writeStartTag(qname, entityStream, mediaType);
+                    }
+                    marshaller.marshal(entityToMarshal, entityStream);
+                    if (flushElements) {
+                        entityStream.flush();
+                    }
+                    hasElement = elements.hasNext();
+                    if (hasElement) {
+                        o = elements.next();
+                    }
                 }
-                Object entityToMarshal = getEntityToMarshal(o, getParameterizedTypeClassForWrite(type, genericType, false));
-                if (qname == null) {
-                    if (entityToMarshal instanceof JAXBElement<?>)
-                        qname = ((JAXBElement<?>)entityToMarshal).getName();
-                    else
-                        qname =
-                            new QName(entityToMarshal.getClass().getPackage().getName(),
-                                      entityToMarshal.getClass().getSimpleName());
-                    writeStartTag(qname, entityStream, mediaType);
+            } finally {
+                if (marshaller != null) {
+                    releaseJAXBMarshaller(context, marshaller);
                 }
-                marshaller.marshal(entityToMarshal, entityStream);
-                releaseJAXBMarshaller(context, marshaller);
-                marshaller = null;
             }
 
             writeEndTag(qname, entityStream);
@@ -195,6 +376,39 @@ public abstract class AbstractJAXBCollectionProvider extends AbstractJAXBProvide
         }
     }
 
+    /**
+     * Get an iterator over the elements of an array, a collection, an
+     * {@link Iterable} or an {@link Iterator}
+     */
+    protected static Iterator<?> getElementIterator(Object t) {
+        if (t instanceof Object[]) {
+            return Arrays.asList((Object[])t).iterator();
+        }
+        if (t instanceof Iterator<?>) {
+            return (Iterator<?>)t;
+        }
+        return ((Iterable<?>)t).iterator();
+    }
+
+    /**
+     * Returns true if the elements of the entity may be produced lazily, i.e.
+     * the entity is an {@link Iterator} or an {@link Iterable} that is not a
+     * {@link Collection}
+     */
+    protected static boolean isLazy(Object t) {
+        return (t instanceof Iterator<?>)
+            || ((t instanceof Iterable<?>) && !(t instanceof Collection<?>));
+    }
+
+    /**
+     * Returns true if the type is an {@link Iterator} or an {@link Iterable}
+     * that is not a {@link Collection}
+     */
+    protected static boolean isIteratorOrIterable(Class<?> type) {
+        return Iterator.class.isAssignableFrom(type)
+            || (Iterable.class.isAssignableFrom(type) && !Collection.class.isAssignableFrom(type));
+    }
+
     @SuppressWarnings("unchecked")
     protected static <T> Object convertListToArray(Class<T> type, List<Object> elementList) {
         T[] ret = (T[])Array.newInstance(type, elementList.size());
@@ -236,7 +450,7 @@ public abstract class AbstractJAXBCollectionProvider extends AbstractJAXBProvide
     public static Class<?> getParameterizedTypeClassForRead(Class<?> type,
                                                         Type genericType,
                                                         boolean recurse) {
-        if (Collection.class.isAssignableFrom(type)) {
+        if (Collection.class.isAssignableFrom(type) || Iterator.class.equals(type)) {
             if (genericType instanceof ParameterizedType) {
                 ParameterizedType parameterizedType = (ParameterizedType)genericType;
                 Type[] actualTypeArguments = parameterizedType.getActualTypeArguments();
@@ -277,6 +491,26 @@ public abstract class AbstractJAXBCollectionProvider extends AbstractJAXBProvide
             } else {
                 return GenericsUtils.getGenericParamType(genericType);
             }
+        } else if (Iterator.class.isAssignableFrom(type) || Iterable.class.isAssignableFrom(type)) {
+            Class<?> rawType = Iterator.class.isAssignableFrom(type) ? Iterator.class : Iterable.class;
+            Type elementType = null;
+            if (genericType instanceof ParameterizedType
+                && ((ParameterizedType)genericType).getRawType() == rawType) {
+                elementType = ((ParameterizedType)genericType).getActualTypeArguments()[0];
+            } else {
+                elementType = GenericsUtils.getGenericInterfaceParamType(type, rawType);
+            }
+            if (elementType instanceof Class<?>) {
+                return (Class<?>)elementType;
+            }
+            if (elementType instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType)elementType;
+                if (recurse && parameterizedType.getActualTypeArguments()[0] instanceof Class<?>)
+                    return (Class<?>)parameterizedType.getActualTypeArguments()[0];
+                else
+                    return (Class<?>)parameterizedType.getRawType();
+            }
+            return null;
         } else if (genericType != null) {
             Class genericTypeClass = null;
             try {
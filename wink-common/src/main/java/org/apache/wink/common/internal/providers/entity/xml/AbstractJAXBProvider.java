@@ -31,6 +31,7 @@ import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -59,7 +60,10 @@ import org.apache.wink.common.RuntimeContext;
 import org.apache.wink.common.internal.WinkConfiguration;
 import org.apache.wink.common.internal.i18n.Messages;
 import org.apache.wink.common.internal.runtime.RuntimeContextTLS;
+import org.apache.wink.common.internal.utils.CacheStatistics;
 import org.apache.wink.common.internal.utils.JAXBUtils;
+import org.apache.wink.common.internal.utils.ManagedCache;
+import org.apache.wink.common.internal.utils.ManagedCaches;
 import org.apache.wink.common.internal.utils.MediaTypeUtils;
 import org.apache.wink.common.internal.utils.SoftConcurrentMap;
 import org.apache.wink.common.model.JAXBUnmarshalOptions;
@@ -75,32 +79,32 @@ public abstract class AbstractJAXBProvider {
                                                                                                         LoggerFactory
                                                                                                             .getLogger(AbstractJAXBProvider.class);
     private static final SoftConcurrentMap<Class<?>, JAXBContext>    jaxbDefaultContexts            =
-                                                                                                        new SoftConcurrentMap<Class<?>, JAXBContext>();
+                                                                                                        new SoftConcurrentMap<Class<?>, JAXBContext>("AbstractJAXBProvider.jaxbDefaultContexts"); //$NON-NLS-1$
 
     @Context
     protected Providers                                              providers;
 
     private static final SoftConcurrentMap<Class<?>, Boolean>        jaxbIsXMLRootElementCache      =
-                                                                                                        new SoftConcurrentMap<Class<?>, Boolean>();
+                                                                                                        new SoftConcurrentMap<Class<?>, Boolean>("AbstractJAXBProvider.jaxbIsXMLRootElementCache"); //$NON-NLS-1$
 
     private static final SoftConcurrentMap<Class<?>, Boolean>        jaxbIsXMLTypeCache             =
-                                                                                                        new SoftConcurrentMap<Class<?>, Boolean>();
+                                                                                                        new SoftConcurrentMap<Class<?>, Boolean>("AbstractJAXBProvider.jaxbIsXMLTypeCache"); //$NON-NLS-1$
 
     private static final SoftConcurrentMap<Class<?>, Class<?>>       xmlElementConcreteClassCache   =
-                                                                                                        new SoftConcurrentMap<Class<?>, Class<?>>();
+                                                                                                        new SoftConcurrentMap<Class<?>, Class<?>>("AbstractJAXBProvider.xmlElementConcreteClassCache"); //$NON-NLS-1$
 
     // if JAXB objects implement an interface where that interface has
     // @XmlJavaTypeAdapter annotation, or
     // in JAXB 2.2 if the @XMLElement annotation is on the 'type' of the
     // resource method parameter
     protected static final SoftConcurrentMap<Class<?>, Class<?>>     jaxbTypeMapCache               =
-                                                                                                        new SoftConcurrentMap<Class<?>, Class<?>>();
+                                                                                                        new SoftConcurrentMap<Class<?>, Class<?>>("AbstractJAXBProvider.jaxbTypeMapCache"); //$NON-NLS-1$
 
     private static final SoftConcurrentMap<Type, XmlJavaTypeAdapter> xmlJavaTypeAdapterCache        =
-                                                                                                        new SoftConcurrentMap<Type, XmlJavaTypeAdapter>();
+                                                                                                        new SoftConcurrentMap<Type, XmlJavaTypeAdapter>("AbstractJAXBProvider.xmlJavaTypeAdapterCache"); //$NON-NLS-1$
 
     private static final SoftConcurrentMap<Type, Boolean>            xmlJavaTypeAdapterPresentCache =
-                                                                                                        new SoftConcurrentMap<Type, Boolean>();
+                                                                                                        new SoftConcurrentMap<Type, Boolean>("AbstractJAXBProvider.xmlJavaTypeAdapterPresentCache"); //$NON-NLS-1$
 
     // the Pool code for the pooling of unmarshallers is from Axis2 Java
     // http://svn.apache.org/repos/asf/webservices/axis2/trunk/java/modules/jaxws/src/org/apache/axis2/jaxws/message/databinding/JAXBUtils.java
@@ -111,16 +115,18 @@ public abstract class AbstractJAXBProvider {
     // JAXBContext instances cover the entire application space, thus
     // it was safe to cache them in a static field.
     private Pool<JAXBContext, Marshaller>                            mpool                          =
-                                                                                                        new Pool<JAXBContext, Marshaller>();
+                                                                                                        new Pool<JAXBContext, Marshaller>("AbstractJAXBProvider.marshallerPool"); //$NON-NLS-1$
     private Pool<JAXBContext, Unmarshaller>                          upool                          =
-                                                                                                        new Pool<JAXBContext, Unmarshaller>();
+                                                                                                        new Pool<JAXBContext, Unmarshaller>("AbstractJAXBProvider.unmarshallerPool"); //$NON-NLS-1$
 
     // For performance, it might seem advantageous to use a static
     // XMLInputFactory instance. However, this was shown to
     // be problematic on the Sun StAX parser (which is a fork of Apache Xerces)
-    // under load stress test. So we use ThreadLocal.
-    private static ThreadLocal<XMLInputFactory>                      xmlInputFactory                =
-                                                                                                        new ThreadLocal<XMLInputFactory>();
+    // under load stress test. So each factory is used by a single thread at a
+    // time. The factories are pooled rather than bound to a ThreadLocal, so
+    // that short-lived threads do not create a factory each.
+    private static final Pool<Class<?>, XMLInputFactory>             xmlInputFactoryPool            =
+                                                                                                        new Pool<Class<?>, XMLInputFactory>("AbstractJAXBProvider.xmlInputFactoryPool"); //$NON-NLS-1$
 
     /**
      * This class is the key to the JAXBContext cache. It must be based on the
@@ -213,7 +219,7 @@ public abstract class AbstractJAXBProvider {
     // do not make static, as the key is based on the classname of the
     // ContextResolver
     private final SoftConcurrentMap<JAXBContextResolverKey, JAXBContext> jaxbContextCache =
-                                                                                              new SoftConcurrentMap<JAXBContextResolverKey, JAXBContext>();
+                                                                                              new SoftConcurrentMap<JAXBContextResolverKey, JAXBContext>("AbstractJAXBProvider.jaxbContextCache"); //$NON-NLS-1$
 
     // JAXBContext cache can be turned off through system property
     static private final String                                          propVal          =
@@ -240,6 +246,7 @@ public abstract class AbstractJAXBProvider {
                 logger.trace("Unmarshaller created [not in pool]"); //$NON-NLS-1$
             }
             unm = internalCreateUnmarshaller(context);
+            upool.created(context);
         } else {
             if (logger.isTraceEnabled()) {
                 logger.trace("Unmarshaller obtained [from  pool]"); //$NON-NLS-1$
@@ -305,14 +312,18 @@ public abstract class AbstractJAXBProvider {
     }
 
     private static XMLInputFactory getXMLInputFactory() {
-        XMLInputFactory factory = xmlInputFactory.get();
+        XMLInputFactory factory = xmlInputFactoryPool.get(XMLInputFactory.class);
         if (factory == null) {
             factory = XMLInputFactory.newInstance();
-            xmlInputFactory.set(factory);
+            xmlInputFactoryPool.created(XMLInputFactory.class);
         }
         return factory;
     }
 
+    private static void releaseXMLInputFactory(XMLInputFactory factory) {
+        xmlInputFactoryPool.put(XMLInputFactory.class, factory);
+    }
+
     /**
      * A consistent place to get a properly configured XMLStreamReader.
      * 
@@ -327,7 +338,13 @@ public abstract class AbstractJAXBProvider {
         // performance. This solution (to use checkForDTD) appears to be the
         // best solution to preserve
         // performance, but still achieve what we need to do.
-        XMLStreamReader reader = getXMLInputFactory().createXMLStreamReader(entityStream);
+        XMLInputFactory factory = getXMLInputFactory();
+        XMLStreamReader reader;
+        try {
+            reader = factory.createXMLStreamReader(entityStream);
+        } finally {
+            releaseXMLInputFactory(factory);
+        }
         checkForDTD(reader);
         return reader;
     }
@@ -346,7 +363,13 @@ public abstract class AbstractJAXBProvider {
         // performance. This solution (to use checkForDTD) appears to be the
         // best solution to preserve
         // performance, but still achieve what we need to do.
-        XMLStreamReader reader = getXMLInputFactory().createXMLStreamReader(entityStreamReader);
+        XMLInputFactory factory = getXMLInputFactory();
+        XMLStreamReader reader;
+        try {
+            reader = factory.createXMLStreamReader(entityStreamReader);
+        } finally {
+            releaseXMLInputFactory(factory);
+        }
         checkForDTD(reader);
         return reader;
     }
@@ -425,6 +448,7 @@ public abstract class AbstractJAXBProvider {
                 logger.trace("Marshaller created [not in pool]"); //$NON-NLS-1$
             }
             m = internalCreateMarshaller(context);
+            mpool.created(context);
         } else {
             if (logger.isTraceEnabled()) {
                 logger.trace("Marshaller obtained [from  pool]"); //$NON-NLS-1$
@@ -879,7 +903,7 @@ public abstract class AbstractJAXBProvider {
      * @param <K> Key
      * @param <V> Pooled object
      */
-    private static class Pool<K, V> {
+    private static class Pool<K, V> implements ManagedCache {
         private SoftReference<ConcurrentHashMap<K, ArrayList<V>>> softMap         =
                                                                                       new SoftReference<ConcurrentHashMap<K, ArrayList<V>>>(
                                                                                                                                             new ConcurrentHashMap<K, ArrayList<V>>());
@@ -891,19 +915,45 @@ public abstract class AbstractJAXBProvider {
         /** The maps are freed up when a LOAD FACTOR is hit */
         private static int                                        MAX_LIST_FACTOR = 50;
 
+        private volatile CacheStatistics                          statistics;
+
+        Pool(String name) {
+            ManagedCaches.register(name, this);
+        }
+
         /**
          * @param key
          * @return removed item from pool or null.
          */
         public V get(K key) {
             List<V> values = getValues(key);
+            V v = null;
             synchronized (values) {
                 if (values.size() > 0) {
-                    V v = values.remove(values.size() - 1);
-                    return v;
+                    v = values.remove(values.size() - 1);
                 }
             }
-            return null;
+            CacheStatistics stats = statistics;
+            if (stats != null) {
+                if (v != null) {
+                    stats.hit();
+                } else {
+                    stats.miss(key);
+                }
+            }
+            return v;
+        }
+
+        /**
+         * Called when an item was created after a miss
+         * 
+         * @param key
+         */
+        public void created(K key) {
+            CacheStatistics stats = statistics;
+            if (stats != null) {
+                stats.loaded(key);
+            }
         }
 
         /**
@@ -918,8 +968,13 @@ public abstract class AbstractJAXBProvider {
             synchronized (values) {
                 if (values.size() < MAX_LIST_FACTOR) {
                     values.add(value);
+                    return;
                 }
             }
+            CacheStatistics stats = statistics;
+            if (stats != null) {
+                stats.evicted();
+            }
         }
 
         /**
@@ -962,16 +1017,45 @@ public abstract class AbstractJAXBProvider {
             ConcurrentHashMap<K, ArrayList<V>> map = softMap.get();
             if (map != null && map.size() > MAX_LOAD_FACTOR) {
                 // Remove every other Entry in the map.
-                Iterator it = map.entrySet().iterator();
+                Iterator<Map.Entry<K, ArrayList<V>>> it = map.entrySet().iterator();
                 boolean removeIt = false;
+                int removed = 0;
                 while (it.hasNext()) {
-                    it.next();
+                    Map.Entry<K, ArrayList<V>> entry = it.next();
                     if (removeIt) {
                         it.remove();
+                        removed += entry.getValue().size();
                     }
                     removeIt = !removeIt;
                 }
+                CacheStatistics stats = statistics;
+                if (stats != null) {
+                    stats.evicted(removed);
+                }
+            }
+        }
+
+        public int size() {
+            ConcurrentHashMap<K, ArrayList<V>> map = softMap.get();
+            int size = 0;
+            if (map != null) {
+                for (ArrayList<V> values : map.values()) {
+                    synchronized (values) {
+                        size += values.size();
+                    }
+                }
             }
+            return size;
+        }
+
+        public synchronized void clear() {
+            softMap =
+                new SoftReference<ConcurrentHashMap<K, ArrayList<V>>>(
+                                                                      new ConcurrentHashMap<K, ArrayList<V>>());
+        }
+
+        public void setStatistics(CacheStatistics statistics) {
+            this.statistics = statistics;
         }
     }
 
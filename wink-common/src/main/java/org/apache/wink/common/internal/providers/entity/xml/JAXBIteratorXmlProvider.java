@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.providers.entity.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Reads a collection of JAXB objects as a lazy {@link Iterator}, and writes an
+ * {@link Iterator} or an {@link Iterable} of JAXB objects as a collection.
+ * <p>
+ * When reading, elements are unmarshalled from the entity stream one at a
+ * time as the iterator is advanced. When writing, each element is marshalled
+ * and flushed as soon as the iterator produces it, so the response starts
+ * before the last element is available and the elements never need to be
+ * held in memory together.
+ */
+@Provider
+@Consumes( {MediaType.TEXT_XML, MediaType.APPLICATION_XML, MediaType.WILDCARD})
+@Produces( {MediaType.TEXT_XML, MediaType.APPLICATION_XML, MediaType.WILDCARD})
+public class JAXBIteratorXmlProvider extends AbstractJAXBCollectionProvider implements
+    MessageBodyReader<Iterator<?>>, MessageBodyWriter<Object> {
+
+    public boolean isReadable(Class<?> type,
+                              Type genericType,
+                              Annotation[] annotations,
+                              MediaType mediaType) {
+        if (!Iterator.class.equals(type)) {
+            return false;
+        }
+        Class<?> theType = getParameterizedTypeClassForRead(type, genericType, false);
+        if (theType != null)
+            return (isSupportedMediaType(mediaType) && ((isJAXBObject(theType, genericType) || (isJAXBElement(theType,
+                                                                                                             genericType))) || isCompatible(theType, annotations)));
+        return false;
+    }
+
+    public Iterator<?> readFrom(Class<Iterator<?>> type,
+                                Type genericType,
+                                Annotation[] annotations,
+                                MediaType mediaType,
+                                MultivaluedMap<String, String> httpHeaders,
+                                InputStream entityStream) throws IOException,
+        WebApplicationException {
+        return super.readIterator(type,
+                                  genericType,
+                                  annotations,
+                                  mediaType,
+                                  httpHeaders,
+                                  entityStream);
+    }
+
+    public long getSize(Object t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType) {
+        return -1;
+    }
+
+    public boolean isWriteable(Class<?> type,
+                               Type genericType,
+                               Annotation[] annotations,
+                               MediaType mediaType) {
+        if (!isIteratorOrIterable(type)) {
+            return false;
+        }
+        Class<?> theType = getParameterizedTypeClassForWrite(type, genericType, false);
+        if (theType != null)
+            return (isSupportedMediaType(mediaType) && ((isJAXBObject(theType, genericType) || (isJAXBElement(theType,
+                                                                                                             genericType))) || isCompatible(theType, annotations)));
+        return false;
+    }
+
+    public void writeTo(Object t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException, WebApplicationException {
+        super.write(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+    }
+}
@@ -45,11 +45,16 @@ import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.sax.SAXSource;
 
 import org.apache.wink.common.internal.i18n.Messages;
 import org.apache.wink.common.internal.utils.MediaTypeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
 @Provider
 @Consumes( {MediaType.TEXT_XML, MediaType.APPLICATION_XML, MediaType.WILDCARD})
@@ -73,7 +78,36 @@ public class JAXBXmlProvider extends AbstractJAXBProvider implements MessageBody
                            MultivaluedMap<String, String> httpHeaders,
                            final InputStream entityStream) throws IOException,
         WebApplicationException {
+        return unmarshal(type, annotations, mediaType, entityStream, null);
+    }
+
+    /**
+     * Unmarshal an object from the SAX events of the specified reader instead
+     * of parsing a stream. This allows other providers to feed JAXB from a
+     * different representation without serializing it as XML text first.
+     * 
+     * @param type the type to unmarshal
+     * @param annotations the annotations of the entity
+     * @param mediaType the media type used to look up the JAXBContext
+     * @param xmlReader the reader that produces the SAX events
+     * @return the unmarshalled object
+     */
+    public Object readFrom(Class<Object> type,
+                           Annotation[] annotations,
+                           MediaType mediaType,
+                           XMLReader xmlReader) throws WebApplicationException {
+        return unmarshal(type,
+                         annotations,
+                         mediaType,
+                         null,
+                         new SAXSource(xmlReader, new InputSource()));
+    }
 
+    private Object unmarshal(final Class<Object> type,
+                             Annotation[] annotations,
+                             MediaType mediaType,
+                             InputStream entityStream,
+                             final Source source) throws WebApplicationException {
         Class<?> concreteType = getConcreteTypeFromTypeMap(type, annotations);
         
         Unmarshaller unmarshaller = null;
@@ -82,9 +116,13 @@ public class JAXBXmlProvider extends AbstractJAXBProvider implements MessageBody
         try {
             JAXBContext context = getContext(concreteType, mediaType);
             unmarshaller = getJAXBUnmarshaller(concreteType, context, mediaType);
-            xmlStreamReader = getXMLStreamReader(entityStream);
+            if (source == null) {
+                xmlStreamReader = getXMLStreamReader(entityStream);
+            }
             if (concreteType.isAnnotationPresent(XmlRootElement.class)) {
-                unmarshaledResource = unmarshaller.unmarshal(xmlStreamReader);
+                unmarshaledResource =
+                    (source == null) ? unmarshaller.unmarshal(xmlStreamReader) : unmarshaller
+                        .unmarshal(source);
                 closeXMLStreamReader(xmlStreamReader);
                 if (unmarshaledResource instanceof JAXBElement) {
                     // this can happen if the JAXBContext object used to create
@@ -109,7 +147,11 @@ public class JAXBXmlProvider extends AbstractJAXBProvider implements MessageBody
                         AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
                             public Object run() throws PrivilegedActionException {
                                 try {
-                                    Object obj = _unmarshaller.unmarshal(_xmlStreamReader, _concreteType).getValue();
+                                    Object obj =
+                                        (source == null) ? _unmarshaller
+                                            .unmarshal(_xmlStreamReader, _concreteType).getValue()
+                                            : _unmarshaller.unmarshal(source, _concreteType)
+                                                .getValue();
                                     closeXMLStreamReader(_xmlStreamReader);
                                     return obj;
                                 } catch (JAXBException e) {
@@ -172,34 +214,63 @@ public class JAXBXmlProvider extends AbstractJAXBProvider implements MessageBody
                         MediaType mediaType,
                         MultivaluedMap<String, Object> httpHeaders,
                         OutputStream entityStream) throws IOException, WebApplicationException {
+        mediaType = MediaTypeUtils.setDefaultCharsetOnMediaTypeHeader(httpHeaders, mediaType);
+        marshal(t, type, genericType, annotations, mediaType, entityStream, null);
+    }
+
+    /**
+     * Marshal an object as SAX events to the specified handler instead of
+     * writing XML text. This allows other providers to build a different
+     * representation of the object without parsing the XML again.
+     * 
+     * @param t the object to marshal
+     * @param type the class of the object
+     * @param genericType the generic type of the object
+     * @param annotations the annotations of the entity
+     * @param mediaType the media type used to look up the JAXBContext
+     * @param contentHandler the handler that receives the SAX events
+     */
+    public void writeTo(Object t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        ContentHandler contentHandler) throws WebApplicationException {
+        marshal(t, type, genericType, annotations, mediaType, null, contentHandler);
+    }
 
+    private void marshal(Object t,
+                         Class<?> type,
+                         Type genericType,
+                         Annotation[] annotations,
+                         MediaType mediaType,
+                         OutputStream entityStream,
+                         ContentHandler contentHandler) throws WebApplicationException {
         t = marshalWithXmlAdapter(t, type, genericType, annotations);
         Class<?> concreteType = getConcreteTypeFromTypeMap(type, annotations);
-        mediaType = MediaTypeUtils.setDefaultCharsetOnMediaTypeHeader(httpHeaders, mediaType);
 
         try {
+            Class<?> marshalType = null;
             if (isJAXBObject(concreteType)) {
-                JAXBContext context = getContext(concreteType, genericType, mediaType);
+                marshalType = concreteType;
+            } else if (genericType instanceof Class<?>) {
+                marshalType = (Class<?>)genericType;
+            }
+            if (marshalType != null) {
+                JAXBContext context = getContext(marshalType, genericType, mediaType);
                 if(logger.isTraceEnabled()) {
                     logger.trace("using context {}@{} to get marshaller", context.getClass().getName(), System.identityHashCode(context)); //$NON-NLS-1$
                 }
-                Marshaller marshaller = getJAXBMarshaller(concreteType, context, mediaType);
-                Object entityToMarshal = getEntityToMarshal(t, concreteType);
-
-                // Use an OutputStream directly instead of a Writer for
-                // performance.
-                marshaller.marshal(entityToMarshal, entityStream);
+                Marshaller marshaller = getJAXBMarshaller(marshalType, context, mediaType);
+                Object entityToMarshal = getEntityToMarshal(t, marshalType);
 
-                releaseJAXBMarshaller(context, marshaller);
-            } else if (genericType instanceof Class<?>) {
-                JAXBContext context = getContext((Class<?>)genericType, genericType, mediaType);
-                Marshaller marshaller =
-                    getJAXBMarshaller((Class<?>)genericType, context, mediaType);
-                Object entityToMarshal = getEntityToMarshal(t, (Class<?>)genericType);
-
-                // Use an OutputStream directly instead of a Writer for
-                // performance.
-                marshaller.marshal(entityToMarshal, entityStream);
+                if (contentHandler != null) {
+                    marshaller.marshal(entityToMarshal, contentHandler);
+                } else {
+                    // Use an OutputStream directly instead of a Writer for
+                    // performance.
+                    marshaller.marshal(entityToMarshal, entityStream);
+                }
 
                 releaseJAXBMarshaller(context, marshaller);
             }
@@ -30,7 +30,7 @@ import org.apache.wink.common.internal.utils.SoftConcurrentMap;
 
 public class AcceptCharsetHeaderDelegate implements HeaderDelegate<AcceptCharset> {
     private static final SoftConcurrentMap<String, AcceptCharset> cache =
-                                                                            new SoftConcurrentMap<String, AcceptCharset>();
+                                                                            new SoftConcurrentMap<String, AcceptCharset>("AcceptCharsetHeaderDelegate.cache"); //$NON-NLS-1$
 
     public AcceptCharset fromString(String value) throws IllegalArgumentException {
         AcceptCharset cached = cache.get(value);
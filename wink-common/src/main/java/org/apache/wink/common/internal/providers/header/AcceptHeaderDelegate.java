@@ -32,7 +32,7 @@ import org.apache.wink.common.internal.utils.StringUtils;
 
 public class AcceptHeaderDelegate implements HeaderDelegate<Accept> {
 
-    private static final SoftConcurrentMap<String, Accept> cache = new SoftConcurrentMap<String, Accept>();
+    private static final SoftConcurrentMap<String, Accept> cache = new SoftConcurrentMap<String, Accept>("AcceptHeaderDelegate.cache"); //$NON-NLS-1$
     
     public Accept fromString(String value) throws IllegalArgumentException {
         Accept cached = cache.get(value);
@@ -40,7 +40,7 @@ public class MediaTypeHeaderDelegate implements HeaderDelegate<MediaType> {
     private static final Pattern                              SEMICOLON = Pattern.compile(";");                           //$NON-NLS-1$
     private static final Pattern                              SLASH     = Pattern.compile("/");                           //$NON-NLS-1$
     private static final SoftConcurrentMap<String, MediaType> cache     =
-                                                                            new SoftConcurrentMap<String, MediaType>();
+                                                                            new SoftConcurrentMap<String, MediaType>("MediaTypeHeaderDelegate.cache"); //$NON-NLS-1$
 
     public MediaType fromString(String value) throws IllegalArgumentException {
         if (value == null) {
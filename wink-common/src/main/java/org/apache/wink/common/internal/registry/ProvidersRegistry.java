@@ -83,6 +83,13 @@ public class ProvidersRegistry {
                                                                                                new TreeSet<PriorityObjectFactory<ExceptionMapper<?>>>(
                                                                                                                                                       Collections
                                                                                                                                                           .reverseOrder());
+    /*
+     * the best matching exception mapper of each exception class, the entries
+     * computed from a previous set of exception mappers are ignored
+     */
+    private final SoftConcurrentMap<Class<?>, ExceptionMapperMatch>      exceptionMappersCache =
+                                                                                                  new SoftConcurrentMap<Class<?>, ExceptionMapperMatch>(
+                                                                                                                                                        "ProvidersRegistry.exceptionMappersCache"); //$NON-NLS-1$
     private final ConsumesMediaTypeMap<MessageBodyReader<?>>            messageBodyReaders =
                                                                                                new ConsumesMediaTypeMap<MessageBodyReader<?>>(
                                                                                                                                               MessageBodyReader.class);
@@ -148,6 +155,7 @@ public class ProvidersRegistry {
             exceptionMappersCopy.addAll(exceptionMappers);
             exceptionMappersCopy.add((PriorityObjectFactory<ExceptionMapper<?>>)objectFactory);
             exceptionMappers = exceptionMappersCopy;
+            exceptionMappersCache.clear();
             retValue = true;
         }
         if (MessageBodyReader.class.isAssignableFrom(cls)) {
@@ -342,48 +350,61 @@ public class ProvidersRegistry {
             throw new NullPointerException(Messages.getMessage("variableIsNull", "type")); //$NON-NLS-1$ //$NON-NLS-2$
         }
         logger.trace("Getting ExceptionMapper for {} ", type); //$NON-NLS-1$
-        List<ExceptionMapper<?>> matchingMappers = new ArrayList<ExceptionMapper<?>>();
-
-        for (ObjectFactory<ExceptionMapper<?>> factory : exceptionMappers) {
-            ExceptionMapper<?> exceptionMapper = factory.getInstance(runtimeContext);
-            Type genericType =
-                GenericsUtils.getGenericInterfaceParamType(exceptionMapper.getClass(),
-                                                           ExceptionMapper.class);
-            Class<?> classType = GenericsUtils.getClassType(genericType, null);
-            if (classType.isAssignableFrom(type)) {
-                matchingMappers.add(exceptionMapper);
-            }
+        TreeSet<PriorityObjectFactory<ExceptionMapper<?>>> mappers = exceptionMappers;
+        ExceptionMapperMatch match = exceptionMappersCache.get(type);
+        if (match == null || match.mappers != mappers) {
+            match =
+                exceptionMappersCache.put(type,
+                                          new ExceptionMapperMatch(mappers, findExceptionMapper(type,
+                                                                                                mappers)));
         }
 
-        if (matchingMappers.isEmpty()) {
+        if (match.factory == null) {
             logger.trace("Did not find an ExceptionMapper for {} ", type); //$NON-NLS-1$
             return null;
         }
+        ExceptionMapper<T> mapper = (ExceptionMapper<T>)match.factory.getInstance(runtimeContext);
+        logger.trace("Found best matching ExceptionMapper {} for type {} ", mapper, type); //$NON-NLS-1$
+        return mapper;
+    }
 
-        logger.trace("Found matching ExceptionMappers {} for type {} ", matchingMappers, type); //$NON-NLS-1$
-        while (matchingMappers.size() > 1) {
-            Type first =
-                GenericsUtils.getGenericInterfaceParamType(matchingMappers.get(0).getClass(),
-                                                           ExceptionMapper.class);
-            Type second =
-                GenericsUtils.getGenericInterfaceParamType(matchingMappers.get(1).getClass(),
+    /**
+     * Finds the exception mapper of the nearest superclass of the exception
+     * class. Of the mappers of the same class, the one with the highest
+     * priority is returned.
+     */
+    private static PriorityObjectFactory<ExceptionMapper<?>> findExceptionMapper(Class<?> type,
+                                                                                 TreeSet<PriorityObjectFactory<ExceptionMapper<?>>> mappers) {
+        PriorityObjectFactory<ExceptionMapper<?>> best = null;
+        Class<?> bestClass = null;
+        for (PriorityObjectFactory<ExceptionMapper<?>> factory : mappers) {
+            Type genericType =
+                GenericsUtils.getGenericInterfaceParamType(factory.getInstanceClass(),
                                                            ExceptionMapper.class);
-            Class<?> firstClass = GenericsUtils.getClassType(first, null);
-            Class<?> secondClass = GenericsUtils.getClassType(second, null);
-            if (firstClass == secondClass) {
-                // the first one has higher priority, so remove the second
-                // one for the same classes!
-                matchingMappers.remove(1);
-            } else if (firstClass.isAssignableFrom(secondClass)) {
-                matchingMappers.remove(0);
-            } else {
-                matchingMappers.remove(1);
+            Class<?> classType = GenericsUtils.getClassType(genericType, null);
+            if (classType == null || !classType.isAssignableFrom(type)) {
+                continue;
+            }
+            // the mappers are ordered by descending priority
+            if (best == null || (classType != bestClass && bestClass.isAssignableFrom(classType))) {
+                best = factory;
+                bestClass = classType;
             }
         }
+        logger.trace("Found best matching ExceptionMapper factory {} for type {} ", best, type); //$NON-NLS-1$
+        return best;
+    }
 
-        ExceptionMapper<T> mapper = (ExceptionMapper<T>)matchingMappers.get(0);
-        logger.trace("Found best matching ExceptionMapper {} for type {} ", mapper, type); //$NON-NLS-1$
-        return mapper;
+    private static class ExceptionMapperMatch {
+
+        final TreeSet<PriorityObjectFactory<ExceptionMapper<?>>> mappers;
+        final PriorityObjectFactory<ExceptionMapper<?>>          factory;
+
+        ExceptionMapperMatch(TreeSet<PriorityObjectFactory<ExceptionMapper<?>>> mappers,
+                             PriorityObjectFactory<ExceptionMapper<?>> factory) {
+            this.mappers = mappers;
+            this.factory = factory;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -647,7 +668,7 @@ public class ProvidersRegistry {
         private final Class<?>                                                                     rawType;
 
         private final SoftConcurrentMap<Class<?>, SoftConcurrentMap<MediaType, List<OFHolder<T>>>> providersCache =
-                                                                                                                      new SoftConcurrentMap<Class<?>, SoftConcurrentMap<MediaType, List<OFHolder<T>>>>(); ;
+                                                                                                                      new SoftConcurrentMap<Class<?>, SoftConcurrentMap<MediaType, List<OFHolder<T>>>>("ProvidersRegistry.providersCache"); //$NON-NLS-1$
 
         public MediaTypeMap(Class<?> rawType) {
             super();
@@ -698,6 +719,8 @@ public class ProvidersRegistry {
                 logger
                     .trace("MediaType to providers cache for class {} does not exist so creating", //$NON-NLS-1$
                            cls);
+                // only providersCache is managed, registering a cache per
+                // class would synchronize on ManagedCaches at every miss
                 mediaTypeToProvidersCache = new SoftConcurrentMap<MediaType, List<OFHolder<T>>>();
                 providersCache.put(cls, mediaTypeToProvidersCache);
             }
@@ -51,8 +51,8 @@ public class ClassMetadata extends AbstractMetadata {
     // a map of fields that are to be injected with injectable data during a
     // request
     private List<Injectable>     injectableFields;
-    // bean info of this class
-    private final BeanInfo       beanInfo;
+    // bean info of this class, introspected when the fields are parsed
+    private volatile BeanInfo    beanInfo;
 
     ClassMetadata(Class<?> resourceClass) {
         this.resourceClass = resourceClass;
@@ -63,12 +63,6 @@ public class ClassMetadata extends AbstractMetadata {
         this.subResourceMethods = new ArrayList<MethodMetadata>();
         this.parentInstances = new ArrayList<Object>();
         this.injectableFields = new ArrayList<Injectable>();
-        try {
-            beanInfo = Introspector.getBeanInfo(resourceClass);
-        } catch (IntrospectionException e) {
-            // should never happen
-            throw new WebApplicationException(e);
-        }
     }
 
     public Class<?> getResourceClass() {
@@ -142,6 +136,14 @@ public class ClassMetadata extends AbstractMetadata {
     }
 
     public BeanInfo getBeanInfo() {
+        if (beanInfo == null) {
+            try {
+                beanInfo = Introspector.getBeanInfo(resourceClass);
+            } catch (IntrospectionException e) {
+                // should never happen
+                throw new WebApplicationException(e);
+            }
+        }
         return beanInfo;
     }
 
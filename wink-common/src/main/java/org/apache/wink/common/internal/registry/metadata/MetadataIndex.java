@@ -0,0 +1,372 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.registry.metadata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The build time metadata index of the application classes, as written by
+ * the wink-metadata-index annotation processor to
+ * <tt>META-INF/wink-metadata-index</tt>.
+ * <p>
+ * The index tells whether a class is a root resource or a provider, and
+ * which of its public methods carry JAX-RS annotations, so that the metadata
+ * collectors do not need to inspect every method of the class hierarchy.
+ * Classes that are not in the index, and indexed methods that cannot be
+ * resolved, are handled reflectively as before.
+ * <p>
+ * Each class of the index has a stamp, computed from the signatures of the
+ * methods that the class and its supertypes declare. A class whose stamp
+ * does not match the loaded class was changed after the index was written,
+ * and is handled as if it was not indexed.
+ * <p>
+ * Each deployment loads its own index from the class loader of its
+ * application, and makes it current while it registers its classes.
+ */
+public class MetadataIndex {
+
+    public static final String                  INDEX_FILE = "META-INF/wink-metadata-index"; //$NON-NLS-1$
+
+    private static final Logger                 logger     =
+                                                               LoggerFactory
+                                                                   .getLogger(MetadataIndex.class);
+
+    private static final String                 STAMP      = "stamp="; //$NON-NLS-1$
+
+    private static final Map<String, Class<?>>  PRIMITIVES = new HashMap<String, Class<?>>();
+
+    static {
+        for (Class<?> cls : new Class<?>[] {boolean.class, byte.class, char.class, short.class,
+            int.class, long.class, float.class, double.class}) {
+            PRIMITIVES.put(cls.getName(), cls);
+        }
+    }
+
+    private static final ThreadLocal<MetadataIndex> current = new ThreadLocal<MetadataIndex>();
+
+    private final Map<String, IndexedClass>     classes    = new HashMap<String, IndexedClass>();
+    private final ClassLoader                   classLoader;
+
+    private MetadataIndex(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @return the index of the deployment that is registering classes on the
+     *         current thread, or null if the metadata must be collected
+     *         reflectively
+     */
+    public static MetadataIndex getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Set the index used by the metadata collectors on the current thread. A
+     * deployment sets its own index while it registers its classes, and
+     * restores the previous one when it is done.
+     * 
+     * @param index the index, or null to collect all metadata reflectively
+     */
+    public static void setCurrent(MetadataIndex index) {
+        if (index == null) {
+            current.remove();
+        } else {
+            current.set(index);
+        }
+    }
+
+    /**
+     * Load all the <tt>META-INF/wink-metadata-index</tt> files visible to the
+     * class loader of an application
+     */
+    public static MetadataIndex load(ClassLoader classLoader) throws IOException {
+        return load(INDEX_FILE, classLoader);
+    }
+
+    public static MetadataIndex load(String fileName, ClassLoader classLoader)
+        throws IOException {
+        MetadataIndex index = new MetadataIndex(classLoader);
+        Set<String> loaded = new HashSet<String>();
+        Enumeration<URL> resources = classLoader.getResources(fileName);
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            if (loaded.add(url.toExternalForm())) {
+                logger.trace("Loading metadata index from {}", url); //$NON-NLS-1$
+                InputStream is = url.openStream();
+                try {
+                    index.read(is);
+                } finally {
+                    is.close();
+                }
+            }
+        }
+        logger.trace("Metadata index contains {} classes", index.size()); //$NON-NLS-1$
+        return index;
+    }
+
+    void read(InputStream is) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8")); //$NON-NLS-1$
+        IndexedClass current = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.length() == 0 || line.startsWith("#")) { //$NON-NLS-1$
+                continue;
+            }
+            String[] tokens = line.split("\\s+"); //$NON-NLS-1$
+            if ("class".equals(tokens[0]) && tokens.length > 1) { //$NON-NLS-1$
+                current = new IndexedClass();
+                for (int i = 2; i < tokens.length; ++i) {
+                    if ("resource".equals(tokens[i])) { //$NON-NLS-1$
+                        current.resource = true;
+                    } else if ("provider".equals(tokens[i])) { //$NON-NLS-1$
+                        current.provider = true;
+                    } else if (tokens[i].startsWith(STAMP)) {
+                        try {
+                            current.stamp = Integer.valueOf(tokens[i].substring(STAMP.length()));
+                        } catch (NumberFormatException e) {
+                            logger.trace("Ignoring metadata index stamp {}", tokens[i]); //$NON-NLS-1$
+                        }
+                    }
+                }
+                classes.put(tokens[1], current);
+            } else if ("method".equals(tokens[0]) && tokens.length > 1 && current != null) { //$NON-NLS-1$
+                current.methods.add(tokens[1]);
+            } else {
+                logger.trace("Ignoring metadata index line {}", line); //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * @return the number of indexed classes
+     */
+    public int size() {
+        return classes.size();
+    }
+
+    /**
+     * @return whether the class is a root resource, or null if the class is
+     *         not indexed
+     */
+    public Boolean isResource(Class<?> cls) {
+        IndexedClass indexed = getIndexedClass(cls);
+        return (indexed != null) ? Boolean.valueOf(indexed.resource) : null;
+    }
+
+    /**
+     * @return whether the class is a provider, or null if the class is not
+     *         indexed
+     */
+    public Boolean isProvider(Class<?> cls) {
+        IndexedClass indexed = getIndexedClass(cls);
+        return (indexed != null) ? Boolean.valueOf(indexed.provider) : null;
+    }
+
+    /**
+     * @return the public methods of the class that have JAX-RS annotations,
+     *         or null if the class is not indexed or the index does not match
+     *         the class
+     */
+    public Method[] getMethods(Class<?> cls) {
+        IndexedClass indexed = getIndexedClass(cls);
+        if (indexed == null) {
+            return null;
+        }
+        List<Method> methods = new ArrayList<Method>(indexed.methods.size());
+        for (String signature : indexed.methods) {
+            try {
+                methods.add(resolveMethod(cls, signature));
+            } catch (Exception e) {
+                // the class changed since it was indexed
+                logger.trace("Could not resolve the indexed method " + signature //$NON-NLS-1$
+                    + " of " //$NON-NLS-1$
+                    + cls, e);
+                return null;
+            } catch (LinkageError e) {
+                logger.trace("Could not resolve the indexed method " + signature //$NON-NLS-1$
+                    + " of " //$NON-NLS-1$
+                    + cls, e);
+                return null;
+            }
+        }
+        return methods.toArray(new Method[methods.size()]);
+    }
+
+    /**
+     * The index describes only the classes that its class loader sees, so a
+     * class of the same name from another application is not indexed. A
+     * class that changed since it was indexed is not indexed either.
+     */
+    private IndexedClass getIndexedClass(Class<?> cls) {
+        IndexedClass indexed = classes.get(cls.getName());
+        if (indexed == null) {
+            return null;
+        }
+        ClassLoader clsLoader = cls.getClassLoader();
+        for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+            if (loader == clsLoader) {
+                return isCurrent(indexed, cls) ? indexed : null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isCurrent(IndexedClass indexed, Class<?> cls) {
+        if (indexed.verified == cls) {
+            return true;
+        }
+        Integer stamp;
+        try {
+            stamp = Integer.valueOf(getStamp(cls));
+        } catch (RuntimeException e) {
+            logger.trace("Could not compute the metadata index stamp of " + cls, e); //$NON-NLS-1$
+            return false;
+        } catch (LinkageError e) {
+            logger.trace("Could not compute the metadata index stamp of " + cls, e); //$NON-NLS-1$
+            return false;
+        }
+        if (!stamp.equals(indexed.stamp)) {
+            logger.trace("The metadata index of {} is stale", cls); //$NON-NLS-1$
+            return false;
+        }
+        indexed.verified = cls;
+        return true;
+    }
+
+    /**
+     * The stamp that the wink-metadata-index annotation processor writes for
+     * a class: the sum of the hash codes of the signatures of the methods
+     * that the class and its supertypes other than Object declare, excluding
+     * the synthetic methods of the compiler
+     */
+    public static int getStamp(Class<?> cls) {
+        Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+        types.add(cls);
+        collectSuperTypes(cls, types);
+        int stamp = 0;
+        for (Class<?> type : types) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (!method.isSynthetic()) {
+                    stamp += getSignature(method).hashCode();
+                }
+            }
+        }
+        return stamp;
+    }
+
+    private static void collectSuperTypes(Class<?> cls, Set<Class<?>> types) {
+        List<Class<?>> superTypes = new ArrayList<Class<?>>();
+        if (cls.getSuperclass() != null) {
+            superTypes.add(cls.getSuperclass());
+        }
+        for (Class<?> interfaceType : cls.getInterfaces()) {
+            superTypes.add(interfaceType);
+        }
+        for (Class<?> superType : superTypes) {
+            if (superType != Object.class && types.add(superType)) {
+                collectSuperTypes(superType, types);
+            }
+        }
+    }
+
+    /**
+     * @return the signature of the method in the format of the index
+     */
+    private static String getSignature(Method method) {
+        StringBuilder signature = new StringBuilder();
+        signature.append(method.getName()).append('(');
+        Class<?>[] paramTypes = method.getParameterTypes();
+        for (int i = 0; i < paramTypes.length; ++i) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            appendTypeName(signature, paramTypes[i]);
+        }
+        return signature.append(')').toString();
+    }
+
+    private static void appendTypeName(StringBuilder signature, Class<?> type) {
+        if (type.isArray()) {
+            appendTypeName(signature, type.getComponentType());
+            signature.append("[]"); //$NON-NLS-1$
+        } else {
+            signature.append(type.getName());
+        }
+    }
+
+    private static Method resolveMethod(Class<?> cls, String signature) throws Exception {
+        int open = signature.indexOf('(');
+        String name = signature.substring(0, open);
+        String params = signature.substring(open + 1, signature.length() - 1);
+        if (params.length() == 0) {
+            return cls.getMethod(name);
+        }
+        String[] paramNames = params.split(","); //$NON-NLS-1$
+        Class<?>[] paramTypes = new Class<?>[paramNames.length];
+        for (int i = 0; i < paramNames.length; ++i) {
+            paramTypes[i] = resolveType(cls, paramNames[i]);
+        }
+        return cls.getMethod(name, paramTypes);
+    }
+
+    private static Class<?> resolveType(Class<?> cls, String name) throws ClassNotFoundException {
+        if (name.endsWith("[]")) { //$NON-NLS-1$
+            Class<?> componentType = resolveType(cls, name.substring(0, name.length() - 2));
+            return Array.newInstance(componentType, 0).getClass();
+        }
+        Class<?> primitive = PRIMITIVES.get(name);
+        if (primitive != null) {
+            return primitive;
+        }
+        ClassLoader classLoader = cls.getClassLoader();
+        if (classLoader == null) {
+            classLoader = Thread.currentThread().getContextClassLoader();
+        }
+        return Class.forName(name, false, classLoader);
+    }
+
+    private static class IndexedClass {
+        boolean           resource;
+        boolean           provider;
+        Integer           stamp;
+        List<String>      methods = new ArrayList<String>();
+        /** the class the stamp was checked against */
+        volatile Class<?> verified;
+    }
+}
@@ -63,6 +63,15 @@ public class ProviderMetadataCollector extends AbstractMetadataCollector {
             return false;
         }
 
+        MetadataIndex index = MetadataIndex.getCurrent();
+        if (index != null) {
+            Boolean indexed = index.isProvider(cls);
+            if (indexed != null) {
+                logger.trace("isProvider() exit returning {} from the metadata index", indexed);
+                return indexed.booleanValue();
+            }
+        }
+
         if (cls.getAnnotation(Provider.class) != null) {
             return true;
         }
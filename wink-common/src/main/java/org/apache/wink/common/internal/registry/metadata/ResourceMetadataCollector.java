@@ -71,6 +71,15 @@ public class ResourceMetadataCollector extends AbstractMetadataCollector {
             return false;
         }
 
+        MetadataIndex index = MetadataIndex.getCurrent();
+        if (index != null) {
+            Boolean indexed = index.isResource(cls);
+            if (indexed != null) {
+                logger.trace("isStaticResource() exit returning {} from the metadata index", indexed);
+                return indexed.booleanValue();
+            }
+        }
+
         if (cls.getAnnotation(Path.class) != null) {
             logger.trace("isStaticResource() exit returning true");
             return true;
@@ -127,6 +136,19 @@ public class ResourceMetadataCollector extends AbstractMetadataCollector {
         return md;
     }
 
+    /**
+     * Collect only the class level metadata of a resource: the path, the
+     * parents, the workspace and the class level consumes and produces. This
+     * is enough to match requests against the resource, the rest of the
+     * metadata can be collected later with {@link #collectMetadata(Class)}.
+     */
+    public static ClassMetadata collectClassMetadata(Class<?> clazz) {
+        logger.trace("collectClassMetadata({}) entry", clazz);
+        ResourceMetadataCollector collector = new ResourceMetadataCollector(clazz);
+        collector.parseClass();
+        return collector.getMetadata();
+    }
+
     @Override
     protected final Injectable parseAccessibleObject(AccessibleObject field, Type fieldType) {
         Injectable injectable =
@@ -218,7 +240,18 @@ public class ResourceMetadataCollector extends AbstractMetadataCollector {
 
     private void parseMethods() {
         logger.trace("entry");
-        F1: for (Method method : getMetadata().getResourceClass().getMethods()) {
+        Class<?> resourceClass = getMetadata().getResourceClass();
+        Method[] methods = null;
+        MetadataIndex index = MetadataIndex.getCurrent();
+        if (index != null) {
+            // only the annotated methods, if the class was indexed at build
+            // time
+            methods = index.getMethods(resourceClass);
+        }
+        if (methods == null) {
+            methods = resourceClass.getMethods();
+        }
+        F1: for (Method method : methods) {
             Class<?> declaringClass = method.getDeclaringClass();
             if (declaringClass == Object.class) {
                 continue F1;
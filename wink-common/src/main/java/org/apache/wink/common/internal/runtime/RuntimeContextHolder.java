@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.runtime;
+
+import org.apache.wink.common.RuntimeContext;
+
+/**
+ * Binds the {@link RuntimeContext} of the request being processed to the
+ * executing code. {@link RuntimeContextTLS} delegates to an instance of this
+ * interface, which allows a container integration to replace the default
+ * ThreadLocal binding.
+ * <p>
+ * Wink always sets the context before processing a request, restores the
+ * previous context when the processing moves to another thread, and sets a
+ * null context when the processing ends.
+ */
+public interface RuntimeContextHolder {
+
+    /**
+     * @return the current RuntimeContext, or null if there is none
+     */
+    public RuntimeContext get();
+
+    /**
+     * Set the current RuntimeContext
+     *
+     * @param runtimeContext the RuntimeContext, or null to remove the current
+     *            one
+     */
+    public void set(RuntimeContext runtimeContext);
+
+}
@@ -24,20 +24,56 @@ import org.apache.wink.common.RuntimeContext;
 
 public abstract class RuntimeContextTLS {
 
-    private static ThreadLocal<RuntimeContext> threadLocal = new ThreadLocal<RuntimeContext>();
+    private static volatile RuntimeContextHolder holder = new ThreadLocalRuntimeContextHolder();
 
     /**
      * For internal usage only
      */
     public static RuntimeContext getRuntimeContext() {
-        return threadLocal.get();
+        return holder.get();
     }
 
     /**
      * For internal usage only
      */
     public static void setRuntimeContext(RuntimeContext runtimeContext) {
-        threadLocal.set(runtimeContext);
+        holder.set(runtimeContext);
+    }
+
+    /**
+     * Replace the strategy that binds the current RuntimeContext to the
+     * executing code. This must be done before any request is processed, for
+     * example by a container integration that runs requests on threads that
+     * should not carry ThreadLocal state.
+     *
+     * @param runtimeContextHolder the new holder, or null to restore the
+     *            default ThreadLocal based holder
+     */
+    public static void setRuntimeContextHolder(RuntimeContextHolder runtimeContextHolder) {
+        holder =
+            (runtimeContextHolder != null) ? runtimeContextHolder
+                : new ThreadLocalRuntimeContextHolder();
+    }
+
+    /**
+     * The default holder. Setting a null context removes the entry from the
+     * thread, so no state is left behind on threads that are not reused.
+     */
+    private static class ThreadLocalRuntimeContextHolder implements RuntimeContextHolder {
+
+        private final ThreadLocal<RuntimeContext> threadLocal = new ThreadLocal<RuntimeContext>();
+
+        public RuntimeContext get() {
+            return threadLocal.get();
+        }
+
+        public void set(RuntimeContext runtimeContext) {
+            if (runtimeContext == null) {
+                threadLocal.remove();
+            } else {
+                threadLocal.set(runtimeContext);
+            }
+        }
     }
 
 }
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The caches that share a name, for example the JAXBContext caches of all the
+ * JAXB providers. The caches are referenced weakly, and their statistics are
+ * aggregated.
+ */
+public class CacheGroup implements CacheGroupMBean {
+
+    private final String                    name;
+    private final Map<ManagedCache, Object> caches = new WeakHashMap<ManagedCache, Object>();
+    private CacheStatistics                 statistics;
+
+    CacheGroup(String name) {
+        this.name = name;
+    }
+
+    synchronized void add(ManagedCache cache) {
+        caches.put(cache, null);
+        if (statistics != null) {
+            cache.setStatistics(statistics);
+        }
+    }
+
+    synchronized void setStatisticsEnabled(boolean enabled) {
+        if (enabled == (statistics != null)) {
+            return;
+        }
+        statistics = enabled ? new CacheStatistics() : null;
+        for (ManagedCache cache : getCaches()) {
+            cache.setStatistics(statistics);
+        }
+    }
+
+    private synchronized List<ManagedCache> getCaches() {
+        return new ArrayList<ManagedCache>(caches.keySet());
+    }
+
+    private synchronized CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getInstances() {
+        return caches.size();
+    }
+
+    public long getSize() {
+        long size = 0;
+        for (ManagedCache cache : getCaches()) {
+            size += cache.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        CacheStatistics s = getStatistics();
+        return (s == null) ? 0 : s.getHits();
+    }
+
+    public long getMisses() {
+        CacheStatistics s = getStatistics();
+        return (s == null) ? 0 : s.getMisses();
+    }
+
+    public double getHitRatio() {
+        CacheStatistics s = getStatistics();
+        if (s == null) {
+            return 0;
+        }
+        long hits = s.getHits();
+        long lookups = hits + s.getMisses();
+        return (lookups == 0) ? 0 : (double)hits / lookups;
+    }
+
+    public long getEvictions() {
+        CacheStatistics s = getStatistics();
+        return (s == null) ? 0 : s.getEvictions();
+    }
+
+    public long getLoads() {
+        CacheStatistics s = getStatistics();
+        return (s == null) ? 0 : s.getLoads();
+    }
+
+    public long getTotalLoadTimeNanos() {
+        CacheStatistics s = getStatistics();
+        return (s == null) ? 0 : s.getTotalLoadTimeNanos();
+    }
+
+    public long getMeanLoadTimeNanos() {
+        CacheStatistics s = getStatistics();
+        if (s == null) {
+            return 0;
+        }
+        long loads = s.getLoads();
+        return (loads == 0) ? 0 : s.getTotalLoadTimeNanos() / loads;
+    }
+
+    public void clear() {
+        for (ManagedCache cache : getCaches()) {
+            cache.clear();
+        }
+    }
+
+    public void resetStatistics() {
+        CacheStatistics s = getStatistics();
+        if (s != null) {
+            s.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.utils;
+
+/**
+ * Management interface of a {@link CacheGroup}
+ */
+public interface CacheGroupMBean {
+
+    public String getName();
+
+    /**
+     * @return the number of live cache instances in the group
+     */
+    public int getInstances();
+
+    /**
+     * @return the number of entries of all the caches in the group
+     */
+    public long getSize();
+
+    public long getHits();
+
+    public long getMisses();
+
+    /**
+     * @return the ratio of hits to lookups, or 0 if there were no lookups
+     */
+    public double getHitRatio();
+
+    /**
+     * @return the number of entries that were discarded by the garbage
+     *         collector or to bound the size of the cache
+     */
+    public long getEvictions();
+
+    public long getLoads();
+
+    public long getTotalLoadTimeNanos();
+
+    public long getMeanLoadTimeNanos();
+
+    /**
+     * Remove all the entries of all the caches in the group
+     */
+    public void clear();
+
+    /**
+     * Reset the statistics of the group
+     */
+    public void resetStatistics();
+
+}
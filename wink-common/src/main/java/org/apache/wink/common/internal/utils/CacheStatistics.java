@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The hit, miss, eviction and load counters of a group of caches. A cache
+ * holds a CacheStatistics only while the statistics are enabled, see
+ * {@link ManagedCaches}.
+ * <p>
+ * The load time is the time between a miss and the next put of the same key
+ * on the same thread, which is how the Wink caches are populated.
+ */
+public class CacheStatistics {
+
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong loads     = new AtomicLong();
+    private final AtomicLong loadTime  = new AtomicLong();
+
+    /**
+     * The hash code of the key of the last miss on this thread and the time
+     * of the miss. Only primitives are kept, so that the keys are not
+     * retained by the container threads.
+     */
+    private final ThreadLocal<long[]> pendingLoad = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[] {0, -1};
+        }
+    };
+
+    public void hit() {
+        hits.incrementAndGet();
+    }
+
+    public void miss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Record a miss and start timing the load of the key
+     */
+    public void miss(Object key) {
+        misses.incrementAndGet();
+        long[] pending = pendingLoad.get();
+        pending[0] = (key != null) ? key.hashCode() : 0;
+        pending[1] = System.nanoTime();
+    }
+
+    /**
+     * Stop timing the load of the key, if the last miss on this thread was
+     * for the same key
+     */
+    public void loaded(Object key) {
+        long[] pending = pendingLoad.get();
+        if (pending[1] >= 0 && pending[0] == ((key != null) ? key.hashCode() : 0)) {
+            load(System.nanoTime() - pending[1]);
+            pending[1] = -1;
+        }
+    }
+
+    public void load(long nanos) {
+        loads.incrementAndGet();
+        loadTime.addAndGet(nanos);
+    }
+
+    public void evicted() {
+        evictions.incrementAndGet();
+    }
+
+    public void evicted(int count) {
+        evictions.addAndGet(count);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getLoads() {
+        return loads.get();
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return loadTime.get();
+    }
+
+    public void reset() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+        loads.set(0);
+        loadTime.set(0);
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.wink.common.internal.i18n.Messages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The named Wink caches. Each cache registers itself under a name when it is
+ * created; caches with the same name form a {@link CacheGroup}.
+ * <p>
+ * The caches do not keep statistics until {@link #enable()} is called, which
+ * also registers an <tt>org.apache.wink:type=Cache</tt> MBean for each group.
+ * The caches are shared by all the Wink applications of the class loader, so
+ * the calls to {@link #enable()} and {@link #disable()} are counted and the
+ * MBeans are unregistered when the last user disables them.
+ */
+public abstract class ManagedCaches {
+
+    private static final Logger                  logger  =
+                                                             LoggerFactory
+                                                                 .getLogger(ManagedCaches.class);
+
+    private static final Map<String, CacheGroup> groups  = new TreeMap<String, CacheGroup>();
+    private static final Map<String, ObjectName> mbeans  = new HashMap<String, ObjectName>();
+    private static int                           enabled = 0;
+
+    /**
+     * Add a cache to the group of the specified name
+     */
+    public static synchronized void register(String name, ManagedCache cache) {
+        CacheGroup group = groups.get(name);
+        if (group == null) {
+            group = new CacheGroup(name);
+            groups.put(name, group);
+            if (enabled > 0) {
+                group.setStatisticsEnabled(true);
+                registerMBean(group);
+            }
+        }
+        group.add(cache);
+    }
+
+    public static synchronized CacheGroup getGroup(String name) {
+        return groups.get(name);
+    }
+
+    public static synchronized List<CacheGroup> getGroups() {
+        return new ArrayList<CacheGroup>(groups.values());
+    }
+
+    public static synchronized boolean isEnabled() {
+        return enabled > 0;
+    }
+
+    /**
+     * Start keeping statistics and register the MBeans of the caches
+     */
+    public static synchronized void enable() {
+        if (enabled++ > 0) {
+            return;
+        }
+        for (CacheGroup group : groups.values()) {
+            group.setStatisticsEnabled(true);
+            registerMBean(group);
+        }
+    }
+
+    /**
+     * Undo a call to {@link #enable()}
+     */
+    public static synchronized void disable() {
+        if (enabled == 0 || --enabled > 0) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : mbeans.values()) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (Exception e) {
+                logger.trace("Could not unregister the cache MBean " + objectName, e); //$NON-NLS-1$
+            }
+        }
+        mbeans.clear();
+        for (CacheGroup group : groups.values()) {
+            group.setStatisticsEnabled(false);
+        }
+    }
+
+    /**
+     * @return the name of the MBean of the group, or null if it is not
+     *         registered
+     */
+    public static synchronized ObjectName getObjectName(String name) {
+        return mbeans.get(name);
+    }
+
+    private static void registerMBean(CacheGroup group) {
+        try {
+            ObjectName objectName =
+                new ObjectName("org.apache.wink:type=Cache,name=" + ObjectName.quote(group.getName())); //$NON-NLS-1$
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(group, objectName);
+                mbeans.put(group.getName(), objectName);
+            }
+        } catch (Exception e) {
+            logger.warn(Messages.getMessage("mbeanRegistrationFailed", group.getName()), e); //$NON-NLS-1$
+        }
+    }
+}
@@ -37,16 +37,21 @@ import java.util.WeakHashMap;
  * return cached = !null ? cached : cache.put(createValue());
  * </pre>
  * 
+ * A cache that is created with a name is registered with the
+ * {@link ManagedCaches}, which can keep its statistics.
+ * 
  * @param <K>
  * @param <V>
  */
-public class SoftConcurrentMap<K, V> implements SimpleMap<K, V> {
+public class SoftConcurrentMap<K, V> implements SimpleMap<K, V>, ManagedCache {
 
     /*
      * Note that this volatile variable is important for publication purposes.
      */
     private volatile Map<K, SoftReference<V>> map;
 
+    private volatile CacheStatistics          statistics;
+
     /**
      * Provides the map implementation.
      * 
@@ -56,9 +61,33 @@ public class SoftConcurrentMap<K, V> implements SimpleMap<K, V> {
         this.map = new WeakHashMap<K, SoftReference<V>>();
     }
 
+    /**
+     * Creates a cache that is registered with the {@link ManagedCaches}
+     * 
+     * @param name the name of the cache, usually the simple name of the
+     *            owning class and the name of the field
+     */
+    public SoftConcurrentMap(String name) {
+        this();
+        ManagedCaches.register(name, this);
+    }
+
     public V get(K key) {
         SoftReference<V> softReference = map.get(key);
-        return softReference != null ? softReference.get() : null;
+        V value = softReference != null ? softReference.get() : null;
+        CacheStatistics stats = statistics;
+        if (stats != null) {
+            if (value != null) {
+                stats.hit();
+            } else {
+                if (softReference != null) {
+                    // the value was collected
+                    stats.evicted();
+                }
+                stats.miss(key);
+            }
+        }
+        return value;
     }
 
     /**
@@ -97,6 +126,10 @@ public class SoftConcurrentMap<K, V> implements SimpleMap<K, V> {
         }
         copyOfMap.put(key, new SoftReference<V>(val));
         map = copyOfMap;
+        CacheStatistics stats = statistics;
+        if (stats != null) {
+            stats.loaded(key);
+        }
         return val;
     }
 
@@ -108,4 +141,24 @@ public class SoftConcurrentMap<K, V> implements SimpleMap<K, V> {
         map = new WeakHashMap<K, SoftReference<V>>();
     }
 
+    public int size() {
+        while (true) {
+            try {
+                int size = 0;
+                for (SoftReference<V> softReference : map.values()) {
+                    if (softReference.get() != null) {
+                        ++size;
+                    }
+                }
+                return size;
+            } catch (ConcurrentModificationException e) {
+                // the garbage collector removed a key, retry
+            }
+        }
+    }
+
+    public void setStatistics(CacheStatistics statistics) {
+        this.statistics = statistics;
+    }
+
 }
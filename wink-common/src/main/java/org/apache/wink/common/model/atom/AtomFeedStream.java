@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.model.atom;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * An Atom feed whose entries are produced or consumed one at a time.
+ * <p>
+ * The feed consists of a header, which is an {@link AtomFeed} holding the
+ * metadata of the feed, and an iterator over the entries of the feed. When
+ * the feed is written, the header is written first and the entries are
+ * written as the iterator produces them, so a feed with a very large number of
+ * entries never needs to be held in memory. When the feed is read, the header
+ * contains the elements of the feed that precede the first entry, and the
+ * entries are unmarshalled as the iterator is advanced.
+ * <p>
+ * A feed that was read must be consumed or closed before the entity stream
+ * is released.
+ */
+public class AtomFeedStream implements Closeable {
+
+    /**
+     * The number of entries that are written between two flushes of the
+     * entity stream by default
+     */
+    public static final int           DEFAULT_FLUSH_INTERVAL = 100;
+
+    private final AtomFeed            header;
+    private final Iterator<AtomEntry> entries;
+    private int                       flushInterval          = DEFAULT_FLUSH_INTERVAL;
+
+    /**
+     * @param header the metadata of the feed. Entries of the header are
+     *            written before the entries of the iterator.
+     * @param entries the entries of the feed
+     */
+    public AtomFeedStream(AtomFeed header, Iterator<AtomEntry> entries) {
+        this.header = (header != null) ? header : new AtomFeed();
+        if (entries == null) {
+            entries = Collections.<AtomEntry> emptyList().iterator();
+        }
+        this.entries = entries;
+    }
+
+    public AtomFeed getHeader() {
+        return header;
+    }
+
+    /**
+     * Get the entries of the feed. The iterator can be traversed only once.
+     */
+    public Iterator<AtomEntry> getEntries() {
+        return entries;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Set the number of entries that are written between two flushes of the
+     * entity stream, or 0 to flush only at the end of the feed
+     */
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Release the resources of the entries iterator, if it has any
+     */
+    public void close() throws IOException {
+        if (entries instanceof Closeable) {
+            ((Closeable)entries).close();
+        }
+    }
+}
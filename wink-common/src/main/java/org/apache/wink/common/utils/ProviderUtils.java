@@ -61,9 +61,9 @@ public class ProviderUtils {
     private static final String                       DEFAULT_CHARSET   = "UTF-8"; //$NON-NLS-1$
 
     private static SoftConcurrentMap<String, Boolean> validCharsets     =
-                                                                            new SoftConcurrentMap<String, Boolean>();
+                                                                            new SoftConcurrentMap<String, Boolean>("ProviderUtils.validCharsets"); //$NON-NLS-1$
     private static SoftConcurrentMap<String, String>  preferredCharsets =
-                                                                            new SoftConcurrentMap<String, String>();
+                                                                            new SoftConcurrentMap<String, String>("ProviderUtils.preferredCharsets"); //$NON-NLS-1$
     
     public static enum PROVIDER_EXCEPTION_ORIGINATOR {
         isReadable,
@@ -19,8 +19,14 @@
  *******************************************************************************/
 package org.apache.wink.common.internal.lifecycle;
 
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+
 import junit.framework.TestCase;
 
+import org.apache.wink.common.annotations.Scope;
+import org.apache.wink.common.annotations.Scope.ScopeType;
+
 /**
  * test scenarios not covered by OFFactoryTest
  */
@@ -29,6 +35,18 @@ public class ScopableOFFactoryTest extends TestCase {
     public static class Dummy {
     }
 
+    @Path("pooled")
+    @Scope(ScopeType.POOLED)
+    public static class Pooled {
+    }
+
+    @Path("pooled")
+    @Scope(ScopeType.POOLED)
+    public static class PooledWithParameters {
+        public PooledWithParameters(@QueryParam("q") String q) {
+        }
+    }
+
     public void testNull() {
         ScopeLifecycleManager<Object> scopableOFFactory = new ScopeLifecycleManager<Object>();
         assertNull(scopableOFFactory.createObjectFactory(null));
@@ -40,4 +58,41 @@ public class ScopableOFFactoryTest extends TestCase {
         assertNull(scopableOFFactory.createObjectFactory(new Dummy()));
     }
 
+    public void testPooled() {
+        ScopeLifecycleManager<Pooled> scopableOFFactory = new ScopeLifecycleManager<Pooled>();
+        ObjectFactory<Pooled> factory = scopableOFFactory.createObjectFactory(Pooled.class);
+        assertTrue(factory instanceof PooledObjectFactory);
+        PooledObjectFactory<Pooled> of = (PooledObjectFactory<Pooled>)factory;
+        Pooled instance = of.getInstance(null);
+        assertNotNull(instance);
+        of.releaseInstance(instance, null);
+        assertEquals(1, of.getIdleCount());
+        assertSame(instance, of.getInstance(null));
+        assertEquals(0, of.getIdleCount());
+        assertNotSame(instance, of.getInstance(null));
+
+        of.releaseInstance(instance, null);
+        of.releaseAll(null);
+        assertEquals(0, of.getIdleCount());
+        assertNotSame(instance, of.getInstance(null));
+    }
+
+    public void testPooledMaxIdle() {
+        PooledObjectFactory<Pooled> of =
+            new PooledObjectFactory<Pooled>(LifecycleManagerUtils.collectClassMetadata(Pooled.class,
+                                                                                       true), 1);
+        of.releaseInstance(new Pooled(), null);
+        of.releaseInstance(new Pooled(), null);
+        assertEquals(1, of.getIdleCount());
+    }
+
+    public void testPooledWithConstructorParameters() {
+        ScopeLifecycleManager<PooledWithParameters> scopableOFFactory =
+            new ScopeLifecycleManager<PooledWithParameters>();
+        ObjectFactory<PooledWithParameters> of =
+            scopableOFFactory.createObjectFactory(PooledWithParameters.class);
+        assertTrue(of instanceof PrototypeObjectFactory);
+        assertFalse(of instanceof PooledObjectFactory);
+    }
+
 }
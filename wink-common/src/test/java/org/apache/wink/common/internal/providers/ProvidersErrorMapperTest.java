@@ -113,4 +113,23 @@ public class ProvidersErrorMapperTest extends TestCase {
                                                                              null).getClass());
 
     }
+
+    public void testErrorMappersCacheInvalidation() {
+        ProvidersRegistry providers = createProvidersRegistryImpl();
+        assertNull(providers.getExceptionMapper(NullPointerException.class, null));
+
+        providers.addProvider(new BaseExceptionMapper());
+        assertEquals(BaseExceptionMapper.class, providers
+            .getExceptionMapper(NullPointerException.class, null).getClass());
+        // cached
+        assertEquals(BaseExceptionMapper.class, providers
+            .getExceptionMapper(NullPointerException.class, null).getClass());
+
+        providers.addProvider(new RuntimeExceptionMapper());
+        assertEquals(RuntimeExceptionMapper.class, providers
+            .getExceptionMapper(NullPointerException.class, null).getClass());
+        assertEquals(BaseExceptionMapper.class, providers.getExceptionMapper(IOException.class,
+                                                                             null).getClass());
+        assertNull(providers.getExceptionMapper(Error.class, null));
+    }
 }
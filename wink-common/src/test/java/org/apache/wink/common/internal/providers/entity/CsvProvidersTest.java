@@ -23,8 +23,11 @@ package org.apache.wink.common.internal.providers.entity;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,6 +45,8 @@ import junit.framework.TestCase;
 
 import org.apache.wink.common.internal.MultivaluedMapImpl;
 import org.apache.wink.common.internal.providers.entity.csv.CsvDeserializerProvider;
+import org.apache.wink.common.internal.providers.entity.csv.CsvReader;
+import org.apache.wink.common.internal.providers.entity.csv.CsvRowIteratorProvider;
 import org.apache.wink.common.internal.providers.entity.csv.CsvSerializerProvider;
 import org.apache.wink.common.internal.providers.entity.csv.CsvSyndFeedSerializerProvider;
 import org.apache.wink.common.internal.utils.MediaTypeUtils;
@@ -283,4 +288,136 @@ public class CsvProvidersTest extends TestCase {
         assertEquals(expected, result);
     }
 
+    /**
+     * tests that the rows do not depend on where the buffer of the reader ends
+     */
+    public void testReaderBufferBoundaries() throws Exception {
+        String source =
+            "a,\"b,\"\"c\"\"\",d\r\n" + "\"multi\nline\",\r\n"
+                + "cr\rinside,\"\"\n"
+                + "last";
+        List<String[]> expected =
+            Arrays.asList(new String[] {"a", "b,\"c\"", "d"},
+                          new String[] {"multi\nline", ""},
+                          new String[] {"cr\rinside", ""},
+                          new String[] {"last"});
+
+        for (int bufferSize = 1; bufferSize <= source.length() + 1; ++bufferSize) {
+            CsvReader csvReader = new CsvReader(new StringReader(source), bufferSize);
+            List<String> row = new ArrayList<String>();
+            for (String[] expectedRow : expected) {
+                assertTrue(csvReader.readLine(row));
+                assertEquals("buffer size " + bufferSize, Arrays.asList(expectedRow), row);
+            }
+            assertFalse(csvReader.readLine(row));
+            assertNull(csvReader.readLine());
+        }
+
+        try {
+            new CsvReader(new StringReader(source), 0);
+            fail("a reader without a buffer cannot make progress");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * tests writing and reading a CSV as an iterator of rows
+     */
+    @SuppressWarnings("unchecked")
+    public void testRowIterator() throws Exception {
+        final int rows = 2 * CsvSerializerProvider.FLUSH_INTERVAL + 1;
+        Iterator<String[]> generated = new Iterator<String[]>() {
+
+            private int row = 0;
+
+            public boolean hasNext() {
+                return row < rows;
+            }
+
+            public String[] next() {
+                String[] ret = new String[] {String.valueOf(row), "name, " + row, "\"" + row + "\""};
+                ++row;
+                return ret;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        Type rowIteratorType = getClass().getDeclaredMethod("rowIterator").getGenericReturnType();
+        CsvRowIteratorProvider provider = new CsvRowIteratorProvider();
+        assertTrue(provider.isWriteable(Iterator.class,
+                                        rowIteratorType,
+                                        null,
+                                        MediaTypeUtils.CSV_TYPE));
+        assertTrue(provider.isReadable(Iterator.class,
+                                       rowIteratorType,
+                                       null,
+                                       MediaTypeUtils.CSV_TYPE));
+        assertFalse(provider.isReadable(Iterator.class, Iterator.class, null, MediaTypeUtils.CSV_TYPE));
+        // the type argument as returned by Java 5 and 6
+        ParameterizedType java5RowIteratorType = new ParameterizedType() {
+
+            public Type[] getActualTypeArguments() {
+                return new Type[] {new GenericArrayType() {
+
+                    public Type getGenericComponentType() {
+                        return String.class;
+                    }
+                }};
+            }
+
+            public Type getRawType() {
+                return Iterator.class;
+            }
+
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+        assertTrue(provider.isReadable(Iterator.class,
+                                       java5RowIteratorType,
+                                       null,
+                                       MediaTypeUtils.CSV_TYPE));
+
+        final int[] flushes = new int[1];
+        ByteArrayOutputStream os = new ByteArrayOutputStream() {
+
+            @Override
+            public void flush() throws IOException {
+                ++flushes[0];
+            }
+        };
+        MultivaluedMapImpl<String, Object> httpHeaders = new MultivaluedMapImpl<String, Object>();
+        provider.writeTo(generated,
+                         Iterator.class,
+                         rowIteratorType,
+                         null,
+                         MediaTypeUtils.CSV_TYPE,
+                         httpHeaders,
+                         os);
+        // the rows are flushed as they are written
+        assertEquals(3, flushes[0]);
+
+        Iterator<String[]> read =
+            (Iterator<String[]>)provider.readFrom((Class<Iterator<?>>)(Class<?>)Iterator.class,
+                                                  rowIteratorType,
+                                                  null,
+                                                  MediaTypeUtils.CSV_TYPE,
+                                                  new MultivaluedMapImpl<String, String>(),
+                                                  new ByteArrayInputStream(os.toByteArray()));
+        for (int i = 0; i < rows; ++i) {
+            assertTrue(read.hasNext());
+            assertTrue(Arrays.equals(new String[] {String.valueOf(i), "name, " + i, "\"" + i + "\""},
+                                     read.next()));
+        }
+        assertFalse(read.hasNext());
+    }
+
+    Iterator<String[]> rowIterator() {
+        return null;
+    }
+
 }
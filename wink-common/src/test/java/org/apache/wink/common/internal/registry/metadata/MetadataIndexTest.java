@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.registry.metadata;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.ext.Provider;
+
+import junit.framework.TestCase;
+
+public class MetadataIndexTest extends TestCase {
+
+    private static final String INDEX =
+                                          "org/apache/wink/common/internal/registry/metadata/MetadataIndexTest.index"; //$NON-NLS-1$
+
+    @Path("books")
+    public static class Books {
+
+        @GET
+        public String list() {
+            return null;
+        }
+
+        @GET
+        @Path("{id}")
+        public String get(@PathParam("id") int id, String[] unused) {
+            return null;
+        }
+
+        // left out of the index on purpose
+        @POST
+        public void post(String book) {
+        }
+    }
+
+    @Provider
+    public static class BooksProvider {
+    }
+
+    @Path("changed")
+    public static class Changed {
+
+        @GET
+        public String added() {
+            return null;
+        }
+    }
+
+    @Path("stale")
+    public static class Stale {
+
+        @GET
+        public String get() {
+            return null;
+        }
+
+        // added after the index was written
+        @GET
+        @Path("added")
+        public String added() {
+            return null;
+        }
+    }
+
+    @Path("notindexed")
+    public static class NotIndexed {
+
+        @GET
+        public String get() {
+            return null;
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        MetadataIndex.setCurrent(null);
+        super.tearDown();
+    }
+
+    public void testLoad() throws Exception {
+        MetadataIndex index = MetadataIndex.load(INDEX, getClass().getClassLoader());
+        assertEquals(4, index.size());
+        assertEquals(Boolean.TRUE, index.isResource(Books.class));
+        assertEquals(Boolean.FALSE, index.isProvider(Books.class));
+        assertEquals(Boolean.TRUE, index.isProvider(BooksProvider.class));
+        assertEquals(Boolean.FALSE, index.isResource(BooksProvider.class));
+        assertNull(index.isResource(NotIndexed.class));
+        assertNull(index.isProvider(NotIndexed.class));
+
+        Method[] methods = index.getMethods(Books.class);
+        assertEquals(2, methods.length);
+        assertEquals(Books.class.getMethod("list"), methods[0]); //$NON-NLS-1$
+        assertEquals(Books.class.getMethod("get", int.class, String[].class), methods[1]); //$NON-NLS-1$
+
+        // the index does not match the class
+        assertNull(index.getMethods(Changed.class));
+        assertNull(index.getMethods(NotIndexed.class));
+
+        // the stamp does not match the class
+        assertNull(index.isResource(Stale.class));
+        assertNull(index.getMethods(Stale.class));
+    }
+
+    public void testCollectorsUseIndex() throws Exception {
+        MetadataIndex.setCurrent(MetadataIndex.load(INDEX, getClass().getClassLoader()));
+        assertTrue(ResourceMetadataCollector.isStaticResource(Books.class));
+        assertTrue(ProviderMetadataCollector.isProvider(BooksProvider.class));
+        assertTrue(ResourceMetadataCollector.isStaticResource(NotIndexed.class));
+
+        // only the indexed methods are collected
+        ClassMetadata metadata = ResourceMetadataCollector.collectMetadata(Books.class);
+        List<MethodMetadata> resourceMethods = metadata.getResourceMethods();
+        assertEquals(1, resourceMethods.size());
+        assertEquals("list", resourceMethods.get(0).getReflectionMethod().getName()); //$NON-NLS-1$
+        assertEquals(1, metadata.getSubResourceMethods().size());
+
+        // falls back to reflection if the index does not match the class
+        metadata = ResourceMetadataCollector.collectMetadata(Changed.class);
+        assertEquals(1, metadata.getResourceMethods().size());
+        assertEquals("added", metadata.getResourceMethods().get(0).getReflectionMethod() //$NON-NLS-1$
+            .getName());
+        metadata = ResourceMetadataCollector.collectMetadata(Stale.class);
+        assertEquals(1, metadata.getResourceMethods().size());
+        assertEquals(1, metadata.getSubResourceMethods().size());
+
+        MetadataIndex.setCurrent(null);
+        metadata = ResourceMetadataCollector.collectMetadata(Books.class);
+        assertEquals(2, metadata.getResourceMethods().size());
+    }
+
+    public void testOtherClassLoader() throws Exception {
+        // the index of another application that has classes of the same name
+        URL classes = getClass().getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader otherApplication = new URLClassLoader(new URL[] {classes}, null);
+        MetadataIndex index = MetadataIndex.load(INDEX, otherApplication);
+        assertEquals(4, index.size());
+        assertNull(index.isResource(Books.class));
+        assertNull(index.isProvider(BooksProvider.class));
+        assertNull(index.getMethods(Books.class));
+
+        Class<?> otherBooks = otherApplication.loadClass(Books.class.getName());
+        assertEquals(Boolean.TRUE, index.isResource(otherBooks));
+
+        // this application collects the metadata reflectively
+        MetadataIndex.setCurrent(index);
+        ClassMetadata metadata = ResourceMetadataCollector.collectMetadata(Books.class);
+        assertEquals(2, metadata.getResourceMethods().size());
+    }
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.runtime;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.wink.common.RuntimeContext;
+
+public class RuntimeContextTLSTest extends TestCase {
+
+    private static class TestRuntimeContext extends AbstractRuntimeContext {
+        public InputStream getInputStream() {
+            return null;
+        }
+
+        public OutputStream getOutputStream() {
+            return null;
+        }
+    }
+
+    private static class SingleRuntimeContextHolder implements RuntimeContextHolder {
+
+        RuntimeContext runtimeContext;
+        int            sets;
+
+        public RuntimeContext get() {
+            return runtimeContext;
+        }
+
+        public void set(RuntimeContext runtimeContext) {
+            this.runtimeContext = runtimeContext;
+            ++sets;
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        RuntimeContextTLS.setRuntimeContextHolder(null);
+        RuntimeContextTLS.setRuntimeContext(null);
+        super.tearDown();
+    }
+
+    public void testDefaultHolderIsBoundToThread() throws Exception {
+        final RuntimeContext runtimeContext = new TestRuntimeContext();
+        RuntimeContextTLS.setRuntimeContext(runtimeContext);
+        assertSame(runtimeContext, RuntimeContextTLS.getRuntimeContext());
+
+        final RuntimeContext[] other = new RuntimeContext[] {runtimeContext};
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                other[0] = RuntimeContextTLS.getRuntimeContext();
+            }
+        };
+        thread.start();
+        thread.join();
+        assertNull(other[0]);
+
+        RuntimeContextTLS.setRuntimeContext(null);
+        assertNull(RuntimeContextTLS.getRuntimeContext());
+    }
+
+    public void testCustomHolder() {
+        SingleRuntimeContextHolder holder = new SingleRuntimeContextHolder();
+        RuntimeContextTLS.setRuntimeContextHolder(holder);
+        RuntimeContext runtimeContext = new TestRuntimeContext();
+        RuntimeContextTLS.setRuntimeContext(runtimeContext);
+        assertSame(runtimeContext, holder.runtimeContext);
+        assertSame(runtimeContext, RuntimeContextTLS.getRuntimeContext());
+        RuntimeContextTLS.setRuntimeContext(null);
+        assertNull(holder.runtimeContext);
+        assertEquals(2, holder.sets);
+
+        // restore the default holder
+        RuntimeContextTLS.setRuntimeContextHolder(null);
+        RuntimeContextTLS.setRuntimeContext(runtimeContext);
+        assertSame(runtimeContext, RuntimeContextTLS.getRuntimeContext());
+        assertEquals(2, holder.sets);
+    }
+}
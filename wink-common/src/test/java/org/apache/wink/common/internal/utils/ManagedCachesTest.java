@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.common.internal.utils;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+public class ManagedCachesTest extends TestCase {
+
+    @Override
+    protected void tearDown() throws Exception {
+        while (ManagedCaches.isEnabled()) {
+            ManagedCaches.disable();
+        }
+        super.tearDown();
+    }
+
+    public void testNoStatisticsWhenDisabled() {
+        SoftConcurrentMap<String, String> cache =
+            new SoftConcurrentMap<String, String>("ManagedCachesTest.disabled");
+        cache.get("a");
+        cache.put("a", "A");
+        assertEquals("A", cache.get("a"));
+
+        CacheGroup group = ManagedCaches.getGroup("ManagedCachesTest.disabled");
+        assertNotNull(group);
+        assertEquals(1, group.getInstances());
+        assertEquals(1, group.getSize());
+        assertEquals(0, group.getHits());
+        assertEquals(0, group.getMisses());
+    }
+
+    public void testStatistics() {
+        ManagedCaches.enable();
+        SoftConcurrentMap<String, String> first =
+            new SoftConcurrentMap<String, String>("ManagedCachesTest.statistics");
+        SoftConcurrentMap<String, String> second =
+            new SoftConcurrentMap<String, String>("ManagedCachesTest.statistics");
+
+        assertNull(first.get("a"));
+        first.put("a", "A");
+        assertEquals("A", first.get("a"));
+        assertEquals("A", first.get("a"));
+        assertNull(second.get("b"));
+        second.put("b", "B");
+        // a put without a preceding miss is not a load
+        second.put("c", "C");
+
+        CacheGroup group = ManagedCaches.getGroup("ManagedCachesTest.statistics");
+        assertEquals(2, group.getInstances());
+        assertEquals(3, group.getSize());
+        assertEquals(2, group.getHits());
+        assertEquals(2, group.getMisses());
+        assertEquals(0.5, group.getHitRatio(), 0.001);
+        assertEquals(2, group.getLoads());
+        assertTrue(group.getTotalLoadTimeNanos() >= 0);
+
+        group.clear();
+        assertEquals(0, group.getSize());
+        assertNull(first.get("a"));
+        assertEquals(3, group.getMisses());
+
+        group.resetStatistics();
+        assertEquals(0, group.getMisses());
+    }
+
+    public void testMBeans() throws Exception {
+        new SoftConcurrentMap<String, String>("ManagedCachesTest.mbeans");
+        assertNull(ManagedCaches.getObjectName("ManagedCachesTest.mbeans"));
+
+        ManagedCaches.enable();
+        ManagedCaches.enable();
+        ObjectName objectName = ManagedCaches.getObjectName("ManagedCachesTest.mbeans");
+        assertNotNull(objectName);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(server.isRegistered(objectName));
+        assertEquals(Integer.valueOf(1), server.getAttribute(objectName, "Instances"));
+
+        // groups created while enabled are registered as well
+        SoftConcurrentMap<String, String> late =
+            new SoftConcurrentMap<String, String>("ManagedCachesTest.late");
+        late.get("a");
+        ObjectName lateName = ManagedCaches.getObjectName("ManagedCachesTest.late");
+        assertEquals(Long.valueOf(1), server.getAttribute(lateName, "Misses"));
+
+        // the MBeans are kept until the last user disables them
+        ManagedCaches.disable();
+        assertTrue(server.isRegistered(objectName));
+        ManagedCaches.disable();
+        assertFalse(server.isRegistered(objectName));
+        assertFalse(server.isRegistered(lateName));
+        late.get("a");
+        assertEquals(0, ManagedCaches.getGroup("ManagedCachesTest.late").getMisses());
+    }
+}
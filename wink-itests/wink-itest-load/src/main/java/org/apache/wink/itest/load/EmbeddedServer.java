@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.itest.load;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Collection;
+
+import org.mortbay.jetty.Handler;
+import org.mortbay.jetty.Server;
+import org.mortbay.jetty.handler.ContextHandlerCollection;
+import org.mortbay.jetty.nio.SelectChannelConnector;
+import org.mortbay.jetty.webapp.WebAppContext;
+
+/**
+ * An embedded Jetty on localhost that deploys the wars of the scenarios, each
+ * one at the context path of its name
+ */
+public class EmbeddedServer {
+
+    private static final String CONTENT_ENCODING_FILTER =
+                                                            "org.apache.wink.server.internal.servlet.contentencode.ContentEncodingResponseFilter"; //$NON-NLS-1$
+
+    private final Server                 server;
+    private final SelectChannelConnector connector;
+
+    public EmbeddedServer(LoadConfiguration configuration, Collection<String> applications)
+        throws FileNotFoundException {
+        server = new Server();
+        connector = new SelectChannelConnector();
+        connector.setHost("localhost"); //$NON-NLS-1$
+        connector.setPort(configuration.getPort());
+        server.addConnector(connector);
+
+        ContextHandlerCollection contexts = new ContextHandlerCollection();
+        for (String application : applications) {
+            File war = new File(configuration.getWarsDirectory(), application + ".war"); //$NON-NLS-1$
+            if (!war.isFile()) {
+                throw new FileNotFoundException(war.getAbsolutePath());
+            }
+            WebAppContext context = new WebAppContext(war.getAbsolutePath(), "/" + application); //$NON-NLS-1$
+            // the JAX-RS API is not a system class, otherwise the
+            // RuntimeDelegate of the client would be shared with the
+            // applications
+            String[] systemClasses = context.getSystemClasses();
+            String[] applicationSystemClasses = new String[systemClasses.length + 1];
+            applicationSystemClasses[0] = "-javax.ws.rs."; //$NON-NLS-1$
+            System.arraycopy(systemClasses, 0, applicationSystemClasses, 1, systemClasses.length);
+            context.setSystemClasses(applicationSystemClasses);
+            if (configuration.isGzip()) {
+                // the filter class is loaded by the web application
+                context.addFilter(CONTENT_ENCODING_FILTER, "/*", Handler.DEFAULT); //$NON-NLS-1$
+            }
+            contexts.addHandler(context);
+        }
+        server.setHandler(contexts);
+    }
+
+    public void start() throws Exception {
+        server.start();
+    }
+
+    public void stop() throws Exception {
+        server.stop();
+    }
+
+    /**
+     * @return the base URI of the server, for example
+     *         <tt>http://localhost:8080</tt>
+     */
+    public String getBaseUri() {
+        return "http://localhost:" + connector.getLocalPort(); //$NON-NLS-1$
+    }
+}
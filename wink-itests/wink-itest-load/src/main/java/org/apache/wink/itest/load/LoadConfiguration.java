@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.itest.load;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The configuration of a load test run, read from system properties:
+ * <ul>
+ * <li><tt>wink.load.port</tt> - the port of the embedded server, 0 for any
+ * free port (default 0)</li>
+ * <li><tt>wink.load.wars</tt> - the directory of the deployed wars (default
+ * <tt>target/wars</tt>)</li>
+ * <li><tt>wink.load.scenarios</tt> - comma separated names of the scenarios
+ * to run (default all)</li>
+ * <li><tt>wink.load.rate</tt> - the request arrival rate of each scenario,
+ * in requests per second (default 200)</li>
+ * <li><tt>wink.load.warmup</tt> - the warmup time of each scenario, in
+ * seconds, which is not recorded (default 10)</li>
+ * <li><tt>wink.load.duration</tt> - the recorded time of each scenario, in
+ * seconds (default 30)</li>
+ * <li><tt>wink.load.threads</tt> - the number of client threads (default
+ * 64)</li>
+ * <li><tt>wink.load.gzip</tt> - whether the responses are gzip encoded
+ * (default false)</li>
+ * <li><tt>wink.load.report</tt> - the file of the JSON report (default
+ * <tt>target/load-report.json</tt>)</li>
+ * </ul>
+ */
+public class LoadConfiguration {
+
+    private final int          port;
+    private final File         warsDirectory;
+    private final List<String> scenarios;
+    private final int          rate;
+    private final int          warmupSeconds;
+    private final int          durationSeconds;
+    private final int          threads;
+    private final boolean      gzip;
+    private final File         report;
+
+    public LoadConfiguration() {
+        port = Integer.getInteger("wink.load.port", 0); //$NON-NLS-1$
+        warsDirectory = new File(System.getProperty("wink.load.wars", "target/wars")); //$NON-NLS-1$ //$NON-NLS-2$
+        scenarios = new ArrayList<String>();
+        String names = System.getProperty("wink.load.scenarios"); //$NON-NLS-1$
+        if (names != null) {
+            for (String name : names.split(",")) { //$NON-NLS-1$
+                if (name.trim().length() > 0) {
+                    scenarios.add(name.trim());
+                }
+            }
+        }
+        rate = Integer.getInteger("wink.load.rate", 200); //$NON-NLS-1$
+        warmupSeconds = Integer.getInteger("wink.load.warmup", 10); //$NON-NLS-1$
+        durationSeconds = Integer.getInteger("wink.load.duration", 30); //$NON-NLS-1$
+        threads = Integer.getInteger("wink.load.threads", 64); //$NON-NLS-1$
+        gzip = Boolean.getBoolean("wink.load.gzip"); //$NON-NLS-1$
+        report = new File(System.getProperty("wink.load.report", "target/load-report.json")); //$NON-NLS-1$ //$NON-NLS-2$
+        if (rate <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || threads <= 0) {
+            throw new IllegalArgumentException("The rate, duration and threads must be positive"); //$NON-NLS-1$
+        }
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public File getWarsDirectory() {
+        return warsDirectory;
+    }
+
+    /**
+     * @return the names of the scenarios to run, empty to run all of them
+     */
+    public List<String> getScenarios() {
+        return scenarios;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public File getReport() {
+        return report;
+    }
+}
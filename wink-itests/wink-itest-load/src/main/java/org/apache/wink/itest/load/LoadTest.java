@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.itest.load;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.wink.client.ClientConfig;
+import org.apache.wink.client.RestClient;
+import org.apache.wink.client.internal.handlers.GzipHandler;
+import org.apache.wink.json4j.JSONArray;
+import org.apache.wink.json4j.JSONObject;
+
+/**
+ * Runs the load test: deploys the applications of the selected scenarios in
+ * an {@link EmbeddedServer}, runs each scenario with an
+ * {@link OpenLoadGenerator}, and writes a JSON report with the latency
+ * percentiles of each scenario. The full response time distribution of each
+ * scenario is written next to the report, in a <tt>.hgrm</tt> file.
+ * <p>
+ * See {@link LoadConfiguration} for the system properties that configure the
+ * run. For example:
+ *
+ * <pre>
+ * java -Dwink.load.rate=500 -Dwink.load.scenarios=jaxb -jar target/wink-load.jar
+ * </pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadConfiguration configuration = new LoadConfiguration();
+        List<Scenario> scenarios = getScenarios(configuration);
+        Set<String> applications = new LinkedHashSet<String>();
+        for (Scenario scenario : scenarios) {
+            applications.add(scenario.getApplication());
+        }
+
+        EmbeddedServer server = new EmbeddedServer(configuration, applications);
+        server.start();
+        List<ScenarioResult> results = new ArrayList<ScenarioResult>();
+        try {
+            ClientConfig clientConfig = new ClientConfig();
+            if (configuration.isGzip()) {
+                clientConfig.handlers(new GzipHandler());
+            }
+            OpenLoadGenerator generator =
+                new OpenLoadGenerator(new RestClient(clientConfig), configuration);
+            for (Scenario scenario : scenarios) {
+                String uri =
+                    server.getBaseUri() + "/" + scenario.getApplication() + scenario.getPath(); //$NON-NLS-1$
+                System.out.println("Running " + scenario.getName() //$NON-NLS-1$
+                    + " at " //$NON-NLS-1$
+                    + configuration.getRate()
+                    + " requests/s: " //$NON-NLS-1$
+                    + uri);
+                ScenarioResult result = generator.run(scenario, uri);
+                System.out.println(String.format("%s: %d requests, %d errors, %.1f requests/s, p50 %d us, p99 %d us, p99.9 %d us", //$NON-NLS-1$
+                                                 result.getName(),
+                                                 result.getRequests(),
+                                                 result.getErrors(),
+                                                 result.getAchievedRate(),
+                                                 result.getResponseTimes()
+                                                     .getValueAtPercentile(50),
+                                                 result.getResponseTimes()
+                                                     .getValueAtPercentile(99),
+                                                 result.getResponseTimes()
+                                                     .getValueAtPercentile(99.9)));
+                results.add(result);
+            }
+        } finally {
+            server.stop();
+        }
+        writeReport(configuration, results);
+        System.out.println("Report written to " + configuration.getReport().getAbsolutePath()); //$NON-NLS-1$
+    }
+
+    private static List<Scenario> getScenarios(LoadConfiguration configuration) {
+        if (configuration.getScenarios().isEmpty()) {
+            return Scenario.EXAMPLES;
+        }
+        List<Scenario> scenarios = new ArrayList<Scenario>();
+        for (String name : configuration.getScenarios()) {
+            Scenario found = null;
+            for (Scenario scenario : Scenario.EXAMPLES) {
+                if (scenario.getName().equals(name)) {
+                    found = scenario;
+                }
+            }
+            if (found == null) {
+                throw new IllegalArgumentException("Unknown scenario: " + name); //$NON-NLS-1$
+            }
+            scenarios.add(found);
+        }
+        return scenarios;
+    }
+
+    private static void writeReport(LoadConfiguration configuration, List<ScenarioResult> results)
+        throws Exception {
+        JSONObject settings = new JSONObject();
+        settings.put("rate", configuration.getRate()); //$NON-NLS-1$
+        settings.put("warmupSeconds", configuration.getWarmupSeconds()); //$NON-NLS-1$
+        settings.put("durationSeconds", configuration.getDurationSeconds()); //$NON-NLS-1$
+        settings.put("threads", configuration.getThreads()); //$NON-NLS-1$
+        settings.put("gzip", configuration.isGzip()); //$NON-NLS-1$
+
+        JSONArray scenarios = new JSONArray();
+        for (ScenarioResult result : results) {
+            scenarios.add(result.toJSON());
+        }
+
+        JSONObject report = new JSONObject();
+        report.put("timestamp", System.currentTimeMillis()); //$NON-NLS-1$
+        report.put("javaVersion", System.getProperty("java.version")); //$NON-NLS-1$ //$NON-NLS-2$
+        report.put("configuration", settings); //$NON-NLS-1$
+        report.put("scenarios", scenarios); //$NON-NLS-1$
+
+        File file = configuration.getReport();
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory); //$NON-NLS-1$
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8"); //$NON-NLS-1$
+        try {
+            report.write(writer, 2);
+        } finally {
+            writer.close();
+        }
+
+        for (ScenarioResult result : results) {
+            PrintStream out =
+                new PrintStream(new FileOutputStream(new File(directory, result.getName() + ".hgrm"))); //$NON-NLS-1$
+            try {
+                result.writePercentiles(out);
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.itest.load;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Recorder;
+import org.apache.wink.client.ClientResponse;
+import org.apache.wink.client.RestClient;
+
+/**
+ * An open model load generator: the requests are sent at a fixed arrival
+ * rate, independently of the time it takes to complete the previous ones.
+ * <p>
+ * The response time of a request is measured from the time it was scheduled
+ * to be sent, so the time a request waits for a free client thread when the
+ * server falls behind is included (which avoids the coordinated omission of
+ * a closed model generator). The service time is measured from the time the
+ * request was actually sent.
+ */
+public class OpenLoadGenerator {
+
+    private final RestClient        client;
+    private final LoadConfiguration configuration;
+
+    public OpenLoadGenerator(RestClient client, LoadConfiguration configuration) {
+        this.client = client;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Send the requests of a scenario for the configured warmup and duration
+     * times, and wait for all of them to complete
+     *
+     * @param scenario the scenario
+     * @param uri the absolute URI of the requests
+     * @return the result of the requests sent after the warmup
+     */
+    public ScenarioResult run(Scenario scenario, String uri) throws InterruptedException {
+        Recorder responseTimes = new Recorder(3);
+        Recorder serviceTimes = new Recorder(3);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong lastCompleted = new AtomicLong();
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / configuration.getRate();
+        long start = System.nanoTime();
+        long recordFrom = start + TimeUnit.SECONDS.toNanos(configuration.getWarmupSeconds());
+        long end = recordFrom + TimeUnit.SECONDS.toNanos(configuration.getDurationSeconds());
+        lastCompleted.set(recordFrom);
+
+        ExecutorService executor = Executors.newFixedThreadPool(configuration.getThreads());
+        try {
+            for (long scheduled = start; scheduled < end; scheduled += interval) {
+                long delay;
+                while ((delay = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                executor.execute(new Request(uri, scenario.getAccept(), scheduled,
+                                             scheduled >= recordFrom, responseTimes,
+                                             serviceTimes, errors, lastCompleted));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            // the server is behind, wait for the queued requests
+        }
+        long elapsed = lastCompleted.get() - recordFrom;
+        return new ScenarioResult(scenario.getName(), uri, configuration.getRate(), elapsed,
+                                  responseTimes.getIntervalHistogram(), serviceTimes
+                                      .getIntervalHistogram(), errors.get());
+    }
+
+    private class Request implements Runnable {
+
+        private final String     uri;
+        private final String     accept;
+        private final long       scheduled;
+        private final boolean    recorded;
+        private final Recorder   responseTimes;
+        private final Recorder   serviceTimes;
+        private final AtomicLong errors;
+        private final AtomicLong lastCompleted;
+
+        Request(String uri,
+                String accept,
+                long scheduled,
+                boolean recorded,
+                Recorder responseTimes,
+                Recorder serviceTimes,
+                AtomicLong errors,
+                AtomicLong lastCompleted) {
+            this.uri = uri;
+            this.accept = accept;
+            this.scheduled = scheduled;
+            this.recorded = recorded;
+            this.responseTimes = responseTimes;
+            this.serviceTimes = serviceTimes;
+            this.errors = errors;
+            this.lastCompleted = lastCompleted;
+        }
+
+        public void run() {
+            long sent = System.nanoTime();
+            boolean failed;
+            try {
+                ClientResponse response = client.resource(uri).accept(accept).get();
+                // read the whole entity, as a real client would
+                response.getEntity(byte[].class);
+                failed = response.getStatusCode() >= 400;
+            } catch (RuntimeException e) {
+                failed = true;
+            }
+            long completed = System.nanoTime();
+            if (!recorded) {
+                return;
+            }
+            responseTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(completed - scheduled));
+            serviceTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(completed - sent));
+            if (failed) {
+                errors.incrementAndGet();
+            }
+            long last;
+            while ((last = lastCompleted.get()) < completed) {
+                if (lastCompleted.compareAndSet(last, completed)) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.itest.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * A request that is sent repeatedly to one of the deployed applications
+ */
+public class Scenario {
+
+    /** The scenarios of the example applications */
+    public static final List<Scenario> EXAMPLES;
+
+    static {
+        List<Scenario> examples = new ArrayList<Scenario>();
+        examples.add(new Scenario("helloworld", //$NON-NLS-1$
+                                  "HelloWorld", //$NON-NLS-1$
+                                  "/rest/world", //$NON-NLS-1$
+                                  MediaType.APPLICATION_ATOM_XML));
+        examples.add(new Scenario("bookmarks", //$NON-NLS-1$
+                                  "Bookmarks", //$NON-NLS-1$
+                                  "/rest/bookmarks", //$NON-NLS-1$
+                                  MediaType.APPLICATION_ATOM_XML));
+        examples.add(new Scenario("qadefect", //$NON-NLS-1$
+                                  "QADefect", //$NON-NLS-1$
+                                  "/rest/defects", //$NON-NLS-1$
+                                  MediaType.APPLICATION_JSON));
+        examples.add(new Scenario("jaxb", //$NON-NLS-1$
+                                  "Jaxb", //$NON-NLS-1$
+                                  "/rest/info/person/1", //$NON-NLS-1$
+                                  MediaType.APPLICATION_XML));
+        EXAMPLES = Collections.unmodifiableList(examples);
+    }
+
+    private final String name;
+    private final String application;
+    private final String path;
+    private final String accept;
+
+    /**
+     * @param name the name of the scenario in the report
+     * @param application the name of the war, which is also its context path
+     * @param path the path of the request, relative to the context path
+     * @param accept the Accept header of the request
+     */
+    public Scenario(String name, String application, String path, String accept) {
+        this.name = name;
+        this.application = application;
+        this.path = path;
+        this.accept = accept;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getAccept() {
+        return accept;
+    }
+}
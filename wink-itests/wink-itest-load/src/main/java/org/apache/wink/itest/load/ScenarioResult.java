@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.itest.load;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.apache.wink.json4j.JSONException;
+import org.apache.wink.json4j.JSONObject;
+
+/**
+ * The result of running a {@link Scenario}. The times are in microseconds.
+ */
+public class ScenarioResult {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final String          name;
+    private final String          uri;
+    private final int             rate;
+    private final long            elapsedNanos;
+    private final Histogram       responseTimes;
+    private final Histogram       serviceTimes;
+    private final long            errors;
+
+    public ScenarioResult(String name,
+                          String uri,
+                          int rate,
+                          long elapsedNanos,
+                          Histogram responseTimes,
+                          Histogram serviceTimes,
+                          long errors) {
+        this.name = name;
+        this.uri = uri;
+        this.rate = rate;
+        this.elapsedNanos = elapsedNanos;
+        this.responseTimes = responseTimes;
+        this.serviceTimes = serviceTimes;
+        this.errors = errors;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequests() {
+        return responseTimes.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the rate of the completed requests, which is lower than the
+     *         target rate if the server could not keep up
+     */
+    public double getAchievedRate() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return getRequests() * (double)TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public Histogram getResponseTimes() {
+        return responseTimes;
+    }
+
+    public JSONObject toJSON() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("name", name); //$NON-NLS-1$
+        json.put("uri", uri); //$NON-NLS-1$
+        json.put("targetRate", rate); //$NON-NLS-1$
+        json.put("achievedRate", getAchievedRate()); //$NON-NLS-1$
+        json.put("requests", getRequests()); //$NON-NLS-1$
+        json.put("errors", errors); //$NON-NLS-1$
+        json.put("responseTime", toJSON(responseTimes)); //$NON-NLS-1$
+        json.put("serviceTime", toJSON(serviceTimes)); //$NON-NLS-1$
+        return json;
+    }
+
+    /**
+     * Write the response time percentile distribution in the HdrHistogram
+     * text format, in milliseconds, which can be plotted by the HdrHistogram
+     * tools
+     */
+    public void writePercentiles(PrintStream out) {
+        responseTimes.outputPercentileDistribution(out, 1000.0);
+    }
+
+    private static JSONObject toJSON(Histogram histogram) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("unit", "us"); //$NON-NLS-1$ //$NON-NLS-2$
+        json.put("min", histogram.getMinValue()); //$NON-NLS-1$
+        json.put("mean", histogram.getMean()); //$NON-NLS-1$
+        for (double percentile : PERCENTILES) {
+            json.put(label(percentile), histogram.getValueAtPercentile(percentile));
+        }
+        json.put("max", histogram.getMaxValue()); //$NON-NLS-1$
+        return json;
+    }
+
+    /**
+     * @return the report key of a percentile, for example p99 or p99.9
+     */
+    private static String label(double percentile) {
+        if (percentile == Math.floor(percentile)) {
+            return "p" + (long)percentile; //$NON-NLS-1$
+        }
+        return "p" + percentile; //$NON-NLS-1$
+    }
+}
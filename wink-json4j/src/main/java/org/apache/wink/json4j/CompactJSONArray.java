@@ -0,0 +1,556 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.    
+ */
+
+
+package org.apache.wink.json4j;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.apache.wink.json4j.internal.Parser;
+
+/**
+ * Extension of the basic JSONArray that uses less memory for arrays of numbers.
+ * As long as all the elements are Integers, all are Longs, or all are Doubles, they are kept in an 
+ * int[], long[], or double[] and boxed again when they are read.  When an element of another type is 
+ * added, the elements move to the list of the JSONArray and stay there until the array is cleared.
+ * <BR><BR>
+ * Instances of this class are normally created by parsing with JSON.parseCompact(...), which also creates
+ * CompactJSONObject instances for the objects of the document.
+ * <BR><BR>
+ * Note:  This class targets Java 5 and does not override the methods that Java 8 added to java.util.List, 
+ * java.util.Collection and java.lang.Iterable.  ArrayList implements them directly on its own storage, which is empty 
+ * while the elements are in a primitive array.  So forEach, removeIf, replaceAll, sort, spliterator, stream and 
+ * parallelStream must not be used on instances of this class:  they do not see the elements.  On Java 8, this also 
+ * applies to java.util.Collections.sort, which calls sort.  Use get, set and the iterators instead, which all work on 
+ * the primitive array, or copy the elements into a JSONArray.  Use JSON.parse(...) when a document is handed to code 
+ * that uses the Java 8 methods.
+ * <BR><BR>
+ * Instances of this class are not thread-safe.
+ */
+public class CompactJSONArray extends JSONArray {
+
+    private static final long serialVersionUID = 5542237440620383961L;
+
+    /**
+     * Kinds of storage of the elements.
+     */
+    private static final int EMPTY    = 0;
+    private static final int INTS     = 1;
+    private static final int LONGS    = 2;
+    private static final int DOUBLES  = 3;
+    private static final int INFLATED = 4;
+
+    private int kind = EMPTY;
+    private int count = 0;
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+
+    /**
+     * List view used for the iterators and sublists while the elements are kept in a primitive array.
+     */
+    private transient List view;
+
+    /**
+     * Create a new instance of this class.
+     */
+    public CompactJSONArray() {
+        super();
+    }
+
+    /**
+     * Create a new instance of this class from the provided JSON array string.
+     * Note:  This is the same as calling new CompactJSONArray(str, false);  Parsing in non-strict mode.
+     * @param str The JSON array string to parse.
+     * @throws JSONException Thrown when the string passed is null, or malformed JSON.. 
+     */
+    public CompactJSONArray(String str) throws JSONException {
+        this(str, false);
+    }
+
+    /**
+     * Create a new instance of this class from the provided JSON array string.
+     * @param str The JSON array string to parse.
+     * @param strict Boolean denoting if the JSON should be parsed n strict mode, meaning unquoted strings and comments are not allowed.
+     * @throws JSONException Thrown when the string passed is null, or malformed JSON.. 
+     */
+    public CompactJSONArray(String str, boolean strict) throws JSONException {
+        this(new StringReader(str), strict);
+    }
+
+    /**
+     * Create a new instance of this class from the data provided from the reader.  The reader content must be a JSON array string.
+     * Note:  The reader will not be closed, that is left to the caller.
+     * Note:  This is the same as calling new CompactJSONArray(rdr, false);  Parsing in non-strict mode.     
+     * @param rdr The Reader from which to read the JSON array string to parse.
+     * @throws JSONException Thrown when the string passed is null, or malformed JSON.. 
+     */
+    public CompactJSONArray(Reader rdr) throws JSONException {
+        this(rdr, false);
+    }
+
+    /**
+     * Create a new instance of this class from the data provided from the reader.  The reader content must be a JSON array string.
+     * Note:  The reader will not be closed, that is left to the caller.
+     * @param rdr The Reader from which to read the JSON array string to parse.
+     * @param strict Boolean denoting if the JSON should be parsed n strict mode, meaning unquoted strings and comments are not allowed.     
+     * @throws JSONException Thrown when the string passed is null, or malformed JSON.. 
+     */
+    public CompactJSONArray(Reader rdr, boolean strict) throws JSONException {
+        super();
+        (new Parser(rdr, strict, true)).parse(false, this);
+    }
+
+    void addElement(Object element) {
+        if (kind == INFLATED || !accept(element)) {
+            inflate();
+            super.addElement(element);
+            return;
+        }
+        grow();
+        store(count++, element);
+    }
+
+    void addElement(int index, Object element) {
+        if (kind == INFLATED) {
+            super.addElement(index, element);
+            return;
+        }
+        if (index < 0 || index > count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        if (!accept(element)) {
+            inflate();
+            super.addElement(index, element);
+            return;
+        }
+        grow();
+        shift(index, index + 1, count - index);
+        store(index, element);
+        count++;
+    }
+
+    Object setElement(int index, Object element) {
+        if (kind == INFLATED) {
+            return super.setElement(index, element);
+        }
+        checkIndex(index);
+        if (!accept(element)) {
+            inflate();
+            return super.setElement(index, element);
+        }
+        Object oldElement = element(index);
+        store(index, element);
+        return oldElement;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#get(int)
+     */
+    public Object get(int index) {
+        if (kind == INFLATED) {
+            return super.get(index);
+        }
+        checkIndex(index);
+        return element(index);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#remove(int)
+     */
+    public Object remove(int index) {
+        if (kind == INFLATED) {
+            return super.remove(index);
+        }
+        checkIndex(index);
+        Object oldElement = element(index);
+        shift(index + 1, index, count - index - 1);
+        count--;
+        return oldElement;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#remove(java.lang.Object)
+     */
+    public boolean remove(Object o) {
+        if (kind == INFLATED) {
+            return super.remove(o);
+        }
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#removeAll(java.util.Collection)
+     */
+    public boolean removeAll(Collection c) {
+        return (kind == INFLATED) ? super.removeAll(c) : view().removeAll(c);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#retainAll(java.util.Collection)
+     */
+    public boolean retainAll(Collection c) {
+        return (kind == INFLATED) ? super.retainAll(c) : view().retainAll(c);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#clear()
+     */
+    public void clear() {
+        if (kind == INFLATED) {
+            super.clear();
+        }
+        kind = EMPTY;
+        count = 0;
+        ints = null;
+        longs = null;
+        doubles = null;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#size()
+     */
+    public int size() {
+        return (kind == INFLATED) ? super.size() : count;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#isEmpty()
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#contains(java.lang.Object)
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#indexOf(java.lang.Object)
+     */
+    public int indexOf(Object o) {
+        return (kind == INFLATED) ? super.indexOf(o) : view().indexOf(o);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#lastIndexOf(java.lang.Object)
+     */
+    public int lastIndexOf(Object o) {
+        return (kind == INFLATED) ? super.lastIndexOf(o) : view().lastIndexOf(o);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#toArray()
+     */
+    public Object[] toArray() {
+        if (kind == INFLATED) {
+            return super.toArray();
+        }
+        Object[] array = new Object[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = element(i);
+        }
+        return array;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#toArray(java.lang.Object[])
+     */
+    public Object[] toArray(Object[] a) {
+        return (kind == INFLATED) ? super.toArray(a) : view().toArray(a);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.AbstractList#iterator()
+     */
+    public Iterator iterator() {
+        return (kind == INFLATED) ? super.iterator() : view().iterator();
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.AbstractList#listIterator()
+     */
+    public ListIterator listIterator() {
+        return (kind == INFLATED) ? super.listIterator() : view().listIterator();
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.AbstractList#listIterator(int)
+     */
+    public ListIterator listIterator(int index) {
+        return (kind == INFLATED) ? super.listIterator(index) : view().listIterator(index);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.AbstractList#subList(int, int)
+     */
+    public List subList(int fromIndex, int toIndex) {
+        return (kind == INFLATED) ? super.subList(fromIndex, toIndex) : view().subList(fromIndex, toIndex);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.AbstractList#equals(java.lang.Object)
+     */
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        return (kind == INFLATED) ? super.equals(o) : view().equals(o);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.AbstractList#hashCode()
+     */
+    public int hashCode() {
+        return (kind == INFLATED) ? super.hashCode() : view().hashCode();
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.ArrayList#trimToSize()
+     */
+    public void trimToSize() {
+        super.trimToSize();
+        if (ints != null && ints.length > count) {
+            int[] newInts = new int[count];
+            System.arraycopy(ints, 0, newInts, 0, count);
+            ints = newInts;
+        } else if (longs != null && longs.length > count) {
+            long[] newLongs = new long[count];
+            System.arraycopy(longs, 0, newLongs, 0, count);
+            longs = newLongs;
+        } else if (doubles != null && doubles.length > count) {
+            double[] newDoubles = new double[count];
+            System.arraycopy(doubles, 0, newDoubles, 0, count);
+            doubles = newDoubles;
+        }
+    }
+
+    /**
+     * Returns a shallow copy of this ArrayList instance: the elements themselves are not copied.
+     */
+    public Object clone() {
+        CompactJSONArray clone = (CompactJSONArray)super.clone();
+        clone.view = null;
+        if (ints != null) {
+            clone.ints = (int[])ints.clone();
+        } else if (longs != null) {
+            clone.longs = (long[])longs.clone();
+        } else if (doubles != null) {
+            clone.doubles = (double[])doubles.clone();
+        }
+        return clone;
+    }
+
+    /**
+     * Internal function to check if an element can be stored in the primitive array.
+     * The first element of an empty array selects the type of the primitive array.
+     */
+    private boolean accept(Object element) {
+        switch (kind) {
+            case EMPTY:
+                if (element instanceof Integer) {
+                    kind = INTS;
+                    ints = new int[10];
+                } else if (element instanceof Long) {
+                    kind = LONGS;
+                    longs = new long[10];
+                } else if (element instanceof Double) {
+                    kind = DOUBLES;
+                    doubles = new double[10];
+                } else {
+                    return false;
+                }
+                return true;
+            case INTS:
+                return element instanceof Integer;
+            case LONGS:
+                return element instanceof Long;
+            case DOUBLES:
+                return element instanceof Double;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Internal function to make room for one more element in the primitive array.
+     */
+    private void grow() {
+        int length;
+        switch (kind) {
+            case INTS:
+                length = ints.length;
+                break;
+            case LONGS:
+                length = longs.length;
+                break;
+            default:
+                length = doubles.length;
+        }
+        if (count < length) {
+            return;
+        }
+        int newLength = length + (length >> 1) + 1;
+        switch (kind) {
+            case INTS:
+                int[] newInts = new int[newLength];
+                System.arraycopy(ints, 0, newInts, 0, count);
+                ints = newInts;
+                break;
+            case LONGS:
+                long[] newLongs = new long[newLength];
+                System.arraycopy(longs, 0, newLongs, 0, count);
+                longs = newLongs;
+                break;
+            default:
+                double[] newDoubles = new double[newLength];
+                System.arraycopy(doubles, 0, newDoubles, 0, count);
+                doubles = newDoubles;
+        }
+    }
+
+    /**
+     * Internal function to move elements of the primitive array.
+     */
+    private void shift(int from, int to, int length) {
+        if (length <= 0) {
+            return;
+        }
+        switch (kind) {
+            case INTS:
+                System.arraycopy(ints, from, ints, to, length);
+                break;
+            case LONGS:
+                System.arraycopy(longs, from, longs, to, length);
+                break;
+            default:
+                System.arraycopy(doubles, from, doubles, to, length);
+        }
+    }
+
+    private void store(int index, Object element) {
+        switch (kind) {
+            case INTS:
+                ints[index] = ((Integer)element).intValue();
+                break;
+            case LONGS:
+                longs[index] = ((Long)element).longValue();
+                break;
+            default:
+                doubles[index] = ((Double)element).doubleValue();
+        }
+    }
+
+    private Object element(int index) {
+        switch (kind) {
+            case INTS:
+                return Integer.valueOf(ints[index]);
+            case LONGS:
+                return Long.valueOf(longs[index]);
+            default:
+                return Double.valueOf(doubles[index]);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+    }
+
+    /**
+     * Internal function to move the elements from the primitive array into the list of the JSONArray.
+     */
+    private void inflate() {
+        if (kind == INFLATED) {
+            return;
+        }
+        Object[] elements = toArray();
+        kind = INFLATED;
+        count = 0;
+        ints = null;
+        longs = null;
+        doubles = null;
+        super.ensureCapacity(elements.length);
+        for (int i = 0; i < elements.length; i++) {
+            super.addElement(elements[i]);
+        }
+    }
+
+    private List view() {
+        if (view == null) {
+            view = new AbstractList() {
+                public Object get(int index) {
+                    return CompactJSONArray.this.get(index);
+                }
+
+                public Object set(int index, Object element) {
+                    return CompactJSONArray.this.set(index, element);
+                }
+
+                public void add(int index, Object element) {
+                    CompactJSONArray.this.add(index, element);
+                }
+
+                public Object remove(int index) {
+                    return CompactJSONArray.this.remove(index);
+                }
+
+                public int size() {
+                    return CompactJSONArray.this.size();
+                }
+            };
+        }
+        return view;
+    }
+}
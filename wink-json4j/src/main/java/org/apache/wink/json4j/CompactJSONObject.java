@@ -0,0 +1,487 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.    
+ */
+
+
+package org.apache.wink.json4j;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.wink.json4j.internal.Parser;
+
+/**
+ * Extension of the basic JSONObject that uses less memory for the small objects that make up most JSON documents.
+ * Up to 16 attributes are kept in a flat array of keys and values instead of a hash table, lookups
+ * are a linear scan of that array.  When more attributes are put, the object switches to the hash table of 
+ * the JSONObject and stays there until it is cleared.
+ * <BR><BR>
+ * Instances of this class are normally created by parsing with JSON.parseCompact(...), which also creates
+ * CompactJSONArray instances for the arrays of the document.
+ * <BR><BR>
+ * Note:  This class targets Java 5 and does not override the methods that Java 8 added to java.util.Map.  HashMap 
+ * implements them directly on its hash table, which is empty while the attributes are in the flat array.  So forEach, 
+ * getOrDefault, putIfAbsent, remove(key, value), replace, replaceAll, computeIfAbsent, computeIfPresent, compute and 
+ * merge must not be used on instances of this class:  they do not see the attributes, and the ones that write put 
+ * attributes where get() does not find them.  Use get, containsKey, put, remove and the keySet(), values() and 
+ * entrySet() views instead, which all work on the flat array.  Use JSON.parse(...) when a document is handed to code 
+ * that uses the Java 8 methods.
+ * <BR><BR>
+ * Instances of this class are not thread-safe.
+ */
+public class CompactJSONObject extends JSONObject {
+
+    private static final long serialVersionUID = -4011434128532735185L;
+
+    /**
+     * The maximum number of attributes kept in the flat array.
+     */
+    private static final int MAX_ENTRIES = 16;
+
+    private static final Object[] NO_ENTRIES = new Object[0];
+
+    /**
+     * The keys and values, alternating.  Only the first 2 * count slots are used.
+     */
+    private Object[] entries = NO_ENTRIES;
+    private int count = 0;
+
+    /**
+     * Flag denoting that the attributes are in the hash table of the JSONObject.
+     */
+    private boolean inflated = false;
+
+    /**
+     * Create a new instance of this class. 
+     */
+    public CompactJSONObject() {
+        super();
+    }
+
+    /**
+     * Create a new instance of this class from the provided JSON object string.
+     * Note:  This is the same as calling new CompactJSONObject(str, false).
+     * @param str The String of JSON to parse
+     * @throws JSONException Thrown when the string passed is null, or malformed JSON.. 
+     */
+    public CompactJSONObject(String str) throws JSONException {
+        this(str, false);
+    }
+
+    /**
+     * Create a new instance of this class from the provided JSON object string.
+     * @param str The String of JSON to parse
+     * @param strict Boolean denoting if the JSON should be parsed n strict mode, meaning unquoted strings and comments are not allowed.
+     * @throws JSONException Thrown when the string passed is null, or malformed JSON.. 
+     */
+    public CompactJSONObject(String str, boolean strict) throws JSONException {
+        this(new StringReader(str), strict);
+    }
+
+    /**
+     * Create a new instance of this class from the data provided from the reader.  The reader content must be a JSON object string.
+     * Note:  The reader will not be closed, that is left to the caller.
+     * Note:  This is the same as calling new CompactJSONObject(rdr, false).
+     * @param rdr The reader from which to read the JSON.
+     * @throws JSONException Thrown when the string passed is null, or malformed JSON.. 
+     */
+    public CompactJSONObject(Reader rdr) throws JSONException {
+        this(rdr, false);
+    }
+
+    /**
+     * Create a new instance of this class from the data provided from the reader.  The reader content must be a JSON object string.
+     * Note:  The reader will not be closed, that is left to the caller.
+     * @param rdr The reader from which to read the JSON.
+     * @param strict Boolean denoting if the JSON should be parsed n strict mode, meaning unquoted strings and comments are not allowed.
+     * @throws JSONException Thrown when the string passed is null, or malformed JSON.. 
+     */
+    public CompactJSONObject(Reader rdr, boolean strict) throws JSONException {
+        super();
+        (new Parser(rdr, strict, true)).parse(false, this);
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#put(java.lang.Object, java.lang.Object)
+     * @param key The key to put in the JSONObject
+     * @param value The value to put in the JSONObject
+     * @param includeSuperclass Boolean indicating that if the object is a JavaBean, include superclass getter properties.
+     * @throws JSONException.  Thrown if key is null, not a string, or the value could not be converted.
+     */
+    public Object put(Object key, Object value, boolean includeSuperclass) throws JSONException {
+        if (inflated) {
+            return super.put(key, value, includeSuperclass);
+        }
+        value = toJsonValue(key, value, includeSuperclass);
+        int index = indexOf(key);
+        if (index >= 0) {
+            Object oldValue = entries[2 * index + 1];
+            entries[2 * index + 1] = value;
+            return oldValue;
+        }
+        if (count == MAX_ENTRIES) {
+            inflate();
+            return super.put(key, value, includeSuperclass);
+        }
+        if (2 * count == entries.length) {
+            Object[] newEntries = new Object[Math.max(8, 2 * entries.length)];
+            System.arraycopy(entries, 0, newEntries, 0, entries.length);
+            entries = newEntries;
+        }
+        entries[2 * count] = key;
+        entries[2 * count + 1] = value;
+        count++;
+        return null;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#putAll(java.util.Map)
+     */
+    public void putAll(Map map) {
+        for (Iterator iter = map.entrySet().iterator(); iter.hasNext(); ) {
+            Map.Entry entry = (Map.Entry)iter.next();
+            this.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#get(java.lang.Object)
+     */
+    public Object get(Object key) {
+        if (inflated) {
+            return super.get(key);
+        }
+        int index = indexOf(key);
+        return (index >= 0) ? entries[2 * index + 1] : null;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#containsKey(java.lang.Object)
+     */
+    public boolean containsKey(Object key) {
+        if (inflated) {
+            return super.containsKey(key);
+        }
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#containsValue(java.lang.Object)
+     */
+    public boolean containsValue(Object value) {
+        if (inflated) {
+            return super.containsValue(value);
+        }
+        for (int i = 0; i < count; i++) {
+            Object val = entries[2 * i + 1];
+            if (value == null ? val == null : value.equals(val)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#remove(java.lang.Object)
+     */
+    public Object remove(Object key) {
+        if (inflated) {
+            return super.remove(key);
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        Object oldValue = entries[2 * index + 1];
+        removeEntry(index);
+        return oldValue;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#clear()
+     */
+    public void clear() {
+        if (inflated) {
+            super.clear();
+            inflated = false;
+        }
+        entries = NO_ENTRIES;
+        count = 0;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#size()
+     */
+    public int size() {
+        return inflated ? super.size() : count;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#isEmpty()
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#keySet()
+     */
+    public Set keySet() {
+        if (inflated) {
+            return super.keySet();
+        }
+        return new AbstractSet() {
+            public Iterator iterator() {
+                return inflated ? CompactJSONObject.super.keySet().iterator() : new EntryIterator(EntryIterator.KEYS);
+            }
+
+            public int size() {
+                return CompactJSONObject.this.size();
+            }
+
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            public boolean remove(Object o) {
+                if (!containsKey(o)) {
+                    return false;
+                }
+                CompactJSONObject.this.remove(o);
+                return true;
+            }
+
+            public void clear() {
+                CompactJSONObject.this.clear();
+            }
+        };
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#values()
+     */
+    public Collection values() {
+        if (inflated) {
+            return super.values();
+        }
+        return new AbstractCollection() {
+            public Iterator iterator() {
+                return inflated ? CompactJSONObject.super.values().iterator() : new EntryIterator(EntryIterator.VALUES);
+            }
+
+            public int size() {
+                return CompactJSONObject.this.size();
+            }
+
+            public boolean contains(Object o) {
+                return containsValue(o);
+            }
+
+            public void clear() {
+                CompactJSONObject.this.clear();
+            }
+        };
+    }
+
+    /**
+     * (non-Javadoc)
+     * @see java.util.HashMap#entrySet()
+     */
+    public Set entrySet() {
+        if (inflated) {
+            return super.entrySet();
+        }
+        return new AbstractSet() {
+            public Iterator iterator() {
+                return inflated ? CompactJSONObject.super.entrySet().iterator() : new EntryIterator(EntryIterator.ENTRIES);
+            }
+
+            public int size() {
+                return CompactJSONObject.this.size();
+            }
+
+            public void clear() {
+                CompactJSONObject.this.clear();
+            }
+        };
+    }
+
+    /** 
+     * Returns a shallow copy of this HashMap instance: the keys and values themselves are not cloned.
+     */
+    public Object clone() {
+        CompactJSONObject clone = (CompactJSONObject)super.clone();
+        if (!inflated) {
+            // HashMap.clone() copies the entries reported by entrySet() into the hash table of the clone.
+            clone.inflated = true;
+            clone.clear();
+            clone.entries = (Object[])entries.clone();
+            clone.count = count;
+        }
+        return clone;
+    }
+
+    /**
+     * Internal function to find the position of a key in the flat array.
+     */
+    private int indexOf(Object key) {
+        for (int i = 0; i < count; i++) {
+            Object k = entries[2 * i];
+            if (k == key || k.equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Internal function to remove the entry at a position of the flat array.
+     */
+    private void removeEntry(int index) {
+        int moved = 2 * (count - index - 1);
+        if (moved > 0) {
+            System.arraycopy(entries, 2 * index + 2, entries, 2 * index, moved);
+        }
+        count--;
+        entries[2 * count] = null;
+        entries[2 * count + 1] = null;
+    }
+
+    /**
+     * Internal function to move the attributes from the flat array into the hash table.
+     */
+    private void inflate() {
+        Object[] oldEntries = entries;
+        int oldCount = count;
+        entries = NO_ENTRIES;
+        count = 0;
+        inflated = true;
+        for (int i = 0; i < oldCount; i++) {
+            super.put(oldEntries[2 * i], oldEntries[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Iterator over the keys, values, or entries of the flat array.
+     */
+    private class EntryIterator implements Iterator {
+
+        static final int KEYS    = 0;
+        static final int VALUES  = 1;
+        static final int ENTRIES = 2;
+
+        private final int type;
+        private int next = 0;
+        private int last = -1;
+
+        EntryIterator(int type) {
+            this.type = type;
+        }
+
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        public Object next() {
+            if (next >= count) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            switch (type) {
+                case KEYS:
+                    return entries[2 * last];
+                case VALUES:
+                    return entries[2 * last + 1];
+                default:
+                    return new CompactEntry(entries[2 * last], entries[2 * last + 1]);
+            }
+        }
+
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            removeEntry(last);
+            next = last;
+            last = -1;
+        }
+    }
+
+    /**
+     * Map entry of the flat array.  Setting the value puts it into the object.
+     */
+    private class CompactEntry implements Map.Entry {
+
+        private final Object key;
+        private Object value;
+
+        CompactEntry(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public Object getKey() {
+            return key;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Object setValue(Object value) {
+            Object oldValue = this.value;
+            put(key, value);
+            this.value = get(key);
+            return oldValue;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry e = (Map.Entry)o;
+            return key.equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        public int hashCode() {
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
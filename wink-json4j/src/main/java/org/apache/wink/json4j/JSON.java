@@ -70,6 +70,71 @@ public class JSON {
      * @throws NullPointerException Thrown if reader is null
      */
     public static JSONArtifact parse(Reader reader, boolean order, boolean strict) throws JSONException, NullPointerException {
+        return parse(reader, order, strict, false);
+    }
+
+    /**
+     * Parse a Reader of JSON text into a JSONArtifact that uses less memory.  The objects of the JSON data are parsed into 
+     * CompactJSONObject instances and the arrays into CompactJSONArray instances.  See those classes for the details.
+     * @param reader The character reader to read the JSON data from.
+     * @param strict Boolean flag to indicate if the content should be parsed in strict mode or not, meaning comments and unquoted strings are not allowed.
+     * Note:  The provided reader is not closed on completion of read; that is left to the caller.
+     *
+     * @return Returns an instance of JSONArtifact (CompactJSONObject or CompactJSONArray), corrisponding to if the input stream was Object or Array notation.
+     *
+     * @throws JSONException Thrown on errors during parse.
+     * @throws NullPointerException Thrown if reader is null
+     */
+    public static JSONArtifact parseCompact(Reader reader, boolean strict) throws JSONException, NullPointerException {
+        return parse(reader, false, strict, true);
+    }
+
+    /**
+     * Parse an InputStream of JSON text into a JSONArtifact that uses less memory.  See parseCompact(Reader, boolean).
+     * Note that the provided InputStream is not closed on completion of read; that is left to the caller.
+     * @param is The input stream to read from.  The content is assumed to be UTF-8 encoded and handled as such.
+     * @param strict Boolean flag to indicate if the content should be parsed in strict mode or not, meaning comments and unquoted strings are not allowed.
+     *
+     * @return Returns an instance of JSONArtifact (CompactJSONObject or CompactJSONArray), corrisponding to if the input stream was Object or Array notation.
+     *
+     * @throws JSONException Thrown on errors during parse.
+     * @throws NullPointerException Thrown if is is null
+     */
+    public static JSONArtifact parseCompact(InputStream is, boolean strict) throws JSONException, NullPointerException {
+        if (is != null) {
+            BufferedReader reader = null;
+            try {
+                reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
+            } catch (Exception ex) {
+                JSONException iox = new JSONException("Could not construct UTF-8 character reader for the InputStream");
+                iox.initCause(ex);
+                throw iox;
+            }
+            return parseCompact(reader, strict);
+        } else {
+            throw new NullPointerException("is cannot be null");
+        }
+    }
+
+    /**
+     * Parse a string of JSON text into a JSONArtifact that uses less memory.  See parseCompact(Reader, boolean).
+     * @param str The String to read from.  
+     * @param strict Boolean flag to indicate if the content should be parsed in strict mode or not, meaning comments and unquoted strings are not allowed.
+     *
+     * @return Returns an instance of JSONArtifact (CompactJSONObject or CompactJSONArray), corrisponding to if the input stream was Object or Array notation.
+     *
+     * @throws JSONException Thrown on errors during parse.
+     * @throws NullPointerException Thrown if str is null
+     */
+    public static JSONArtifact parseCompact(String str, boolean strict) throws JSONException, NullPointerException {
+        if (str != null) {
+            return parseCompact(new StringReader(str), strict);
+        } else {
+            throw new NullPointerException("str cannot be null");
+        }
+    }
+
+    private static JSONArtifact parse(Reader reader, boolean order, boolean strict, boolean compact) throws JSONException, NullPointerException {
 
         try {
             if (reader != null) {
@@ -106,6 +171,8 @@ public class JSON {
                             }
                             if (order) {
                                 return new OrderedJSONObject(rdr, strict);
+                            } else if (compact) {
+                                return new CompactJSONObject(rdr, strict);
                             } else {
                                 return new JSONObject(rdr,strict);
                             }
@@ -114,6 +181,9 @@ public class JSON {
                             if (bufferIt) {
                                 rdr = new BufferedReader(pReader);
                             }
+                            if (compact) {
+                                return new CompactJSONArray(rdr, strict);
+                            }
                             return new JSONArray(rdr, strict);
                         case ' ':
                         case '\t':
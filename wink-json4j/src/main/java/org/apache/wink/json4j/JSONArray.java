@@ -226,7 +226,7 @@ public class JSONArray extends ArrayList implements JSONArtifact {
      */
     public Object getIndex(int index) throws JSONException {
         try{
-            return super.get(index);
+            return this.get(index);
         }catch (Exception ex) {
             JSONException jex = new JSONException("Error occurred trying to access element at: " + index);
             jex.initCause(ex);
@@ -249,7 +249,7 @@ public class JSONArray extends ArrayList implements JSONArtifact {
                 throw new IllegalArgumentException("Object of type: [" + element.getClass().getName() + "] could not be converted to a JSON representation.");
             }
         }
-        super.add(index, element);
+        addElement(index, element);
     }
 
     /*
@@ -264,7 +264,8 @@ public class JSONArray extends ArrayList implements JSONArtifact {
                 throw new IllegalArgumentException("Object of type: [" + element.getClass().getName() + "] could not be converted to a JSON representation.");
             }
         }
-        return super.add(element);
+        addElement(element);
+        return true;
     }
 
 
@@ -290,7 +291,7 @@ public class JSONArray extends ArrayList implements JSONArtifact {
                     throw new IllegalArgumentException("Object of type: [" + obj.getClass().getName() + "] could not be converted to a JSON representation.");
                 }
             }
-            super.add(obj);
+            addElement(obj);
         }
         return true;
     }
@@ -312,7 +313,7 @@ public class JSONArray extends ArrayList implements JSONArtifact {
                     throw new IllegalArgumentException("Object of type: [" + obj.getClass().getName() + "] could not be converted to a JSON representation.");
                 }
             }
-            super.add(index, obj);
+            addElement(index, obj);
             index++;
         }
         return true;
@@ -333,7 +334,7 @@ public class JSONArray extends ArrayList implements JSONArtifact {
                 throw new IllegalArgumentException("Object of type: [" + element.getClass().getName() + "] could not be converted to a JSON representation.");
             }
         }
-        return super.set(index, element);
+        return setElement(index, element);
     }
 
     /**
@@ -346,11 +347,39 @@ public class JSONArray extends ArrayList implements JSONArtifact {
         toIndex = toIndex - maxIndex;
         if(toIndex > 0){
             for(int i = 0; i < toIndex; i++){
-                super.add(null);
+                addElement(null);
             }
         }
     }
 
+    /**
+     * Internal function through which all elements are appended to the array.
+     * Subclasses that store their elements differently override it.
+     * @param element The already converted element to append.
+     */
+    void addElement(Object element) {
+        super.add(element);
+    }
+
+    /**
+     * Internal function through which all elements are inserted into the array.
+     * @param index The position to insert the element at.
+     * @param element The already converted element to insert.
+     */
+    void addElement(int index, Object element) {
+        super.add(index, element);
+    }
+
+    /**
+     * Internal function through which all elements are replaced in the array.
+     * @param index The position of the element to replace.
+     * @param element The already converted element to store.
+     * @return The element previously at the position.
+     */
+    Object setElement(int index, Object element) {
+        return super.set(index, element);
+    }
+
     /**************************************************************/
     /* Maps of add to put, for API compatibility to other parsers.*/
     /**************************************************************/
@@ -370,7 +399,7 @@ public class JSONArray extends ArrayList implements JSONArtifact {
             }
         }
         try {
-            super.add(index, element);
+            addElement(index, element);
         } catch (Exception ex) {
             JSONException jex = new JSONException("Exception occurred while placing element.");
             jex.initCause(ex);
@@ -402,7 +431,7 @@ public class JSONArray extends ArrayList implements JSONArtifact {
             }
         }
         try {
-            super.add(element);            
+            addElement(element);
         } catch (Exception ex) {
             JSONException jex = new JSONException("Exception occurred while placing element.");
             jex.initCause(ex);
@@ -84,7 +84,7 @@ public class JSONObject extends HashMap  implements JSONArtifact {
         if (String.class  == clazz) return true;
         if (Boolean.class == clazz) return true;
         if (JSONObject.class.isAssignableFrom(clazz)) return true;
-        if (JSONArray.class == clazz) return true;
+        if (JSONArray.class.isAssignableFrom(clazz)) return true;
         if (Number.class.isAssignableFrom(clazz)) return true;
         if (JSONString.class.isAssignableFrom(clazz)) return true;
 
@@ -570,6 +570,18 @@ public class JSONObject extends HashMap  implements JSONArtifact {
      * @throws JSONException.  Thrown if key is null, not a string, or the value could not be converted.
      */
     public Object put(Object key, Object value, boolean includeSuperclass) throws JSONException{
+        return super.put(key, toJsonValue(key, value, includeSuperclass));
+    }
+
+    /**
+     * Internal function to check a key and convert a value into its JSON-able form before it is stored.
+     * @param key The key to put in the JSONObject
+     * @param value The value to put in the JSONObject
+     * @param includeSuperclass Boolean indicating that if the object is a JavaBean, include superclass getter properties.
+     * @return The value to store.
+     * @throws JSONException.  Thrown if key is null, not a string, or the value could not be converted.
+     */
+    static Object toJsonValue(Object key, Object value, boolean includeSuperclass) throws JSONException {
         if (null == key) throw new JSONException("key must not be null");
         if (!(key instanceof String)) throw new JSONException("key must be a String");
         if (!isValidObject(value)) {
@@ -582,7 +594,7 @@ public class JSONObject extends HashMap  implements JSONArtifact {
                 }
             }
         }
-        return super.put(key, value);
+        return value;
     }
 
     /**
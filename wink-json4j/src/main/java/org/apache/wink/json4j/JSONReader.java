@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.    
+ */
+
+
+package org.apache.wink.json4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+
+import org.apache.wink.json4j.internal.Token;
+import org.apache.wink.json4j.internal.Tokenizer;
+
+/**
+ * This class implements a pull parser for JSON text.  Instead of building a JSONObject or JSONArray
+ * of the whole document, the caller advances through the document one event at a time with next(), 
+ * in a similar fashion to the StAX XMLStreamReader.  Only the nesting of the current position is kept
+ * in memory, so documents of any size can be processed, and subtrees that are of no interest can be
+ * skipped with skipChildren().  A subtree of interest can still be read as a JSONObject or JSONArray
+ * with readValue().  Note:  The provided reader is not closed by this class; that is left to the caller.
+ * <p>
+ * For example, the document <code>{"a": [1, true]}</code> produces the events START_OBJECT, KEY, 
+ * START_ARRAY, VALUE, VALUE, END_ARRAY, END_OBJECT and END_DOCUMENT.
+ */
+public class JSONReader {
+
+    /**
+     * Event denoting the start of a JSON object.
+     */
+    public static final int START_OBJECT = 1;
+
+    /**
+     * Event denoting the end of a JSON object.
+     */
+    public static final int END_OBJECT   = 2;
+
+    /**
+     * Event denoting the start of a JSON array.
+     */
+    public static final int START_ARRAY  = 3;
+
+    /**
+     * Event denoting the end of a JSON array.
+     */
+    public static final int END_ARRAY    = 4;
+
+    /**
+     * Event denoting a property name of a JSON object.  The name is available from getKey().
+     */
+    public static final int KEY          = 5;
+
+    /**
+     * Event denoting a string, number, boolean or null value.  The value is available from getValue().
+     */
+    public static final int VALUE        = 6;
+
+    /**
+     * Event denoting the end of the document.
+     */
+    public static final int END_DOCUMENT = 7;
+
+    /**
+     * The tokenizer reading the JSON text.
+     */
+    private Tokenizer tokenizer;
+
+    /**
+     * Flags for each open container, true for an object and false for an array.
+     */
+    private boolean[] objects = new boolean[16];
+
+    /**
+     * The number of open containers.
+     */
+    private int depth = 0;
+
+    /**
+     * The maximum number of nested containers, or 0 if there is no limit.
+     */
+    private int maxDepth = 0;
+
+    /**
+     * Flag denoting that the current container holds a complete entry, so a comma or its end is expected.
+     */
+    private boolean entryComplete = false;
+
+    /**
+     * Flag denoting that a key was read, so its value is expected.
+     */
+    private boolean keyRead = false;
+
+    /**
+     * The current event, or 0 before the first call to next().
+     */
+    private int event = 0;
+
+    private String key = null;
+    private Object value = null;
+
+    /**
+     * Constructor.
+     * @param reader The reader from which the JSON text is read.  Same as JSONReader(reader, false);
+     * @throws JSONException Thrown if an error occurs reading the text.
+     * @throws NullPointerException Thrown if reader is null.
+     */
+    public JSONReader(Reader reader) throws JSONException, NullPointerException {
+        this(reader, false);
+    }
+
+    /**
+     * Constructor.
+     * @param reader The reader from which the JSON text is read.
+     * @param strict Boolean flag to indicate if the content should be parsed in strict mode or not, meaning comments and unquoted strings are not allowed.
+     * @throws JSONException Thrown if an error occurs reading the text.
+     * @throws NullPointerException Thrown if reader is null.
+     */
+    public JSONReader(Reader reader, boolean strict) throws JSONException, NullPointerException {
+        super();
+        if (reader == null) {
+            throw new NullPointerException("reader cannot be null.");
+        }
+        try {
+            this.tokenizer = new Tokenizer(reader, strict);
+        } catch (IOException iox) {
+            JSONException jex = new JSONException("Error occurred during input read.");
+            jex.initCause(iox);
+            throw jex;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param is The stream from which the JSON text is read, in UTF-8 encoding.
+     * @throws JSONException Thrown if an error occurs reading the text.
+     * @throws NullPointerException Thrown if is is null.
+     */
+    public JSONReader(InputStream is) throws JSONException, NullPointerException {
+        this(createReader(is), false);
+    }
+
+    private static Reader createReader(InputStream is) throws JSONException {
+        if (is == null) {
+            throw new NullPointerException("is cannot be null.");
+        }
+        try {
+            return new InputStreamReader(is, "UTF-8");
+        } catch (UnsupportedEncodingException uex) {
+            JSONException jex = new JSONException(uex.toString());
+            jex.initCause(uex);
+            throw jex;
+        }
+    }
+
+    /**
+     * Method to limit the nesting of objects and arrays in the document.  A document that exceeds the 
+     * limit causes next() to throw a JSONException, so untrusted input cannot nest without bound.
+     * @param maxDepth The maximum number of nested objects and arrays, or 0 for no limit.
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Method to obtain the maximum number of nested objects and arrays.
+     * @return The maximum depth, or 0 if there is no limit.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Method to check whether there are more events.
+     * @return false if the END_DOCUMENT event was reached.
+     */
+    public boolean hasNext() {
+        return event != END_DOCUMENT;
+    }
+
+    /**
+     * Method to advance to the next event.
+     * @return The next event.
+     * @throws JSONException Thrown if the JSON text is malformed or an error occurs reading it.
+     * @throws IllegalStateException Thrown if the END_DOCUMENT event was already reached.
+     */
+    public int next() throws JSONException, IllegalStateException {
+        if (event == END_DOCUMENT) {
+            throw new IllegalStateException("The end of the document was reached.");
+        }
+        key = null;
+        value = null;
+        if (depth == 0 && event != 0) {
+            // The root value is complete.
+            event = END_DOCUMENT;
+            return event;
+        }
+
+        try {
+            Token token = tokenizer.next();
+            if (depth == 0) {
+                return startValue(token);
+            }
+
+            if (objects[depth - 1]) {
+                if (token == Token.TokenEOF) throw new JSONException("Unterminated object " + tokenizer.onLineCol());
+                if (keyRead) {
+                    keyRead = false;
+                    return startValue(token);
+                }
+                if (entryComplete) {
+                    if (token == Token.TokenComma) {
+                        token = tokenizer.next();
+                    } else if (token != Token.TokenBraceR) {
+                        throw new JSONException("expecting either ',' or '}' " + tokenizer.onLineCol());
+                    }
+                }
+                if (token == Token.TokenBraceR) {
+                    return endContainer(END_OBJECT);
+                }
+                if (!token.isString()) throw new JSONException("Expecting string key " + tokenizer.onLineCol());
+                key = token.getString();
+                if (tokenizer.next() != Token.TokenColon) throw new JSONException("Expecting colon " + tokenizer.onLineCol());
+                keyRead = true;
+                event = KEY;
+                return event;
+            } else {
+                if (token == Token.TokenEOF) throw new JSONException("Unterminated array " + tokenizer.onLineCol());
+                if (entryComplete) {
+                    if (token == Token.TokenComma) {
+                        token = tokenizer.next();
+                    } else if (token != Token.TokenBrackR) {
+                        throw new JSONException("expecting either ',' or ']' " + tokenizer.onLineCol());
+                    }
+                }
+                if (token == Token.TokenBrackR) {
+                    return endContainer(END_ARRAY);
+                }
+                return startValue(token);
+            }
+        } catch (IOException iox) {
+            JSONException jex = new JSONException("Error occurred during input read.");
+            jex.initCause(iox);
+            throw jex;
+        }
+    }
+
+    /**
+     * Method to obtain the current event.
+     * @return The current event, or 0 if next() was not called yet.
+     */
+    public int getEventType() {
+        return event;
+    }
+
+    /**
+     * Method to obtain the property name of a KEY event.
+     * @return The property name, or null if the current event is not KEY.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Method to obtain the value of a VALUE event.
+     * @return The String, Number or Boolean value, or null for a JSON null or if the current event is not VALUE.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Method to obtain the number of objects and arrays that enclose the current position.  
+     * A START_OBJECT or START_ARRAY event is inside its own container, the matching end event is not.
+     * @return The current depth.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Method to skip the contents of the object or array started by the current event.  The reader
+     * is left on the matching END_OBJECT or END_ARRAY event.  For other events, this method does nothing.
+     * @throws JSONException Thrown if the JSON text is malformed or an error occurs reading it.
+     */
+    public void skipChildren() throws JSONException {
+        if (event == START_OBJECT || event == START_ARRAY) {
+            int target = depth - 1;
+            while (depth > target) {
+                next();
+            }
+        }
+    }
+
+    /**
+     * Method to read the value at the current position as a JSON artifact.  Same as calling readValue(false);
+     * @return The value, see readValue(boolean).
+     * @throws JSONException Thrown if the JSON text is malformed or an error occurs reading it.
+     */
+    public Object readValue() throws JSONException {
+        return readValue(false);
+    }
+
+    /**
+     * Method to read the value at the current position as a JSON artifact.  For a START_OBJECT or START_ARRAY
+     * event, the whole object or array is read and the reader is left on the matching end event.  For a KEY
+     * event, the value of the property is read.
+     * @param ordered Flag to denote if the objects read should maintain the serialization order of their attributes.
+     * @return The JSONObject, JSONArray, String, Number, Boolean or null value.
+     * @throws JSONException Thrown if the JSON text is malformed or an error occurs reading it, or if the current event has no value.
+     */
+    public Object readValue(boolean ordered) throws JSONException {
+        if (event == KEY) {
+            next();
+        }
+        switch (event) {
+            case VALUE:
+                return value;
+            case START_OBJECT: {
+                JSONObject result = ordered ? new OrderedJSONObject() : new JSONObject();
+                while (next() != END_OBJECT) {
+                    String name = key;
+                    next();
+                    result.put(name, readValue(ordered));
+                }
+                return result;
+            }
+            case START_ARRAY: {
+                JSONArray result = new JSONArray();
+                while (next() != END_ARRAY) {
+                    result.add(readValue(ordered));
+                }
+                return result;
+            }
+            default:
+                throw new JSONException("No value at the current position " + tokenizer.onLineCol());
+        }
+    }
+
+    /**
+     * Method to handle the first token of a value.
+     */
+    private int startValue(Token token) throws JSONException {
+        if (token == Token.TokenEOF) throw new JSONException("Expecting property value " + tokenizer.onLineCol());
+
+        if (token == Token.TokenBraceL || token == Token.TokenBrackL) {
+            if (maxDepth > 0 && depth >= maxDepth) {
+                throw new JSONException("Maximum depth of " + maxDepth + " exceeded " + tokenizer.onLineCol());
+            }
+            if (depth == objects.length) {
+                boolean[] grown = new boolean[depth * 2];
+                System.arraycopy(objects, 0, grown, 0, depth);
+                objects = grown;
+            }
+            objects[depth++] = (token == Token.TokenBraceL);
+            entryComplete = false;
+            event = (token == Token.TokenBraceL) ? START_OBJECT : START_ARRAY;
+            return event;
+        }
+
+        if (token.isNumber()) {
+            value = token.getNumber();
+        } else if (token.isString()) {
+            value = token.getString();
+        } else if (token == Token.TokenTrue) {
+            value = Boolean.TRUE;
+        } else if (token == Token.TokenFalse) {
+            value = Boolean.FALSE;
+        } else if (token == Token.TokenNull) {
+            value = null;
+        } else {
+            throw new JSONException("Invalid token " + tokenizer.onLineCol());
+        }
+        entryComplete = true;
+        event = VALUE;
+        return event;
+    }
+
+    /**
+     * Method to handle the end of an object or array.
+     */
+    private int endContainer(int endEvent) {
+        depth--;
+        entryComplete = true;
+        event = endEvent;
+        return event;
+    }
+}
@@ -569,7 +569,7 @@ public class JSONWriter {
                 writer.write(((JSONString)o).toJSONString());
             } else {
                 // Unknown type, we'll just try to serialize it like a Java Bean.
-                writer.write(BeanSerializer.toJson(o, true).write());
+                BeanSerializer.writeJson(o, true, writer);
             }
         }
     }
@@ -19,12 +19,19 @@
 
 package org.apache.wink.json4j.internal;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.apache.wink.json4j.JSONArray;
 import org.apache.wink.json4j.JSONArtifact;
@@ -36,6 +43,12 @@ import org.apache.wink.json4j.JSONObject;
  */
 public class BeanSerializer {
 
+    /**
+     * Cache of the introspected getters and setters of classes.  The keys are weak and the values
+     * are soft references, so the cache does not prevent classes from being unloaded.
+     */
+    private static final Map beanInfos = Collections.synchronizedMap(new WeakHashMap());
+
     /** 
      * This method inspects a bean and converts it to its corrisponding JSON. 
      * This function expects non-basic types (no String, Number, etc).
@@ -75,6 +88,35 @@ public class BeanSerializer {
         return ja;
     }
 
+    /**
+     * This method writes a bean as JSON text directly to a writer, without building the
+     * intermediate JSONObject of the bean.  The text is the same as the text of the JSONObject
+     * returned by toJson, except that an object referenced more than once is written in full at
+     * its first occurrence in the text.
+     * This function expects non-basic types (no String, Number, etc).
+     * @param obj The Object to write.
+     * @param includeSuperclass Boolean indicating if superclass properties should be included in the output JSON.
+     * @param writer The writer to write the JSON text to.
+     * @throws IllegalArgumentException Thrown if input type is a String, Number, Boolean, etc.
+     * @throws JSONException Thrown if a JSON conversion error occurs.
+     * @throws IOException Thrown if an error occurs on the underlying writer.
+     */
+    public static void writeJson(Object obj, boolean includeSuperclass, Writer writer) throws IllegalArgumentException, JSONException, IOException {
+        Serializer serializer = new Serializer(writer);
+        if (obj == null) {
+            serializer.writeNull();
+            return;
+        }
+        Class clazz = obj.getClass();
+        if (String.class == clazz || Boolean.class == clazz || Number.class.isAssignableFrom(clazz) ||
+            JSONObject.class.isAssignableFrom(clazz) || JSONArray.class.isAssignableFrom(clazz) ||
+            Map.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz) || clazz.isArray()) {
+            serializer.write(toJson(obj, includeSuperclass));
+        } else {
+            writeBean(serializer, obj, includeSuperclass, new ArrayList());
+        }
+    }
+
     /**
      * Internal method for introspecting a bean and converting it to a JSONAble type.
      * @param obj The Object to inspect.
@@ -84,18 +126,7 @@ public class BeanSerializer {
      */
     private static JSONArtifact introspectBean(Object obj, boolean includeSuperclass, ArrayList parsedObjects) throws JSONException {
         JSONObject ja = null;
-        boolean found = false; 
-        for (int i = 0; i < parsedObjects.size(); i++) {
-            // Check and try to avoid graphs by parsing the same 
-            // object multiple times, which may indicate a cycle.
-            Object possibleObj = parsedObjects.get(i);
-            if (possibleObj != null && obj == possibleObj) {
-                found = true;
-                break;
-            }
-        }
-
-        if (!found) {
+        if (!isParsed(obj, parsedObjects)) {
             parsedObjects.add(obj);
             ja = new JSONObject();
 
@@ -104,63 +135,152 @@ public class BeanSerializer {
             ja.put("_type", "JavaClass");
             ja.put("_classname", clazz.getName());
 
-            // Fetch all the methods, based on including superclass or not.
-            Method[] methods = null;
-            if (includeSuperclass) {
-                methods = clazz.getMethods();
-            } else {
-                methods = clazz.getDeclaredMethods();
+            // Fetch all the getters, based on including superclass or not.
+            BeanProperties properties = getBeanInfo(clazz).getProperties(includeSuperclass);
+            for (int i = 0; i < properties.getters.length; i++) {
+                String attr = properties.names[i];
+                try {
+                    Object val = properties.getters[i].invoke(obj);
+                    if (isBean(val)) {
+                        if (val != obj) {
+                            // Try to avoid processing references to itself.
+                            ja.put(attr, introspectBean(val, includeSuperclass, parsedObjects));
+                        }
+                    } else {
+                        ja.put(attr, toJsonValue(obj, val));
+                    }
+                } catch (Exception ex) {
+                    ja.put(attr, (Object)null);
+                }
             }
+        }
+        return ja;
+    }
 
-            if (methods != null && methods.length > 0) {
-                for (int i = 0; i < methods.length; i++) {
-                    Method m = methods[i];
-                    // Include all superclass methods if requested, 
-                    // or only those that are part of the actual declaring class.
-                    String mName = m.getName();
-                    Class[] types = m.getParameterTypes();
-
-                    // Getter, so we can assume this accesses a field.
-                    if (mName.startsWith("get") && mName.length() > 3 && (types == null || types.length == 0)) {
-                        String attr = mName.substring(3, mName.length());
-                        attr = Character.toLowerCase(attr.charAt(0)) + attr.substring(1, attr.length());
-                        try {
-                            Object val = m.invoke(obj);
-                            if (val == null) {
-                                ja.put(attr, (Object)null);
-                            } else {
-                                Class vClazz = val.getClass();
-                                if (String.class == vClazz) {
-                                    ja.put(attr, val);
-                                } else if (Boolean.class == vClazz) {
-                                    ja.put(attr, val);
-                                } else if (Class.class == vClazz) {
-                                    ja.put(attr, ((Class)val).getName());
-                                } else if (Number.class.isAssignableFrom(vClazz)) {
-                                    ja.put(attr, val);
-                                } else if (JSONObject.class.isAssignableFrom(vClazz)) {
-                                    ja.put(attr, val);
-                                } else if (JSONArray.class.isAssignableFrom(vClazz)) {
-                                    ja.put(attr, val);
-                                } else if (Map.class.isAssignableFrom(vClazz)) {
-                                    ja.put(attr, new JSONObject((Map)val));
-                                } else if (Collection.class.isAssignableFrom(vClazz)) {
-                                    ja.put(attr, new JSONArray((Collection)obj));
-                                } else {
-                                    if (val != obj) {
-                                        // Try to avoid processing references to itself.
-                                        ja.put(attr, introspectBean(val, includeSuperclass, parsedObjects));
-                                    }
-                                }
-                            }
-                        } catch (Exception ex) {
-                            ja.put(attr, (Object)null);
+    /**
+     * Internal method for writing a bean with the serializer.  The properties are written in the
+     * order of the keys of the JSONObject that introspectBean would return.
+     * @param serializer The serializer to write with.
+     * @param obj The Object to write.
+     * @param includeSuperclass Boolean indicating if superclass properties should be included in the output JSON.
+     * @param parsedObjects An array list of objects traversed to try and avoid loops in graphs
+     * @throws IOException Thrown if an error occurs on the underlying writer.
+     */
+    private static void writeBean(Serializer serializer, Object obj, boolean includeSuperclass, ArrayList parsedObjects) throws IOException {
+        if (isParsed(obj, parsedObjects)) {
+            serializer.writeNull();
+            return;
+        }
+        parsedObjects.add(obj);
+
+        Class clazz = obj.getClass();
+        BeanProperties properties = getBeanInfo(clazz).getProperties(includeSuperclass);
+        String[] keys = properties.getWriteKeys();
+        Method[] getters = properties.getWriteGetters();
+
+        serializer.writeRawString("{");
+        serializer.indentPush();
+        boolean first = true;
+        for (int i = 0; i < keys.length; i++) {
+            Object val = null;
+            boolean bean = false;
+            if (getters[i] == null) {
+                val = "_type".equals(keys[i]) ? "JavaClass" : clazz.getName();
+            } else {
+                try {
+                    val = getters[i].invoke(obj);
+                    if (isBean(val)) {
+                        if (val == obj) {
+                            // Try to avoid processing references to itself.
+                            continue;
                         }
+                        bean = true;
+                    } else {
+                        val = toJsonValue(obj, val);
                     }
+                } catch (Exception ex) {
+                    val = null;
                 }
             }
+
+            if (!first) serializer.writeRawString(",");
+            first = false;
+            serializer.newLine();
+            serializer.indent();
+            serializer.writeString(keys[i]);
+            serializer.writeRawString(":");
+            serializer.space();
+            if (bean) {
+                writeBean(serializer, val, includeSuperclass, parsedObjects);
+            } else {
+                serializer.write(val);
+            }
         }
-        return ja;
+        serializer.indentPop();
+        serializer.newLine();
+        serializer.indent();
+        serializer.writeRawString("}");
+    }
+
+    /**
+     * Check and try to avoid graphs by parsing the same 
+     * object multiple times, which may indicate a cycle.
+     */
+    private static boolean isParsed(Object obj, ArrayList parsedObjects) {
+        for (int i = 0; i < parsedObjects.size(); i++) {
+            Object possibleObj = parsedObjects.get(i);
+            if (possibleObj != null && obj == possibleObj) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method to check whether a property value has to be introspected as a bean.
+     */
+    private static boolean isBean(Object val) {
+        if (val == null) {
+            return false;
+        }
+        Class vClazz = val.getClass();
+        return String.class != vClazz && Boolean.class != vClazz && Class.class != vClazz &&
+            !Number.class.isAssignableFrom(vClazz) && !JSONObject.class.isAssignableFrom(vClazz) &&
+            !JSONArray.class.isAssignableFrom(vClazz) && !Map.class.isAssignableFrom(vClazz) &&
+            !Collection.class.isAssignableFrom(vClazz);
+    }
+
+    /**
+     * Method to convert a property value that is not a bean to its JSON value.
+     * @param obj The bean the value belongs to.
+     * @param val The value of the property.
+     */
+    private static Object toJsonValue(Object obj, Object val) throws JSONException {
+        if (val == null) {
+            return null;
+        }
+        Class vClazz = val.getClass();
+        if (Class.class == vClazz) {
+            return ((Class)val).getName();
+        } else if (Map.class.isAssignableFrom(vClazz)) {
+            return new JSONObject((Map)val);
+        } else if (Collection.class.isAssignableFrom(vClazz)) {
+            return new JSONArray((Collection)obj);
+        }
+        return val;
+    }
+
+    /**
+     * Method to obtain the cached introspection data of a class.
+     */
+    private static BeanInfo getBeanInfo(Class clazz) {
+        SoftReference ref = (SoftReference)beanInfos.get(clazz);
+        BeanInfo info = (ref != null) ? (BeanInfo)ref.get() : null;
+        if (info == null) {
+            info = new BeanInfo(clazz);
+            beanInfos.put(clazz, new SoftReference(info));
+        }
+        return info;
     }
 
     /**
@@ -181,7 +301,7 @@ public class BeanSerializer {
                     String cName = (String)jo.get("_classname");
                     Class clazz = Class.forName(cName);
                     if (clazz != null) {
-                        Method[] methods = clazz.getMethods();
+                        BeanInfo info = getBeanInfo(clazz);
 
                         obj = clazz.newInstance();
                         Iterator keys = jo.keys();
@@ -194,6 +314,7 @@ public class BeanSerializer {
 
                                     String setter = "set" + Character.toUpperCase(key.charAt(0)) + key.substring(1, key.length());
                                     Object val = jo.get(key);
+                                    Method[] methods = info.getSetters(setter);
 
                                     if (val != null) {
                                         Class vClazz = val.getClass();
@@ -579,5 +700,138 @@ public class BeanSerializer {
         }
         return obj;
     }
-}
 
+    /**
+     * Private class holding the introspected getters and setters of a class.
+     */
+    private static class BeanInfo {
+        private final Class clazz;
+        private volatile BeanProperties properties;
+        private volatile BeanProperties declaredProperties;
+        private volatile Method[] methods;
+        private final Map setters = Collections.synchronizedMap(new HashMap());
+
+        BeanInfo(Class clazz) {
+            this.clazz = clazz;
+        }
+
+        /**
+         * Method to obtain the getters of the class.
+         * @param includeSuperclass Boolean indicating if superclass getters should be included.
+         */
+        BeanProperties getProperties(boolean includeSuperclass) {
+            BeanProperties result = includeSuperclass ? properties : declaredProperties;
+            if (result == null) {
+                result = new BeanProperties(includeSuperclass ? clazz.getMethods() : clazz.getDeclaredMethods());
+                if (includeSuperclass) {
+                    properties = result;
+                } else {
+                    declaredProperties = result;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Method to obtain the public methods of the class with the specified name and a single parameter.
+         */
+        Method[] getSetters(String name) {
+            Method[] result = (Method[])setters.get(name);
+            if (result == null) {
+                if (methods == null) {
+                    methods = clazz.getMethods();
+                }
+                ArrayList list = new ArrayList();
+                for (int i = 0; i < methods.length; i++) {
+                    if (methods[i].getName().equals(name) && methods[i].getParameterTypes().length == 1) {
+                        list.add(methods[i]);
+                    }
+                }
+                result = (Method[])list.toArray(new Method[list.size()]);
+                setters.put(name, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Private class holding the getters of a class and their attribute names.
+     */
+    private static class BeanProperties {
+        /** The getters, in the order of the methods of the class. */
+        final Method[] getters;
+        final String[] names;
+        private volatile String[] writeKeys;
+        private volatile Method[] writeGetters;
+
+        BeanProperties(Method[] methods) {
+            ArrayList getterList = new ArrayList();
+            ArrayList nameList = new ArrayList();
+            for (int i = 0; i < methods.length; i++) {
+                Method m = methods[i];
+                String mName = m.getName();
+                Class[] types = m.getParameterTypes();
+
+                // Getter, so we can assume this accesses a field.
+                if (mName.startsWith("get") && mName.length() > 3 && (types == null || types.length == 0)) {
+                    String attr = mName.substring(3, mName.length());
+                    attr = Character.toLowerCase(attr.charAt(0)) + attr.substring(1, attr.length());
+                    if (Modifier.isPublic(m.getModifiers()) && Modifier.isPublic(m.getDeclaringClass().getModifiers())) {
+                        // The getter is accessible anyway, so skip the access check on every invocation.
+                        try {
+                            m.setAccessible(true);
+                        } catch (SecurityException ex) {
+                            // Keep the access check.
+                        }
+                    }
+                    getterList.add(m);
+                    nameList.add(attr);
+                }
+            }
+            getters = (Method[])getterList.toArray(new Method[getterList.size()]);
+            names = (String[])nameList.toArray(new String[nameList.size()]);
+        }
+
+        /**
+         * Method to obtain the keys of the JSONObject of a bean, in the order the JSONObject 
+         * iterates them.  The "_type" and "_classname" keys have no getter.
+         */
+        String[] getWriteKeys() {
+            if (writeKeys == null) {
+                initWriteOrder();
+            }
+            return writeKeys;
+        }
+
+        /**
+         * Method to obtain the getters matching the keys returned by getWriteKeys.
+         */
+        Method[] getWriteGetters() {
+            if (writeKeys == null) {
+                initWriteOrder();
+            }
+            return writeGetters;
+        }
+
+        private void initWriteOrder() {
+            // Insert the keys exactly as introspectBean does, so the iteration order
+            // matches, and later getters with the same attribute name win.
+            HashMap map = new HashMap();
+            map.put("_type", null);
+            map.put("_classname", null);
+            for (int i = 0; i < getters.length; i++) {
+                map.put(names[i], getters[i]);
+            }
+            String[] keys = new String[map.size()];
+            Method[] methods = new Method[map.size()];
+            int i = 0;
+            for (Iterator iter = map.entrySet().iterator(); iter.hasNext(); i++) {
+                Map.Entry entry = (Map.Entry)iter.next();
+                keys[i] = (String)entry.getKey();
+                methods[i] = (Method)entry.getValue();
+            }
+            writeGetters = methods;
+            writeKeys = keys;
+        }
+    }
+}
@@ -21,7 +21,10 @@ package org.apache.wink.json4j.internal;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.HashMap;
 
+import org.apache.wink.json4j.CompactJSONArray;
+import org.apache.wink.json4j.CompactJSONObject;
 import org.apache.wink.json4j.JSONArray;
 import org.apache.wink.json4j.JSONArtifact;
 import org.apache.wink.json4j.JSONException;
@@ -40,6 +43,15 @@ public class Parser {
 
     private boolean firstArtifact = false;
 
+    private boolean compact = false;
+
+    /**
+     * The keys parsed so far in compact mode, so that the objects of a document share one String instance per key.
+     * The cache is bounded, so that a document with many distinct keys does not grow it without limit.
+     */
+    private HashMap<String, String> keys = null;
+    private static final int MAX_KEYS = 1024;
+
     /**
      * Contructor
      * @param reader The Reader to use when reading in the JSON stream/string.
@@ -75,6 +87,22 @@ public class Parser {
         }
     }
 
+    /**
+     * Contructor
+     * @param reader The Reader to use when reading in the JSON stream/string.
+     * @param strict Boolean indicating if the parser should parse in strict mode, meaning unqoted strings and comments are not allowed.
+     * @param compact Boolean indicating if the parser should construct CompactJSONObject and CompactJSONArray instances for the unordered JSON objects and the arrays it encounters.
+     *
+     * @throws JSONException Thrown if an error occurs in tokenizing the JSON string.
+     */
+    public Parser(Reader reader, boolean strict, boolean compact) throws JSONException {
+        this(reader, strict);
+        this.compact = compact;
+        if (compact) {
+            this.keys = new HashMap<String, String>();
+        }
+    }
+
     /**
      * Method to initiate the parse of the toplevel JSON object, which will in turn parse all child JSON objects contained within.
      * Same as calling parse(false);
@@ -184,7 +212,7 @@ public class Parser {
                 result = rootObject;
             } else {
                 if (!ordered) {
-                    result = new JSONObject();
+                    result = compact ? new CompactJSONObject() : new JSONObject();
                 } else {
                     result = new OrderedJSONObject();
                 }
@@ -203,6 +231,9 @@ public class Parser {
 
                 if (!lastToken.isString()) throw new JSONException("Expecting string key " + tokenizer.onLineCol());
                 String key = lastToken.getString();
+                if (keys != null) {
+                    key = sharedKey(key);
+                }
 
                 lastToken = tokenizer.next();
                 if (lastToken != Token.TokenColon) throw new JSONException("Expecting colon " + tokenizer.onLineCol());
@@ -249,7 +280,7 @@ public class Parser {
         if(array != null){
             result = array;
         } else {
-            result = new JSONArray();
+            result = compact ? new CompactJSONArray() : new JSONArray();
         }
 
         try {
@@ -342,4 +373,19 @@ public class Parser {
         throw new JSONException("Invalid token " + tokenizer.onLineCol());
     }
 
+    /**
+     * Method to get the instance of a key shared by the objects of the document.
+     * @param key The key just parsed.
+     * @return The first instance of the key parsed, or the key itself when the cache is full.
+     */
+    private String sharedKey(String key) {
+        String shared = keys.get(key);
+        if (shared != null) {
+            return shared;
+        }
+        if (keys.size() < MAX_KEYS) {
+            keys.put(key, key);
+        }
+        return key;
+    }
 }
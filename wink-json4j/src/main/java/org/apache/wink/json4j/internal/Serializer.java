@@ -154,8 +154,15 @@ public class Serializer {
 
         char[] chars = value.toCharArray();
 
+        // Write runs of characters that need no escaping with a single call.
+        int start = 0;
         for (int i=0; i<chars.length; i++) {
             char c = chars[i];
+            if ((c >= 32) && (c <= 126) && (c != '"') && (c != '\\') && (c != '/')) {
+                continue;
+            }
+            if (i > start) writer.write(chars, start, i - start);
+            start = i + 1;
             switch (c) {
                 case  '"': writer.write("\\\""); break;
                 case '\\': writer.write("\\\\"); break;
@@ -167,14 +174,11 @@ public class Serializer {
                 case '\r': writer.write("\\r"); break;
                 case '/': writer.write("\\/"); break;
                 default:
-                    if ((c >= 32) && (c <= 126)) {
-                        writer.write(c);
-                    } else {
-                        writer.write("\\u");
-                        writer.write(rightAlignedZero(Integer.toHexString(c),4));
-                    }
+                    writer.write("\\u");
+                    writer.write(rightAlignedZero(Integer.toHexString(c),4));
             }
         }
+        if (chars.length > start) writer.write(chars, start, chars.length - start);
 
         writer.write('"');
 
@@ -186,7 +190,7 @@ public class Serializer {
      * @param object The JSON compatible object to serialize.
      * @throws IOException Thrown if an error occurs during write, or if a nonJSON compatible Java object is passed..
      */
-    private Serializer write(Object object) throws IOException {
+    Serializer write(Object object) throws IOException {
         if (null == object) return writeNull();
         
         // Serialize the various types!
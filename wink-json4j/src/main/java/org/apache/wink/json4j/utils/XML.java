@@ -29,6 +29,7 @@ import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.Properties;
 import java.util.Set;
 import java.util.logging.Level;
@@ -36,6 +37,7 @@ import java.util.logging.Logger;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.OutputKeys;
@@ -47,13 +49,17 @@ import javax.xml.transform.stream.StreamSource;
 
 import org.apache.wink.json4j.JSONArray;
 import org.apache.wink.json4j.JSONObject;
+import org.apache.wink.json4j.JSONReader;
 import org.apache.wink.json4j.utils.internal.JSONSAXHandler;
+import org.apache.wink.json4j.utils.internal.JSONStreamingSAXHandler;
+import org.apache.wink.json4j.utils.internal.XMLStreamingWriter;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 
 /**
@@ -151,6 +157,13 @@ public class XML {
                                             "   <xsl:template match=\"text()[normalize-space(.)='']\"/>         \n" +
                                             " </xsl:stylesheet>                                                 \n" ;
 
+    /**
+     * The factory of the SAX parsers, and a pool of parsers that finished a conversion.
+     */
+    private static SAXParserFactory saxParserFactory = null;
+    private static final LinkedList saxParsers     = new LinkedList();
+    private static final int maxPooledParsers      = 8;
+
     /**
      * Method to do the transform from an XML input stream to a JSON stream.
      * Neither input nor output streams are closed.  Closure is left up to the caller.  Same as calling toJson(inStream, outStream, false);  (Default is compact form)
@@ -198,32 +211,14 @@ public class XML {
                 logger.logp(Level.FINEST, className, "transform", "Fetching a SAX parser for use with JSONSAXHandler");
             }
 
-            try {
-                /**
-                 * Get a parser.
-                 */
-                SAXParserFactory factory = SAXParserFactory.newInstance();
-                factory.setNamespaceAware(true);
-                SAXParser sParser = factory.newSAXParser();
-                XMLReader parser = sParser.getXMLReader();
-                JSONSAXHandler jsonHandler = new JSONSAXHandler(JSONStream, verbose);
-                parser.setContentHandler(jsonHandler);
-                parser.setErrorHandler(jsonHandler);
-                InputSource source = new InputSource(new BufferedInputStream(XMLStream));
+            JSONSAXHandler jsonHandler = new JSONSAXHandler(JSONStream, verbose);
 
-                if (logger.isLoggable(Level.FINEST)) {
-                    logger.logp(Level.FINEST, className, "transform", "Parsing the XML content to JSON");
-                }
-
-                /** 
-                 * Parse it.
-                 */
-                source.setEncoding("UTF-8");
-                parser.parse(source);                 
-                jsonHandler.flushBuffer();
-            } catch (javax.xml.parsers.ParserConfigurationException pce) {
-                throw new SAXException("Could not get a parser: " + pce.toString());
+            if (logger.isLoggable(Level.FINEST)) {
+                logger.logp(Level.FINEST, className, "transform", "Parsing the XML content to JSON");
             }
+
+            parse(XMLStream, jsonHandler);
+            jsonHandler.flushBuffer();
         }
 
         if (logger.isLoggable(Level.FINER)) {
@@ -324,6 +319,40 @@ public class XML {
         return toJson(xmlFile,false);
     }
 
+    /**
+     * Method to do a streaming transform from an XML input stream to a JSON stream.
+     * The format is the same as the one of toJson, except that an attribute and a child element with the same name 
+     * are rendered as one JSON array instead of two members with the same key.  Whether a child element is repeated is 
+     * only known when its parent ends, so child elements are kept in memory until then, except for a repeated element:  
+     * from its second occurrence on, its array is written while the XML is parsed.  So documents made of runs of 
+     * repeated elements, such as feeds, can be converted whatever their size.
+     * Neither input nor output streams are closed.  Closure is left up to the caller.
+     *
+     * @param XMLStream The XML stream to convert to JSON
+     * @param JSONStream The stream to write out JSON to.  The contents written to this stream are always in UTF-8 format.
+     * @param verbose Flag to denote whether or not to render the JSON text in verbose (indented easy to read), or compact (not so easy to read, but smaller), format.
+     *
+     * @throws SAXException Thrown if a parse error occurs.
+     * @throws IOException Thrown if an IO error occurs.
+     */
+    public static void streamToJson(InputStream XMLStream, OutputStream JSONStream, boolean verbose) throws SAXException, IOException {
+        if (logger.isLoggable(Level.FINER)) {
+            logger.entering(className, "streamToJson(InputStream, OutputStream, boolean)");
+        }
+
+        if (XMLStream == null) {
+            throw new NullPointerException("XMLStream cannot be null");
+        } else if (JSONStream == null) {
+            throw new NullPointerException("JSONStream cannot be null");
+        } else {
+            parse(XMLStream, new JSONStreamingSAXHandler(JSONStream, verbose));
+        }
+
+        if (logger.isLoggable(Level.FINER)) {
+            logger.exiting(className, "streamToJson(InputStream, OutputStream, boolean)");
+        }
+    }
+
     /**
      * Method to do the transform from an JSON input stream to a XML stream.
      * Neither input nor output streams are closed.  Closure is left up to the caller.  Same as calling toXml(inStream, outStream, false);  (Default is compact form)
@@ -514,6 +543,49 @@ public class XML {
         return toXml(jsonFile,false);
     }
 
+    /**
+     * Method to do a streaming transform from a JSON input stream to an XML stream.
+     * The XML is written while the JSON is read, so neither the JSON nor the XML document is kept in memory, which 
+     * allows converting documents of any size.  The format is the same as the one of toXml, except that a simple 
+     * member that follows an object or array member is rendered as a child element with text instead of an attribute, 
+     * for example <code>&lt;jsonObject&gt;&lt;o/&gt;&lt;late&gt;text&lt;/late&gt;&lt;/jsonObject&gt;</code> for 
+     * <code>{"o":{},"late":"text"}</code>, since the start tag was already written.  Also, values are escaped once, 
+     * where toXml escapes them twice (<code>&lt;</code> becomes <code>&amp;amp;lt;</code>).
+     * Neither input nor output streams are closed.  Closure is left up to the caller.
+     *
+     * @param JSONStream The JSON stream to convert to XML
+     * @param XMLStream The stream to write out XML to.  The contents written to this stream are always in UTF-8 format.
+     * @param verbose Flag to denote whether or not to render the XML text in verbose (indented easy to read), or compact (not so easy to read, but smaller), format.
+     *
+     * @throws IOException Thrown if an IO error occurs.
+     */
+    public static void streamToXml(InputStream JSONStream, OutputStream XMLStream, boolean verbose)
+    throws IOException
+    {
+        if (logger.isLoggable(Level.FINER)) {
+            logger.entering(className, "streamToXml(InputStream, OutputStream, boolean)");
+        }
+
+        if (XMLStream == null) {
+            throw new NullPointerException("XMLStream cannot be null");
+        } else if (JSONStream == null) {
+            throw new NullPointerException("JSONStream cannot be null");
+        } else {
+            try {
+                XMLStreamingWriter xmlWriter = new XMLStreamingWriter(XMLStream, verbose);
+                xmlWriter.write(new JSONReader(JSONStream));
+            } catch (Exception ex) {
+                IOException iox = new IOException("Problem during conversion");
+                iox.initCause(ex);
+                throw iox;
+            }
+        }
+
+        if (logger.isLoggable(Level.FINER)) {
+            logger.exiting(className, "streamToXml(InputStream, OutputStream, boolean)");
+        }
+    }
+
     private static void convertJSONObject(Document doc, Element parent, JSONObject jObject, String tagName) {
         Set attributes    = jObject.keySet();
         Iterator attrsItr = attributes.iterator();
@@ -672,4 +744,60 @@ public class XML {
         }
         return retVal;
     }
+    /**
+     * Internal method to parse an XML stream with a pooled SAX parser.
+     * @param XMLStream The XML stream to parse.  The content is read as UTF-8.
+     * @param handler The handler for the content and errors.
+     */
+    private static void parse(InputStream XMLStream, DefaultHandler handler) throws SAXException, IOException {
+        if (logger.isLoggable(Level.FINEST)) {
+            logger.logp(Level.FINEST, className, "parse", "Fetching a SAX parser");
+        }
+
+        SAXParser sParser = getSAXParser();
+        XMLReader parser = sParser.getXMLReader();
+        parser.setContentHandler(handler);
+        parser.setErrorHandler(handler);
+        InputSource source = new InputSource(new BufferedInputStream(XMLStream));
+        source.setEncoding("UTF-8");
+        parser.parse(source);
+        releaseSAXParser(sParser);
+    }
+
+    /**
+     * Internal method to take a SAX parser from the pool, or create one.
+     */
+    private static SAXParser getSAXParser() throws SAXException {
+        synchronized (saxParsers) {
+            if (!saxParsers.isEmpty()) {
+                return (SAXParser)saxParsers.removeFirst();
+            }
+            try {
+                if (saxParserFactory == null) {
+                    saxParserFactory = SAXParserFactory.newInstance();
+                    saxParserFactory.setNamespaceAware(true);
+                }
+                return saxParserFactory.newSAXParser();
+            } catch (ParserConfigurationException pce) {
+                throw new SAXException("Could not get a parser: " + pce.toString());
+            }
+        }
+    }
+
+    /**
+     * Internal method to return a SAX parser to the pool after a successful parse.
+     */
+    private static void releaseSAXParser(SAXParser sParser) {
+        try {
+            sParser.reset();
+        } catch (UnsupportedOperationException uoe) {
+            // The parser cannot be reused.
+            return;
+        }
+        synchronized (saxParsers) {
+            if (saxParsers.size() < maxPooledParsers) {
+                saxParsers.addLast(sParser);
+            }
+        }
+    }
 }
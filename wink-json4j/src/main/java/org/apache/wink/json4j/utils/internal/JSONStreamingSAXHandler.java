@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.    
+ */
+
+package org.apache.wink.json4j.utils.internal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.wink.json4j.internal.Serializer;
+import org.apache.wink.json4j.internal.SerializerVerbose;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+
+/**
+ * This class is a SAX extension to do a streaming conversion of XML to JSON.
+ * <BR><BR>
+ * The mapping is the one of JSONSAXHandler:  An element without attributes, children, or text 
+ * becomes true, an element with only text becomes a string, and any other element becomes an 
+ * object with its attributes, its text as "content", and its child elements.  Child elements 
+ * that occur once become a member, repeated ones become an array, whether they are adjacent or not.
+ * Unlike JSONSAXHandler, an attribute and a child element with the same name share one array 
+ * instead of being written as two members with the same key.
+ * <BR><BR>
+ * Whether a child element becomes a member or an array is only known when its parent ends, so 
+ * child elements are kept in memory until then.  When a name repeats, its array is written 
+ * right away and the following elements with that name are written as the SAX events arrive.  
+ * So the bulk of documents made of runs of repeated elements, such as feeds, is never kept in 
+ * memory.  Only one such array can be open per element, the other repeated names of the same 
+ * element are kept in memory until the element ends.
+ */
+public class JSONStreamingSAXHandler extends DefaultHandler {
+
+    /**
+     * The serializer to stream the JSON text out to.
+     */
+    private Serializer serializer                 = null;
+
+    /**
+     * The stack of the open elements.  The first entry is the document.
+     */
+    private ArrayList elements                    = new ArrayList();
+
+    /**
+     * Constructor.
+     * @param os The outputStream to write the resulting JSON to
+     * @param verbose Whenther or not to render the stream in a verbose (formatted), or compact form.
+     * @throws IOException Thrown if an error occurs during streaming out, or XML read.
+     */
+    public JSONStreamingSAXHandler(OutputStream os, boolean verbose) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(os,"UTF-8"));
+        if (verbose) {
+            this.serializer = new SerializerVerbose(writer, 3);
+        } else {
+            this.serializer = new Serializer(writer);
+        }
+    }
+
+    public void startDocument() throws SAXException {
+        try {
+            this.elements.clear();
+            Element document = new Element(null, true);
+            document.open = true;
+            this.elements.add(document);
+            serializer.writeRawString("{");
+            serializer.indentPush();
+        } catch (IOException iox) {
+            throw toSAXException(iox);
+        }
+    }
+
+    public void startElement(String namespaceURI, String localName, String qName, Attributes attrs) throws SAXException {
+        try {
+            Element parent = (Element)this.elements.get(this.elements.size() - 1);
+            boolean streamed = false;
+            if (parent.name == null) {
+                startMember(parent, localName);
+                streamed = true;
+            } else if (parent.streamed) {
+                if (parent.arrayName == null && parent.members.containsKey(localName)) {
+                    // The name repeats, so it is an array:  write what was kept and stream the rest.
+                    openArray(parent, localName);
+                }
+                if (localName.equals(parent.arrayName)) {
+                    startArrayItem(parent);
+                    streamed = true;
+                }
+            }
+
+            Element element = new Element(localName, streamed);
+            if (!streamed) {
+                parent.addMember(localName, element);
+            }
+            this.elements.add(element);
+
+            int attrLength = attrs.getLength();
+            for (int i = 0; i < attrLength; i++) {
+                element.addMember(escapeAttributeNameSpecialCharacters(attrs.getQName(i)), attrs.getValue(i));
+            }
+        } catch (IOException iox) {
+            throw toSAXException(iox);
+        }
+    }
+
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        try {
+            Element element = (Element)this.elements.remove(this.elements.size() - 1);
+            if (element.streamed) {
+                writeElement(element);
+            }
+        } catch (IOException iox) {
+            throw toSAXException(iox);
+        }
+    }
+
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        Element element = (Element)this.elements.get(this.elements.size() - 1);
+        if (element.text == null) {
+            // Leading whitespace is trimmed anyway, so it is not kept around.
+            int end = start + length;
+            while (start < end && Character.isWhitespace(ch[start])) {
+                start++;
+            }
+            if (start == end) {
+                return;
+            }
+            element.text = new StringBuffer();
+            length = end - start;
+        }
+        element.text.append(ch, start, length);
+    }
+
+    public void endDocument() throws SAXException {
+        try {
+            this.elements.clear();
+            serializer.indentPop();
+            serializer.newLine();
+            serializer.writeRawString("}");
+            serializer.flush();
+        } catch (IOException iox) {
+            throw toSAXException(iox);
+        }
+    }
+
+    /**
+     * Internal method to write the value of an element that has ended, with the members kept in memory.
+     */
+    private void writeElement(Element element) throws IOException {
+        String text = (element.text != null) ? element.text.toString().trim() : "";
+        if (!element.open && element.members.isEmpty()) {
+            if (text.length() > 0) {
+                serializer.writeString(text);
+            } else {
+                serializer.writeRawString("true");
+            }
+            return;
+        }
+
+        if (text.length() > 0) {
+            if ("content".equals(element.arrayName)) {
+                startArrayItem(element);
+                serializer.writeString(text);
+            } else {
+                element.addMember("content", text);
+            }
+        }
+        openObject(element);
+        closeArray(element);
+        for (Iterator iter = element.members.entrySet().iterator(); iter.hasNext(); ) {
+            Map.Entry entry = (Map.Entry)iter.next();
+            ArrayList values = (ArrayList)entry.getValue();
+            startMember(element, (String)entry.getKey());
+            if (values.size() == 1) {
+                writeValue(values.get(0));
+            } else {
+                serializer.writeRawString("[");
+                serializer.indentPush();
+                for (int i = 0; i < values.size(); i++) {
+                    if (i > 0) {
+                        serializer.writeRawString(",");
+                    }
+                    serializer.newLine();
+                    serializer.indent();
+                    writeValue(values.get(i));
+                }
+                serializer.indentPop();
+                serializer.newLine();
+                serializer.indent();
+                serializer.writeRawString("]");
+            }
+        }
+        serializer.indentPop();
+        serializer.newLine();
+        serializer.indent();
+        serializer.writeRawString("}");
+    }
+
+    /**
+     * Internal method to write a member value kept in memory:  an attribute value, a text, or an element.
+     */
+    private void writeValue(Object value) throws IOException {
+        if (value instanceof String) {
+            serializer.writeString((String)value);
+        } else {
+            writeElement((Element)value);
+        }
+    }
+
+    /**
+     * Internal method to write the '{' of an element that turns out to be an object.
+     */
+    private void openObject(Element element) throws IOException {
+        if (!element.open) {
+            serializer.writeRawString("{");
+            serializer.indentPush();
+            element.open = true;
+        }
+    }
+
+    /**
+     * Internal method to start the array of a repeated name of an element, with the values of that name kept so far.
+     */
+    private void openArray(Element element, String name) throws IOException {
+        openObject(element);
+        startMember(element, name);
+        serializer.writeRawString("[");
+        serializer.indentPush();
+        element.arrayName = name;
+        ArrayList values = (ArrayList)element.members.remove(name);
+        for (int i = 0; i < values.size(); i++) {
+            startArrayItem(element);
+            writeValue(values.get(i));
+        }
+    }
+
+    /**
+     * Internal method to write the separator of the next value of the open array of an element.
+     */
+    private void startArrayItem(Element element) throws IOException {
+        if (element.arrayItems++ > 0) {
+            serializer.writeRawString(",");
+        }
+        serializer.newLine();
+        serializer.indent();
+    }
+
+    /**
+     * Internal method to close the open array of an element.
+     */
+    private void closeArray(Element element) throws IOException {
+        if (element.arrayName != null) {
+            serializer.indentPop();
+            serializer.newLine();
+            serializer.indent();
+            serializer.writeRawString("]");
+            element.arrayName = null;
+        }
+    }
+
+    /**
+     * Internal method to write the separator and the name of the next member of an object.
+     */
+    private void startMember(Element element, String name) throws IOException {
+        if (element.written++ > 0) {
+            serializer.writeRawString(",");
+        }
+        serializer.newLine();
+        serializer.indent();
+        serializer.writeString(name);
+        serializer.writeRawString(":");
+        serializer.space();
+    }
+
+    /**
+     * Internal method to escape special attribute name characters, to handle things like name spaces.
+     * @param str The string to escape the characters in.
+     */
+    private String escapeAttributeNameSpecialCharacters(String str) {
+        if (str.indexOf(':') < 0) {
+            return str;
+        }
+        StringBuffer strBuf = new StringBuffer();
+        for (int i = 0; i < str.length(); i++) {
+            char strChar = str.charAt(i);
+            if (strChar == ':') {
+                strBuf.append("_ns-sep_");
+            } else {
+                strBuf.append(strChar);
+            }
+        }
+        return strBuf.toString();
+    }
+
+    private SAXException toSAXException(IOException iox) {
+        SAXException saxEx = new SAXException(iox);
+        saxEx.initCause(iox);
+        return saxEx;
+    }
+
+    /**
+     * The state of an element.
+     */
+    private static class Element {
+
+        /**
+         * The element (tag) name, null for the document.
+         */
+        final String name;
+
+        /**
+         * Whether the element is written as it is parsed, rather than kept in the members of its parent.
+         */
+        final boolean streamed;
+
+        /**
+         * The members kept in memory until the element ends, by name:  lists of attribute values, 
+         * texts and child elements.
+         */
+        final LinkedHashMap members = new LinkedHashMap();
+
+        /**
+         * Whether the '{' of the element was written.
+         */
+        boolean open         = false;
+
+        /**
+         * The number of members written to the object of the element.
+         */
+        int written          = 0;
+
+        /**
+         * The name of the array of child elements that is open, and the number of values written to it.
+         */
+        String arrayName     = null;
+        int arrayItems       = 0;
+
+        /**
+         * The text of the element, starting with its first non-whitespace character.
+         */
+        StringBuffer text    = null;
+
+        Element(String name, boolean streamed) {
+            this.name = name;
+            this.streamed = streamed;
+        }
+
+        void addMember(String name, Object value) {
+            ArrayList values = (ArrayList)members.get(name);
+            if (values == null) {
+                values = new ArrayList(1);
+                members.put(name, values);
+            }
+            values.add(value);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.    
+ */
+
+package org.apache.wink.json4j.utils.internal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+
+import org.apache.wink.json4j.JSONException;
+import org.apache.wink.json4j.JSONReader;
+
+
+/**
+ * This class does a streaming conversion of JSON to XML.  It pulls the JSON from a JSONReader and 
+ * writes the XML as the JSON is read, only keeping the stack of open objects and arrays in memory.
+ * <BR><BR>
+ * The top level JSON object becomes the element 'jsonObject'.  In an object, members with a simple 
+ * value become attributes, objects become child elements named after the member, and arrays become 
+ * one child element per entry.  Simple entries of an array become the text of their element, objects 
+ * in an array are wrapped in a 'jsonObject' element, and arrays in an array in 'jsonArray' elements.
+ * <BR><BR>
+ * Note:  Since the start tag of an element has already been written when its first child element 
+ * is written, members with a simple value that follow an object or array member become child 
+ * elements with text instead of attributes.
+ */
+public class XMLStreamingWriter {
+
+    private static final String indent            = "   ";
+
+    /**
+     * The writer to stream the XML text out to.
+     */
+    private Writer writer                         = null;
+
+    /**
+     * Whether or not to render the XML text in an indented format.
+     */
+    private boolean verbose                       = false;
+
+    /**
+     * Constructor.
+     * @param os The outputStream to write the resulting XML to.  The XML is written in UTF-8.
+     * @param verbose Whenther or not to render the stream in a verbose (formatted), or compact form.
+     * @throws IOException Thrown if the UTF-8 writer cannot be created.
+     */
+    public XMLStreamingWriter(OutputStream os, boolean verbose) throws IOException {
+        this.writer  = new BufferedWriter(new OutputStreamWriter(os, "UTF-8"));
+        this.verbose = verbose;
+    }
+
+    /**
+     * Method to read a JSON object from the reader and to write it out as XML.
+     * The writer is flushed, but not closed.
+     * @param reader The reader to pull the JSON object from.
+     * @throws JSONException Thrown if the JSON is malformed, or is not an object.
+     * @throws IOException Thrown if an error occurs on write.
+     */
+    public void write(JSONReader reader) throws JSONException, IOException {
+        ArrayList contexts = new ArrayList();
+        Context top = null;
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case JSONReader.START_OBJECT:
+                    if (top == null) {
+                        top = new Context(openElement(null, "jsonObject"), null, null);
+                    } else if (top.itemTag == null) {
+                        top = new Context(openElement(top.element, top.key), null, null);
+                    } else {
+                        Element wrapper = openElement(top.element, top.itemTag);
+                        top = new Context(openElement(wrapper, "jsonObject"), null, wrapper);
+                    }
+                    contexts.add(top);
+                    break;
+                case JSONReader.START_ARRAY:
+                    if (top == null) {
+                        throw new JSONException("The top level JSON value must be an object");
+                    } else if (top.itemTag == null) {
+                        top = new Context(top.element, top.key, null);
+                    } else {
+                        Element wrapper = openElement(top.element, top.itemTag);
+                        top = new Context(wrapper, "jsonArray", wrapper);
+                    }
+                    contexts.add(top);
+                    break;
+                case JSONReader.KEY:
+                    top.key = reader.getKey();
+                    break;
+                case JSONReader.VALUE:
+                    Object value = reader.getValue();
+                    if (top.itemTag != null) {
+                        writeTextElement(top.element, top.itemTag, value);
+                    } else if (top.element.startTagOpen) {
+                        writer.write(" ");
+                        writer.write(removeProblemCharacters(top.key));
+                        writer.write("=\"");
+                        writer.write(escapeEntityCharacters(value == null ? "" : value.toString()));
+                        writer.write("\"");
+                    } else {
+                        writeTextElement(top.element, top.key, value);
+                    }
+                    break;
+                case JSONReader.END_OBJECT:
+                case JSONReader.END_ARRAY:
+                    contexts.remove(contexts.size() - 1);
+                    if (top.itemTag == null) {
+                        closeElement(top.element);
+                    }
+                    if (top.wrapper != null) {
+                        closeElement(top.wrapper);
+                    }
+                    top = contexts.isEmpty() ? null : (Context)contexts.get(contexts.size() - 1);
+                    break;
+                default:
+                    break;
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Internal method to write the start of an element.  The start tag is left open for attributes.
+     */
+    private Element openElement(Element parent, String tagName) throws IOException {
+        int depth = 0;
+        if (parent != null) {
+            closeStartTag(parent);
+            parent.hasChildren = true;
+            depth = parent.depth + 1;
+        }
+        if (verbose) {
+            writer.write("\n");
+            for (int i = 0; i < depth; i++) {
+                writer.write(indent);
+            }
+        }
+        Element element = new Element(removeProblemCharacters(tagName), depth);
+        writer.write("<");
+        writer.write(element.tagName);
+        return element;
+    }
+
+    private void closeStartTag(Element element) throws IOException {
+        if (element.startTagOpen) {
+            writer.write(">");
+            element.startTagOpen = false;
+        }
+    }
+
+    private void closeElement(Element element) throws IOException {
+        if (element.startTagOpen) {
+            writer.write("/>");
+            element.startTagOpen = false;
+            return;
+        }
+        if (verbose && element.hasChildren) {
+            writer.write("\n");
+            for (int i = 0; i < element.depth; i++) {
+                writer.write(indent);
+            }
+        }
+        writer.write("</");
+        writer.write(element.tagName);
+        writer.write(">");
+    }
+
+    private void writeTextElement(Element parent, String tagName, Object value) throws IOException {
+        Element element = openElement(parent, tagName);
+        if (value != null) {
+            closeStartTag(element);
+            writer.write(escapeEntityCharacters(value.toString()));
+        }
+        closeElement(element);
+    }
+
+    /**
+     * Simple method to escape any special characters in the string into proper XML formatted
+     * characters.
+     * @param str The string to convert.
+     */
+    private static String escapeEntityCharacters(String str) {
+        StringBuffer strBuf = null;
+        for (int i = 0; i < str.length(); i++) {
+            char character = str.charAt(i);
+            String entity = null;
+            switch (character) {
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '\"':
+                    entity = "&quot;";
+                    break;
+                case '\'':
+                    entity = "&apos;";
+                    break;
+                default:
+                    break;
+            }
+            if (entity != null) {
+                if (strBuf == null) {
+                    strBuf = new StringBuffer(str.length() + 16);
+                    strBuf.append(str, 0, i);
+                }
+                strBuf.append(entity);
+            } else if (strBuf != null) {
+                strBuf.append(character);
+            }
+        }
+        return (strBuf == null) ? str : strBuf.toString();
+    }
+
+    /**
+     * Simple method to replace the characters that are not allowed in XML names.
+     * @param str The string to convert.
+     */
+    private static String removeProblemCharacters(String str) {
+        StringBuffer strBuf = new StringBuffer(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char character = str.charAt(i);
+
+            switch (character) {
+                case '&':
+                case '>':
+                case '<':
+                case '\"':
+                case '\'':
+                case ':':
+                case ';':
+                case '%':
+                case ' ':
+                case '{':
+                case '}':
+                case '(':
+                case ')':
+                case '[':
+                case ']':
+                case '\\':
+                case '/':
+                case '|':
+                case '#':
+                case '*':
+                case '^':
+                case '!':
+                    strBuf.append("_");
+                    break;
+                default:
+                    strBuf.append(character);
+            }
+        }
+        return strBuf.toString();
+    }
+
+    /**
+     * An element that was started.
+     */
+    private static class Element {
+        final String tagName;
+        final int depth;
+        boolean startTagOpen = true;
+        boolean hasChildren  = false;
+
+        Element(String tagName, int depth) {
+            this.tagName = tagName;
+            this.depth   = depth;
+        }
+    }
+
+    /**
+     * An open JSON object or array.  An object owns its element, the entries of an array are 
+     * written as children of the element with the item tag name.
+     */
+    private static class Context {
+        final Element element;
+        final String itemTag;
+        final Element wrapper;
+        String key;
+
+        Context(Element element, String itemTag, Element wrapper) {
+            this.element = element;
+            this.itemTag = itemTag;
+            this.wrapper = wrapper;
+        }
+    }
+}
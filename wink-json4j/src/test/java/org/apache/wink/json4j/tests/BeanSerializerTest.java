@@ -19,12 +19,14 @@
 
 package org.apache.wink.json4j.tests;
 
+import java.io.StringWriter;
 import java.util.Date;
 
 import junit.framework.TestCase;
 
 import org.apache.wink.json4j.JSONArtifact;
 import org.apache.wink.json4j.JSONObject;
+import org.apache.wink.json4j.JSONWriter;
 import org.apache.wink.json4j.internal.BeanSerializer;
 
 /**
@@ -82,4 +84,81 @@ public class BeanSerializerTest extends TestCase {
         assertTrue(ex == null);
     }
 
+    public static class Node {
+        private String name;
+        private int weight;
+        private Node child;
+        private Node self;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public int getWeight() { return weight; }
+        public void setWeight(int weight) { this.weight = weight; }
+        public Node getChild() { return child; }
+        public void setChild(Node child) { this.child = child; }
+        public Node getSelf() { return self; }
+    }
+
+    private Node createGraph() {
+        Node root = new Node();
+        root.name = "root \"node\"";
+        root.weight = 3;
+        root.self = root;
+        Node child = new Node();
+        child.name = "child";
+        child.weight = 2;
+        // a cycle back to the root
+        child.child = root;
+        root.child = child;
+        return root;
+    }
+
+    /**
+     * Test that writing a bean directly produces the same text as its JSONObject.
+     */
+    public void test_WriteJson_SameAsToJson() throws Exception {
+        Node root = createGraph();
+        String expected = BeanSerializer.toJson(root, true).write();
+
+        StringWriter writer = new StringWriter();
+        BeanSerializer.writeJson(root, true, writer);
+        assertEquals(expected, writer.toString());
+
+        writer = new StringWriter();
+        BeanSerializer.writeJson(root, false, writer);
+        assertEquals(BeanSerializer.toJson(root, false).write(), writer.toString());
+
+        JSONObject json = new JSONObject(writer.toString());
+        assertEquals("root \"node\"", json.get("name"));
+        assertFalse(json.containsKey("self"));
+        assertTrue(((JSONObject)json.get("child")).containsKey("child"));
+        assertNull(((JSONObject)json.get("child")).get("child"));
+    }
+
+    /**
+     * Test that the JSONWriter streams beans.
+     */
+    public void test_JSONWriter_Bean() throws Exception {
+        Node root = createGraph();
+        StringWriter writer = new StringWriter();
+        new JSONWriter(writer).array().value(root).endArray().close();
+        assertEquals("[" + BeanSerializer.toJson(root, true).write() + "]", writer.toString());
+    }
+
+    /**
+     * Test converting several beans of the same class back and forth.
+     */
+    public void test_Node_Rebuild() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Node node = new Node();
+            node.name = "node" + i;
+            node.weight = i;
+            JSONObject json = (JSONObject)BeanSerializer.toJson(node, true);
+            Node node2 = (Node)BeanSerializer.fromJson(json);
+            assertEquals(node.name, node2.name);
+            assertEquals(i, node2.weight);
+            assertNull(node2.child);
+        }
+    }
+
 }
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.    
+ */
+
+
+package org.apache.wink.json4j.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.wink.json4j.CompactJSONArray;
+import org.apache.wink.json4j.CompactJSONObject;
+import org.apache.wink.json4j.JSON;
+import org.apache.wink.json4j.JSONArray;
+import org.apache.wink.json4j.JSONObject;
+
+/**
+ * Tests for the CompactJSONObject and CompactJSONArray classes
+ */
+public class CompactJSONTest extends TestCase {
+
+    private static final String JSON_TEXT = "{\"name\": \"json4j\", \"count\": 3, \"ints\": [1, 2, 3], \"longs\": [10000000000, 20000000000],"
+        + " \"doubles\": [1.5, -2.25], \"mixed\": [1, \"a\", true, null], \"nested\": {\"x\": {\"y\": []}}, \"empty\": {}}";
+
+    /**
+     * Test that a compact parse produces compact instances with the same content as a normal parse.
+     */
+    public void test_ParseCompact() throws Exception {
+        JSONObject expected = new JSONObject(JSON_TEXT);
+        JSONObject compact = (JSONObject)JSON.parseCompact(JSON_TEXT, false);
+        assertTrue(compact instanceof CompactJSONObject);
+        assertTrue(compact.get("nested") instanceof CompactJSONObject);
+        assertTrue(compact.get("ints") instanceof CompactJSONArray);
+        assertEquals(expected, compact);
+        assertEquals(compact, expected);
+        assertEquals(expected.hashCode(), compact.hashCode());
+        assertEquals(expected.write(true), compact.write(true));
+        assertEquals(new Integer(3), compact.getJSONArray("ints").get(2));
+        assertEquals(new Long(20000000000L), compact.getJSONArray("longs").get(1));
+        assertEquals(new Double(-2.25), compact.getJSONArray("doubles").get(1));
+        assertEquals(expected.getJSONArray("mixed"), compact.getJSONArray("mixed"));
+
+        JSONArray array = (JSONArray)JSON.parseCompact("[{\"a\": 1}, [2.5]]", true);
+        assertTrue(array instanceof CompactJSONArray);
+        assertTrue(array.get(0) instanceof CompactJSONObject);
+        assertEquals(new JSONArray("[{\"a\": 1}, [2.5]]"), array);
+    }
+
+    /**
+     * Test changing an object, and moving it from the flat array into the hash table and back.
+     */
+    public void test_ObjectMutation() throws Exception {
+        CompactJSONObject obj = new CompactJSONObject();
+        assertTrue(obj.isEmpty());
+        for (int i = 0; i < 40; i++) {
+            assertNull(obj.put((Object)("key" + i), new Integer(i)));
+            assertEquals(i + 1, obj.size());
+        }
+        assertEquals(new Integer(7), obj.put((Object)"key7", "seven"));
+        assertEquals("seven", obj.get("key7"));
+        assertEquals(new Integer(39), obj.get("key39"));
+        assertTrue(obj.containsKey("key20"));
+        assertTrue(obj.containsValue(new Integer(20)));
+        assertEquals(new Integer(20), obj.remove("key20"));
+        assertFalse(obj.containsKey("key20"));
+        assertEquals(39, obj.keySet().size());
+        obj.clear();
+        assertTrue(obj.isEmpty());
+
+        obj.put("a", "1");
+        obj.put("b", new JSONArray("[1]"));
+        obj.put("c", Boolean.TRUE);
+        assertEquals(new JSONObject("{\"a\": \"1\", \"b\": [1], \"c\": true}"), obj);
+        assertEquals(Boolean.TRUE, obj.remove("c"));
+        assertNull(obj.remove("c"));
+        try {
+            obj.put(null, "x");
+            fail("a null key was accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(2, obj.size());
+    }
+
+    /**
+     * Test the key, value, and entry views of an object.
+     */
+    public void test_ObjectViews() throws Exception {
+        CompactJSONObject obj = new CompactJSONObject("{\"a\": 1, \"b\": 2, \"c\": 3}");
+        for (Iterator iter = obj.entrySet().iterator(); iter.hasNext(); ) {
+            Map.Entry entry = (Map.Entry)iter.next();
+            if (entry.getKey().equals("b")) {
+                entry.setValue("two");
+            }
+        }
+        assertEquals("two", obj.get("b"));
+        for (Iterator iter = obj.keySet().iterator(); iter.hasNext(); ) {
+            if (iter.next().equals("a")) {
+                iter.remove();
+            }
+        }
+        assertEquals(new JSONObject("{\"b\": \"two\", \"c\": 3}"), obj);
+        assertTrue(obj.values().contains(new Integer(3)));
+        obj.values().clear();
+        assertTrue(obj.isEmpty());
+    }
+
+    /**
+     * Test changing a numeric array, and moving it into the list of the JSONArray.
+     */
+    public void test_ArrayMutation() throws Exception {
+        CompactJSONArray array = new CompactJSONArray("[1, 2, 3]");
+        array.add(0, new Integer(0));
+        array.set(3, new Integer(33));
+        assertEquals(new JSONArray("[0, 1, 2, 33]"), array);
+        assertEquals(new Integer(1), array.remove(1));
+        assertTrue(array.remove(new Integer(33)));
+        assertEquals(1, array.indexOf(new Integer(2)));
+        assertFalse(array.contains(new Long(2)));
+        assertEquals(new JSONArray("[0, 2]"), array);
+
+        // an element of another type moves the elements into the list
+        array.add("three");
+        array.put(5, true);
+        assertEquals(new JSONArray("[0, 2, \"three\", null, null, true]"), array);
+        assertEquals(new Integer(2), array.get(1));
+
+        array.clear();
+        array.add(new Double(0.5));
+        array.add(new Double(1.5));
+        for (Iterator iter = array.iterator(); iter.hasNext(); ) {
+            if (((Double)iter.next()).doubleValue() < 1) {
+                iter.remove();
+            }
+        }
+        assertEquals(new JSONArray("[1.5]"), array);
+        try {
+            array.get(1);
+            fail("an index outside the array was accepted");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test copying compact instances by clone and by serialization.
+     */
+    public void test_Copies() throws Exception {
+        CompactJSONObject obj = (CompactJSONObject)JSON.parseCompact("{\"a\": [1, 2], \"b\": \"x\"}", false);
+        CompactJSONObject clone = (CompactJSONObject)obj.clone();
+        clone.put("c", "y");
+        CompactJSONArray ints = (CompactJSONArray)obj.get("a");
+        CompactJSONArray intsClone = (CompactJSONArray)ints.clone();
+        intsClone.add(new Integer(3));
+        assertEquals(2, obj.size());
+        assertEquals(3, clone.size());
+        assertEquals(2, ints.size());
+        assertEquals(new JSONArray("[1, 2, 3]"), intsClone);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(obj);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(obj, in.readObject());
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.    
+ */
+
+
+package org.apache.wink.json4j.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+import org.apache.wink.json4j.JSONArray;
+import org.apache.wink.json4j.JSONException;
+import org.apache.wink.json4j.JSONObject;
+import org.apache.wink.json4j.JSONReader;
+import org.apache.wink.json4j.OrderedJSONObject;
+
+/**
+ * Tests for the JSONReader pull parser
+ */
+public class JSONReaderTest extends TestCase {
+
+    private static final String JSON = "{\"name\": \"json4j\", \"count\": 3, \"tags\": [\"a\", true, null, 1.5],"
+        + " \"nested\": {\"deep\": {\"x\": [[], {}]}}, \"last\": false}";
+
+    /**
+     * Test the events of a document.
+     */
+    public void test_Events() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader("{\"a\": [1, true], \"b\": {}}"));
+        assertEquals(0, reader.getEventType());
+        assertEquals(JSONReader.START_OBJECT, reader.next());
+        assertEquals(1, reader.getDepth());
+        assertEquals(JSONReader.KEY, reader.next());
+        assertEquals("a", reader.getKey());
+        assertEquals(JSONReader.START_ARRAY, reader.next());
+        assertEquals(2, reader.getDepth());
+        assertEquals(JSONReader.VALUE, reader.next());
+        assertEquals(new Integer(1), reader.getValue());
+        assertEquals(JSONReader.VALUE, reader.next());
+        assertEquals(Boolean.TRUE, reader.getValue());
+        assertEquals(JSONReader.END_ARRAY, reader.next());
+        assertEquals(1, reader.getDepth());
+        assertEquals(JSONReader.KEY, reader.next());
+        assertEquals("b", reader.getKey());
+        assertEquals(JSONReader.START_OBJECT, reader.next());
+        assertEquals(JSONReader.END_OBJECT, reader.next());
+        assertEquals(JSONReader.END_OBJECT, reader.next());
+        assertEquals(0, reader.getDepth());
+        assertTrue(reader.hasNext());
+        assertEquals(JSONReader.END_DOCUMENT, reader.next());
+        assertFalse(reader.hasNext());
+        try {
+            reader.next();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Test picking a few properties out of a document while skipping the rest.
+     */
+    public void test_SkipChildren() throws Exception {
+        JSONReader reader = new JSONReader(new ByteArrayInputStream(JSON.getBytes("UTF-8")));
+        assertEquals(JSONReader.START_OBJECT, reader.next());
+        int properties = 0;
+        Object last = null;
+        while (reader.next() == JSONReader.KEY) {
+            properties++;
+            String key = reader.getKey();
+            reader.next();
+            if ("last".equals(key)) {
+                last = reader.getValue();
+            }
+            reader.skipChildren();
+        }
+        assertEquals(JSONReader.END_OBJECT, reader.getEventType());
+        assertEquals(5, properties);
+        assertEquals(Boolean.FALSE, last);
+        assertEquals(JSONReader.END_DOCUMENT, reader.next());
+    }
+
+    /**
+     * Test reading subtrees as JSON artifacts.
+     */
+    public void test_ReadValue() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader(JSON));
+        reader.next();
+        assertEquals(new JSONObject(JSON), reader.readValue());
+        assertEquals(JSONReader.END_OBJECT, reader.getEventType());
+
+        reader = new JSONReader(new StringReader(JSON));
+        reader.next();
+        while (reader.next() == JSONReader.KEY && !"tags".equals(reader.getKey())) {
+            reader.next();
+            reader.skipChildren();
+        }
+        JSONArray tags = (JSONArray)reader.readValue();
+        assertEquals(new JSONArray("[\"a\", true, null, 1.5]"), tags);
+        assertEquals(JSONReader.END_ARRAY, reader.getEventType());
+        assertEquals(JSONReader.KEY, reader.next());
+        assertEquals("nested", reader.getKey());
+        assertTrue(reader.readValue(true) instanceof OrderedJSONObject);
+    }
+
+    /**
+     * Test a scalar document.
+     */
+    public void test_ScalarDocument() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader(" \"text\" "));
+        assertEquals(JSONReader.VALUE, reader.next());
+        assertEquals("text", reader.getValue());
+        assertEquals(JSONReader.END_DOCUMENT, reader.next());
+    }
+
+    /**
+     * Test the maximum depth.
+     */
+    public void test_MaxDepth() throws Exception {
+        JSONReader reader = new JSONReader(new StringReader("[[[1]]]"));
+        reader.setMaxDepth(3);
+        while (reader.next() != JSONReader.END_DOCUMENT);
+
+        reader = new JSONReader(new StringReader("[[[[1]]]]"));
+        reader.setMaxDepth(3);
+        try {
+            while (reader.next() != JSONReader.END_DOCUMENT);
+            fail("Expected JSONException");
+        } catch (JSONException e) {
+            assertEquals(3, reader.getDepth());
+        }
+    }
+
+    /**
+     * Test deep nesting beyond the initial capacity.
+     */
+    public void test_DeepNesting() throws Exception {
+        StringBuffer sb = new StringBuffer();
+        for (int i = 0; i < 100; i++) sb.append("{\"a\":");
+        sb.append("1");
+        for (int i = 0; i < 100; i++) sb.append("}");
+        JSONReader reader = new JSONReader(new StringReader(sb.toString()));
+        int maxDepth = 0;
+        while (reader.next() != JSONReader.END_DOCUMENT) {
+            maxDepth = Math.max(maxDepth, reader.getDepth());
+        }
+        assertEquals(100, maxDepth);
+    }
+
+    /**
+     * Test malformed documents.
+     */
+    public void test_Malformed() throws Exception {
+        String[] malformed = new String[] {"{\"a\" 1}", "{\"a\": 1 \"b\": 2}", "[1 2]", "[1, 2", "{\"a\": 1", "{1: 2}", ""};
+        for (int i = 0; i < malformed.length; i++) {
+            JSONReader reader = new JSONReader(new StringReader(malformed[i]), true);
+            try {
+                while (reader.next() != JSONReader.END_DOCUMENT);
+                fail("Expected JSONException for " + malformed[i]);
+            } catch (JSONException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.wink.json4j.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.wink.json4j.JSONArray;
+import org.apache.wink.json4j.JSONObject;
+import org.apache.wink.json4j.utils.XML;
+
+/**
+ * Tests for the streaming XML transform functions, XML.streamToJson and XML.streamToXml.
+ */
+public class XMLStreamingTest extends TestCase {
+
+    private static final String[] RESOURCES = {"simple.xml", "complex.xml", "long-text.xml", "utf8-array.xml",
+        "utf8-lowerchar.xml", "atom-xml-entry1", "atom-xml-feed1"};
+
+    /**
+     * Test a streaming transform of an XML document to JSON.
+     */
+    public void testStreamToJson() throws Exception {
+        String xml = "<r p:id=\"7\" xmlns:p=\"urn:p\"> <t>Text!</t><e/><i>1</i><i>2</i><w k=\"v\">body</w> tail </r>";
+        for (int i = 0; i < 2; i++) {
+            JSONObject r = new JSONObject(streamToJson(xml, i == 1)).getJSONObject("r");
+            assertEquals("7", r.get("p_ns-sep_id"));
+            assertEquals("tail", r.get("content"));
+            assertEquals("Text!", r.get("t"));
+            assertEquals(Boolean.TRUE, r.get("e"));
+            assertEquals(new JSONArray("[\"1\", \"2\"]"), r.get("i"));
+            assertEquals(new JSONObject("{\"k\": \"v\", \"content\": \"body\"}"), r.get("w"));
+        }
+    }
+
+    /**
+     * Test that repeated elements end up in one array, whether they are adjacent or not.
+     */
+    public void testStreamToJsonRepeatedElements() throws Exception {
+        assertSameAsToJson("<r><a/><b/><a/></r>");
+        assertEquals("{\"r\":{\"a\":[true,true],\"b\":true}}", streamToJson("<r><a/><b/><a/></r>", false));
+
+        assertSameAsToJson("<r><a>1</a><b>x</b><a>2</a><b>y</b><c/><a>3</a></r>");
+        assertSameAsToJson("<r><s><a>1</a><b/><a><c/><d/><c>2</c></a></s><s/><t>3</t><s>4</s></r>");
+        assertEquals("{\"r\":{\"a\":[\"1\",\"2\",\"3\"],\"b\":[\"x\",\"y\"],\"c\":true}}",
+                     streamToJson("<r><a>1</a><b>x</b><a>2</a><b>y</b><c/><a>3</a></r>", false));
+    }
+
+    /**
+     * Test that an attribute and a child element with the same name share one array.
+     * XML.toJson writes them as two members with the same key.
+     */
+    public void testStreamToJsonAttributeAndElement() throws Exception {
+        assertEquals("{\"r\":{\"a\":[\"1\",\"x\"]}}", streamToJson("<r a=\"1\"><a>x</a></r>", false));
+        assertEquals("{\"r\":{\"a\":[\"1\",\"x\",\"y\"],\"b\":\"2\",\"content\":\"t\"}}",
+                     streamToJson("<r a=\"1\" b=\"2\"><a>x</a>t<a>y</a></r>", false));
+        assertEquals("{\"r\":{\"content\":[\"c\",\"t\"]}}", streamToJson("<r><content>c</content>t</r>", false));
+        assertEquals("{\"r\":{\"content\":[\"c\",\"d\",\"t\"]}}",
+                     streamToJson("<r><content>c</content>t<content>d</content></r>", false));
+    }
+
+    /**
+     * Test that the streaming transform of the test documents produces the same JSON as XML.toJson.
+     */
+    public void testStreamToJsonSameAsToJson() throws Exception {
+        for (int i = 0; i < RESOURCES.length; i++) {
+            String xml = readResource(RESOURCES[i]);
+            assertSameAsToJson(xml);
+        }
+        JSONObject feed = new JSONObject(streamToJson(readResource("atom-xml-feed1"), false)).getJSONObject("feed");
+        assertTrue(feed.getJSONArray("entry").size() > 1);
+    }
+
+    /**
+     * Test a streaming transform of a JSON document to XML.
+     */
+    public void testStreamToXml() throws Exception {
+        String json = "{\"a\": 1, \"s\": \"x<&y\", \"o\": {\"b\": true, \"n\": null}, \"arr\": [1, {\"c\": 3}, [4], null], \"e\": []}";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XML.streamToXml(new ByteArrayInputStream(json.getBytes("UTF-8")), out, false);
+        assertEquals("<jsonObject a=\"1\" s=\"x&lt;&amp;y\"><o b=\"true\" n=\"\"/><arr>1</arr><arr><jsonObject c=\"3\"/></arr>"
+                     + "<arr><jsonArray>4</jsonArray></arr><arr/></jsonObject>", out.toString("UTF-8"));
+
+        // members after the first child element cannot be attributes anymore
+        json = "{\"o\": {}, \"late\": \"text\"}";
+        out = new ByteArrayOutputStream();
+        XML.streamToXml(new ByteArrayInputStream(json.getBytes("UTF-8")), out, true);
+        assertEquals("\n<jsonObject>\n   <o/>\n   <late>text</late>\n</jsonObject>", out.toString("UTF-8"));
+
+        // XML.toXml keeps them as attributes
+        String xml = XML.toXml(new ByteArrayInputStream(json.getBytes("UTF-8")));
+        assertTrue(xml, xml.indexOf("late=\"text\"") > 0);
+    }
+
+    private void assertSameAsToJson(String xml) throws Exception {
+        String json = XML.toJson(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+        for (int i = 0; i < 2; i++) {
+            String streamedJson = streamToJson(xml, i == 1);
+            assertEquals(streamedJson, new JSONObject(json), new JSONObject(streamedJson));
+        }
+    }
+
+    private static String streamToJson(String xml, boolean verbose) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XML.streamToJson(new ByteArrayInputStream(xml.getBytes("UTF-8")), out, verbose);
+        return out.toString("UTF-8");
+    }
+
+    private String readResource(String name) throws Exception {
+        InputStream is = this.getClass().getClassLoader().getResourceAsStream(name);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        is.close();
+        return out.toString("UTF-8");
+    }
+}
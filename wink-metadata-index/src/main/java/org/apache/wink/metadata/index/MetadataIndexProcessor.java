@@ -0,0 +1,337 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.metadata.index;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes the Wink metadata index of the compiled
+ * classes to <tt>META-INF/wink-metadata-index</tt>.
+ * <p>
+ * For every class that is a root resource, a provider, or has public
+ * methods with JAX-RS annotations (directly or on a method they override),
+ * the index records the kind of the class and the signatures of these
+ * methods. At startup the runtime reads the index instead of scanning all
+ * the methods of the classes reflectively. The rules mirror
+ * <tt>ResourceMetadataCollector.isStaticResource()</tt>,
+ * <tt>ProviderMetadataCollector.isProvider()</tt> and the annotation
+ * inheritance of <tt>ResourceMetadataCollector</tt>. Classes that are not in
+ * the index are still processed reflectively.
+ * <p>
+ * The stamp of a class is the sum of the hash codes of the signatures of the
+ * methods that the class and its supertypes declare. The runtime computes it
+ * again from the loaded class, and processes the class reflectively if the
+ * class changed after the index was written.
+ * <p>
+ * The format of the index is line oriented:
+ * 
+ * <pre>
+ * class com.example.BooksResource resource stamp=-1524876213
+ * method getBook(java.lang.String)
+ * method getBooks()
+ * class com.example.BookProvider provider stamp=0
+ * </pre>
+ * <p>
+ * The processor does not claim any annotation, so it can be used together
+ * with other processors.
+ */
+@SupportedAnnotationTypes("*")
+public class MetadataIndexProcessor extends AbstractProcessor {
+
+    public static final String        INDEX_FILE  = "META-INF/wink-metadata-index"; //$NON-NLS-1$
+
+    private static final String       PATH        = "javax.ws.rs.Path";             //$NON-NLS-1$
+    private static final String       HTTP_METHOD = "javax.ws.rs.HttpMethod";       //$NON-NLS-1$
+    private static final String       PROVIDER    = "javax.ws.rs.ext.Provider";     //$NON-NLS-1$
+    private static final String[]     METHOD_ANNOTATIONS;
+
+    static {
+        METHOD_ANNOTATIONS =
+            new String[] {PATH, "javax.ws.rs.Consumes", "javax.ws.rs.Produces", //$NON-NLS-1$ //$NON-NLS-2$
+                "javax.ws.rs.DefaultValue", "javax.ws.rs.Encoded"}; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private final Map<String, String> entries     = new TreeMap<String, String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+                collect(type);
+            }
+        }
+        return false;
+    }
+
+    private void collect(TypeElement type) {
+        if (type.getKind() == ElementKind.CLASS) {
+            boolean concrete = !type.getModifiers().contains(Modifier.ABSTRACT);
+            boolean resource = concrete && isAnnotatedInHierarchy(type, PATH);
+            boolean provider = concrete && isAnnotatedInHierarchy(type, PROVIDER);
+            Set<String> methods = collectMethods(type);
+            if (resource || provider || !methods.isEmpty()) {
+                StringBuilder entry = new StringBuilder();
+                entry.append("class ").append(getBinaryName(type)); //$NON-NLS-1$
+                if (resource) {
+                    entry.append(" resource"); //$NON-NLS-1$
+                }
+                if (provider) {
+                    entry.append(" provider"); //$NON-NLS-1$
+                }
+                entry.append(" stamp=").append(getStamp(type)).append('\n'); //$NON-NLS-1$
+                for (String method : methods) {
+                    entry.append("method ").append(method).append('\n'); //$NON-NLS-1$
+                }
+                entries.put(getBinaryName(type), entry.toString());
+            }
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            collect(nested);
+        }
+    }
+
+    /**
+     * The signatures of the public methods of the class, in the order they
+     * are declared, including the bridge methods the compiler generates for
+     * them
+     */
+    private Set<String> collectMethods(TypeElement type) {
+        Elements elements = processingEnv.getElementUtils();
+        Set<String> methods = new LinkedHashSet<String>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || isObject((TypeElement)method
+                .getEnclosingElement())) {
+                continue;
+            }
+            List<ExecutableElement> overridden = getOverriddenMethods(type, method);
+            boolean annotated = isJaxRsAnnotated(method);
+            for (ExecutableElement superMethod : overridden) {
+                annotated |= isJaxRsAnnotated(superMethod);
+            }
+            if (annotated) {
+                methods.add(getSignature(method));
+                for (ExecutableElement superMethod : overridden) {
+                    methods.add(getSignature(superMethod));
+                }
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Same stamp as <tt>MetadataIndex.getStamp()</tt> computes from the loaded
+     * class. The elements do not include the synthetic methods of the
+     * compiler, which the runtime skips.
+     */
+    private int getStamp(TypeElement type) {
+        Set<TypeElement> types = new LinkedHashSet<TypeElement>();
+        types.add(type);
+        getSuperTypes(type, types);
+        int stamp = 0;
+        for (TypeElement declaringType : types) {
+            for (ExecutableElement method : ElementFilter.methodsIn(declaringType
+                .getEnclosedElements())) {
+                stamp += getSignature(method).hashCode();
+            }
+        }
+        return stamp;
+    }
+
+    private List<ExecutableElement> getOverriddenMethods(TypeElement type, ExecutableElement method) {
+        Elements elements = processingEnv.getElementUtils();
+        List<ExecutableElement> overridden = new ArrayList<ExecutableElement>();
+        for (TypeElement superType : getSuperTypes(type, new LinkedHashSet<TypeElement>())) {
+            for (ExecutableElement candidate : ElementFilter.methodsIn(superType
+                .getEnclosedElements())) {
+                if (candidate != method && candidate.getSimpleName().equals(method.getSimpleName())
+                    && elements.overrides(method, candidate, type)) {
+                    overridden.add(candidate);
+                }
+            }
+        }
+        return overridden;
+    }
+
+    private Set<TypeElement> getSuperTypes(TypeElement type, Set<TypeElement> superTypes) {
+        List<TypeMirror> directSuperTypes = new ArrayList<TypeMirror>();
+        directSuperTypes.add(type.getSuperclass());
+        directSuperTypes.addAll(type.getInterfaces());
+        for (TypeMirror superType : directSuperTypes) {
+            if (superType.getKind() == TypeKind.DECLARED) {
+                TypeElement element = (TypeElement)((DeclaredType)superType).asElement();
+                if (!isObject(element) && superTypes.add(element)) {
+                    getSuperTypes(element, superTypes);
+                }
+            }
+        }
+        return superTypes;
+    }
+
+    private boolean isJaxRsAnnotated(ExecutableElement method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement)annotation.getAnnotationType().asElement();
+            String name = annotationType.getQualifiedName().toString();
+            for (String methodAnnotation : METHOD_ANNOTATIONS) {
+                if (methodAnnotation.equals(name)) {
+                    return true;
+                }
+            }
+            if (hasAnnotation(annotationType, HTTP_METHOD)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same lookup as the runtime: the class, its superclasses, and the
+     * interfaces they implement directly
+     */
+    private boolean isAnnotatedInHierarchy(TypeElement type, String annotation) {
+        TypeElement declaringClass = type;
+        while (declaringClass != null && !isObject(declaringClass)) {
+            if (hasAnnotation(declaringClass, annotation)) {
+                return true;
+            }
+            for (TypeMirror interfaceType : declaringClass.getInterfaces()) {
+                if (hasAnnotation(((DeclaredType)interfaceType).asElement(), annotation)) {
+                    return true;
+                }
+            }
+            TypeMirror superclass = declaringClass.getSuperclass();
+            declaringClass =
+                (superclass.getKind() == TypeKind.DECLARED) ? (TypeElement)((DeclaredType)superclass)
+                    .asElement() : null;
+        }
+        return false;
+    }
+
+    private boolean hasAnnotation(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement)mirror.getAnnotationType().asElement()).getQualifiedName()
+                .contentEquals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isObject(TypeElement type) {
+        return type.getQualifiedName().contentEquals(Object.class.getName());
+    }
+
+    /**
+     * @return the signature of the method with the erased parameter types,
+     *         as seen by reflection
+     */
+    private String getSignature(ExecutableElement method) {
+        StringBuilder signature = new StringBuilder();
+        signature.append(method.getSimpleName()).append('(');
+        boolean first = true;
+        for (VariableElement parameter : method.getParameters()) {
+            if (!first) {
+                signature.append(',');
+            }
+            first = false;
+            signature.append(getTypeName(parameter.asType()));
+        }
+        return signature.append(')').toString();
+    }
+
+    private String getTypeName(TypeMirror type) {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror erased = types.erasure(type);
+        switch (erased.getKind()) {
+            case ARRAY:
+                return getTypeName(((ArrayType)erased).getComponentType()) + "[]"; //$NON-NLS-1$
+            case DECLARED:
+                return getBinaryName((TypeElement)((DeclaredType)erased).asElement());
+            default:
+                return erased.toString();
+        }
+    }
+
+    private String getBinaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void writeIndex() {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file =
+                processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+                                                        "", //$NON-NLS-1$
+                                                        INDEX_FILE);
+            PrintWriter writer = new PrintWriter(file.openWriter());
+            try {
+                writer.print("# Generated by " + getClass().getName() + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+                for (String entry : entries.values()) {
+                    writer.print(entry);
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                                                     "Could not write " + INDEX_FILE //$NON-NLS-1$
+                                                         + ": " //$NON-NLS-1$
+                                                         + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.metadata.index;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import javax.ws.rs.Path;
+
+import junit.framework.TestCase;
+
+public class MetadataIndexProcessorTest extends TestCase {
+
+    private File dir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = File.createTempFile("wink-metadata-index", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(dir);
+        super.tearDown();
+    }
+
+    public void testIndex() throws Exception {
+        writeSource("test/Books.java", //$NON-NLS-1$
+                    "package test;\n" //$NON-NLS-1$
+                        + "import javax.ws.rs.*;\n" //$NON-NLS-1$
+                        + "@Path(\"books\")\n" //$NON-NLS-1$
+                        + "public class Books extends Base<String> {\n" //$NON-NLS-1$
+                        + "  @GET public String list() { return null; }\n" //$NON-NLS-1$
+                        + "  @Path(\"{id}\") public Object locate(@PathParam(\"id\") int id, String[] s) { return null; }\n" //$NON-NLS-1$
+                        + "  public void put(String s) { }\n" //$NON-NLS-1$
+                        + "  public String notAnnotated() { return null; }\n" //$NON-NLS-1$
+                        + "  @GET protected String hidden() { return null; }\n" //$NON-NLS-1$
+                        + "  public static class Inner { @POST public void post() { } }\n" //$NON-NLS-1$
+                        + "}\n"); //$NON-NLS-1$
+        writeSource("test/Base.java", //$NON-NLS-1$
+                    "package test;\n" //$NON-NLS-1$
+                        + "import javax.ws.rs.*;\n" //$NON-NLS-1$
+                        + "public abstract class Base<T> {\n" //$NON-NLS-1$
+                        + "  @PUT public void put(T t) { }\n" //$NON-NLS-1$
+                        + "}\n"); //$NON-NLS-1$
+        writeSource("test/Sub.java", //$NON-NLS-1$
+                    "package test;\n" //$NON-NLS-1$
+                        + "public class Sub extends Books { }\n"); //$NON-NLS-1$
+        writeSource("test/JsonProvider.java", //$NON-NLS-1$
+                    "package test;\n" //$NON-NLS-1$
+                        + "@javax.ws.rs.ext.Provider\n" //$NON-NLS-1$
+                        + "public class JsonProvider { }\n"); //$NON-NLS-1$
+        writeSource("test/Plain.java", //$NON-NLS-1$
+                    "package test;\n" //$NON-NLS-1$
+                        + "public class Plain { public void get() { } }\n"); //$NON-NLS-1$
+
+        // the bridge method put(java.lang.Object) of Books is not in the stamps
+        int base = stamp("put(java.lang.Object)"); //$NON-NLS-1$
+        int books =
+            base + stamp("list()", //$NON-NLS-1$
+                         "locate(int,java.lang.String[])", //$NON-NLS-1$
+                         "put(java.lang.String)", //$NON-NLS-1$
+                         "notAnnotated()", //$NON-NLS-1$
+                         "hidden()"); //$NON-NLS-1$
+        List<String> index = compile();
+        assertEquals(Arrays.asList("class test.Base stamp=" + base, //$NON-NLS-1$
+                                   "method put(java.lang.Object)", //$NON-NLS-1$
+                                   "class test.Books resource stamp=" + books, //$NON-NLS-1$
+                                   "method list()", //$NON-NLS-1$
+                                   "method locate(int,java.lang.String[])", //$NON-NLS-1$
+                                   "method put(java.lang.String)", //$NON-NLS-1$
+                                   "method put(java.lang.Object)", //$NON-NLS-1$
+                                   "class test.Books$Inner stamp=" + stamp("post()"), //$NON-NLS-1$ //$NON-NLS-2$
+                                   "method post()", //$NON-NLS-1$
+                                   "class test.JsonProvider provider stamp=0", //$NON-NLS-1$
+                                   "class test.Sub resource stamp=" + books, //$NON-NLS-1$
+                                   "method list()", //$NON-NLS-1$
+                                   "method locate(int,java.lang.String[])", //$NON-NLS-1$
+                                   "method put(java.lang.String)", //$NON-NLS-1$
+                                   "method put(java.lang.Object)"), //$NON-NLS-1$
+                     index);
+    }
+
+    public void testNoIndexWithoutJaxRsClasses() throws Exception {
+        writeSource("test/Plain.java", //$NON-NLS-1$
+                    "package test;\n" //$NON-NLS-1$
+                        + "public class Plain { public void get() { } }\n"); //$NON-NLS-1$
+        assertNull(compile());
+    }
+
+    private static int stamp(String... signatures) {
+        int stamp = 0;
+        for (String signature : signatures) {
+            stamp += signature.hashCode();
+        }
+        return stamp;
+    }
+
+    private List<String> compile() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        List<File> sources = new ArrayList<File>();
+        collectSources(new File(dir, "src"), sources); //$NON-NLS-1$
+        File classes = new File(dir, "classes"); //$NON-NLS-1$
+        classes.mkdirs();
+        String classpath =
+            new File(Path.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .getPath();
+        JavaCompiler.CompilationTask task =
+            compiler.getTask(null, fileManager, null, Arrays.asList("-classpath", //$NON-NLS-1$
+                                                                    classpath,
+                                                                    "-d", //$NON-NLS-1$
+                                                                    classes.getPath(),
+                                                                    "-proc:only"), //$NON-NLS-1$
+                             null,
+                             fileManager.getJavaFileObjectsFromFiles(sources));
+        task.setProcessors(Arrays.asList(new MetadataIndexProcessor()));
+        assertTrue(task.call());
+        fileManager.close();
+
+        File index = new File(classes, MetadataIndexProcessor.INDEX_FILE);
+        if (!index.exists()) {
+            return null;
+        }
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(index));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("#")) { //$NON-NLS-1$
+                    lines.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    private void writeSource(String name, String source) throws Exception {
+        File file = new File(new File(dir, "src"), name); //$NON-NLS-1$
+        file.getParentFile().mkdirs();
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void collectSources(File file, List<File> sources) {
+        if (file.isDirectory()) {
+            for (File child : file.listFiles()) {
+                collectSources(child, sources);
+            }
+        } else {
+            sources.add(file);
+        }
+    }
+
+    private static void delete(File file) {
+        if (file.isDirectory()) {
+            for (File child : file.listFiles()) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
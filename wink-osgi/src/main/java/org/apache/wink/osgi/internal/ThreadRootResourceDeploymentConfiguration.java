@@ -124,6 +124,11 @@ public class ThreadRootResourceDeploymentConfiguration extends DeploymentConfigu
 			wrapped.addResource(instance);
 		}
 
+		@Override
+		public void addResources(List<?> resources, double priority) {
+			wrapped.addResources(resources, priority);
+		}
+
 		@Override
 		public MethodRecord findMethod(ResourceInstance arg0,
 				RuntimeContext arg1) throws WebApplicationException {
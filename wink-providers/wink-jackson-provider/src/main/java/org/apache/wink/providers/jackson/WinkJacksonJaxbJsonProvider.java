@@ -19,32 +19,293 @@
  *******************************************************************************/
 package org.apache.wink.providers.jackson;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
 
+import org.apache.wink.common.internal.utils.SoftConcurrentMap;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.jaxrs.Annotations;
 import org.codehaus.jackson.jaxrs.JacksonJaxbJsonProvider;
 import org.codehaus.jackson.map.AnnotationIntrospector;
 import org.codehaus.jackson.map.DeserializationConfig;
 import org.codehaus.jackson.map.DeserializationConfig.Feature;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+import org.codehaus.jackson.map.ObjectWriter;
 import org.codehaus.jackson.map.SerializationConfig;
 import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
 import org.codehaus.jackson.map.introspect.JacksonAnnotationIntrospector;
+import org.codehaus.jackson.type.JavaType;
 import org.codehaus.jackson.xc.JaxbAnnotationIntrospector;
 
+/**
+ * Jackson provider that uses both the JAXB and the Jackson annotations.
+ * <p>
+ * The {@link ObjectReader} and {@link ObjectWriter} of each entity type are
+ * resolved once and reused by all the requests, instead of resolving the
+ * generic type of the entity on every request. The readers and writers keep a
+ * copy of the configuration of the mapper, so the provider and its mapper must
+ * be completely configured before the first request is processed. A mapper
+ * that is located through a <code>ContextResolver&lt;ObjectMapper&gt;</code>
+ * is used as is, without the cache.
+ */
 @Provider
 @Consumes( {MediaType.APPLICATION_JSON, "text/json"})
 @Produces( {MediaType.APPLICATION_JSON, "text/json"})
 public class WinkJacksonJaxbJsonProvider extends JacksonJaxbJsonProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
 
+    private final SoftConcurrentMap<Type, ObjectReader> readers =
+                                                                    new SoftConcurrentMap<Type, ObjectReader>("WinkJacksonJaxbJsonProvider.readers"); //$NON-NLS-1$
+    private final SoftConcurrentMap<Type, ObjectWriter> writers =
+                                                                    new SoftConcurrentMap<Type, ObjectWriter>("WinkJacksonJaxbJsonProvider.writers"); //$NON-NLS-1$
+
     public WinkJacksonJaxbJsonProvider() {
         super(createObjectMapper(), BASIC_ANNOTATIONS);
     }
 
+    /**
+     * Create a provider that shares the specified mapper. The mapper must be
+     * completely configured, including the registration of its modules, before
+     * the provider is used.
+     * 
+     * @param mapper the mapper to use for all the entity types
+     */
+    public WinkJacksonJaxbJsonProvider(ObjectMapper mapper) {
+        super(mapper, BASIC_ANNOTATIONS);
+    }
+
+    /**
+     * Resolve the reader and the writer of the specified entity types, and the
+     * serializers and deserializers they use, before the first request of
+     * these types.
+     * 
+     * @param genericTypes the entity types, for example the generic return
+     *            types of the resource methods
+     */
+    public void preload(Type... genericTypes) {
+        ObjectMapper mapper = _mapperConfig.getConfiguredMapper();
+        if (mapper == null) {
+            return;
+        }
+        for (Type genericType : genericTypes) {
+            getReader(mapper, genericType);
+            getWriter(mapper, genericType);
+            // canSerialize and canDeserialize create and cache the
+            // serializers and deserializers of the type
+            JavaType javaType = mapper.constructType(genericType);
+            mapper.canDeserialize(javaType);
+            mapper.canSerialize(javaType.getRawClass());
+        }
+    }
+
+    @Override
+    public void setMapper(ObjectMapper m) {
+        super.setMapper(m);
+        readers.clear();
+        writers.clear();
+    }
+
+    @Override
+    public void setAnnotationsToUse(Annotations[] annotationsToUse) {
+        super.setAnnotationsToUse(annotationsToUse);
+        readers.clear();
+        writers.clear();
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type,
+                              Type genericType,
+                              Annotation[] annotations,
+                              MediaType mediaType) {
+        if (Iterator.class.equals(type)) {
+            return genericType instanceof ParameterizedType && isJsonType(mediaType);
+        }
+        return super.isReadable(type, genericType, annotations, mediaType);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type,
+                           Type genericType,
+                           Annotation[] annotations,
+                           MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders,
+                           InputStream entityStream) throws IOException {
+        if (Iterator.class.equals(type)) {
+            // read the elements of the json array one at a time
+            ObjectMapper mapper = locateMapper(type, mediaType);
+            Type elementType = ((ParameterizedType)genericType).getActualTypeArguments()[0];
+            JsonParser parser = mapper.getJsonFactory().createJsonParser(entityStream);
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                parser.close();
+                return Collections.EMPTY_LIST.iterator();
+            }
+            if (token != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new WebApplicationException(Response.Status.BAD_REQUEST);
+            }
+            return new ArrayElementIterator(getReader(mapper, elementType), parser);
+        }
+        ObjectMapper mapper = locateMapper(type, mediaType);
+        JsonParser parser = mapper.getJsonFactory().createJsonParser(entityStream);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return getReader(mapper, genericType).readValue(parser);
+    }
+
+    @Override
+    public void writeTo(Object value,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        ObjectMapper mapper = locateMapper(type, mediaType);
+        if (_jsonpFunctionName != null
+            || (annotations != null && annotations.length > 0 && _findView(mapper, annotations) != null)) {
+            // JSONP and json views are not cached
+            super.writeTo(value,
+                          type,
+                          genericType,
+                          annotations,
+                          mediaType,
+                          httpHeaders,
+                          entityStream);
+            return;
+        }
+        JsonGenerator generator =
+            mapper.getJsonFactory().createJsonGenerator(entityStream,
+                                                        findEncoding(mediaType, httpHeaders));
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (mapper.getSerializationConfig().isEnabled(SerializationConfig.Feature.INDENT_OUTPUT)) {
+            generator.useDefaultPrettyPrinter();
+        }
+        // as in JacksonJsonProvider, the root type is used only for generic
+        // types and the runtime type of the value is used otherwise
+        ObjectWriter writer =
+            (value != null && genericType != null && genericType.getClass() != Class.class)
+                ? getWriter(mapper, genericType) : getWriter(mapper, Object.class);
+        writer.writeValue(generator, value);
+    }
+
+    /**
+     * Get the reader of a type, which is cached if the mapper is the one of
+     * this provider
+     */
+    private ObjectReader getReader(ObjectMapper mapper, Type genericType) {
+        boolean cached = (mapper == _mapperConfig.getConfiguredMapper());
+        ObjectReader reader = cached ? readers.get(genericType) : null;
+        if (reader == null) {
+            reader = mapper.reader(mapper.constructType(genericType));
+            if (cached) {
+                reader = readers.put(genericType, reader);
+            }
+        }
+        return reader;
+    }
+
+    /**
+     * Get the writer of a type, which is cached if the mapper is the one of
+     * this provider. The writer of <code>Object</code> uses the runtime type
+     * of the values.
+     */
+    private ObjectWriter getWriter(ObjectMapper mapper, Type genericType) {
+        boolean cached = (mapper == _mapperConfig.getConfiguredMapper());
+        ObjectWriter writer = cached ? writers.get(genericType) : null;
+        if (writer == null) {
+            JavaType rootType = mapper.constructType(genericType);
+            writer =
+                (rootType.getRawClass() == Object.class) ? mapper.writer() : mapper
+                    .typedWriter(rootType);
+            if (cached) {
+                writer = writers.put(genericType, writer);
+            }
+        }
+        return writer;
+    }
+
+    private static class ArrayElementIterator implements Iterator<Object>, Closeable {
+
+        private final ObjectReader reader;
+        private final JsonParser   parser;
+        private Object             next;
+        private boolean            hasNext;
+        private boolean            done;
+
+        ArrayElementIterator(ObjectReader reader, JsonParser parser) {
+            this.reader = reader;
+            this.parser = parser;
+        }
+
+        public boolean hasNext() {
+            if (hasNext) {
+                return true;
+            }
+            if (done) {
+                return false;
+            }
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    close();
+                    return false;
+                }
+                next = reader.readValue(parser);
+                hasNext = true;
+                return true;
+            } catch (IOException e) {
+                close();
+                throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+            }
+        }
+
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object ret = next;
+            next = null;
+            hasNext = false;
+            return ret;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void close() {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                parser.close();
+            } catch (IOException e) {
+                // nothing more can be read anyway
+            }
+        }
+    }
+
     private static ObjectMapper createObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
 
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.providers.jackson.internal;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+import javax.ws.rs.core.MediaType;
+
+import junit.framework.TestCase;
+
+import org.apache.wink.providers.jackson.WinkJacksonJaxbJsonProvider;
+import org.apache.wink.providers.jackson.internal.jaxb.Person;
+
+public class JacksonIteratorTest extends TestCase {
+
+    private Iterator<Person>            persons;
+
+    private WinkJacksonJaxbJsonProvider provider = new WinkJacksonJaxbJsonProvider();
+
+    @SuppressWarnings("unchecked")
+    public void testReadIterator() throws Exception {
+        Type genericType = JacksonIteratorTest.class.getDeclaredField("persons").getGenericType();
+        Class<Object> type = (Class<Object>)(Class<?>)Iterator.class;
+        assertTrue(provider.isReadable(type, genericType, null, MediaType.APPLICATION_JSON_TYPE));
+        assertFalse(provider.isReadable(type, Iterator.class, null, MediaType.APPLICATION_JSON_TYPE));
+
+        String json = "[{\"name\":\"a\",\"age\":1},{\"name\":\"b\",\"age\":2}]";
+        Iterator<Person> iterator =
+            (Iterator<Person>)provider.readFrom(type, genericType, null,
+                                                MediaType.APPLICATION_JSON_TYPE, null,
+                                                new ByteArrayInputStream(json.getBytes("UTF-8")));
+        assertTrue(iterator.hasNext());
+        Person person = iterator.next();
+        assertEquals("a", person.getName());
+        assertEquals(1, person.getAge());
+        assertTrue(iterator.hasNext());
+        assertEquals("b", iterator.next().getName());
+        assertFalse(iterator.hasNext());
+
+        iterator =
+            (Iterator<Person>)provider.readFrom(type, genericType, null,
+                                                MediaType.APPLICATION_JSON_TYPE, null,
+                                                new ByteArrayInputStream("[]".getBytes("UTF-8")));
+        assertFalse(iterator.hasNext());
+    }
+}
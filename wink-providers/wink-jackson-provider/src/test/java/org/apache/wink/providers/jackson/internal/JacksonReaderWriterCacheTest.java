@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.providers.jackson.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+
+import junit.framework.TestCase;
+
+import org.apache.wink.providers.jackson.WinkJacksonJaxbJsonProvider;
+import org.apache.wink.providers.jackson.internal.jaxb.Person;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.SerializationConfig;
+
+public class JacksonReaderWriterCacheTest extends TestCase {
+
+    private List<Person> persons;
+
+    private static List<Person> createPersons() {
+        List<Person> persons = new ArrayList<Person>();
+        for (int i = 0; i < 2; ++i) {
+            Person person = new Person();
+            person.setName("p" + i);
+            person.setAge(i);
+            persons.add(person);
+        }
+        return persons;
+    }
+
+    private static String write(WinkJacksonJaxbJsonProvider provider, Object value, Type genericType)
+        throws Exception {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        provider.writeTo(value, value.getClass(), genericType, null,
+                         MediaType.APPLICATION_JSON_TYPE, null, os);
+        return os.toString("UTF-8");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Person> read(WinkJacksonJaxbJsonProvider provider, String json, Type genericType)
+        throws Exception {
+        Class<Object> type = (Class<Object>)(Class<?>)List.class;
+        return (List<Person>)provider.readFrom(type, genericType, null,
+                                               MediaType.APPLICATION_JSON_TYPE, null,
+                                               new ByteArrayInputStream(json.getBytes("UTF-8")));
+    }
+
+    public void testRoundTripWithCachedReaderAndWriter() throws Exception {
+        Type genericType = JacksonReaderWriterCacheTest.class.getDeclaredField("persons").getGenericType();
+        WinkJacksonJaxbJsonProvider provider = new WinkJacksonJaxbJsonProvider();
+        provider.preload(genericType);
+        for (int i = 0; i < 2; ++i) {
+            String json = write(provider, createPersons(), genericType);
+            List<Person> persons = read(provider, json, genericType);
+            assertEquals(2, persons.size());
+            assertEquals("p1", persons.get(1).getName());
+            assertEquals(1, persons.get(1).getAge());
+        }
+        // values of a non generic type are written with their runtime type
+        assertTrue(write(provider, createPersons().get(0), Object.class).contains("\"p0\""));
+    }
+
+    public void testSharedMapper() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(SerializationConfig.Feature.INDENT_OUTPUT, true);
+        WinkJacksonJaxbJsonProvider provider = new WinkJacksonJaxbJsonProvider(mapper);
+        Person person = createPersons().get(0);
+        String json = write(provider, person, Person.class);
+        assertTrue(json.contains("\n"));
+        assertEquals(json, write(provider, person, Person.class));
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.providers.json;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Builds a JSONObject directly from the SAX events of a JAXB marshaller. The
+ * result has the same shape as the result of {@link org.json.XML#toJSONObject}
+ * on the marshalled XML text:
+ * <ul>
+ * <li>attributes and namespace declarations become members of the element</li>
+ * <li>trimmed text becomes the "content" member</li>
+ * <li>repeated members become arrays</li>
+ * <li>an element without members becomes an empty string, and an element
+ * with only content becomes its content</li>
+ * </ul>
+ */
+class JSONObjectContentHandler extends DefaultHandler {
+
+    private final JSONObject         root     = new JSONObject();
+    private final LinkedList<Object> stack    = new LinkedList<Object>();
+    private final List<String>       mappings = new ArrayList<String>();
+    private final StringBuilder      text     = new StringBuilder();
+
+    JSONObjectContentHandler() {
+        stack.addFirst(root);
+    }
+
+    /**
+     * @return the JSONObject built from the received events
+     */
+    JSONObject getJSONObject() {
+        return root;
+    }
+
+    @Override
+    public void startPrefixMapping(String prefix, String uri) throws SAXException {
+        mappings.add(prefix.length() == 0 ? "xmlns" : "xmlns:" + prefix);
+        mappings.add(uri);
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes)
+        throws SAXException {
+        flushText();
+        JSONObject element = new JSONObject();
+        try {
+            for (int i = 0; i < mappings.size(); i += 2) {
+                element.accumulate(mappings.get(i), mappings.get(i + 1));
+            }
+            mappings.clear();
+            for (int i = 0; i < attributes.getLength(); ++i) {
+                String name = getName(attributes.getLocalName(i), attributes.getQName(i));
+                // namespace declarations may be reported both ways
+                if (name.startsWith("xmlns") && element.has(name)) {
+                    continue;
+                }
+                element.accumulate(name, attributes.getValue(i));
+            }
+        } catch (JSONException e) {
+            throw new SAXException(e);
+        }
+        stack.addFirst(getName(localName, qName));
+        stack.addFirst(element);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        flushText();
+        JSONObject element = (JSONObject)stack.removeFirst();
+        String name = (String)stack.removeFirst();
+        JSONObject parent = (JSONObject)stack.getFirst();
+        try {
+            if (element.length() == 0) {
+                parent.accumulate(name, "");
+            } else if (element.length() == 1 && element.opt("content") != null) {
+                parent.accumulate(name, element.opt("content"));
+            } else {
+                parent.accumulate(name, element);
+            }
+        } catch (JSONException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        text.append(ch, start, length);
+    }
+
+    private void flushText() throws SAXException {
+        if (text.length() == 0) {
+            return;
+        }
+        String content = text.toString().trim();
+        text.setLength(0);
+        if (content.length() > 0 && stack.size() > 1) {
+            try {
+                ((JSONObject)stack.getFirst()).accumulate("content", content);
+            } catch (JSONException e) {
+                throw new SAXException(e);
+            }
+        }
+    }
+
+    private static String getName(String localName, String qName) {
+        return (qName != null && qName.length() > 0) ? qName : localName;
+    }
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.providers.json;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Feeds a JAXB unmarshaller with the SAX events of a JSONObject. The events
+ * match the XML text that {@link org.json.XML#toString(Object)} produces for
+ * the JSONObject: every member becomes an element, the "content" member
+ * becomes text, and arrays become repeated elements.
+ */
+class JSONObjectXMLReader implements XMLReader {
+
+    private static final String  NAMESPACES_FEATURE         =
+                                                                "http://xml.org/sax/features/namespaces";
+    private static final String  NAMESPACE_PREFIXES_FEATURE =
+                                                                "http://xml.org/sax/features/namespace-prefixes";
+    private static final char[]  NEW_LINE                   = new char[] {'\n'};
+
+    private final JSONObject     json;
+    private final AttributesImpl attributes                 = new AttributesImpl();
+    private ContentHandler       contentHandler;
+    private ErrorHandler         errorHandler;
+    private DTDHandler           dtdHandler;
+    private EntityResolver       entityResolver;
+    private boolean              namespacePrefixes;
+
+    JSONObjectXMLReader(JSONObject json) {
+        this.json = json;
+    }
+
+    public void parse(InputSource input) throws IOException, SAXException {
+        try {
+            contentHandler.startDocument();
+            writeValue(json, null);
+            contentHandler.endDocument();
+        } catch (JSONException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    public void parse(String systemId) throws IOException, SAXException {
+        parse(new InputSource(systemId));
+    }
+
+    private void writeValue(Object value, String name) throws SAXException, JSONException {
+        if (value instanceof JSONObject) {
+            startElement(name);
+            JSONObject object = (JSONObject)value;
+            for (Iterator<?> keys = object.keys(); keys.hasNext();) {
+                String key = keys.next().toString();
+                Object member = object.get(key);
+                if (key.equals("content")) {
+                    if (member instanceof JSONArray) {
+                        JSONArray array = (JSONArray)member;
+                        for (int i = 0; i < array.length(); ++i) {
+                            if (i > 0) {
+                                contentHandler.characters(NEW_LINE, 0, 1);
+                            }
+                            writeText(array.get(i).toString());
+                        }
+                    } else {
+                        writeText(member.toString());
+                    }
+                } else if (member instanceof JSONArray) {
+                    JSONArray array = (JSONArray)member;
+                    for (int i = 0; i < array.length(); ++i) {
+                        Object item = array.get(i);
+                        if (item instanceof JSONArray) {
+                            startElement(key);
+                            writeValue(item, null);
+                            endElement(key);
+                        } else {
+                            writeValue(item, key);
+                        }
+                    }
+                } else {
+                    writeValue(member, key);
+                }
+            }
+            endElement(name);
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray)value;
+            for (int i = 0; i < array.length(); ++i) {
+                writeValue(array.opt(i), (name == null) ? "array" : name);
+            }
+        } else {
+            String text = (value == null) ? "null" : value.toString();
+            if (name == null) {
+                writeText(text);
+            } else {
+                startElement(name);
+                writeText(text);
+                endElement(name);
+            }
+        }
+    }
+
+    private void startElement(String name) throws SAXException {
+        if (name != null) {
+            contentHandler.startElement("", getLocalName(name), name, attributes);
+        }
+    }
+
+    private void endElement(String name) throws SAXException {
+        if (name != null) {
+            contentHandler.endElement("", getLocalName(name), name);
+        }
+    }
+
+    private void writeText(String text) throws SAXException {
+        if (text.length() > 0) {
+            contentHandler.characters(text.toCharArray(), 0, text.length());
+        }
+    }
+
+    private static String getLocalName(String name) {
+        return name.substring(name.indexOf(':') + 1);
+    }
+
+    public boolean getFeature(String name) {
+        if (NAMESPACES_FEATURE.equals(name)) {
+            return true;
+        }
+        if (NAMESPACE_PREFIXES_FEATURE.equals(name)) {
+            return namespacePrefixes;
+        }
+        return false;
+    }
+
+    public void setFeature(String name, boolean value) {
+        if (NAMESPACE_PREFIXES_FEATURE.equals(name)) {
+            namespacePrefixes = value;
+        }
+    }
+
+    public Object getProperty(String name) {
+        return null;
+    }
+
+    public void setProperty(String name, Object value) {
+    }
+
+    public ContentHandler getContentHandler() {
+        return contentHandler;
+    }
+
+    public void setContentHandler(ContentHandler handler) {
+        this.contentHandler = handler;
+    }
+
+    public DTDHandler getDTDHandler() {
+        return dtdHandler;
+    }
+
+    public void setDTDHandler(DTDHandler handler) {
+        this.dtdHandler = handler;
+    }
+
+    public EntityResolver getEntityResolver() {
+        return entityResolver;
+    }
+
+    public void setEntityResolver(EntityResolver resolver) {
+        this.entityResolver = resolver;
+    }
+
+    public ErrorHandler getErrorHandler() {
+        return errorHandler;
+    }
+
+    public void setErrorHandler(ErrorHandler handler) {
+        this.errorHandler = handler;
+    }
+}
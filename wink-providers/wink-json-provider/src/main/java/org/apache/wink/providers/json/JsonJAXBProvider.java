@@ -107,15 +107,28 @@ public class JsonJAXBProvider implements MessageBodyWriter<Object>, MessageBodyR
                                           genericType,
                                           annotations,
                                           MediaType.APPLICATION_XML_TYPE);
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            jaxbWriter.writeTo(t,
-                               type,
-                               genericType,
-                               annotations,
-                               MediaType.APPLICATION_XML_TYPE,
-                               httpHeaders,
-                               os);
-            JSONObject json = XML.toJSONObject(os.toString());
+            JSONObject json;
+            if (isBuiltInJAXBProvider(jaxbWriter)) {
+                // build the JSONObject directly from the marshaller events
+                JSONObjectContentHandler handler = new JSONObjectContentHandler();
+                ((JAXBXmlProvider)jaxbWriter).writeTo(t,
+                                                      type,
+                                                      genericType,
+                                                      annotations,
+                                                      MediaType.APPLICATION_XML_TYPE,
+                                                      handler);
+                json = handler.getJSONObject();
+            } else {
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                jaxbWriter.writeTo(t,
+                                   type,
+                                   genericType,
+                                   annotations,
+                                   MediaType.APPLICATION_XML_TYPE,
+                                   httpHeaders,
+                                   os);
+                json = XML.toJSONObject(os.toString());
+            }
             bodyWriter.writeTo(json,
                                JSONObject.class,
                                JSONObject.class,
@@ -164,12 +177,19 @@ public class JsonJAXBProvider implements MessageBodyWriter<Object>, MessageBodyR
                                     mediaType,
                                     httpHeaders,
                                     entityStream);
-            String xml = XML.toString(json);
             MessageBodyReader<Object> jaxbReader =
                 providers.getMessageBodyReader(type,
                                                genericType,
                                                annotations,
                                                MediaType.APPLICATION_XML_TYPE);
+            if (isBuiltInJAXBProvider(jaxbReader)) {
+                // feed the unmarshaller directly from the JSONObject
+                return ((JAXBXmlProvider)jaxbReader).readFrom(type,
+                                                              annotations,
+                                                              MediaType.APPLICATION_XML_TYPE,
+                                                              new JSONObjectXMLReader(json));
+            }
+            String xml = XML.toString(json);
             return jaxbReader.readFrom(type,
                                        genericType,
                                        annotations,
@@ -180,4 +200,12 @@ public class JsonJAXBProvider implements MessageBodyWriter<Object>, MessageBodyR
             throw new WebApplicationException(e, Status.BAD_REQUEST);
         }
     }
+
+    /**
+     * Only the built-in JAXB provider is bridged directly, since a subclass
+     * may override the stream based methods.
+     */
+    private static boolean isBuiltInJAXBProvider(Object provider) {
+        return provider != null && provider.getClass() == JAXBXmlProvider.class;
+    }
 }
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.providers.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlValue;
+import javax.xml.transform.sax.SAXSource;
+
+import junit.framework.TestCase;
+
+import org.json.JSONObject;
+import org.json.XML;
+import org.xml.sax.InputSource;
+
+/**
+ * Verifies that the SAX bridge of {@link JsonJAXBProvider} produces the same
+ * JSON as the XML text round trip through {@link XML}
+ */
+public class JSONObjectBridgeTest extends TestCase {
+
+    @XmlRootElement(name = "order", namespace = "urn:orders")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Order {
+
+        @XmlAttribute
+        public String     id;
+        @XmlElement(namespace = "urn:orders")
+        public String     customer;
+        @XmlElement(namespace = "urn:orders")
+        public String     note;
+        @XmlElement(name = "item", namespace = "urn:orders")
+        public List<Item> items = new ArrayList<Item>();
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Item {
+
+        @XmlAttribute
+        public int    quantity;
+        @XmlValue
+        public String name;
+    }
+
+    private static Order createOrder() {
+        Order order = new Order();
+        order.id = "17";
+        order.customer = "  a & b <c>  ";
+        order.note = "";
+        for (int i = 1; i <= 3; ++i) {
+            Item item = new Item();
+            item.quantity = i;
+            item.name = "item" + i;
+            order.items.add(item);
+        }
+        return order;
+    }
+
+    public void testContentHandlerMatchesXMLRoundTrip() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        Order order = createOrder();
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        context.createMarshaller().marshal(order, os);
+        JSONObject expected = XML.toJSONObject(os.toString("UTF-8"));
+
+        JSONObjectContentHandler handler = new JSONObjectContentHandler();
+        context.createMarshaller().marshal(order, handler);
+        JSONObject actual = handler.getJSONObject();
+
+        assertTrue(expected.toString() + " != " + actual.toString(), JSONUtils.equals(expected,
+                                                                                        actual));
+    }
+
+    public void testSingleItemAndEmptyElement() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        Order order = createOrder();
+        order.items.remove(2);
+        order.items.remove(1);
+
+        JSONObjectContentHandler handler = new JSONObjectContentHandler();
+        context.createMarshaller().marshal(order, handler);
+        JSONObject json = handler.getJSONObject().getJSONObject("order");
+        assertEquals("urn:orders", json.get("xmlns"));
+        assertEquals("17", json.get("id"));
+        assertEquals("", json.get("note"));
+        assertEquals("a & b <c>", json.get("customer"));
+        assertEquals("1", json.getJSONObject("item").get("quantity"));
+        assertEquals("item1", json.getJSONObject("item").get("content"));
+    }
+
+    @XmlRootElement(name = "item")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Entry {
+
+        public String       title;
+        public List<String> tag = new ArrayList<String>();
+        public Item         item;
+    }
+
+    public void testXMLReaderMatchesXMLRoundTrip() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Entry.class);
+        JSONObject json =
+            new JSONObject("{\"item\": {\"title\": \"a < b\", \"tag\": [\"x\", \"y\"],"
+                + " \"item\": {\"content\": \"name\"}}}");
+
+        Entry expected =
+            (Entry)context.createUnmarshaller().unmarshal(new StringReader(XML.toString(json)));
+        Entry actual =
+            (Entry)context.createUnmarshaller().unmarshal(new SAXSource(
+                                                                        new JSONObjectXMLReader(
+                                                                                                json),
+                                                                        new InputSource()));
+        assertEquals(expected.title, actual.title);
+        assertEquals("a < b", actual.title);
+        assertEquals(expected.tag, actual.tag);
+        assertEquals(2, actual.tag.size());
+        assertEquals(expected.item.name, actual.item.name);
+        assertEquals("name", actual.item.name);
+    }
+}
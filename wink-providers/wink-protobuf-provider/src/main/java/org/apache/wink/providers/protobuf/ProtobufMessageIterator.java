@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.    
+ */
+
+package org.apache.wink.providers.protobuf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import com.google.protobuf.Message;
+import com.google.protobuf.UninitializedMessageException;
+
+/**
+ * Iterates over a stream of length-delimited protocol buffer messages, as
+ * written by {@link Message#writeDelimitedTo(java.io.OutputStream)}.
+ * <p>
+ * The messages are parsed one at a time as the iterator is advanced, so only
+ * the current message is held in memory. The stream is closed when the last
+ * message was read or when the iterator is closed. The iterator can be used
+ * directly on any input stream, for example on the content of a response that
+ * was produced by the {@link WinkProtobufIteratorProvider}.
+ * 
+ * @param <M> the type of the messages
+ */
+public class ProtobufMessageIterator<M extends Message> implements Iterator<M>, Closeable {
+
+    private final InputStream stream;
+    private final Message     prototype;
+    private M                 next;
+    private boolean           done;
+
+    /**
+     * @param type the generated class of the messages
+     * @param stream the stream of length-delimited messages
+     */
+    public ProtobufMessageIterator(Class<M> type, InputStream stream) {
+        this.prototype = WinkProtobufProvider.getPrototype(type);
+        this.stream = stream;
+    }
+
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        try {
+            Message.Builder builder = prototype.newBuilderForType();
+            if (!builder.mergeDelimitedFrom(stream)) {
+                close();
+                return false;
+            }
+            next = cast(builder.build());
+            return true;
+        } catch (UninitializedMessageException e) {
+            close();
+            throw new WebApplicationException(e.asInvalidProtocolBufferException(),
+                                              Response.Status.BAD_REQUEST);
+        } catch (IOException e) {
+            close();
+            throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+        }
+    }
+
+    public M next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        M ret = next;
+        next = null;
+        return ret;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    public void close() {
+        if (done) {
+            return;
+        }
+        done = true;
+        next = null;
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // the messages that were read are still valid
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private M cast(Message message) {
+        return (M)message;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.    
+ */
+
+package org.apache.wink.providers.protobuf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.Iterator;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.wink.common.internal.utils.GenericsUtils;
+
+import com.google.protobuf.Message;
+
+/**
+ * JAX-RS message provider for sequences of Google Protocol Buffer messages.
+ * <p>
+ * Reads the entity as a lazy {@link Iterator} of messages, and writes an
+ * {@link Iterator} or an {@link Iterable} of messages. Each message is framed
+ * with its length, as by {@link Message#writeDelimitedTo(OutputStream)}, so
+ * the sequence can be parsed one message at a time with a
+ * {@link ProtobufMessageIterator}.
+ * <p>
+ * When writing, each message of a lazy source is flushed as soon as it is
+ * produced, so neither end needs to hold the whole sequence in memory.
+ */
+@Provider
+@Consumes("application/x-protobuf")
+@Produces("application/x-protobuf")
+public class WinkProtobufIteratorProvider implements MessageBodyReader<Iterator<?>>,
+    MessageBodyWriter<Object> {
+
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        if (!Iterator.class.equals(type)) {
+            return false;
+        }
+        Class<?> elementType = getElementType(genericType, Iterator.class);
+        return elementType != null && Message.class.isAssignableFrom(elementType)
+            && !Message.class.equals(elementType);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Iterator<?> readFrom(Class<Iterator<?>> type,
+                                Type genericType,
+                                Annotation[] annotations,
+                                MediaType mediaType,
+                                MultivaluedMap<String, String> httpHeaders,
+                                InputStream entityStream) throws IOException, WebApplicationException {
+        Class<? extends Message> elementType =
+            (Class<? extends Message>)getElementType(genericType, Iterator.class);
+        return new ProtobufMessageIterator(elementType, entityStream);
+    }
+
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        Class<?> rawType;
+        if (Iterator.class.isAssignableFrom(type)) {
+            rawType = Iterator.class;
+        } else if (Iterable.class.isAssignableFrom(type)) {
+            rawType = Iterable.class;
+        } else {
+            return false;
+        }
+        Class<?> elementType = getElementType(genericType, rawType);
+        if (elementType == null) {
+            elementType = getElementType(GenericsUtils.getGenericInterfaceParamType(type, rawType));
+        }
+        return elementType != null && Message.class.isAssignableFrom(elementType);
+    }
+
+    public long getSize(Object t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    public void writeTo(Object t,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException, WebApplicationException {
+        Iterator<?> messages;
+        boolean flushMessages;
+        if (t instanceof Iterator<?>) {
+            messages = (Iterator<?>)t;
+            flushMessages = true;
+        } else {
+            messages = ((Iterable<?>)t).iterator();
+            flushMessages = !(t instanceof Collection<?>);
+        }
+        while (messages.hasNext()) {
+            ((Message)messages.next()).writeDelimitedTo(entityStream);
+            if (flushMessages) {
+                entityStream.flush();
+            }
+        }
+    }
+
+    /**
+     * Get the element class of a parameterized {@link Iterator} or
+     * {@link Iterable} type, such as <code>List&lt;Person&gt;</code>
+     */
+    private static Class<?> getElementType(Type genericType, Class<?> rawType) {
+        if (genericType instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType)genericType;
+            Type parameterizedRawType = parameterizedType.getRawType();
+            if (parameterizedRawType instanceof Class<?> && rawType
+                .isAssignableFrom((Class<?>)parameterizedRawType)) {
+                return getElementType(parameterizedType.getActualTypeArguments()[0]);
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> getElementType(Type type) {
+        if (type instanceof WildcardType) {
+            type = ((WildcardType)type).getUpperBounds()[0];
+        }
+        return (type instanceof Class<?>) ? (Class<?>)type : null;
+    }
+}
@@ -24,7 +24,6 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 
 import javax.ws.rs.Consumes;
@@ -36,17 +35,27 @@ import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
 
+import org.apache.wink.common.internal.utils.SoftConcurrentMap;
+
 import com.google.protobuf.Message;
+import com.google.protobuf.UninitializedMessageException;
 
 /**
- * JAX-RS message provider for Google Protocol Buffer 
+ * JAX-RS message provider for Google Protocol Buffer
+ * <p>
+ * The default instance of each message type is looked up once and kept as a
+ * prototype, so reading a message builds it from the prototype instead of
+ * resolving the generated <code>parseFrom</code> method on every request.
  */
 @Provider
 @Consumes("application/x-protobuf")
 @Produces("application/x-protobuf")
 public class WinkProtobufProvider implements MessageBodyReader<Message>, MessageBodyWriter<Message> {
     public static final String PROTOBUF = "application/x-protobuf";
-    
+
+    private static final SoftConcurrentMap<Class<?>, Message> prototypes =
+                                                                    new SoftConcurrentMap<Class<?>, Message>("WinkProtobufProvider.prototypes"); //$NON-NLS-1$
+
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         return type != null && Message.class.isAssignableFrom(type);
     }
@@ -57,18 +66,32 @@ public class WinkProtobufProvider implements MessageBodyReader<Message>, Message
                             MediaType mediaType,
                             MultivaluedMap<String, String> httpHeaders,
                             InputStream entityStream) throws IOException, WebApplicationException {
+        Message.Builder builder = getPrototype(type).newBuilderForType().mergeFrom(entityStream);
+        try {
+            return builder.build();
+        } catch (UninitializedMessageException e) {
+            // the same exception as thrown by the generated parseFrom method
+            throw e.asInvalidProtocolBufferException();
+        }
+    }
+
+    /**
+     * Get the default instance of a generated message type
+     * 
+     * @param type the message type
+     * @return the default instance, which is cached per type
+     */
+    static Message getPrototype(Class<?> type) {
+        Message prototype = prototypes.get(type);
+        if (prototype != null) {
+            return prototype;
+        }
         try {
-            Method method = type.getMethod("parseFrom", InputStream.class);
-            Object result = method.invoke(null, entityStream);
-            return (Message)result;
+            prototype = (Message)type.getMethod("getDefaultInstance").invoke(null); //$NON-NLS-1$
+            return prototypes.put(type, prototype);
         } catch (InvocationTargetException e) {
-            Throwable t = e.getCause();
-            if (t instanceof IOException) {
-                throw (IOException)t;
-            } else {
-                throw new WebApplicationException(t);
-            }
-        } catch (Throwable e) {
+            throw new WebApplicationException(e.getCause());
+        } catch (Exception e) {
             throw new WebApplicationException(e);
         }
     }
@@ -78,7 +101,9 @@ public class WinkProtobufProvider implements MessageBodyReader<Message>, Message
     }
 
     public long getSize(Message t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        return -1;
+        // the size is memoized by the message, so writeTo does not compute it
+        // again
+        return t != null ? t.getSerializedSize() : -1;
     }
 
     public void writeTo(Message t,
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.providers.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+
+import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.tutorial.AddressBookProtos.Person;
+
+/**
+ * Tests the provider of length-delimited sequences of protocol buffer
+ * messages.
+ */
+public class ProtobufIteratorTest extends MockServletInvocationTest {
+
+    private static final int COUNT = 1000;
+
+    @Override
+    protected Class<?>[] getClasses() {
+        return new Class<?>[] {PersonsResource.class};
+    }
+
+    @Override
+    protected Object[] getSingletons() {
+        return new Object[] {new WinkProtobufProvider(), new WinkProtobufIteratorProvider()};
+    }
+
+    private static Person createPerson(int id) {
+        return Person.newBuilder().setId(id).setEmail(id + "@example.com").setName("Person " + id)
+            .build();
+    }
+
+    @Path("/test/persons")
+    public static class PersonsResource {
+
+        @GET
+        @Produces("application/x-protobuf")
+        public Iterator<Person> getPersons() {
+            return new Iterator<Person>() {
+                private int id;
+
+                public boolean hasNext() {
+                    return id < COUNT;
+                }
+
+                public Person next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return createPerson(id++);
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @GET
+        @Path("list")
+        @Produces("application/x-protobuf")
+        public List<Person> getPersonList() {
+            List<Person> persons = new ArrayList<Person>();
+            for (int i = 0; i < 3; ++i) {
+                persons.add(createPerson(i));
+            }
+            return persons;
+        }
+
+        @POST
+        @Consumes("application/x-protobuf")
+        @Produces("text/plain")
+        public String postPersons(Iterator<Person> persons) {
+            int count = 0;
+            while (persons.hasNext()) {
+                Person person = persons.next();
+                assertEquals(count, person.getId());
+                ++count;
+            }
+            return String.valueOf(count);
+        }
+    }
+
+    private static void assertPersons(byte[] data, int count) {
+        ProtobufMessageIterator<Person> persons =
+            new ProtobufMessageIterator<Person>(Person.class, new ByteArrayInputStream(data));
+        for (int i = 0; i < count; ++i) {
+            assertTrue(persons.hasNext());
+            Person person = persons.next();
+            assertEquals(i, person.getId());
+            assertEquals("Person " + i, person.getName());
+        }
+        assertFalse(persons.hasNext());
+    }
+
+    public void testGetPersons() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", "/test/persons", "application/x-protobuf");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        assertPersons(response.getContentAsByteArray(), COUNT);
+    }
+
+    public void testGetPersonList() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET",
+                                                        "/test/persons/list",
+                                                        "application/x-protobuf");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        assertPersons(response.getContentAsByteArray(), 3);
+    }
+
+    public void testPostPersons() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("POST", "/test/persons", "text/plain");
+        request.setContentType("application/x-protobuf");
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        for (int i = 0; i < COUNT; ++i) {
+            createPerson(i).writeDelimitedTo(bos);
+        }
+        request.setContent(bos.toByteArray());
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        assertEquals(String.valueOf(COUNT), response.getContentAsString());
+    }
+
+    public void testTruncatedStream() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        createPerson(0).writeDelimitedTo(bos);
+        createPerson(1).writeDelimitedTo(bos);
+        byte[] data = bos.toByteArray();
+        byte[] truncated = new byte[data.length - 3];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        ProtobufMessageIterator<Person> persons =
+            new ProtobufMessageIterator<Person>(Person.class, new ByteArrayInputStream(truncated));
+        assertEquals(0, persons.next().getId());
+        try {
+            persons.hasNext();
+            fail("WebApplicationException expected");
+        } catch (WebApplicationException e) {
+            assertEquals(400, e.getResponse().getStatus());
+        }
+        assertFalse(persons.hasNext());
+    }
+}
@@ -20,6 +20,7 @@
 
 package org.apache.wink.providers.protobuf;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 import javax.ws.rs.GET;
@@ -34,6 +35,7 @@ import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 import com.example.tutorial.AddressBookProtos.Person;
+import com.google.protobuf.InvalidProtocolBufferException;
 
 /**
  * Tests the ProtocolBuffer provider.
@@ -79,6 +81,7 @@ public class ProtobufTest extends MockServletInvocationTest {
         MockHttpServletResponse response = invoke(request);
         assertEquals(200, response.getStatus());
         byte[] data = response.getContentAsByteArray();
+        assertEquals(String.valueOf(data.length), response.getHeader("Content-Length"));
         Person p = Person.parseFrom(data);
         assertEquals(p);
     }
@@ -107,4 +110,26 @@ public class ProtobufTest extends MockServletInvocationTest {
         assertEquals(p1);
     }
 
+    /**
+     * Tests that a message with missing required fields is rejected as by the
+     * generated parseFrom method.
+     * 
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public void testReadUninitializedPerson() throws Exception {
+        byte[] data = Person.newBuilder().setId(1).buildPartial().toByteArray();
+        try {
+            new WinkProtobufProvider().readFrom((Class)Person.class,
+                                                Person.class,
+                                                null,
+                                                null,
+                                                null,
+                                                new ByteArrayInputStream(data));
+            fail("InvalidProtocolBufferException expected");
+        } catch (InvalidProtocolBufferException e) {
+            // expected
+        }
+    }
+
 }
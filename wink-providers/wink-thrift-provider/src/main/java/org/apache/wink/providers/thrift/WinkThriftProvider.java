@@ -39,10 +39,17 @@ import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TJSONProtocol;
 import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
 import org.apache.thrift.transport.TIOStreamTransport;
+import org.apache.wink.common.internal.utils.SoftConcurrentMap;
 
 /**
- * JAX-RS message provider for Apache Thrift 
+ * JAX-RS message provider for Apache Thrift
+ * <p>
+ * The protocol factories are stateless and shared by all the requests. A new
+ * instance of each type is created once and kept as a prototype, and reading
+ * an object starts from a copy of the prototype instead of instantiating the
+ * type reflectively on every request.
  */
 @SuppressWarnings("rawtypes")
 @Provider
@@ -52,6 +59,13 @@ public class WinkThriftProvider implements MessageBodyReader<TBase>, MessageBody
     public static final String THRIFT = "application/x-thrift";
     public static final MediaType THRIFT_TYPE = new MediaType("application", "x-thrift");
 
+    private static final TProtocolFactory                  BINARY_PROTOCOL_FACTORY =
+                                                                                       new TBinaryProtocol.Factory();
+    private static final TProtocolFactory                  JSON_PROTOCOL_FACTORY   =
+                                                                                       new TJSONProtocol.Factory();
+    private static final SoftConcurrentMap<Class<?>, TBase> prototypes              =
+                                                                                       new SoftConcurrentMap<Class<?>, TBase>("WinkThriftProvider.prototypes"); //$NON-NLS-1$
+
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         return type != null && TBase.class.isAssignableFrom(type);
     }
@@ -70,18 +84,25 @@ public class WinkThriftProvider implements MessageBodyReader<TBase>, MessageBody
     }
 
     static <T extends TBase> T unmarshal(Class<T> type, MediaType mediaType, InputStream entityStream) throws Exception {
-        TIOStreamTransport transport = new TIOStreamTransport(entityStream);
-        TProtocol protocol = null;
-        if (THRIFT_TYPE.isCompatible(mediaType)) {
-            protocol = new TBinaryProtocol.Factory().getProtocol(transport);
-        } else if (MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType)) {
-            protocol = new TJSONProtocol.Factory().getProtocol(transport);
+        TProtocol protocol = getProtocol(mediaType, new TIOStreamTransport(entityStream));
+        TBase prototype = prototypes.get(type);
+        if (prototype == null) {
+            prototype = prototypes.put(type, type.newInstance());
         }
-        T t = type.newInstance();
+        T t = type.cast(prototype.deepCopy());
         t.read(protocol);
         return t;
     }
 
+    private static TProtocol getProtocol(MediaType mediaType, TIOStreamTransport transport) {
+        if (THRIFT_TYPE.isCompatible(mediaType)) {
+            return BINARY_PROTOCOL_FACTORY.getProtocol(transport);
+        } else if (MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType)) {
+            return JSON_PROTOCOL_FACTORY.getProtocol(transport);
+        }
+        return null;
+    }
+
     public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         return type != null && TBase.class.isAssignableFrom(type);
     }
@@ -101,13 +122,7 @@ public class WinkThriftProvider implements MessageBodyReader<TBase>, MessageBody
     }
 
     static <T extends TBase> void marshal(T t, MediaType mediaType, OutputStream entityStream) throws IOException {
-        TIOStreamTransport transport = new TIOStreamTransport(entityStream);
-        TProtocol protocol = null;
-        if (THRIFT_TYPE.isCompatible(mediaType)) {
-            protocol = new TBinaryProtocol.Factory().getProtocol(transport);
-        } else if (MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType)) {
-            protocol = new TJSONProtocol.Factory().getProtocol(transport);
-        }
+        TProtocol protocol = getProtocol(mediaType, new TIOStreamTransport(entityStream));
         if (t != null) {
             try {
                 t.write(protocol);
@@ -143,4 +143,24 @@ public class ThriftTest extends MockServletInvocationTest {
         assertEquals(p1);
     }
 
+    /**
+     * Tests that every read starts from a fresh copy of the cached prototype.
+     * 
+     * @throws Exception
+     */
+    public void testUnmarshalReturnsNewInstances() throws Exception {
+        MediaType mediaType = WinkThriftProvider.THRIFT_TYPE;
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        WinkThriftProvider.marshal(createPerson(), mediaType, bos);
+        Person p1 = WinkThriftProvider.unmarshal(Person.class, mediaType, new ByteArrayInputStream(bos.toByteArray()));
+        bos.reset();
+        WinkThriftProvider.marshal(new Person().setId(2), mediaType, bos);
+        Person p2 = WinkThriftProvider.unmarshal(Person.class, mediaType, new ByteArrayInputStream(bos.toByteArray()));
+        assertNotSame(p1, p2);
+        assertEquals(p1);
+        Assert.assertEquals(2, p2.getId());
+        Assert.assertFalse(p2.isSetName());
+        Assert.assertFalse(p2.isSetEmail());
+    }
+
 }
@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *******************************************************************************/
+
+package org.apache.wink.server.internal;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.wink.common.RuntimeContext;
+import org.apache.wink.common.internal.i18n.Messages;
+import org.apache.wink.common.internal.runtime.RuntimeContextTLS;
+import org.apache.wink.server.internal.handlers.ServerMessageContext;
+import org.apache.wink.server.utils.AsyncResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of {@link AsyncResponse}.
+ * <p>
+ * The request handlers chain runs on the container thread as usual. When it
+ * finishes, the {@link RequestProcessor} calls {@link #startAsync()}, which
+ * puts the servlet request in asynchronous mode and releases the container
+ * thread. The thread that resumes the request runs the response (or error)
+ * handlers chain and completes the asynchronous request. If the container
+ * does not support asynchronous processing, the container thread waits until
+ * the request is resumed or times out, and then continues as for a synchronous
+ * request.
+ */
+public class AsyncResponseImpl implements AsyncResponse {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncResponseImpl.class);
+
+    /**
+     * The time a container thread waits for the request to be resumed when no
+     * timeout was set, the usual default timeout of asynchronous requests
+     */
+    private static final long DEFAULT_BLOCKING_TIMEOUT = 30000;
+
+    private enum State {
+        /** suspended, the request handlers chain is still running */
+        SUSPENDED,
+        /** resumed before the container thread was released */
+        RESUMED,
+        /** suspended, the container thread was released */
+        ASYNC,
+        /** resumed, timed out or cancelled */
+        DONE
+    }
+
+    private final RequestProcessor     processor;
+    private final ServerMessageContext msgContext;
+    private final HttpServletRequest   request;
+    private final HttpServletResponse  response;
+    private State                      state = State.SUSPENDED;
+    private long                       timeout;
+    private Object                     result;
+    private boolean                    failed;
+    private AsyncContext               asyncContext;
+
+    AsyncResponseImpl(RequestProcessor processor, ServerMessageContext msgContext) {
+        this.processor = processor;
+        this.msgContext = msgContext;
+        this.request = msgContext.getAttribute(HttpServletRequest.class);
+        // the error handlers chain wraps the response again
+        this.response =
+            (HttpServletResponse)msgContext.getAttribute(HttpServletResponseWrapper.class)
+                .getResponse();
+    }
+
+    /**
+     * Suspend the request of the specified message context
+     *
+     * @param runtimeContext the message context of the request
+     * @return the handle of the suspended request
+     */
+    public static AsyncResponse suspend(RuntimeContext runtimeContext) {
+        AsyncResponseImpl asyncResponse = runtimeContext.getAttribute(AsyncResponseImpl.class);
+        if (asyncResponse == null) {
+            RequestProcessor processor = runtimeContext.getAttribute(RequestProcessor.class);
+            if (processor == null || !(runtimeContext instanceof ServerMessageContext)) {
+                throw new IllegalStateException();
+            }
+            asyncResponse = new AsyncResponseImpl(processor, (ServerMessageContext)runtimeContext);
+            runtimeContext.setAttribute(AsyncResponseImpl.class, asyncResponse);
+            runtimeContext.setAttribute(AsyncResponse.class, asyncResponse);
+        }
+        return asyncResponse;
+    }
+
+    public boolean resume(Object response) {
+        return resume(response, false);
+    }
+
+    public boolean resume(Throwable response) {
+        return resume(response, true);
+    }
+
+    public synchronized void setTimeout(long time, TimeUnit unit) {
+        timeout = unit.toMillis(time);
+        if (state == State.ASYNC && timeout > 0) {
+            asyncContext.setTimeout(timeout);
+        }
+        // wake up a waiting container thread to recalculate its deadline
+        notifyAll();
+    }
+
+    public synchronized boolean isSuspended() {
+        return state == State.SUSPENDED || state == State.ASYNC;
+    }
+
+    public synchronized boolean isDone() {
+        return state == State.RESUMED || state == State.DONE;
+    }
+
+    /**
+     * Called on the container thread when the request handlers chain has
+     * finished. If the request is already resumed, or the container does not
+     * support asynchronous processing, the result is applied to the message
+     * context so the response handlers chain can continue on the container
+     * thread.
+     *
+     * @return true if the container thread was released, false if the
+     *         response handlers chain should run on the container thread
+     * @throws Throwable the exception the request was resumed with
+     */
+    boolean startAsync() throws Throwable {
+        synchronized (this) {
+            if (state == State.SUSPENDED && isAsyncSupported()) {
+                asyncContext = request.startAsync();
+                if (timeout > 0) {
+                    asyncContext.setTimeout(timeout);
+                }
+                asyncContext.addListener(new Listener());
+                state = State.ASYNC;
+                return true;
+            }
+            // never block the container thread without a deadline
+            long start = System.currentTimeMillis();
+            while (state == State.SUSPENDED) {
+                long wait = (timeout > 0) ? timeout : DEFAULT_BLOCKING_TIMEOUT;
+                long remaining = start + wait - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (state == State.SUSPENDED) {
+                logTimeout();
+                result = new WebApplicationException(Status.SERVICE_UNAVAILABLE);
+                failed = true;
+            }
+            state = State.DONE;
+        }
+        if (failed) {
+            throw (Throwable)result;
+        }
+        msgContext.setResponseEntity(result);
+        return false;
+    }
+
+    /**
+     * Called if the request handlers chain failed after the request was
+     * suspended, so that later calls to resume have no effect
+     */
+    synchronized void cancel() {
+        state = State.DONE;
+        notifyAll();
+    }
+
+    private boolean resume(Object result, boolean failed) {
+        synchronized (this) {
+            if (state == State.SUSPENDED) {
+                this.result = result;
+                this.failed = failed;
+                state = State.RESUMED;
+                notifyAll();
+                return true;
+            }
+            if (state != State.ASYNC) {
+                return false;
+            }
+            state = State.DONE;
+        }
+        complete(result, failed);
+        return true;
+    }
+
+    private void complete(Object result, boolean failed) {
+        RuntimeContext saved = RuntimeContextTLS.getRuntimeContext();
+        RuntimeContextTLS.setRuntimeContext(msgContext);
+        try {
+            if (failed) {
+                processor.handleException((Throwable)result, request, response, false);
+            } else {
+                msgContext.setResponseEntity(result);
+                processor.handleResponse(request, response, msgContext);
+            }
+        } catch (Throwable t) {
+            // there is no container thread to propagate the exception to
+            logger.error(Messages.getMessage("unhandledExceptionOnResume"), t); //$NON-NLS-1$
+            if (!response.isCommitted()) {
+                try {
+                    response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                } catch (IOException e) {
+                    logger.trace("Could not send the error response", e); //$NON-NLS-1$
+                }
+            }
+        } finally {
+            RuntimeContextTLS.setRuntimeContext(saved);
+            asyncContext.complete();
+        }
+    }
+
+    private boolean isAsyncSupported() {
+        try {
+            return request.isAsyncSupported();
+        } catch (IncompatibleClassChangeError e) {
+            // the request was created by a pre Servlet 3.0 container
+            return false;
+        }
+    }
+
+    private void logTimeout() {
+        if (logger.isDebugEnabled()) {
+            logger.debug(Messages.getMessage("asyncRequestTimedOut", //$NON-NLS-1$
+                                             request.getMethod(),
+                                             request.getRequestURL()));
+        }
+    }
+
+    private class Listener implements AsyncListener {
+
+        public void onTimeout(AsyncEvent event) throws IOException {
+            logTimeout();
+            resume(new WebApplicationException(Status.SERVICE_UNAVAILABLE), true);
+        }
+
+        public void onError(AsyncEvent event) throws IOException {
+            logger.trace("Suspended request failed", event.getThrowable()); //$NON-NLS-1$
+            cancel();
+        }
+
+        public void onComplete(AsyncEvent event) throws IOException {
+        }
+
+        public void onStartAsync(AsyncEvent event) throws IOException {
+        }
+    }
+}
@@ -48,7 +48,9 @@ import org.apache.wink.common.internal.lifecycle.ObjectFactory;
 import org.apache.wink.common.internal.lifecycle.ScopeLifecycleManager;
 import org.apache.wink.common.internal.registry.InjectableFactory;
 import org.apache.wink.common.internal.registry.ProvidersRegistry;
+import org.apache.wink.common.internal.registry.metadata.MetadataIndex;
 import org.apache.wink.common.internal.utils.FileLoader;
+import org.apache.wink.common.internal.utils.ManagedCaches;
 import org.apache.wink.server.handlers.Handler;
 import org.apache.wink.server.handlers.HandlersFactory;
 import org.apache.wink.server.handlers.MediaTypeMapperFactory;
@@ -56,6 +58,8 @@ import org.apache.wink.server.handlers.RequestHandler;
 import org.apache.wink.server.handlers.RequestHandlersChain;
 import org.apache.wink.server.handlers.ResponseHandler;
 import org.apache.wink.server.handlers.ResponseHandlersChain;
+import org.apache.wink.server.internal.accesslog.AccessLog;
+import org.apache.wink.server.internal.accesslog.AccessLogHandler;
 import org.apache.wink.server.internal.application.ApplicationProcessor;
 import org.apache.wink.server.internal.handlers.CheckLocationHeaderHandler;
 import org.apache.wink.server.internal.handlers.CreateInvocationParametersHandler;
@@ -74,6 +78,10 @@ import org.apache.wink.server.internal.log.ResourceInvocation;
 import org.apache.wink.server.internal.log.Responses;
 import org.apache.wink.server.internal.registry.ResourceRegistry;
 import org.apache.wink.server.internal.registry.ServerInjectableFactory;
+import org.apache.wink.server.internal.timing.RequestPhase;
+import org.apache.wink.server.internal.timing.RequestTimings;
+import org.apache.wink.server.internal.timing.TimedRequestHandler;
+import org.apache.wink.server.internal.timing.TimedResponseHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -104,6 +112,14 @@ public class DeploymentConfiguration implements WinkConfiguration {
                                                                               "wink.response.defaultCharset";                // $NON-NLS-1$
     private static final String       USE_ACCEPT_CHARSET                  =
                                                                               "wink.response.useAcceptCharset";              // $NON-NLS-1$
+    private static final String       REQUEST_TIMINGS                     =
+                                                                              "wink.requestTimings";                         //$NON-NLS-1$
+    private static final String       CACHE_STATISTICS                    =
+                                                                              "wink.cacheStatistics";                        //$NON-NLS-1$
+    private static final String       METADATA_INDEX                      =
+                                                                              "wink.metadataIndex";                          //$NON-NLS-1$
+    private static final String       FILL_STATUS_EXCEPTION_STACK_TRACE   =
+                                                                              "wink.fillStatusExceptionStackTrace";          //$NON-NLS-1$
     // handler chains
     private boolean                   isChainInitialized                  = false;
     private RequestHandlersChain      requestHandlersChain;
@@ -138,6 +154,12 @@ public class DeploymentConfiguration implements WinkConfiguration {
 
     private Set<ObjectFactory<?>>     appObjectFactories;
 
+    private RequestTimings            requestTimings;
+    private AccessLog                 accessLog;
+    private MetadataIndex             metadataIndex;
+
+    private boolean                   isCacheStatistics                   = false;
+
     private boolean                   isUseAcceptCharset                  = false;
 
     private boolean                   isDefaultResponseCharset            = false;
@@ -167,6 +189,10 @@ public class DeploymentConfiguration implements WinkConfiguration {
         initAlternateShortcutMap();
         initMediaTypeMapper();
         initHandlers();
+        initRequestTimings();
+        initCacheStatistics();
+        initStatusExceptions();
+        initAccessLog();
 
         // this next code is to dump the config to trace after initialization
         if (logger.isDebugEnabled()) {
@@ -332,12 +358,44 @@ public class DeploymentConfiguration implements WinkConfiguration {
         return errorUserHandlers;
     }
 
+    /**
+     * @return the per resource method timings of the request phases, or null
+     *         if the <tt>wink.requestTimings</tt> property is not set
+     */
+    public RequestTimings getRequestTimings() {
+        return requestTimings;
+    }
+
+    /**
+     * @return the access log, or null if the <tt>wink.accessLog</tt> property
+     *         is not set
+     */
+    public AccessLog getAccessLog() {
+        return accessLog;
+    }
+
+    /**
+     * @return true if the <tt>wink.cacheStatistics</tt> property is set, in
+     *         which case the caches keep statistics and are registered as
+     *         MBeans
+     */
+    public boolean isCacheStatistics() {
+        return isCacheStatistics;
+    }
+
     public void addApplication(Application application, boolean isSystemApplication) {
         if (applications == null) {
             applications = new ArrayList<Application>(1);
         }
-        new ApplicationProcessor(application, resourceRegistry, providersRegistry,
-                                 isSystemApplication).process();
+        // the metadata collectors use the index of this deployment only
+        MetadataIndex previous = MetadataIndex.getCurrent();
+        MetadataIndex.setCurrent(metadataIndex);
+        try {
+            new ApplicationProcessor(application, resourceRegistry, providersRegistry,
+                                     isSystemApplication).process();
+        } finally {
+            MetadataIndex.setCurrent(previous);
+        }
         applications.add(application);
     }
 
@@ -354,6 +412,7 @@ public class DeploymentConfiguration implements WinkConfiguration {
      */
     protected void initRegistries() {
         InjectableFactory.setInstance(new ServerInjectableFactory());
+        initMetadataIndex();
         if (ofFactoryRegistry == null) {
             ofFactoryRegistry = new LifecycleManagersRegistry();
             ofFactoryRegistry.addFactoryFactory(new ScopeLifecycleManager<Object>());
@@ -365,6 +424,40 @@ public class DeploymentConfiguration implements WinkConfiguration {
             new ResourceRegistry(ofFactoryRegistry, applicationValidator, properties);
     }
 
+    /**
+     * Loads the build time metadata index of the application classes, unless
+     * it is disabled with the <tt>wink.metadataIndex</tt> property. The index
+     * belongs to this deployment and is loaded from the class loader of the
+     * application.
+     */
+    protected void initMetadataIndex() {
+        metadataIndex = null;
+        if (Boolean.parseBoolean(properties.getProperty(METADATA_INDEX))) {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader == null) {
+                classLoader = DeploymentConfiguration.class.getClassLoader();
+            }
+            try {
+                MetadataIndex index = MetadataIndex.load(classLoader);
+                if (index.size() > 0) {
+                    logger.trace("Using the metadata index of {} classes", index.size()); //$NON-NLS-1$
+                    metadataIndex = index;
+                }
+            } catch (IOException e) {
+                logger.warn(Messages.getMessage("metadataIndexNotLoaded"), e); //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * @return the build time metadata index of this deployment, or null if
+     *         the metadata of the application classes is collected
+     *         reflectively
+     */
+    public MetadataIndex getMetadataIndex() {
+        return metadataIndex;
+    }
+
     /**
      * Initializes the AlternateShortcutMap. Override this method in order to
      * provide a custom AlternateShortcutMap.
@@ -492,6 +585,61 @@ public class DeploymentConfiguration implements WinkConfiguration {
 
     }
 
+    /**
+     * Initializes the request timings if they are enabled, and registers them
+     * as an MBean. When the timings are disabled the handlers chains are built
+     * without the timing wrappers.
+     */
+    protected void initRequestTimings() {
+        if (requestTimings == null
+            && Boolean.parseBoolean(properties.getProperty(REQUEST_TIMINGS))) {
+            requestTimings = new RequestTimings();
+            String name = null;
+            if (servletConfig != null) {
+                name = servletConfig.getServletName();
+            } else if (filterConfig != null) {
+                name = filterConfig.getFilterName();
+            }
+            requestTimings.register(name);
+        }
+    }
+
+    /**
+     * Enables the statistics and the MBeans of the caches if the
+     * <tt>wink.cacheStatistics</tt> property is set. The caches are shared by
+     * all the applications, so they are released by the last application
+     * that is destroyed.
+     */
+    protected void initCacheStatistics() {
+        if (!isCacheStatistics && Boolean.parseBoolean(properties.getProperty(CACHE_STATISTICS))) {
+            ManagedCaches.enable();
+            isCacheStatistics = true;
+        }
+    }
+
+    /**
+     * Sets whether the {@link StatusWebApplicationException}s that the runtime
+     * throws fill their stack trace, according to the
+     * <tt>wink.fillStatusExceptionStackTrace</tt> property. The setting is
+     * shared by all the applications of the class loader.
+     */
+    protected void initStatusExceptions() {
+        String val = properties.getProperty(FILL_STATUS_EXCEPTION_STACK_TRACE);
+        if (val != null) {
+            StatusWebApplicationException.setFillStackTrace(Boolean.parseBoolean(val));
+        }
+    }
+
+    /**
+     * Creates the access log if the <tt>wink.accessLog</tt> property is set.
+     * The access log handler is then added first to the handlers chains.
+     */
+    protected void initAccessLog() {
+        if (accessLog == null) {
+            accessLog = AccessLog.create(properties);
+        }
+    }
+
     private void initHandlersChain() {
         if (requestHandlersChain == null) {
             requestHandlersChain = initRequestHandlersChain();
@@ -516,6 +664,9 @@ public class DeploymentConfiguration implements WinkConfiguration {
     @SuppressWarnings("unchecked")
     protected RequestHandlersChain initRequestHandlersChain() {
         RequestHandlersChain handlersChain = new RequestHandlersChain();
+        if (accessLog != null) {
+            handlersChain.addHandler(new AccessLogHandler(accessLog));
+        }
         handlersChain.addHandler(createHandler(Requests.class));
         handlersChain.addHandler(createHandler(ResourceInvocation.class));
         handlersChain.addHandler(createHandler(SearchResultHandler.class));
@@ -535,16 +686,20 @@ public class DeploymentConfiguration implements WinkConfiguration {
         }
 
         handlersChain.addHandler(createHandler(HeadMethodHandler.class));
-        handlersChain.addHandler(createHandler(FindRootResourceHandler.class));
-        handlersChain.addHandler(createHandler(FindResourceMethodHandler.class));
-        handlersChain.addHandler(createHandler(CreateInvocationParametersHandler.class));
+        handlersChain.addHandler(timedRequestHandler(createHandler(FindRootResourceHandler.class),
+                                                     RequestPhase.ROOT_RESOURCE_MATCH));
+        handlersChain.addHandler(timedRequestHandler(createHandler(FindResourceMethodHandler.class),
+                                                     RequestPhase.METHOD_MATCH));
+        handlersChain.addHandler(timedRequestHandler(createHandler(CreateInvocationParametersHandler.class),
+                                                     RequestPhase.PARAMETER_CREATION));
         if (requestUserHandlers != null) {
             for (RequestHandler h : requestUserHandlers) {
                 h.init(properties);
                 handlersChain.addHandler(h);
             }
         }
-        handlersChain.addHandler(createHandler(InvokeMethodHandler.class));
+        handlersChain.addHandler(timedRequestHandler(createHandler(InvokeMethodHandler.class),
+                                                     RequestPhase.INVOCATION));
         logger.trace("Request handlers chain is: {}", handlersChain); //$NON-NLS-1$
         return handlersChain;
     }
@@ -594,9 +749,13 @@ public class DeploymentConfiguration implements WinkConfiguration {
      */
     protected ResponseHandlersChain initResponseHandlersChain() {
         ResponseHandlersChain handlersChain = new ResponseHandlersChain();
+        if (accessLog != null) {
+            handlersChain.addHandler(new AccessLogHandler(accessLog));
+        }
         handlersChain.addHandler(createHandler(Responses.class));
         handlersChain.addHandler(createHandler(PopulateResponseStatusHandler.class));
-        handlersChain.addHandler(createHandler(PopulateResponseMediaTypeHandler.class));
+        handlersChain.addHandler(timedResponseHandler(createHandler(PopulateResponseMediaTypeHandler.class),
+                                                      RequestPhase.MEDIA_TYPE_NEGOTIATION));
         if (responseUserHandlers != null) {
             for (ResponseHandler h : responseUserHandlers) {
                 h.init(properties);
@@ -616,6 +775,9 @@ public class DeploymentConfiguration implements WinkConfiguration {
      */
     protected ResponseHandlersChain initErrorHandlersChain() {
         ResponseHandlersChain handlersChain = new ResponseHandlersChain();
+        if (accessLog != null) {
+            handlersChain.addHandler(new AccessLogHandler(accessLog));
+        }
 
         Responses responsesHandler = createHandler(Responses.class);
         responsesHandler.setIsErrorFlow(true);
@@ -626,7 +788,8 @@ public class DeploymentConfiguration implements WinkConfiguration {
         PopulateResponseMediaTypeHandler populateMediaTypeHandler =
             createHandler(PopulateResponseMediaTypeHandler.class);
         populateMediaTypeHandler.setErrorFlow(true);
-        handlersChain.addHandler(populateMediaTypeHandler);
+        handlersChain.addHandler(timedResponseHandler(populateMediaTypeHandler,
+                                                      RequestPhase.MEDIA_TYPE_NEGOTIATION));
         if (errorUserHandlers != null) {
             for (ResponseHandler h : errorUserHandlers) {
                 h.init(properties);
@@ -651,6 +814,28 @@ public class DeploymentConfiguration implements WinkConfiguration {
         }
     }
 
+    /**
+     * Wraps a request handler so that its time is accounted to the specified
+     * phase. Returns the handler as is if the request timings are disabled.
+     */
+    protected RequestHandler timedRequestHandler(RequestHandler handler, RequestPhase phase) {
+        if (requestTimings == null) {
+            return handler;
+        }
+        return new TimedRequestHandler(handler, phase);
+    }
+
+    /**
+     * Wraps a response handler so that its time is accounted to the specified
+     * phase. Returns the handler as is if the request timings are disabled.
+     */
+    protected ResponseHandler timedResponseHandler(ResponseHandler handler, RequestPhase phase) {
+        if (requestTimings == null) {
+            return handler;
+        }
+        return new TimedResponseHandler(handler, phase);
+    }
+
     public void setHttpMethodOverrideHeaders(String[] httpMethodOverrideHeaders) {
         this.httpMethodOverrideHeaders = httpMethodOverrideHeaders;
         if (logger.isTraceEnabled()) {
@@ -47,6 +47,8 @@ import org.apache.wink.server.internal.registry.ResourceRecord;
 import org.apache.wink.server.internal.registry.ResourceRegistry;
 import org.apache.wink.server.internal.resources.HtmlServiceDocumentResource;
 import org.apache.wink.server.internal.resources.RootResource;
+import org.apache.wink.server.internal.timing.RequestTimer;
+import org.apache.wink.server.internal.timing.RequestTimings;
 import org.apache.wink.server.utils.RegistrationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -198,13 +200,49 @@ public class RequestProcessor {
 
     private void handleRequestWithoutFaultBarrier(HttpServletRequest request,
                                                   HttpServletResponse response) throws Throwable {
+        try {
+            ServerMessageContext msgContext = null;
+            try {
+                msgContext = createMessageContext(request, response);
+                RuntimeContextTLS.setRuntimeContext(msgContext);
+                logger.trace("Set message context and starting request handlers chain: {}", msgContext); //$NON-NLS-1$
+                // run the request handler chain
+                configuration.getRequestHandlersChain().run(msgContext);
+                AsyncResponseImpl asyncResponse = msgContext.getAttribute(AsyncResponseImpl.class);
+                if (asyncResponse != null && asyncResponse.startAsync()) {
+                    // the response handlers chain is run by the thread that
+                    // resumes the request
+                    logger.trace("Request suspended, releasing the container thread: {}", //$NON-NLS-1$
+                                 msgContext);
+                    return;
+                }
+            } catch (Throwable t) {
+                if (msgContext != null) {
+                    AsyncResponseImpl asyncResponse =
+                        msgContext.getAttribute(AsyncResponseImpl.class);
+                    if (asyncResponse != null) {
+                        asyncResponse.cancel();
+                    }
+                }
+                handleException(t, request, response, false);
+                return;
+            }
+            handleResponse(request, response, msgContext);
+        } finally {
+            logger.trace("Finished response handlers chain"); //$NON-NLS-1$
+            RuntimeContextTLS.setRuntimeContext(null);
+        }
+    }
+
+    /**
+     * Runs the response handlers chain and releases the resource instances.
+     * The message context must be set on the {@link RuntimeContextTLS}.
+     */
+    void handleResponse(HttpServletRequest request,
+                        HttpServletResponse response,
+                        ServerMessageContext msgContext) throws Throwable {
         boolean isReleaseResourcesCalled = false;
         try {
-            ServerMessageContext msgContext = createMessageContext(request, response);
-            RuntimeContextTLS.setRuntimeContext(msgContext);
-            logger.trace("Set message context and starting request handlers chain: {}", msgContext); //$NON-NLS-1$
-            // run the request handler chain
-            configuration.getRequestHandlersChain().run(msgContext);
             logger
                 .trace("Finished request handlers chain and starting response handlers chain: {}", //$NON-NLS-1$
                        msgContext);
@@ -220,41 +258,73 @@ public class RequestProcessor {
                 throw e;
             }
         } catch (Throwable t) {
-            RuntimeContext originalContext = RuntimeContextTLS.getRuntimeContext();
-            ServerMessageContext msgContext = null;
-            try {
-                logException(t, request);
-                msgContext = createMessageContext(request, response);
-                RuntimeContextTLS.setRuntimeContext(msgContext);
-                msgContext.setResponseEntity(t);
-                // run the error handler chain
-                logger.trace("Exception occured, starting error handlers chain: {}", msgContext); //$NON-NLS-1$
-                configuration.getErrorHandlersChain().run(msgContext);
+            handleException(t, request, response, isReleaseResourcesCalled);
+        } finally {
+            commitTimer(msgContext);
+        }
+    }
 
-                RuntimeContextTLS.setRuntimeContext(originalContext);
-                if (!isReleaseResourcesCalled) {
-                    isReleaseResourcesCalled = true;
-                    try {
-                        releaseResources(originalContext);
-                    } catch (Exception e2) {
-                        logger.trace("Caught exception when releasing resource object", e2);
-                    }
+    /**
+     * Runs the error handlers chain for an exception that occurred while
+     * processing the request whose message context is set on the
+     * {@link RuntimeContextTLS}.
+     */
+    void handleException(Throwable t,
+                         HttpServletRequest request,
+                         HttpServletResponse response,
+                         boolean isReleaseResourcesCalled) throws Throwable {
+        RuntimeContext originalContext = RuntimeContextTLS.getRuntimeContext();
+        ServerMessageContext msgContext = null;
+        try {
+            logException(t, request);
+            msgContext = createMessageContext(request, response);
+            RequestTimer timer =
+                (originalContext != null) ? originalContext.getAttribute(RequestTimer.class) : null;
+            if (timer != null) {
+                // keep timing the phases of the original request
+                msgContext.setAttribute(RequestTimer.class, timer);
+            }
+            RuntimeContextTLS.setRuntimeContext(msgContext);
+            msgContext.setResponseEntity(t);
+            // run the error handler chain
+            logger.trace("Exception occured, starting error handlers chain: {}", msgContext); //$NON-NLS-1$
+            configuration.getErrorHandlersChain().run(msgContext);
+
+            RuntimeContextTLS.setRuntimeContext(originalContext);
+            if (!isReleaseResourcesCalled) {
+                isReleaseResourcesCalled = true;
+                try {
+                    releaseResources(originalContext);
+                } catch (Exception e2) {
+                    logger.trace("Caught exception when releasing resource object", e2);
                 }
-            } catch (Exception e) {
-                RuntimeContextTLS.setRuntimeContext(originalContext);
-                if (!isReleaseResourcesCalled) {
-                    isReleaseResourcesCalled = true;
-                    try {
-                        releaseResources(originalContext);
-                    } catch (Exception e2) {
-                        logger.trace("Caught exception when releasing resource object", e2);
-                    }
+            }
+        } catch (Exception e) {
+            RuntimeContextTLS.setRuntimeContext(originalContext);
+            if (!isReleaseResourcesCalled) {
+                isReleaseResourcesCalled = true;
+                try {
+                    releaseResources(originalContext);
+                } catch (Exception e2) {
+                    logger.trace("Caught exception when releasing resource object", e2);
                 }
-                throw e;
             }
+            throw e;
         } finally {
-            logger.trace("Finished response handlers chain"); //$NON-NLS-1$
-            RuntimeContextTLS.setRuntimeContext(null);
+            commitTimer(originalContext);
+        }
+    }
+
+    /**
+     * Records the phase timings of a finished request, if they are enabled
+     */
+    private void commitTimer(RuntimeContext msgContext) {
+        if (msgContext == null) {
+            return;
+        }
+        RequestTimer timer = msgContext.getAttribute(RequestTimer.class);
+        if (timer != null) {
+            timer.commit(msgContext.getAttribute(SearchResult.class));
         }
     }
 
@@ -302,9 +372,14 @@ public class RequestProcessor {
                 statusMessage = status.toString();
             }
 
+            // the runtime's own status exceptions are logged as plain
+            // WebApplicationExceptions
+            Class<?> exceptionClass =
+                (t instanceof StatusWebApplicationException) ? WebApplicationException.class : t
+                    .getClass();
             String exceptionName =
                 String
-                    .format("%s (%d%s%s)", t.getClass().getSimpleName(), statusCode, statusSep, statusMessage); //$NON-NLS-1$
+                    .format("%s (%d%s%s)", exceptionClass.getSimpleName(), statusCode, statusSep, statusMessage); //$NON-NLS-1$
             messageFormat =
                 Messages
                     .getMessage("exceptionOccurredDuringInvocation", exceptionName, wae.getMessage(), requestMethod, requestString); //$NON-NLS-1$
@@ -336,6 +411,11 @@ public class RequestProcessor {
                                                       HttpServletResponse response) {
         ServerMessageContext messageContext =
             new ServerMessageContext(request, response, configuration);
+        messageContext.setAttribute(RequestProcessor.class, this);
+        RequestTimings requestTimings = configuration.getRequestTimings();
+        if (requestTimings != null) {
+            messageContext.setAttribute(RequestTimer.class, new RequestTimer(requestTimings));
+        }
         return messageContext;
     }
 
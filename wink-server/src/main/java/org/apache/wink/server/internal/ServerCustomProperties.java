@@ -31,7 +31,21 @@ public enum ServerCustomProperties {
      * {@link Produces} values.
      */
     STRICT_INTERPRET_CONSUMES_PRODUCES_SPEC_CUSTOM_PROPERTY(
-        "org.apache.wink.server.resources.strictInterpretConsumesAndProduces", "true");
+        "org.apache.wink.server.resources.strictInterpretConsumesAndProduces", "true"),
+
+    /**
+     * The number of threads that collect the metadata of the resources of an
+     * application when it is registered. 1 collects the metadata on the
+     * deploying thread, 0 uses one thread per available processor.
+     */
+    RESOURCE_REGISTRATION_THREADS_CUSTOM_PROPERTY("wink.registrationThreads", "1"),
+
+    /**
+     * Register only the uri template of resource classes, and collect the rest
+     * of their metadata and create their object factory when the first
+     * request matches them.
+     */
+    LAZY_RESOURCE_INITIALIZATION_CUSTOM_PROPERTY("wink.lazyResourceInitialization", "false");
 
     final private String propertyName;
     final private String defaultValue;
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+/**
+ * A WebApplicationException that the runtime throws to respond with an error
+ * status, for example when no resource matches the request. These exceptions
+ * are usually mapped to a response and never logged, so their stack trace is
+ * not filled if the <tt>wink.fillStatusExceptionStackTrace</tt> property is
+ * false.
+ */
+public class StatusWebApplicationException extends WebApplicationException {
+
+    private static final long       serialVersionUID = -3312939624823385437L;
+
+    private static volatile boolean fillStackTrace   = true;
+
+    public StatusWebApplicationException(Status status) {
+        super(status);
+    }
+
+    public StatusWebApplicationException(int status) {
+        super(status);
+    }
+
+    public StatusWebApplicationException(Response response) {
+        super(response);
+    }
+
+    /**
+     * Set whether the stack trace of new exceptions is filled. The setting is
+     * shared by all the applications of the class loader.
+     */
+    public static void setFillStackTrace(boolean fillStackTrace) {
+        StatusWebApplicationException.fillStackTrace = fillStackTrace;
+    }
+
+    public static boolean isFillStackTrace() {
+        return fillStackTrace;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        if (fillStackTrace) {
+            return super.fillInStackTrace();
+        }
+        return this;
+    }
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.wink.common.internal.i18n.Messages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The access log of an application. The {@link AccessLogHandler}s fill the
+ * entries of the {@link AccessLogBuffer}, and a daemon thread drains them in
+ * batches to the {@link AccessLogSink}.
+ * <p>
+ * The access log is configured with the <tt>wink.accessLog</tt> property,
+ * which is one of <tt>none</tt>, <tt>slf4j</tt>, <tt>file</tt>,
+ * <tt>socket</tt> or the name of an {@link AccessLogSink} class, and the
+ * <tt>wink.accessLog.bufferSize</tt> property.
+ */
+public class AccessLog {
+
+    public static final String  SINK_PROPERTY        = "wink.accessLog";            //$NON-NLS-1$
+    public static final String  BUFFER_SIZE_PROPERTY = "wink.accessLog.bufferSize"; //$NON-NLS-1$
+
+    private static final Logger logger               = LoggerFactory.getLogger(AccessLog.class);
+
+    private static final int    BATCH_SIZE           = 256;
+    private static final long   IDLE_NANOS           = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final AccessLogBuffer buffer;
+    private final AccessLogSink   sink;
+    private final Drainer         drainer;
+    private volatile boolean      running            = true;
+
+    public AccessLog(AccessLogBuffer buffer, AccessLogSink sink) {
+        this.buffer = buffer;
+        this.sink = sink;
+        this.drainer = new Drainer();
+    }
+
+    /**
+     * Create the access log configured by the properties
+     *
+     * @return the access log, or null if it is disabled or its sink could not
+     *         be created
+     */
+    public static AccessLog create(Properties properties) {
+        String sinkName = properties.getProperty(SINK_PROPERTY, "none").trim(); //$NON-NLS-1$
+        if (sinkName.length() == 0 || "none".equals(sinkName)) { //$NON-NLS-1$
+            return null;
+        }
+        try {
+            AccessLogSink sink;
+            if ("slf4j".equals(sinkName)) { //$NON-NLS-1$
+                sink = new Slf4jAccessLogSink();
+            } else if ("file".equals(sinkName)) { //$NON-NLS-1$
+                sink = new FileAccessLogSink();
+            } else if ("socket".equals(sinkName)) { //$NON-NLS-1$
+                sink = new SocketAccessLogSink();
+            } else {
+                sink =
+                    (AccessLogSink)Class.forName(sinkName, true,
+                                                 Thread.currentThread().getContextClassLoader())
+                        .newInstance();
+            }
+            sink.init(properties);
+            int bufferSize =
+                Integer.parseInt(properties.getProperty(BUFFER_SIZE_PROPERTY, "8192")); //$NON-NLS-1$
+            AccessLog accessLog = new AccessLog(new AccessLogBuffer(bufferSize), sink);
+            accessLog.start();
+            return accessLog;
+        } catch (Exception e) {
+            logger.error(Messages.getMessage("accessLogNotCreated", sinkName), e); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    public AccessLogBuffer getBuffer() {
+        return buffer;
+    }
+
+    public AccessLogSink getSink() {
+        return sink;
+    }
+
+    public void start() {
+        drainer.start();
+    }
+
+    /**
+     * Write the pending entries and close the sink
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class Drainer extends Thread {
+
+        private final List<AccessLogEntry> batch    = new ArrayList<AccessLogEntry>(BATCH_SIZE);
+        private long                       reported = 0;
+
+        Drainer() {
+            super("Wink access log"); //$NON-NLS-1$
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    int count = buffer.drain(batch, BATCH_SIZE);
+                    if (count == 0) {
+                        if (!running) {
+                            break;
+                        }
+                        reportDropped();
+                        LockSupport.parkNanos(IDLE_NANOS);
+                        continue;
+                    }
+                    try {
+                        sink.write(batch);
+                    } catch (Throwable t) {
+                        logger.warn(Messages.getMessage("accessLogWriteFailed", count), t); //$NON-NLS-1$
+                    } finally {
+                        batch.clear();
+                        buffer.release(count);
+                    }
+                }
+                reportDropped();
+            } finally {
+                try {
+                    sink.close();
+                } catch (Throwable t) {
+                    logger.trace("Could not close the access log sink", t); //$NON-NLS-1$
+                }
+            }
+        }
+
+        private void reportDropped() {
+            long dropped = buffer.getDroppedCount();
+            if (dropped != reported) {
+                logger.warn(Messages.getMessage("accessLogEntriesDropped", dropped - reported)); //$NON-NLS-1$
+                reported = dropped;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded ring of preallocated {@link AccessLogEntry}s, written by the
+ * request threads and drained by a single thread.
+ * <p>
+ * A request thread claims the next free entry with a compare-and-set, fills
+ * it and publishes it. If the ring is full the entry is dropped and counted,
+ * so a request never waits for the drain thread. The drain thread takes the
+ * published entries in order and releases them once they were written.
+ */
+public class AccessLogBuffer {
+
+    private final AccessLogEntry[] entries;
+    private final int              mask;
+    // the next sequence to claim
+    private final AtomicLong       tail    = new AtomicLong();
+    // the next sequence to drain, written by the drain thread only
+    private volatile long          head;
+    private final AtomicLong       dropped = new AtomicLong();
+
+    /**
+     * @param capacity the number of entries, rounded up to a power of two
+     */
+    public AccessLogBuffer(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        entries = new AccessLogEntry[size];
+        for (int i = 0; i < size; ++i) {
+            entries[i] = new AccessLogEntry();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Claim an entry. The caller must publish the entry, even if it fails to
+     * fill it.
+     *
+     * @return the entry to fill, or null if the buffer is full
+     */
+    public AccessLogEntry claim() {
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head >= entries.length) {
+                dropped.incrementAndGet();
+                return null;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                AccessLogEntry entry = entries[(int)sequence & mask];
+                entry.reset(sequence);
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Make a claimed entry visible to the drain thread
+     */
+    public void publish(AccessLogEntry entry) {
+        entry.published = entry.claimed + 1;
+    }
+
+    /**
+     * Add the published entries that follow the last drained entry to the
+     * batch, stopping at the first entry that is not published yet. The
+     * entries stay in use until they are released.
+     *
+     * @return the number of entries added
+     */
+    int drain(List<AccessLogEntry> batch, int max) {
+        long sequence = head;
+        int count = 0;
+        while (count < max) {
+            AccessLogEntry entry = entries[(int)(sequence + count) & mask];
+            if (entry.published != sequence + count + 1) {
+                break;
+            }
+            batch.add(entry);
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Release the specified number of drained entries for reuse
+     */
+    void release(int count) {
+        head = head + count;
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * @return the number of entries waiting to be drained
+     */
+    public int size() {
+        return (int)(tail.get() - head);
+    }
+
+    /**
+     * @return the number of entries that were dropped because the buffer was
+     *         full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
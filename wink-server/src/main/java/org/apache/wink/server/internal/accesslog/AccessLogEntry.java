@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import javax.ws.rs.core.MediaType;
+
+import org.apache.wink.server.internal.timing.RequestPhase;
+
+/**
+ * An entry of the access log. The entries are preallocated by the
+ * {@link AccessLogBuffer} and reused, so a sink must not keep a reference to
+ * an entry after {@link AccessLogSink#write(java.util.List)} returns.
+ * <p>
+ * The request thread only copies references into the entry; the uri template
+ * and the text of the entry are built by the thread that drains the buffer.
+ */
+public class AccessLogEntry {
+
+    private static final RequestPhase[] PHASES    = RequestPhase.values();
+
+    // the sequence the entry was claimed for, written by the request thread
+    long                                claimed;
+    // the claimed sequence + 1 once the entry is filled
+    volatile long                       published;
+
+    private long                        timestamp;
+    private String                      httpMethod;
+    private String                      requestUri;
+    private String                      resourceTemplate;
+    private String                      methodTemplate;
+    private int                         status;
+    private long                        bytes;
+    private MediaType                   mediaType;
+    private long                        duration;
+    private final long[]                phases    = new long[PHASES.length];
+    private int                         recorded;
+
+    AccessLogEntry() {
+    }
+
+    void reset(long sequence) {
+        claimed = sequence;
+        timestamp = 0;
+        httpMethod = null;
+        requestUri = null;
+        resourceTemplate = null;
+        methodTemplate = null;
+        status = 0;
+        bytes = -1;
+        mediaType = null;
+        duration = -1;
+        recorded = 0;
+    }
+
+    /**
+     * @return the time the response was finished, in milliseconds since the
+     *         epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    void setHttpMethod(String httpMethod) {
+        this.httpMethod = httpMethod;
+    }
+
+    /**
+     * @return the request uri, without the query string
+     */
+    public String getRequestUri() {
+        return requestUri;
+    }
+
+    void setRequestUri(String requestUri) {
+        this.requestUri = requestUri;
+    }
+
+    void setTemplates(String resourceTemplate, String methodTemplate) {
+        this.resourceTemplate = resourceTemplate;
+        this.methodTemplate = methodTemplate;
+    }
+
+    /**
+     * @return the uri template of the root resource that matched the request,
+     *         followed by the template of the sub-resource method if any, or
+     *         null if no resource matched
+     */
+    public String getUriTemplate() {
+        if (resourceTemplate == null || methodTemplate == null) {
+            return resourceTemplate;
+        }
+        StringBuilder sb = new StringBuilder(resourceTemplate);
+        if (!resourceTemplate.endsWith("/") && !methodTemplate.startsWith("/")) { //$NON-NLS-1$ //$NON-NLS-2$
+            sb.append('/');
+        }
+        return sb.append(methodTemplate).toString();
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the number of bytes of the response entity, or -1 if they were
+     *         not counted
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return the negotiated media type of the response, or null
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    void setMediaType(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return the duration of the request in nanoseconds, or -1 if unknown
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * @return true if the duration of the phase was recorded, which requires
+     *         the <tt>wink.requestTimings</tt> property
+     */
+    public boolean isRecorded(RequestPhase phase) {
+        return (recorded & (1 << phase.ordinal())) != 0;
+    }
+
+    /**
+     * @return the duration of the phase in nanoseconds
+     */
+    public long getPhaseDuration(RequestPhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    void setPhaseDuration(RequestPhase phase, long nanos) {
+        phases[phase.ordinal()] = nanos;
+        recorded |= 1 << phase.ordinal();
+    }
+
+    /**
+     * Append the entry as a single line, without the line separator. The
+     * fields are separated by spaces, missing fields are written as "-" and
+     * the durations are in microseconds.
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        sb.append(timestamp).append(' ');
+        append(sb, httpMethod).append(' ');
+        append(sb, requestUri).append(' ');
+        append(sb, getUriTemplate()).append(' ');
+        sb.append(status).append(' ');
+        if (bytes < 0) {
+            sb.append('-');
+        } else {
+            sb.append(bytes);
+        }
+        sb.append(' ');
+        append(sb, mediaType).append(' ');
+        if (duration < 0) {
+            sb.append('-');
+        } else {
+            sb.append(duration / 1000);
+        }
+        for (RequestPhase phase : PHASES) {
+            if (isRecorded(phase)) {
+                sb.append(' ').append(phase.name()).append('=').append(getPhaseDuration(phase) / 1000);
+            }
+        }
+        return sb;
+    }
+
+    private static StringBuilder append(StringBuilder sb, Object value) {
+        if (value == null) {
+            return sb.append('-');
+        }
+        return sb.append(value);
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
+    }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.Properties;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.wink.server.handlers.HandlersChain;
+import org.apache.wink.server.handlers.MessageContext;
+import org.apache.wink.server.handlers.RequestHandler;
+import org.apache.wink.server.handlers.ResponseHandler;
+import org.apache.wink.server.internal.handlers.SearchResult;
+import org.apache.wink.server.internal.registry.MethodRecord;
+import org.apache.wink.server.internal.registry.ResourceInstance;
+import org.apache.wink.server.internal.registry.SubResourceInstance;
+import org.apache.wink.server.internal.timing.RequestPhase;
+import org.apache.wink.server.internal.timing.RequestTimer;
+
+/**
+ * Records each request into the {@link AccessLog}. The handler is the first
+ * handler of the request, response and error handlers chains.
+ * <p>
+ * The request handlers chain records the start of the request and its search
+ * result in a request attribute, since the error handlers chain runs with a
+ * new message context. The response handlers chain counts the written bytes
+ * and the status, and fills an entry once the response was written. If the
+ * response handlers chain fails, the error handlers chain fills the entry
+ * instead. Nothing is formatted or written on the request thread.
+ */
+public class AccessLogHandler implements RequestHandler, ResponseHandler {
+
+    private static final String   STATE_ATTRIBUTE = AccessLogHandler.class.getName();
+
+    private static final RequestPhase[] PHASES    = RequestPhase.values();
+
+    private final AccessLogBuffer buffer;
+
+    public AccessLogHandler(AccessLog accessLog) {
+        this.buffer = accessLog.getBuffer();
+    }
+
+    public void init(Properties props) {
+        /* do nothing */
+    }
+
+    public void handleRequest(MessageContext context, HandlersChain chain) throws Throwable {
+        RequestState state = new RequestState();
+        HttpServletRequest request = context.getAttribute(HttpServletRequest.class);
+        request.setAttribute(STATE_ATTRIBUTE, state);
+        try {
+            chain.doChain(context);
+        } finally {
+            state.searchResult = context.getAttribute(SearchResult.class);
+        }
+    }
+
+    public void handleResponse(MessageContext context, HandlersChain chain) throws Throwable {
+        HttpServletResponse response = context.getAttribute(HttpServletResponse.class);
+        CountingResponse countingResponse = new CountingResponse(response);
+        context.setAttribute(HttpServletResponse.class, countingResponse);
+        context.setAttribute(HttpServletResponseWrapper.class, countingResponse);
+        chain.doChain(context);
+        log(context, countingResponse);
+    }
+
+    private void log(MessageContext context, CountingResponse response) {
+        AccessLogEntry entry = buffer.claim();
+        if (entry == null) {
+            return;
+        }
+        try {
+            HttpServletRequest request = context.getAttribute(HttpServletRequest.class);
+            entry.setTimestamp(System.currentTimeMillis());
+            entry.setHttpMethod(request.getMethod());
+            entry.setRequestUri(request.getRequestURI());
+            entry.setStatus(response.status);
+            entry.setBytes(response.bytes);
+            entry.setMediaType(context.getResponseMediaType());
+            Object state = request.getAttribute(STATE_ATTRIBUTE);
+            if (state instanceof RequestState) {
+                entry.setDuration(System.nanoTime() - ((RequestState)state).start);
+                setTemplates(entry, ((RequestState)state).searchResult);
+            }
+            RequestTimer timer = RequestTimer.get(context);
+            if (timer != null) {
+                for (RequestPhase phase : PHASES) {
+                    if (timer.isRecorded(phase)) {
+                        entry.setPhaseDuration(phase, timer.getDuration(phase));
+                    }
+                }
+            }
+        } finally {
+            buffer.publish(entry);
+        }
+    }
+
+    private static void setTemplates(AccessLogEntry entry, SearchResult searchResult) {
+        if (searchResult == null || searchResult.getData() == null) {
+            return;
+        }
+        LinkedList<ResourceInstance> resources = searchResult.getData().getMatchedResources();
+        if (resources.isEmpty()) {
+            return;
+        }
+        // the root resource is the last matched resource
+        ResourceInstance root = resources.getLast();
+        String methodTemplate = null;
+        MethodRecord method = searchResult.getMethod();
+        if (method instanceof SubResourceInstance) {
+            methodTemplate =
+                ((SubResourceInstance)method).getRecord().getTemplateProcessor().getTemplate();
+        }
+        entry.setTemplates(root.getRecord().getTemplateProcessor().getTemplate(), methodTemplate);
+    }
+
+    private static class RequestState {
+        final long   start = System.nanoTime();
+        SearchResult searchResult;
+    }
+
+    /**
+     * Keeps the status and counts the bytes of the response entity
+     */
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        int                         status = HttpServletResponse.SC_OK;
+        long                        bytes  = 0;
+        private ServletOutputStream outputStream;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            status = sc;
+            super.setStatus(sc);
+        }
+
+        @SuppressWarnings("deprecation")
+        @Override
+        public void setStatus(int sc, String sm) {
+            status = sc;
+            super.setStatus(sc, sm);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            status = sc;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            status = sc;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            status = HttpServletResponse.SC_MOVED_TEMPORARILY;
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                final ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        ++bytes;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Writes the batches of access log entries. The sink is called by the single
+ * thread that drains the {@link AccessLogBuffer}, so it does not need to be
+ * thread safe. A sink class is instantiated with its public no-argument
+ * constructor.
+ */
+public interface AccessLogSink {
+
+    /**
+     * Called once before the first batch
+     *
+     * @param properties the configuration properties of the application
+     */
+    public void init(Properties properties) throws IOException;
+
+    /**
+     * Write a batch of entries. The entries are reused once this method
+     * returns.
+     */
+    public void write(List<AccessLogEntry> entries) throws IOException;
+
+    /**
+     * Called once after the last batch
+     */
+    public void close() throws IOException;
+
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Appends the access log entries to a file, one entry per line. When the file
+ * exceeds <tt>wink.accessLog.file.maxSize</tt> bytes it is renamed to
+ * <i>file</i>.1, the previous <i>file</i>.1 to <i>file</i>.2 and so on, up to
+ * <tt>wink.accessLog.file.maxBackups</tt> files.
+ */
+public class FileAccessLogSink implements AccessLogSink {
+
+    public static final String FILE_PROPERTY        = "wink.accessLog.file";            //$NON-NLS-1$
+    public static final String MAX_SIZE_PROPERTY    = "wink.accessLog.file.maxSize";    //$NON-NLS-1$
+    public static final String MAX_BACKUPS_PROPERTY = "wink.accessLog.file.maxBackups"; //$NON-NLS-1$
+
+    private static final String LINE_SEPARATOR      = System.getProperty("line.separator"); //$NON-NLS-1$
+
+    private final StringBuilder line                = new StringBuilder(256);
+    private File                file;
+    private long                maxSize;
+    private int                 maxBackups;
+    private Writer              writer;
+    private long                size;
+
+    public void init(Properties properties) throws IOException {
+        file = new File(properties.getProperty(FILE_PROPERTY, "wink-access.log")); //$NON-NLS-1$
+        maxSize = Long.parseLong(properties.getProperty(MAX_SIZE_PROPERTY, "10485760")); //$NON-NLS-1$
+        maxBackups = Integer.parseInt(properties.getProperty(MAX_BACKUPS_PROPERTY, "5")); //$NON-NLS-1$
+        open();
+    }
+
+    private void open() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        size = file.length();
+        writer =
+            new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), "UTF-8")); //$NON-NLS-1$
+    }
+
+    public void write(List<AccessLogEntry> entries) throws IOException {
+        for (AccessLogEntry entry : entries) {
+            line.setLength(0);
+            entry.appendTo(line).append(LINE_SEPARATOR);
+            writer.append(line);
+            // the entries are ASCII except for the uris, so this is close
+            // enough for the rotation
+            size += line.length();
+        }
+        writer.flush();
+        if (maxSize > 0 && size >= maxSize) {
+            rotate();
+        }
+    }
+
+    private void rotate() throws IOException {
+        writer.close();
+        if (maxBackups > 0) {
+            File oldest = backup(maxBackups);
+            if (oldest.exists()) {
+                oldest.delete();
+            }
+            for (int i = maxBackups - 1; i >= 1; --i) {
+                File backup = backup(i);
+                if (backup.exists()) {
+                    backup.renameTo(backup(i + 1));
+                }
+            }
+            file.renameTo(backup(1));
+        } else {
+            file.delete();
+        }
+        open();
+    }
+
+    private File backup(int index) {
+        return new File(file.getPath() + "." + index); //$NON-NLS-1$
+    }
+
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
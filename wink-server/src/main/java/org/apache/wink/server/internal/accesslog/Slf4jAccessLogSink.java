@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes each access log entry as an info message of the
+ * <tt>org.apache.wink.server.accesslog</tt> logger
+ */
+public class Slf4jAccessLogSink implements AccessLogSink {
+
+    private static final Logger logger = LoggerFactory.getLogger("org.apache.wink.server.accesslog"); //$NON-NLS-1$
+
+    private final StringBuilder line   = new StringBuilder(256);
+
+    public void init(Properties properties) {
+        /* do nothing */
+    }
+
+    public void write(List<AccessLogEntry> entries) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        for (AccessLogEntry entry : entries) {
+            line.setLength(0);
+            logger.info(entry.appendTo(line).toString());
+        }
+    }
+
+    public void close() {
+        /* do nothing */
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Sends the access log entries as UDP datagrams to the
+ * <i>host</i>:<i>port</i> of the <tt>wink.accessLog.socket</tt> property,
+ * usually a log collector on the local host. Each datagram holds as many
+ * entries as fit, one entry per line. Sending never waits for the collector.
+ */
+public class SocketAccessLogSink implements AccessLogSink {
+
+    public static final String SOCKET_PROPERTY = "wink.accessLog.socket"; //$NON-NLS-1$
+
+    private static final int   MAX_DATAGRAM    = 8192;
+
+    private final StringBuilder lines          = new StringBuilder(MAX_DATAGRAM);
+    private final StringBuilder line           = new StringBuilder(256);
+    private InetSocketAddress   address;
+    private DatagramSocket      socket;
+
+    public void init(Properties properties) throws IOException {
+        String value = properties.getProperty(SOCKET_PROPERTY, "localhost:5140"); //$NON-NLS-1$
+        int colon = value.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException(value);
+        }
+        address =
+            new InetSocketAddress(value.substring(0, colon), Integer.parseInt(value
+                .substring(colon + 1)));
+        socket = new DatagramSocket();
+    }
+
+    public void write(List<AccessLogEntry> entries) throws IOException {
+        lines.setLength(0);
+        for (AccessLogEntry entry : entries) {
+            line.setLength(0);
+            entry.appendTo(line).append('\n');
+            if (lines.length() > 0 && lines.length() + line.length() > MAX_DATAGRAM) {
+                send();
+            }
+            lines.append(line);
+        }
+        if (lines.length() > 0) {
+            send();
+        }
+    }
+
+    private void send() throws IOException {
+        byte[] data = lines.toString().getBytes("UTF-8"); //$NON-NLS-1$
+        socket.send(new DatagramPacket(data, data.length, address));
+        lines.setLength(0);
+    }
+
+    public void close() {
+        if (socket != null) {
+            socket.close();
+        }
+    }
+}
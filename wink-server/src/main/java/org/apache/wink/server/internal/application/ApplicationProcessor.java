@@ -20,6 +20,8 @@
 package org.apache.wink.server.internal.application;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import javax.ws.rs.core.Application;
@@ -41,6 +43,10 @@ import org.slf4j.LoggerFactory;
  * Pay Attention that classes returned by getSingletons are ignored by both
  * getClasses and getInstances. And classes returned by getClasses are ignored
  * by getInstances.
+ * <p>
+ * Providers are registered as they are found. Resources are registered
+ * together when the processing ends, so that their metadata can be collected
+ * in parallel.
  * 
  * @see Application
  * @see WinkApplication
@@ -74,20 +80,26 @@ public class ApplicationProcessor {
             logger.trace("WinkApplication priority is set to: {}", priority); //$NON-NLS-1$
         }
 
+        List<Object> resources = new ArrayList<Object>();
+
         // process singletons
         Set<Object> singletons = application.getSingletons();
         if (singletons != null && singletons.size() > 0) {
-            processSingletons(singletons, priority);
+            processSingletons(singletons, priority, resources);
         }
 
         // process classes
         Set<Class<?>> classes = application.getClasses();
         if (classes != null && classes.size() > 0) {
-            processClasses(classes, priority);
+            processClasses(classes, priority, resources);
         }
 
         if (application instanceof WinkApplication) {
-            processWinkApplication((WinkApplication)application);
+            processWinkApplication((WinkApplication)application, resources);
+        }
+
+        if (!resources.isEmpty()) {
+            resourceRegistry.addResources(resources, priority);
         }
 
         // always produce INFO output after completing application processing:
@@ -99,7 +111,7 @@ public class ApplicationProcessor {
         logger.trace("Processing of Application completed."); //$NON-NLS-1$
     }
 
-    private void processWinkApplication(WinkApplication sApplication) {
+    private void processWinkApplication(WinkApplication sApplication, List<Object> resources) {
         Set<Object> instances = sApplication.getInstances();
         double priority = sApplication.getPriority();
 
@@ -117,9 +129,9 @@ public class ApplicationProcessor {
                 // the validations were moved to registry
 
                 if (ResourceMetadataCollector.isDynamicResource(cls)) {
-                    resourceRegistry.addResource(obj, priority);
+                    resources.add(obj);
                 } else if (ResourceMetadataCollector.isStaticResource(cls)) {
-                    resourceRegistry.addResource(obj, priority);
+                    resources.add(obj);
                 } else if (ProviderMetadataCollector.isProvider(cls)) {
                     providersRegistry.addProvider(obj, priority, isSystemApplication);
                 } else {
@@ -155,7 +167,7 @@ public class ApplicationProcessor {
         }
     }
 
-    private void processClasses(Set<Class<?>> classes, double priority) {
+    private void processClasses(Set<Class<?>> classes, double priority, List<Object> resources) {
 
         for (Class<?> cls : classes) {
 
@@ -173,7 +185,7 @@ public class ApplicationProcessor {
                 // the validations were moved to registry
 
                 if (ResourceMetadataCollector.isStaticResource(cls)) {
-                    resourceRegistry.addResource(cls, priority);
+                    resources.add(cls);
                 } else if (ProviderMetadataCollector.isProvider(cls)) {
                     providersRegistry.addProvider(cls, priority, isSystemApplication);
                 } else {
@@ -205,7 +217,9 @@ public class ApplicationProcessor {
         }
     }
 
-    private void processSingletons(Set<Object> singletons, double priority) {
+    private void processSingletons(Set<Object> singletons,
+                                   double priority,
+                                   List<Object> resources) {
 
         // add singletons
         for (Object obj : singletons) {
@@ -215,7 +229,7 @@ public class ApplicationProcessor {
                 Class<?> cls = obj.getClass();
 
                 if (ResourceMetadataCollector.isStaticResource(cls)) {
-                    resourceRegistry.addResource(obj, priority);
+                    resources.add(obj);
                 } else if (ProviderMetadataCollector.isProvider(cls)) {
                     providersRegistry.addProvider(obj, priority, isSystemApplication);
                 } else {
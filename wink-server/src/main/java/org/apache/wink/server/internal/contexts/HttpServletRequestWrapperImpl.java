@@ -23,17 +23,25 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.security.Principal;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Locale;
 import java.util.Map;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
 import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
 import javax.servlet.ServletInputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
+import javax.servlet.http.Part;
 
 import org.apache.wink.common.RuntimeContext;
 import org.apache.wink.common.internal.runtime.RuntimeContextTLS;
@@ -573,5 +581,53 @@ public class HttpServletRequestWrapperImpl extends HttpServletRequestWrapper {
             throw new IllegalStateException();
         }
 
+        public boolean authenticate(HttpServletResponse arg0) throws IOException, ServletException {
+            throw new IllegalStateException();
+        }
+
+        public void login(String arg0, String arg1) throws ServletException {
+            throw new IllegalStateException();
+        }
+
+        public void logout() throws ServletException {
+            throw new IllegalStateException();
+        }
+
+        public Collection<Part> getParts() throws IOException, ServletException {
+            throw new IllegalStateException();
+        }
+
+        public Part getPart(String arg0) throws IOException, ServletException {
+            throw new IllegalStateException();
+        }
+
+        public ServletContext getServletContext() {
+            throw new IllegalStateException();
+        }
+
+        public AsyncContext startAsync() {
+            throw new IllegalStateException();
+        }
+
+        public AsyncContext startAsync(ServletRequest arg0, ServletResponse arg1) {
+            throw new IllegalStateException();
+        }
+
+        public boolean isAsyncStarted() {
+            throw new IllegalStateException();
+        }
+
+        public boolean isAsyncSupported() {
+            throw new IllegalStateException();
+        }
+
+        public AsyncContext getAsyncContext() {
+            throw new IllegalStateException();
+        }
+
+        public DispatcherType getDispatcherType() {
+            throw new IllegalStateException();
+        }
+
     }
 }
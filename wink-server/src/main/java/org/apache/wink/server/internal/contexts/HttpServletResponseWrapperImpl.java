@@ -21,6 +21,7 @@ package org.apache.wink.server.internal.contexts;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Collection;
 import java.util.Locale;
 
 import javax.servlet.ServletOutputStream;
@@ -358,5 +359,21 @@ public class HttpServletResponseWrapperImpl extends HttpServletResponseWrapper {
             throw new IllegalStateException();
         }
 
+        public int getStatus() {
+            throw new IllegalStateException();
+        }
+
+        public String getHeader(String arg0) {
+            throw new IllegalStateException();
+        }
+
+        public Collection<String> getHeaders(String arg0) {
+            throw new IllegalStateException();
+        }
+
+        public Collection<String> getHeaderNames() {
+            throw new IllegalStateException();
+        }
+
     }
 }
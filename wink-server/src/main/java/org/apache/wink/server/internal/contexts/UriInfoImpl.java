@@ -37,7 +37,6 @@ import javax.ws.rs.core.UriInfo;
 import org.apache.wink.common.internal.MultivaluedMapImpl;
 import org.apache.wink.common.internal.PathSegmentImpl;
 import org.apache.wink.common.internal.i18n.Messages;
-import org.apache.wink.common.internal.runtime.RuntimeContextTLS;
 import org.apache.wink.common.internal.uri.UriEncoder;
 import org.apache.wink.common.internal.utils.UriHelper;
 import org.apache.wink.server.handlers.MessageContext;
@@ -388,7 +387,7 @@ public class UriInfoImpl implements UriInfo {
         }
 
         boolean isServlet =
-            RuntimeContextTLS.getRuntimeContext().getAttribute(FilterConfig.class) == null;
+            messageContext.getAttribute(FilterConfig.class) == null;
         logger.trace("appendContextAndServletPath isServlet: {} ", isServlet); //$NON-NLS-1$
         if (request.getServletPath() != null && isServlet) {
             builder.append(request.getServletPath());
@@ -403,7 +402,7 @@ public class UriInfoImpl implements UriInfo {
         return builderStr;
     }
 
-    private static String buildRequestPath(HttpServletRequest request) {
+    private String buildRequestPath(HttpServletRequest request) {
         // we cannot use request.getPathInfo() since it cuts off the ';'
         // parameters on Tomcat
         String requestPath = request.getRequestURI();
@@ -419,7 +418,7 @@ public class UriInfoImpl implements UriInfo {
 
         // cut off the servlet path from the beginning
         boolean isServlet =
-            RuntimeContextTLS.getRuntimeContext().getAttribute(FilterConfig.class) == null;
+            messageContext.getAttribute(FilterConfig.class) == null;
         logger.trace("buildRequestPath isServlet: {}", isServlet); //$NON-NLS-1$
         if (request.getServletPath() != null && isServlet) {
             requestPath = requestPath.substring(request.getServletPath().length());
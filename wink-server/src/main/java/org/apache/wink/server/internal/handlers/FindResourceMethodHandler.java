@@ -34,6 +34,7 @@ import org.apache.wink.common.internal.uritemplate.UriTemplateMatcher;
 import org.apache.wink.server.handlers.HandlersChain;
 import org.apache.wink.server.handlers.MessageContext;
 import org.apache.wink.server.handlers.RequestHandler;
+import org.apache.wink.server.internal.StatusWebApplicationException;
 import org.apache.wink.server.internal.contexts.UriInfoImpl;
 import org.apache.wink.server.internal.handlers.SearchResult.AccumulatedData;
 import org.apache.wink.server.internal.registry.MethodRecord;
@@ -81,7 +82,7 @@ public class FindResourceMethodHandler implements RequestHandler {
         List<SubResourceInstance> subResources = resource.getRecord().getMatchingSubResources(tail);
         logger.trace("Possible subresources found: {}", subResources); //$NON-NLS-1$
         if (subResources.size() == 0) {
-            result.setError(new WebApplicationException(Response.Status.NOT_FOUND));
+            result.setError(new StatusWebApplicationException(Response.Status.NOT_FOUND));
             return;
         }
 
@@ -214,7 +215,7 @@ public class FindResourceMethodHandler implements RequestHandler {
         Object subResource = context.getResponseEntity();
         if (subResource == null) {
             logger.trace("Subresource returned was null so returning a 404 Not Found"); //$NON-NLS-1$
-            result.setError(new WebApplicationException(Status.NOT_FOUND));
+            result.setError(new StatusWebApplicationException(Status.NOT_FOUND));
             return;
         }
         ResourceRecord record = registry.getRecord(subResource, false);
@@ -23,13 +23,13 @@ package org.apache.wink.server.internal.handlers;
 import java.util.List;
 import java.util.Properties;
 
-import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.PathSegment;
 import javax.ws.rs.core.Response;
 
 import org.apache.wink.server.handlers.HandlersChain;
 import org.apache.wink.server.handlers.MessageContext;
 import org.apache.wink.server.handlers.RequestHandler;
+import org.apache.wink.server.internal.StatusWebApplicationException;
 import org.apache.wink.server.internal.registry.ResourceInstance;
 import org.apache.wink.server.internal.registry.ResourceRegistry;
 import org.slf4j.Logger;
@@ -67,7 +67,7 @@ public class FindRootResourceHandler implements RequestHandler {
                 logger.trace("No resource found matching {}", context.getUriInfo().getPath(false)); //$NON-NLS-1$
             }
             SearchResult result =
-                new SearchResult(new WebApplicationException(Response.Status.NOT_FOUND));
+                new SearchResult(new StatusWebApplicationException(Response.Status.NOT_FOUND));
             context.setAttribute(SearchResult.class, result);
             return;
         }
@@ -32,7 +32,6 @@ import javax.activation.CommandMap;
 import javax.activation.DataContentHandler;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
-import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -46,12 +45,14 @@ import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
 import org.apache.wink.common.http.HttpStatus;
 import org.apache.wink.common.internal.MultivaluedMapImpl;
 import org.apache.wink.common.internal.i18n.Messages;
-import org.apache.wink.common.internal.runtime.RuntimeContextTLS;
 import org.apache.wink.common.utils.ProviderUtils;
 import org.apache.wink.common.utils.ProviderUtils.PROVIDER_EXCEPTION_ORIGINATOR;
 import org.apache.wink.server.handlers.AbstractHandler;
 import org.apache.wink.server.handlers.MessageContext;
+import org.apache.wink.server.internal.StatusWebApplicationException;
 import org.apache.wink.server.internal.contexts.RequestImpl;
+import org.apache.wink.server.internal.timing.RequestPhase;
+import org.apache.wink.server.internal.timing.RequestTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -127,10 +128,19 @@ public class FlushResultHandler extends AbstractHandler {
             httpHeaders = new MultivaluedMapImpl<String, Object>();
         }
 
+        // the timer is null unless the request timings are enabled
+        RequestTimer timer = RequestTimer.get(context);
+
         // we're done if the actual entity is null
         if (entity == null) {
             logger.trace("No entity so writing only the headers"); //$NON-NLS-1$
-            flushHeaders(httpResponse, httpHeaders);
+            if (timer != null) {
+                timer.start(RequestPhase.SERIALIZATION);
+            }
+            flushHeaders(context, httpResponse, httpHeaders);
+            if (timer != null) {
+                timer.stop(RequestPhase.SERIALIZATION);
+            }
             return;
         }
 
@@ -139,12 +149,18 @@ public class FlushResultHandler extends AbstractHandler {
         MediaType responseMediaType = context.getResponseMediaType();
 
         // get the provider to write the entity
+        if (timer != null) {
+            timer.start(RequestPhase.WRITER_SELECTION);
+        }
         Providers providers = context.getProviders();
         MessageBodyWriter<Object> messageBodyWriter =
             (MessageBodyWriter<Object>)providers.getMessageBodyWriter(rawType,
                                                                       genericType,
                                                                       declaredAnnotations,
                                                                       responseMediaType);
+        if (timer != null) {
+            timer.stop(RequestPhase.WRITER_SELECTION);
+        }
 
         // use the provider to write the entity
         if (messageBodyWriter != null) {
@@ -154,6 +170,9 @@ public class FlushResultHandler extends AbstractHandler {
 
             final MultivaluedMap<String, Object> headers = httpHeaders;
 
+            if (timer != null) {
+                timer.start(RequestPhase.SERIALIZATION);
+            }
             long size;
             try {
                 size =
@@ -183,7 +202,7 @@ public class FlushResultHandler extends AbstractHandler {
             }
 
             FlushHeadersOutputStream outputStream =
-                new FlushHeadersOutputStream(httpResponse, headers, responseMediaType);
+                new FlushHeadersOutputStream(context, httpResponse, headers, responseMediaType);
             if (logger.isTraceEnabled()) {
                 logger.trace("{}@{}.writeTo({}, {}, {}, {}, {}, {}, {}) being called", new Object[] { //$NON-NLS-1$
                            messageBodyWriter.getClass().getName(),
@@ -212,6 +231,9 @@ public class FlushResultHandler extends AbstractHandler {
             }
             logger.trace("Flushing headers if not written"); //$NON-NLS-1$
             outputStream.flushHeaders();
+            if (timer != null) {
+                timer.stop(RequestPhase.SERIALIZATION);
+            }
             return;
 
         } else {
@@ -225,9 +247,15 @@ public class FlushResultHandler extends AbstractHandler {
 
         // try to find a data handler using JavaBeans Activation Framework, if
         // found use DataSourceProvider
+        if (timer != null) {
+            timer.start(RequestPhase.WRITER_SELECTION);
+        }
         dataContentHandler = CommandMap
                 .getDefaultCommandMap()
                 .createDataContentHandler(responseMediaType.getType() + "/" + responseMediaType.getSubtype()); //$NON-NLS-1$
+        if (timer != null) {
+            timer.stop(RequestPhase.WRITER_SELECTION);
+        }
         if (dataContentHandler == null) {
             if (logger.isErrorEnabled()) {
                 logger.error(Messages.getMessage("noWriterOrDataSourceProvider", entity.getClass() //$NON-NLS-1$
@@ -237,7 +265,7 @@ public class FlushResultHandler extends AbstractHandler {
             // If no methods support one of the acceptable response entity body media types
             // an implementation MUST generate a WebApplicationException with a not acceptable
             // response (HTTP 406 status) and no entity
-            throw new WebApplicationException(HttpStatus.NOT_ACCEPTABLE.getCode());
+            throw new StatusWebApplicationException(HttpStatus.NOT_ACCEPTABLE.getCode());
         }
 
         if (logger.isTraceEnabled()) {
@@ -246,7 +274,10 @@ public class FlushResultHandler extends AbstractHandler {
                     .getName());
         }
 
-        FlushHeadersOutputStream outputStream = new FlushHeadersOutputStream(httpResponse, httpHeaders, responseMediaType);
+        if (timer != null) {
+            timer.start(RequestPhase.SERIALIZATION);
+        }
+        FlushHeadersOutputStream outputStream = new FlushHeadersOutputStream(context, httpResponse, httpHeaders, responseMediaType);
         if (logger.isTraceEnabled()) {
             logger.trace("{}@{}.writeTo({}, {}, {}) being called", new Object[] { //$NON-NLS-1$
                          dataContentHandler.getClass().getName(),
@@ -258,14 +289,17 @@ public class FlushResultHandler extends AbstractHandler {
                      responseMediaType.getType() + "/" + responseMediaType.getSubtype(), outputStream); //$NON-NLS-1$
         logger.trace("Flushing headers if not written"); //$NON-NLS-1$
         outputStream.flushHeaders();
+        if (timer != null) {
+            timer.stop(RequestPhase.SERIALIZATION);
+        }
     }
 
     @SuppressWarnings("unchecked")
-    private static void flushHeaders(final HttpServletResponse httpResponse,
+    private static void flushHeaders(final MessageContext context,
+                                     final HttpServletResponse httpResponse,
                                      final MultivaluedMap<String, Object> headers) {
         if (headers.get(HttpHeaders.VARY) == null) {
-            RequestImpl.VaryHeader varyHeader =
-                RuntimeContextTLS.getRuntimeContext().getAttribute(RequestImpl.VaryHeader.class);
+            RequestImpl.VaryHeader varyHeader = context.getAttribute(RequestImpl.VaryHeader.class);
             if (varyHeader != null) {
                 logger.trace("Vary header automatically set by a call to RequestImpl"); //$NON-NLS-1$
                 headers.putSingle(HttpHeaders.VARY, varyHeader.getVaryHeaderValue());
@@ -297,15 +331,18 @@ public class FlushResultHandler extends AbstractHandler {
         // actually started writing to stream.
 
         private boolean                              writeStarted;
+        final private MessageContext                 context;
         final private HttpServletResponse            httpResponse;
         final private ServletOutputStream            outputStream;
         final private MultivaluedMap<String, Object> headers;
         final private MediaType                      responseMediaType;
 
-        public FlushHeadersOutputStream(HttpServletResponse httpResponse,
+        public FlushHeadersOutputStream(MessageContext context,
+                                        HttpServletResponse httpResponse,
                                         MultivaluedMap<String, Object> headers,
                                         MediaType responseMediaType) throws IOException {
             this.writeStarted = false;
+            this.context = context;
             this.httpResponse = httpResponse;
             this.outputStream = httpResponse.getOutputStream();
             this.headers = headers;
@@ -349,7 +386,7 @@ public class FlushResultHandler extends AbstractHandler {
                     httpResponse.setContentType(responseMediaType.toString());
                 }
 
-                FlushResultHandler.flushHeaders(httpResponse, headers);
+                FlushResultHandler.flushHeaders(context, httpResponse, headers);
                 writeStarted = true;
             }
         }
@@ -23,7 +23,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
-import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -34,6 +33,7 @@ import org.apache.wink.common.internal.registry.metadata.MethodMetadata;
 import org.apache.wink.common.internal.utils.MediaTypeUtils;
 import org.apache.wink.server.handlers.AbstractHandler;
 import org.apache.wink.server.handlers.MessageContext;
+import org.apache.wink.server.internal.StatusWebApplicationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -163,7 +163,7 @@ public class PopulateResponseMediaTypeHandler extends AbstractHandler {
                     return;
                 }
                 logger.info(Messages.getMessage("populateResponseMediaTypeHandlerNoAcceptableResponse")); //$NON-NLS-1$
-                throw new WebApplicationException(Response.Status.NOT_ACCEPTABLE);
+                throw new StatusWebApplicationException(Response.Status.NOT_ACCEPTABLE);
             }
 
             // select the best candidate.
@@ -219,7 +219,7 @@ public class PopulateResponseMediaTypeHandler extends AbstractHandler {
                     return;
                 }
                 logger.info(Messages.getMessage("populateResponseMediaTypeHandlerNoAcceptableResponse")); //$NON-NLS-1$
-                throw new WebApplicationException(Response.Status.NOT_ACCEPTABLE);
+                throw new StatusWebApplicationException(Response.Status.NOT_ACCEPTABLE);
             }
 
         }
@@ -64,8 +64,9 @@ public class Resources {
     private void logResourceInfo(List<ResourceRecord> resourceRecords) {
         for (ResourceRecord record : resourceRecords) {
             try {
-                final String resourceClassName = record.getMetadata().getResourceClass().getName();
-                final ClassMetadata resourceMetadata = record.getMetadata();
+                // does not initialize lazily initialized resources
+                final ClassMetadata resourceMetadata = record.getClassMetadata();
+                final String resourceClassName = resourceMetadata.getResourceClass().getName();
                 final String resourcePath = resourceMetadata.getPath();
                 logger.info(Messages.getMessage("serverRegisterJAXRSResourceWithPath",
                                                 resourceClassName,
@@ -35,6 +35,7 @@ public class ResourceInstance {
     private ResourceRecord     record;
     private UriTemplateMatcher matcher;
     private Object             instance;
+    private boolean            released;
 
     public ResourceInstance(ResourceRecord record, UriTemplateMatcher matcher) {
         this(null, record, matcher);
@@ -83,7 +84,9 @@ public class ResourceInstance {
 
     @SuppressWarnings("unchecked")
     public void releaseInstance(RuntimeContext context) {
-        if (instance != null) {
+        // a pooled instance must not be returned to its pool twice
+        if (instance != null && !released) {
+            released = true;
             ObjectFactory of = record.getObjectFactory();
             of.releaseInstance(instance, context);
         }
@@ -32,14 +32,31 @@ import org.apache.wink.common.internal.uritemplate.UriTemplateProcessor;
 
 /**
  * Record class to hold all the information of a resource. This includes the
- * metadata of the resource class and the {@link ObjectFactory} of the resource
+ * metadata of the resource class and the {@link ObjectFactory} of the resource.
+ * <p>
+ * A lazily initialized record starts with the class level metadata only,
+ * which is enough to match requests against its uri template. The full
+ * metadata and the object factory are created by its {@link Initializer} the
+ * first time they are needed.
  */
 public class ResourceRecord extends TemplatedRecord {
 
-    private ClassMetadata           metadata;
-    private ObjectFactory<?>        objectFactory;
-    private List<SubResourceRecord> subResources;
-    private double                  priority;
+    private volatile ClassMetadata    metadata;
+    private volatile ObjectFactory<?> objectFactory;
+    private List<SubResourceRecord>   subResources;
+    private double                    priority;
+    private volatile Initializer      initializer;
+
+    /**
+     * Creates the full metadata and the object factory of a lazily
+     * initialized record
+     */
+    /* package */interface Initializer {
+
+        ClassMetadata createMetadata();
+
+        ObjectFactory<?> createObjectFactory();
+    }
 
     public ResourceRecord(ClassMetadata metadata,
                           ObjectFactory<?> objectFactory,
@@ -52,6 +69,38 @@ public class ResourceRecord extends TemplatedRecord {
         build();
     }
 
+    /* package */ResourceRecord(ClassMetadata classMetadata,
+                                UriTemplateProcessor processor,
+                                Initializer initializer) {
+        super(processor);
+        this.metadata = classMetadata;
+        this.subResources = new LinkedList<SubResourceRecord>();
+        this.priority = -1;
+        this.initializer = initializer;
+    }
+
+    /**
+     * @return false if the record is lazily initialized and was not used yet
+     */
+    public boolean isInitialized() {
+        return initializer == null;
+    }
+
+    private void initialize() {
+        if (initializer != null) {
+            synchronized (this) {
+                Initializer init = initializer;
+                if (init != null) {
+                    metadata = init.createMetadata();
+                    objectFactory = init.createObjectFactory();
+                    build();
+                    // publishes the sub-resources
+                    initializer = null;
+                }
+            }
+        }
+    }
+
     public double getPriority() {
         return priority;
     }
@@ -66,6 +115,18 @@ public class ResourceRecord extends TemplatedRecord {
      * @return {@link ClassMetadata} of the resource
      */
     public ClassMetadata getMetadata() {
+        initialize();
+        return metadata;
+    }
+
+    /**
+     * Get the metadata of the resource class without initializing the record.
+     * Only the class level metadata (class, path, parents, consumes and
+     * produces) is complete if the record is not initialized yet.
+     * 
+     * @return {@link ClassMetadata} of the resource
+     */
+    public ClassMetadata getClassMetadata() {
         return metadata;
     }
 
@@ -75,6 +136,7 @@ public class ResourceRecord extends TemplatedRecord {
      * @return {@link ObjectFactory} of the resource
      */
     public ObjectFactory<?> getObjectFactory() {
+        initialize();
         return objectFactory;
     }
 
@@ -119,6 +181,7 @@ public class ResourceRecord extends TemplatedRecord {
      * @return true if there is at least one sub-resource (method or locator)
      */
     public boolean hasSubResources() {
+        initialize();
         return (subResources.size() > 0);
     }
 
@@ -142,12 +205,14 @@ public class ResourceRecord extends TemplatedRecord {
     }
 
     public List<SubResourceRecord> getSubResourceRecords() {
+        initialize();
         return subResources;
     }
 
     public List<SubResourceInstance> getMatchingSubResources(String uri,
                                                              boolean method,
                                                              boolean locator) {
+        initialize();
         List<SubResourceInstance> list = new LinkedList<SubResourceInstance>();
         // add records according to the request uri
         for (SubResourceRecord record : subResources) {
@@ -43,6 +43,7 @@ import org.apache.wink.common.internal.lifecycle.ObjectFactory;
 import org.apache.wink.common.internal.registry.Injectable;
 import org.apache.wink.common.internal.registry.Injectable.ParamType;
 import org.apache.wink.common.internal.registry.metadata.ClassMetadata;
+import org.apache.wink.common.internal.registry.metadata.MetadataIndex;
 import org.apache.wink.common.internal.registry.metadata.MethodMetadata;
 import org.apache.wink.common.internal.registry.metadata.ResourceMetadataCollector;
 import org.apache.wink.common.internal.uritemplate.UriTemplateProcessor;
@@ -64,6 +65,8 @@ public class ResourceRecordFactory {
 
     final private boolean                       isStrictConsumesProduces;
 
+    final private boolean                       isLazyInitialization;
+
     public ResourceRecordFactory(LifecycleManagersRegistry lifecycleManagerRegistry) {
         this(lifecycleManagerRegistry, new Properties());
     }
@@ -90,11 +93,21 @@ public class ResourceRecordFactory {
                              ServerCustomProperties.STRICT_INTERPRET_CONSUMES_PRODUCES_SPEC_CUSTOM_PROPERTY
                                  .getDefaultValue());
         isStrictConsumesProduces = Boolean.valueOf(value);
+
+        value =
+            customProperties
+                .getProperty(ServerCustomProperties.LAZY_RESOURCE_INITIALIZATION_CUSTOM_PROPERTY
+                                 .getPropertyName(),
+                             ServerCustomProperties.LAZY_RESOURCE_INITIALIZATION_CUSTOM_PROPERTY
+                                 .getDefaultValue());
+        isLazyInitialization = Boolean.valueOf(value);
     }
 
     /**
      * Gets a resource record from a cache of records for the specified resource
-     * class. If there is no record in the cache, then a new record is created
+     * class. If there is no record in the cache, then a new record is created.
+     * In lazy initialization mode the new record is initialized when it is
+     * first used.
      * 
      * @param cls the resource class to get the record for
      * @return ResourceRecord for the resource class
@@ -103,7 +116,14 @@ public class ResourceRecordFactory {
         readersLock.lock();
         try {
             ResourceRecord record = cacheByClass.get(cls);
-            if (record == null) {
+            if (record == null && isLazyInitialization) {
+                readersLock.unlock();
+                try {
+                    record = createLazyResourceRecord(cls);
+                } finally {
+                    readersLock.lock();
+                }
+            } else if (record == null) {
                 ObjectFactory<?> of = lifecycleManagerRegistry.getObjectFactory(cls);
                 readersLock.unlock();
                 try {
@@ -195,6 +215,45 @@ public class ResourceRecordFactory {
         ClassMetadata metadata = createMetadata(cls);
         UriTemplateProcessor processor = createUriTemplateProcessor(metadata);
         ResourceRecord record = new ResourceRecord(metadata, of, processor);
+        cacheRecord(cls, record);
+        return record;
+    }
+
+    private ResourceRecord createLazyResourceRecord(final Class<?> cls) {
+        ClassMetadata classMetadata = ResourceMetadataCollector.collectClassMetadata(cls);
+        UriTemplateProcessor processor = createUriTemplateProcessor(classMetadata);
+        // the record is initialized on a request thread, with the metadata
+        // index of the deployment that registered it
+        final MetadataIndex index = MetadataIndex.getCurrent();
+        ResourceRecord record =
+            new ResourceRecord(classMetadata, processor, new ResourceRecord.Initializer() {
+
+                public ClassMetadata createMetadata() {
+                    logger.trace("Initializing the resource record of {}", cls); //$NON-NLS-1$
+                    MetadataIndex previous = MetadataIndex.getCurrent();
+                    MetadataIndex.setCurrent(index);
+                    try {
+                        return ResourceRecordFactory.this.createMetadata(cls);
+                    } finally {
+                        MetadataIndex.setCurrent(previous);
+                    }
+                }
+
+                public ObjectFactory<?> createObjectFactory() {
+                    MetadataIndex previous = MetadataIndex.getCurrent();
+                    MetadataIndex.setCurrent(index);
+                    try {
+                        return lifecycleManagerRegistry.getObjectFactory(cls);
+                    } finally {
+                        MetadataIndex.setCurrent(previous);
+                    }
+                }
+            });
+        cacheRecord(cls, record);
+        return record;
+    }
+
+    private void cacheRecord(Class<?> cls, ResourceRecord record) {
         writersLock.lock();
         try {
             // double check so as not to put the same resource twice
@@ -204,7 +263,6 @@ public class ResourceRecordFactory {
         } finally {
             writersLock.unlock();
         }
-        return record;
     }
 
     private ResourceRecord createDynamicResourceRecord(DynamicResource instance, ObjectFactory<?> of) {
@@ -239,7 +297,8 @@ public class ResourceRecordFactory {
     private void appendPathWithParent(ClassMetadata metadata, StringBuilder pathStr) {
         ResourceRecord parentRecord = getParent(metadata);
         if (parentRecord != null) {
-            ClassMetadata parentMetadata = parentRecord.getMetadata();
+            // the path of a parent does not require initializing it
+            ClassMetadata parentMetadata = parentRecord.getClassMetadata();
             appendPathWithParent(parentMetadata, pathStr);
         }
         String path = UriTemplateProcessor.normalizeUri(metadata.getPath());
@@ -30,6 +30,13 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -48,12 +55,15 @@ import org.apache.wink.common.internal.application.ApplicationValidator;
 import org.apache.wink.common.internal.i18n.Messages;
 import org.apache.wink.common.internal.lifecycle.LifecycleManagersRegistry;
 import org.apache.wink.common.internal.registry.Injectable;
+import org.apache.wink.common.internal.registry.metadata.MetadataIndex;
 import org.apache.wink.common.internal.registry.metadata.MethodMetadata;
 import org.apache.wink.common.internal.uritemplate.UriTemplateMatcher;
 import org.apache.wink.common.internal.uritemplate.UriTemplateProcessor;
 import org.apache.wink.common.internal.utils.HeaderUtils;
 import org.apache.wink.common.internal.utils.MediaTypeUtils;
 import org.apache.wink.common.internal.utils.SoftConcurrentMap;
+import org.apache.wink.server.internal.ServerCustomProperties;
+import org.apache.wink.server.internal.StatusWebApplicationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -74,6 +84,7 @@ public class ResourceRegistry {
     private Lock                                                                   readersLock;
     private Lock                                                                   writersLock;
     private final ApplicationValidator                                             applicationValidator;
+    private final int                                                              registrationThreads;
 
     private HashMap<Boolean, SoftConcurrentMap<String, ArrayList<ResourceRecord>>> uriToResourceCache                  =
                                                                                                                            new HashMap<Boolean, SoftConcurrentMap<String, ArrayList<ResourceRecord>>>();
@@ -89,13 +100,14 @@ public class ResourceRegistry {
         this.applicationValidator = applicationValidator;
         rootResources = new LinkedList<ResourceRecord>();
         resourceRecordsFactory = new ResourceRecordFactory(factoryRegistry, properties);
+        registrationThreads = getRegistrationThreads(properties);
         ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
         readersLock = readWriteLock.readLock();
         writersLock = readWriteLock.writeLock();
         uriToResourceCache.put(Boolean.TRUE,
-                               new SoftConcurrentMap<String, ArrayList<ResourceRecord>>());
+                               new SoftConcurrentMap<String, ArrayList<ResourceRecord>>("ResourceRegistry.uriToResourceCache")); //$NON-NLS-1$
         uriToResourceCache.put(Boolean.FALSE,
-                               new SoftConcurrentMap<String, ArrayList<ResourceRecord>>());
+                               new SoftConcurrentMap<String, ArrayList<ResourceRecord>>("ResourceRegistry.uriToResourceCache")); //$NON-NLS-1$
     }
 
     /**
@@ -170,6 +182,176 @@ public class ResourceRegistry {
         }
     }
 
+    /**
+     * Add resource classes and instances to the registry with a priority. The
+     * resources are validated in order, then their records are created in
+     * parallel, and finally all the records are added to the root resources
+     * with a single sort. The result is the same as adding the resources one
+     * by one in the order of the list.
+     * 
+     * @param resources the resource classes and instances to add
+     * @param priority priority of the resources
+     */
+    public void addResources(List<?> resources, double priority) {
+        logger.trace("Adding {} resources with priority: {}", resources.size(), priority); //$NON-NLS-1$
+
+        // the validation decides which of duplicate resources is added, so it
+        // is not done in parallel
+        List<Object> validResources = new ArrayList<Object>(resources.size());
+        for (Object resource : resources) {
+            Class<?> cls = (resource instanceof Class<?>) ? (Class<?>)resource : resource.getClass();
+            if (applicationValidator.isValidResource(cls)) {
+                validResources.add(resource);
+            } else if (logger.isWarnEnabled()) {
+                logger.warn(Messages.getMessage("resourceClassNotValid", cls.getName())); //$NON-NLS-1$
+            }
+        }
+
+        List<ResourceRecord> records = createRecords(validResources);
+        for (ResourceRecord record : records) {
+            record.setPriority(priority);
+        }
+
+        writersLock.lock();
+        try {
+            rootResources.addAll(records);
+            assertSorted();
+        } finally {
+            writersLock.unlock();
+        }
+    }
+
+    private ResourceRecord createRecord(Object resource) {
+        if (resource instanceof Class<?>) {
+            return getRecord((Class<?>)resource);
+        }
+        return getRecord(resource);
+    }
+
+    /**
+     * @return the records of the resources, in the same order, without the
+     *         resources whose record could not be created
+     */
+    private List<ResourceRecord> createRecords(List<Object> resources) {
+        List<ResourceRecord> records = new ArrayList<ResourceRecord>(resources.size());
+        int threads = Math.min(registrationThreads, resources.size());
+        if (threads < 2) {
+            for (Object resource : resources) {
+                addRecord(records, resource);
+            }
+            return records;
+        }
+
+        ExecutorService executor =
+            Executors.newFixedThreadPool(threads, new RegistrationThreadFactory());
+        boolean interrupted = false;
+        try {
+            List<Future<ResourceRecord>> futures =
+                new ArrayList<Future<ResourceRecord>>(resources.size());
+            // the registration threads use the metadata index of the
+            // deployment that registers the resources
+            final MetadataIndex index = MetadataIndex.getCurrent();
+            for (final Object resource : resources) {
+                futures.add(executor.submit(new Callable<ResourceRecord>() {
+                    public ResourceRecord call() throws Exception {
+                        MetadataIndex.setCurrent(index);
+                        try {
+                            return createRecord(resource);
+                        } finally {
+                            MetadataIndex.setCurrent(null);
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); ++i) {
+                Object resource = resources.get(i);
+                if (!interrupted) {
+                    try {
+                        records.add(futures.get(i).get());
+                        continue;
+                    } catch (ExecutionException e) {
+                        logResourceFailure(resource, e.getCause());
+                        continue;
+                    } catch (InterruptedException e) {
+                        // stop the registration threads and finish the
+                        // registration on this thread
+                        interrupted = true;
+                        for (int j = i; j < futures.size(); ++j) {
+                            futures.get(j).cancel(true);
+                        }
+                        executor.shutdownNow();
+                    }
+                }
+                addRecord(records, resource);
+            }
+        } finally {
+            executor.shutdown();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return records;
+    }
+
+    private void addRecord(List<ResourceRecord> records, Object resource) {
+        try {
+            records.add(createRecord(resource));
+        } catch (RuntimeException e) {
+            logResourceFailure(resource, e);
+        } catch (NoClassDefFoundError e) {
+            logResourceFailure(resource, e);
+        }
+    }
+
+    private void logResourceFailure(Object resource, Throwable t) {
+        if (logger.isErrorEnabled()) {
+            String name =
+                (resource instanceof Class<?>) ? ((Class<?>)resource).getName() : resource
+                    .getClass().getName();
+            logger.error(Messages.getMessage("exceptionOccurredDuringResourceProcessing", name), t); //$NON-NLS-1$
+        }
+    }
+
+    private static int getRegistrationThreads(Properties properties) {
+        ServerCustomProperties property =
+            ServerCustomProperties.RESOURCE_REGISTRATION_THREADS_CUSTOM_PROPERTY;
+        String value =
+            (properties != null) ? properties.getProperty(property.getPropertyName(), property
+                .getDefaultValue()) : property.getDefaultValue();
+        int threads;
+        try {
+            threads = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            threads = 1;
+        }
+        if (threads == 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(threads, 1);
+    }
+
+    /**
+     * Creates daemon threads that load classes with the context class loader
+     * of the deploying thread
+     */
+    private static class RegistrationThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger pools       = new AtomicInteger();
+        private final String               prefix      =
+                                                           "wink-registration-" + pools.incrementAndGet() + "-"; //$NON-NLS-1$ //$NON-NLS-2$
+        private final AtomicInteger        threads     = new AtomicInteger();
+        private final ClassLoader          classLoader =
+                                                           Thread.currentThread()
+                                                               .getContextClassLoader();
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }
+    }
+
     /**
      * Removes all the root resource records.
      */
@@ -177,7 +359,10 @@ public class ResourceRegistry {
         writersLock.lock();
         try {
             for (ResourceRecord record : rootResources) {
-                record.getObjectFactory().releaseAll(null);
+                // a record that was never initialized has no instances
+                if (record.isInitialized()) {
+                    record.getObjectFactory().releaseAll(null);
+                }
             }
             rootResources.clear();
             assertSorted();
@@ -458,7 +643,7 @@ public class ResourceRegistry {
             // add 'Allow' header to the response
             String allowHeader = HeaderUtils.buildOptionsHeader(httpMethods);
             builder.header(HttpHeadersEx.ALLOW, allowHeader);
-            throw new WebApplicationException(builder.build());
+            throw new StatusWebApplicationException(builder.build());
         }
 
         // filter by consumes
@@ -472,7 +657,7 @@ public class ResourceRegistry {
         if (methodRecords.size() == 0) {
             logger.info(Messages.getMessage("noMethodInClassConsumesHTTPMethod", resource //$NON-NLS-1$
                 .getResourceClass().getName(), context.getHttpHeaders().getMediaType()));
-            throw new WebApplicationException(Response.Status.UNSUPPORTED_MEDIA_TYPE);
+            throw new StatusWebApplicationException(Response.Status.UNSUPPORTED_MEDIA_TYPE);
         }
 
         // filter by produces
@@ -487,7 +672,7 @@ public class ResourceRegistry {
             logger.info(Messages.getMessage("noMethodInClassProducesHTTPMethod", resource //$NON-NLS-1$
                 .getResourceClass().getName(), context.getHttpHeaders()
                 .getRequestHeader(HttpHeaders.ACCEPT)));
-            throw new WebApplicationException(Response.Status.NOT_ACCEPTABLE);
+            throw new StatusWebApplicationException(Response.Status.NOT_ACCEPTABLE);
         }
     }
 
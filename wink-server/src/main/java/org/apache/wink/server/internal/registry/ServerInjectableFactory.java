@@ -54,13 +54,14 @@ import org.apache.wink.common.internal.registry.ContextAccessor;
 import org.apache.wink.common.internal.registry.Injectable;
 import org.apache.wink.common.internal.registry.InjectableFactory;
 import org.apache.wink.common.internal.registry.ValueConvertor.ConversionException;
-import org.apache.wink.common.internal.runtime.RuntimeContextTLS;
 import org.apache.wink.common.internal.uri.UriEncoder;
 import org.apache.wink.common.internal.utils.MediaTypeUtils;
 import org.apache.wink.common.internal.utils.StringUtils;
 import org.apache.wink.common.utils.ProviderUtils;
 import org.apache.wink.common.utils.ProviderUtils.PROVIDER_EXCEPTION_ORIGINATOR;
+import org.apache.wink.server.internal.AsyncResponseImpl;
 import org.apache.wink.server.internal.handlers.SearchResult;
+import org.apache.wink.server.utils.AsyncResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -159,6 +160,10 @@ public class ServerInjectableFactory extends InjectableFactory {
 
         @Override
         public Object getValue(RuntimeContext runtimeContext) {
+            if (AsyncResponse.class == getType() && runtimeContext != null) {
+                // injecting the handle suspends the request
+                return AsyncResponseImpl.suspend(runtimeContext);
+            }
             return contextAccessor.getContext(getType(), runtimeContext);
         }
     }
@@ -371,8 +376,8 @@ public class ServerInjectableFactory extends InjectableFactory {
                     // servlet filter. Let's try the servlet request parameters
                     // instead.
                     Map map =
-                        RuntimeContextTLS.getRuntimeContext()
-                            .getAttribute(HttpServletRequest.class).getParameterMap();
+                        runtimeContext.getAttribute(HttpServletRequest.class)
+                            .getParameterMap();
                     // We can't easily use MultivaluedMap.putAll because we have
                     // a map whose values are String[]
                     // Let's iterate and call the appropriate MultivaluedMap.put
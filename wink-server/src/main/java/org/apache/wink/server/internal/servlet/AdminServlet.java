@@ -46,6 +46,7 @@ import org.apache.wink.common.internal.model.admin.Resource;
 import org.apache.wink.common.internal.model.admin.Resources;
 import org.apache.wink.common.internal.model.admin.SubResource;
 import org.apache.wink.common.internal.model.admin.SubResources;
+import org.apache.wink.common.internal.model.admin.Timings;
 import org.apache.wink.common.internal.registry.BoundInjectable;
 import org.apache.wink.common.internal.registry.Injectable;
 import org.apache.wink.common.internal.registry.metadata.MethodMetadata;
@@ -54,6 +55,10 @@ import org.apache.wink.common.internal.utils.JAXBUtils;
 import org.apache.wink.server.internal.RequestProcessor;
 import org.apache.wink.server.internal.registry.ResourceRecord;
 import org.apache.wink.server.internal.registry.ResourceRegistry;
+import org.apache.wink.server.internal.timing.MethodTimings;
+import org.apache.wink.server.internal.timing.PhaseHistogram;
+import org.apache.wink.server.internal.timing.RequestPhase;
+import org.apache.wink.server.internal.timing.RequestTimings;
 
 public class AdminServlet extends AbstractRestServlet {
 
@@ -67,6 +72,8 @@ public class AdminServlet extends AbstractRestServlet {
                                                                                                               "registry";           //$NON-NLS-1$
     private static final String                                                    DOCUMENT_TYPE_RESOURCE =
                                                                                                               "resources";          //$NON-NLS-1$
+    private static final String                                                    DOCUMENT_TYPE_TIMINGS  =
+                                                                                                              "timings";            //$NON-NLS-1$
     private static final String                                                    SLASH                  =
                                                                                                               "/";                  //$NON-NLS-1$
 
@@ -106,6 +113,9 @@ public class AdminServlet extends AbstractRestServlet {
             buildRegistryDocument(request, response, registry);
         } else if (parameterValues[0].equals(DOCUMENT_TYPE_RESOURCE)) {
             buildResourcesDocument(request, response, registry);
+        } else if (parameterValues[0].equals(DOCUMENT_TYPE_TIMINGS)) {
+            buildTimingsDocument(response, requestProcessor.getConfiguration()
+                .getRequestTimings());
         } else {
             buildAdminHome(response);
             return;
@@ -400,6 +410,47 @@ public class AdminServlet extends AbstractRestServlet {
         }
     }
 
+    /**
+     * Build Timings Document. This document will contain the durations of the
+     * request phases per resource method. It is empty if the request timings
+     * are disabled.
+     * 
+     * @param response
+     * @param requestTimings the timings, or null
+     * @throws ServletException
+     * @throws IOException
+     */
+    private void buildTimingsDocument(HttpServletResponse response, RequestTimings requestTimings)
+        throws ServletException, IOException {
+        Timings timings = resourcesObjectFactory.createTimings();
+        if (requestTimings != null) {
+            for (MethodTimings methodTimings : requestTimings.getMethodTimings()) {
+                Timings.Method xmlMethod = resourcesObjectFactory.createTimingsMethod();
+                xmlMethod.setName(methodTimings.getName());
+                for (RequestPhase phase : RequestPhase.values()) {
+                    PhaseHistogram histogram = methodTimings.getHistogram(phase);
+                    if (histogram.getCount() == 0) {
+                        continue;
+                    }
+                    Timings.Method.Phase xmlPhase =
+                        resourcesObjectFactory.createTimingsMethodPhase();
+                    xmlPhase.setName(phase.name());
+                    xmlPhase.setCount(histogram.getCount());
+                    xmlPhase.setMeanNanos(histogram.getMeanNanos());
+                    xmlPhase.setP50Nanos(histogram.getPercentileNanos(50));
+                    xmlPhase.setP90Nanos(histogram.getPercentileNanos(90));
+                    xmlPhase.setP99Nanos(histogram.getPercentileNanos(99));
+                    xmlPhase.setMaxNanos(histogram.getMaxNanos());
+                    xmlMethod.getPhase().add(xmlPhase);
+                }
+                if (!xmlMethod.getPhase().isEmpty()) {
+                    timings.getMethod().add(xmlMethod);
+                }
+            }
+        }
+        writeDocument(response, timings);
+    }
+
     /**
      * Write XmlObject to the wire
      * 
@@ -463,6 +514,11 @@ public class AdminServlet extends AbstractRestServlet {
                 + DOCUMENT_TYPE_REGISTRY
                 + "\"> Wink Resource registry xml view</a>&#45&#62\r\n" //$NON-NLS-1$
                 + "</h2>\r\n" //$NON-NLS-1$
+                + "<h2>\r\n" //$NON-NLS-1$
+                + "<a href=\"?doc=" //$NON-NLS-1$
+                + DOCUMENT_TYPE_TIMINGS
+                + "\"> Request phase timings xml view</a>&#45&#62\r\n" //$NON-NLS-1$
+                + "</h2>\r\n" //$NON-NLS-1$
                 + "</form>\r\n" //$NON-NLS-1$
                 + "</body>\r\n" //$NON-NLS-1$
                 + "</html>"); //$NON-NLS-1$
@@ -34,11 +34,14 @@ import org.apache.wink.common.internal.i18n.Messages;
 import org.apache.wink.common.internal.lifecycle.ObjectFactory;
 import org.apache.wink.common.internal.properties.WinkSystemProperties;
 import org.apache.wink.common.internal.utils.ClassUtils;
+import org.apache.wink.common.internal.utils.ManagedCaches;
 import org.apache.wink.server.internal.DeploymentConfiguration;
 import org.apache.wink.server.internal.RequestProcessor;
+import org.apache.wink.server.internal.accesslog.AccessLog;
 import org.apache.wink.server.internal.application.ServletWinkApplication;
 import org.apache.wink.server.internal.log.Providers;
 import org.apache.wink.server.internal.log.Resources;
+import org.apache.wink.server.internal.timing.RequestTimings;
 import org.apache.wink.server.internal.utils.ServletFileLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -320,6 +323,17 @@ public class RestServlet extends AbstractRestServlet {
             .getApplicationObjectFactories()) {
             of.releaseAll(null);
         }
+        RequestTimings requestTimings = getRequestProcessor().getConfiguration().getRequestTimings();
+        if (requestTimings != null) {
+            requestTimings.unregister();
+        }
+        if (getRequestProcessor().getConfiguration().isCacheStatistics()) {
+            ManagedCaches.disable();
+        }
+        AccessLog accessLog = getRequestProcessor().getConfiguration().getAccessLog();
+        if (accessLog != null) {
+            accessLog.stop();
+        }
 
         /*
          * Be sure to call super.destroy()
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.timing;
+
+/**
+ * The durations of the phases of the requests that were dispatched to a single
+ * resource method
+ */
+public class MethodTimings {
+
+    private final String           name;
+    private final PhaseHistogram[] histograms;
+
+    public MethodTimings(String name) {
+        this.name = name;
+        RequestPhase[] phases = RequestPhase.values();
+        histograms = new PhaseHistogram[phases.length];
+        for (int i = 0; i < phases.length; ++i) {
+            histograms[i] = new PhaseHistogram();
+        }
+    }
+
+    /**
+     * @return the HTTP method and the full name of the resource method, for
+     *         example <tt>GET com.example.BookResource.getBook</tt>
+     */
+    public String getName() {
+        return name;
+    }
+
+    public PhaseHistogram getHistogram(RequestPhase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    public void reset() {
+        for (PhaseHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.timing;
+
+import org.apache.wink.server.handlers.HandlersChain;
+import org.apache.wink.server.handlers.MessageContext;
+
+/**
+ * Continues the chain of a timed handler. The phase of the handler is stopped
+ * while the rest of the chain runs, so that only the time spent in the handler
+ * itself is accounted to its phase.
+ */
+class PausingHandlersChain implements HandlersChain {
+
+    private final HandlersChain chain;
+    private final RequestTimer  timer;
+    private final RequestPhase  phase;
+
+    PausingHandlersChain(HandlersChain chain, RequestTimer timer, RequestPhase phase) {
+        this.chain = chain;
+        this.timer = timer;
+        this.phase = phase;
+    }
+
+    public void doChain(MessageContext context) throws Throwable {
+        timer.stop(phase);
+        try {
+            chain.doChain(context);
+        } finally {
+            timer.start(phase);
+        }
+    }
+}
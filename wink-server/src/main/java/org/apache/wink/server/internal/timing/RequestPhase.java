@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.timing;
+
+/**
+ * The phases of a request whose durations are recorded by the
+ * {@link RequestTimings}
+ */
+public enum RequestPhase {
+    /** matching the request path to a root resource */
+    ROOT_RESOURCE_MATCH,
+    /** matching the resource method, including sub-resource locators */
+    METHOD_MATCH,
+    /** creating the parameters of the resource method */
+    PARAMETER_CREATION,
+    /** invoking the resource method */
+    INVOCATION,
+    /** negotiating the media type of the response */
+    MEDIA_TYPE_NEGOTIATION,
+    /** finding the MessageBodyWriter of the response entity */
+    WRITER_SELECTION,
+    /** writing the response headers and entity */
+    SERIALIZATION
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.timing;
+
+import org.apache.wink.server.handlers.MessageContext;
+import org.apache.wink.server.internal.handlers.SearchResult;
+
+/**
+ * Accumulates the durations of the phases of a single request. The timer is
+ * set as an attribute of the message context when the request timings are
+ * enabled, and is recorded into the {@link RequestTimings} once the response
+ * was written.
+ * <p>
+ * A phase may be started and stopped several times, for example when a
+ * handler is paused while the rest of the chain runs; the durations are
+ * summed. The timer is used by one thread at a time.
+ */
+public class RequestTimer {
+
+    private final RequestTimings timings;
+    private final long[]         starts    = new long[RequestPhase.values().length];
+    private final long[]         durations = new long[RequestPhase.values().length];
+    private int                  recorded;
+    private boolean              committed;
+
+    public RequestTimer(RequestTimings timings) {
+        this.timings = timings;
+    }
+
+    /**
+     * @return the timer of the request of the specified context, or null if
+     *         the request timings are disabled
+     */
+    public static RequestTimer get(MessageContext context) {
+        return context.getAttribute(RequestTimer.class);
+    }
+
+    public void start(RequestPhase phase) {
+        starts[phase.ordinal()] = System.nanoTime();
+    }
+
+    public void stop(RequestPhase phase) {
+        add(phase, System.nanoTime() - starts[phase.ordinal()]);
+    }
+
+    public void add(RequestPhase phase, long nanos) {
+        durations[phase.ordinal()] += nanos;
+        recorded |= 1 << phase.ordinal();
+    }
+
+    public boolean isRecorded(RequestPhase phase) {
+        return (recorded & (1 << phase.ordinal())) != 0;
+    }
+
+    public long getDuration(RequestPhase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Record the durations into the timings of the resource method of the
+     * search result. Only the first call has an effect.
+     *
+     * @param searchResult the search result of the request, or null
+     */
+    public void commit(SearchResult searchResult) {
+        if (committed) {
+            return;
+        }
+        committed = true;
+        timings.record(this, searchResult);
+    }
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.timing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.wink.common.internal.i18n.Messages;
+import org.apache.wink.common.internal.registry.metadata.MethodMetadata;
+import org.apache.wink.server.internal.handlers.SearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the durations of the request phases per resource method.
+ * <p>
+ * The timings are enabled by setting the <tt>wink.requestTimings</tt>
+ * property. They are exposed as an MBean and by the <tt>timings</tt> document
+ * of the AdminServlet.
+ */
+public class RequestTimings implements RequestTimingsMBean {
+
+    private static final Logger                       logger    =
+                                                                    LoggerFactory
+                                                                        .getLogger(RequestTimings.class);
+
+    /**
+     * The name of the timings of the requests that were not dispatched to a
+     * resource method
+     */
+    public static final String                        UNMATCHED = "unmatched";                        //$NON-NLS-1$
+
+    private final ConcurrentMap<Method, MethodTimings> methods   =
+                                                                    new ConcurrentHashMap<Method, MethodTimings>();
+    private final MethodTimings                       unmatched = new MethodTimings(UNMATCHED);
+    private ObjectName                                objectName;
+
+    /**
+     * Record the phases of a finished request
+     *
+     * @param timer the timer of the request
+     * @param searchResult the search result of the request, or null if the
+     *            request failed before a root resource was searched
+     */
+    void record(RequestTimer timer, SearchResult searchResult) {
+        MethodTimings timings = getMethodTimings(searchResult);
+        for (RequestPhase phase : RequestPhase.values()) {
+            if (timer.isRecorded(phase)) {
+                timings.getHistogram(phase).record(timer.getDuration(phase));
+            }
+        }
+    }
+
+    private MethodTimings getMethodTimings(SearchResult searchResult) {
+        if (searchResult == null || !searchResult.isFound() || searchResult.getMethod() == null) {
+            return unmatched;
+        }
+        MethodMetadata metadata = searchResult.getMethod().getMetadata();
+        Method method = metadata.getReflectionMethod();
+        MethodTimings timings = methods.get(method);
+        if (timings == null) {
+            String name =
+                metadata.getHttpMethod() + " " //$NON-NLS-1$
+                    + method.getDeclaringClass().getName()
+                    + "." //$NON-NLS-1$
+                    + method.getName();
+            timings = new MethodTimings(name);
+            MethodTimings existing = methods.putIfAbsent(method, timings);
+            if (existing != null) {
+                timings = existing;
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * @return the timings of all the resource methods that were invoked,
+     *         followed by the timings of the unmatched requests
+     */
+    public List<MethodTimings> getMethodTimings() {
+        Collection<MethodTimings> values = methods.values();
+        List<MethodTimings> list = new ArrayList<MethodTimings>(values.size() + 1);
+        list.addAll(values);
+        list.add(unmatched);
+        return list;
+    }
+
+    public MethodTimings getMethodTimings(String resourceMethod) {
+        if (UNMATCHED.equals(resourceMethod)) {
+            return unmatched;
+        }
+        for (MethodTimings timings : methods.values()) {
+            if (timings.getName().equals(resourceMethod)) {
+                return timings;
+            }
+        }
+        return null;
+    }
+
+    // management interface
+
+    public String[] getResourceMethods() {
+        List<MethodTimings> list = getMethodTimings();
+        String[] names = new String[list.size()];
+        for (int i = 0; i < names.length; ++i) {
+            names[i] = list.get(i).getName();
+        }
+        return names;
+    }
+
+    public String[] getPhases() {
+        RequestPhase[] phases = RequestPhase.values();
+        String[] names = new String[phases.length];
+        for (int i = 0; i < names.length; ++i) {
+            names[i] = phases[i].name();
+        }
+        return names;
+    }
+
+    public long getCount(String resourceMethod, String phase) {
+        PhaseHistogram histogram = getHistogram(resourceMethod, phase);
+        return (histogram == null) ? 0 : histogram.getCount();
+    }
+
+    public long getMeanNanos(String resourceMethod, String phase) {
+        PhaseHistogram histogram = getHistogram(resourceMethod, phase);
+        return (histogram == null) ? 0 : histogram.getMeanNanos();
+    }
+
+    public long getMaxNanos(String resourceMethod, String phase) {
+        PhaseHistogram histogram = getHistogram(resourceMethod, phase);
+        return (histogram == null) ? 0 : histogram.getMaxNanos();
+    }
+
+    public long getPercentileNanos(String resourceMethod, String phase, double percentile) {
+        PhaseHistogram histogram = getHistogram(resourceMethod, phase);
+        return (histogram == null) ? 0 : histogram.getPercentileNanos(percentile);
+    }
+
+    public void reset() {
+        for (MethodTimings timings : methods.values()) {
+            timings.reset();
+        }
+        unmatched.reset();
+    }
+
+    private PhaseHistogram getHistogram(String resourceMethod, String phase) {
+        MethodTimings timings = getMethodTimings(resourceMethod);
+        if (timings == null) {
+            return null;
+        }
+        try {
+            return timings.getHistogram(RequestPhase.valueOf(phase));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // registration
+
+    /**
+     * Register this instance with the platform MBeanServer. A failure is
+     * logged, the timings are still collected.
+     *
+     * @param name the name of the servlet or filter that owns the timings
+     */
+    public synchronized void register(String name) {
+        try {
+            ObjectName on =
+                new ObjectName("org.apache.wink:type=RequestTimings,name=" //$NON-NLS-1$
+                    + ObjectName.quote(String.valueOf(name))
+                    + ",id=" //$NON-NLS-1$
+                    + System.identityHashCode(this));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, on);
+            objectName = on;
+            logger.trace("Registered request timings MBean {}", on); //$NON-NLS-1$
+        } catch (Exception e) {
+            logger.warn(Messages.getMessage("mbeanRegistrationFailed", name), e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Unregister this instance from the platform MBeanServer, if it was
+     * registered
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (Exception e) {
+            logger.trace("Could not unregister the request timings MBean", e); //$NON-NLS-1$
+        }
+        objectName = null;
+    }
+
+    public synchronized ObjectName getObjectName() {
+        return objectName;
+    }
+}
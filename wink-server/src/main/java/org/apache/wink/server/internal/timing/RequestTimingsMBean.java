@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.timing;
+
+/**
+ * Management interface of the {@link RequestTimings}. All durations are in
+ * nanoseconds.
+ */
+public interface RequestTimingsMBean {
+
+    /**
+     * @return the names of the resource methods that have timings, including
+     *         {@link RequestTimings#UNMATCHED} for the requests that were not
+     *         dispatched to a resource method
+     */
+    public String[] getResourceMethods();
+
+    /**
+     * @return the names of the timed phases
+     */
+    public String[] getPhases();
+
+    public long getCount(String resourceMethod, String phase);
+
+    public long getMeanNanos(String resourceMethod, String phase);
+
+    public long getMaxNanos(String resourceMethod, String phase);
+
+    /**
+     * @param percentile a percentile between 0 and 100
+     */
+    public long getPercentileNanos(String resourceMethod, String phase, double percentile);
+
+    /**
+     * Clear the timings of all the resource methods
+     */
+    public void reset();
+
+}
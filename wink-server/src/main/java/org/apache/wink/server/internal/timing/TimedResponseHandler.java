@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.timing;
+
+import java.util.Properties;
+
+import org.apache.wink.server.handlers.HandlersChain;
+import org.apache.wink.server.handlers.MessageContext;
+import org.apache.wink.server.handlers.ResponseHandler;
+
+/**
+ * Accounts the time spent in a response handler to a {@link RequestPhase}.
+ * The handler is invoked directly if the request has no {@link RequestTimer}.
+ */
+public class TimedResponseHandler implements ResponseHandler {
+
+    private final ResponseHandler handler;
+    private final RequestPhase    phase;
+
+    public TimedResponseHandler(ResponseHandler handler, RequestPhase phase) {
+        this.handler = handler;
+        this.phase = phase;
+    }
+
+    public void init(Properties props) {
+        handler.init(props);
+    }
+
+    public void handleResponse(MessageContext context, HandlersChain chain) throws Throwable {
+        RequestTimer timer = RequestTimer.get(context);
+        if (timer == null) {
+            handler.handleResponse(context, chain);
+            return;
+        }
+        timer.start(phase);
+        try {
+            handler.handleResponse(context, new PausingHandlersChain(chain, timer, phase));
+        } finally {
+            timer.stop(phase);
+        }
+    }
+
+    public ResponseHandler getHandler() {
+        return handler;
+    }
+
+    @Override
+    public String toString() {
+        return handler.toString();
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *******************************************************************************/
+
+package org.apache.wink.server.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A handle to a suspended request.
+ * <p>
+ * Injecting this interface to a resource method parameter using the
+ * {@link javax.ws.rs.core.Context} annotation suspends the request: the
+ * return value of the method is ignored, and the response is produced only
+ * when one of the <code>resume</code> methods is called, possibly by another
+ * thread. If the servlet container supports asynchronous processing (Servlet
+ * 3.0 and the servlet or filter is declared with
+ * <code>&lt;async-supported&gt;true&lt;/async-supported&gt;</code>), the
+ * container thread is released while the request is suspended; otherwise the
+ * container thread waits for the request to be resumed.
+ * <p>
+ * If the request is not resumed before the timeout expires, a 503 (Service
+ * Unavailable) response is returned.
+ */
+public interface AsyncResponse {
+
+    /**
+     * Resume the request with the specified response entity. The entity is
+     * handled as if it was returned by the resource method, so it may also be
+     * a {@link javax.ws.rs.core.Response}.
+     *
+     * @param response the response entity, or null for an empty response
+     * @return true if the request was resumed, or false if the request was
+     *         already resumed, timed out or cancelled
+     */
+    public boolean resume(Object response);
+
+    /**
+     * Resume the request with the specified exception. The exception is
+     * handled as if it was thrown by the resource method.
+     *
+     * @param response the exception to map to a response
+     * @return true if the request was resumed, or false if the request was
+     *         already resumed, timed out or cancelled
+     */
+    public boolean resume(Throwable response);
+
+    /**
+     * Set the time the request may stay suspended. A time of 0 or less means
+     * the default timeout of the servlet container when the request is
+     * processed asynchronously, and 30 seconds otherwise.
+     *
+     * @param time the timeout
+     * @param unit the unit of the timeout
+     */
+    public void setTimeout(long time, TimeUnit unit);
+
+    /**
+     * @return true if the request is suspended and was not resumed yet
+     */
+    public boolean isSuspended();
+
+    /**
+     * @return true if the request was resumed, timed out or cancelled
+     */
+    public boolean isDone();
+
+}
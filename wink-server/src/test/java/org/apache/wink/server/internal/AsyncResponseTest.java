@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *******************************************************************************/
+
+package org.apache.wink.server.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
+import org.apache.wink.server.utils.AsyncResponse;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests suspending and resuming requests using {@link AsyncResponse}
+ */
+public class AsyncResponseTest extends MockServletInvocationTest {
+
+    static volatile AsyncResponse suspended;
+
+    @Override
+    protected Class<?>[] getClasses() {
+        return new Class<?>[] {Resource.class};
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        suspended = null;
+    }
+
+    @Path("/async")
+    public static class Resource {
+
+        @GET
+        @Path("later")
+        @Produces(MediaType.TEXT_PLAIN)
+        public void later(@Context final AsyncResponse asyncResponse) {
+            suspended = asyncResponse;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        // resume anyway
+                    }
+                    asyncResponse.resume("resumed later");
+                }
+            }.start();
+        }
+
+        @GET
+        @Path("now")
+        @Produces(MediaType.TEXT_PLAIN)
+        public void now(@Context AsyncResponse asyncResponse) {
+            assertTrue(asyncResponse.isSuspended());
+            assertTrue(asyncResponse.resume("resumed now"));
+            assertFalse(asyncResponse.resume("resumed twice"));
+        }
+
+        @GET
+        @Path("error")
+        @Produces(MediaType.TEXT_PLAIN)
+        public void error(@Context AsyncResponse asyncResponse) {
+            asyncResponse.resume(new WebApplicationException(404));
+        }
+
+        @GET
+        @Path("never")
+        @Produces(MediaType.TEXT_PLAIN)
+        public String never(@Context AsyncResponse asyncResponse) {
+            suspended = asyncResponse;
+            asyncResponse.setTimeout(50, TimeUnit.MILLISECONDS);
+            return "ignored";
+        }
+    }
+
+    public void testResumeFromAnotherThread() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", "/async/later", "text/plain");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        assertEquals("resumed later", response.getContentAsString());
+        assertTrue(suspended.isDone());
+        assertFalse(suspended.resume("again"));
+    }
+
+    public void testResumeBeforeReturning() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", "/async/now", "text/plain");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        assertEquals("resumed now", response.getContentAsString());
+    }
+
+    public void testResumeWithException() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", "/async/error", "text/plain");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(404, response.getStatus());
+    }
+
+    public void testTimeout() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", "/async/never", "text/plain");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(503, response.getStatus());
+        assertTrue(suspended.isDone());
+        assertFalse(suspended.resume("too late"));
+    }
+
+    public void testAsyncContainer() throws Exception {
+        AsyncMockHttpServletRequest request = new AsyncMockHttpServletRequest("/async/later");
+        MockHttpServletResponse response = invoke(request);
+        // the container thread returned before the resource resumed the
+        // request
+        assertNotNull(request.asyncContext);
+        assertTrue(request.asyncContext.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(200, response.getStatus());
+        assertEquals("resumed later", response.getContentAsString());
+    }
+
+    public void testAsyncContainerTimeout() throws Exception {
+        AsyncMockHttpServletRequest request = new AsyncMockHttpServletRequest("/async/never");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(50, request.asyncContext.timeout);
+        assertFalse(response.isCommitted());
+        request.asyncContext.timeout();
+        assertTrue(request.asyncContext.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(503, response.getStatus());
+        assertFalse(suspended.resume("too late"));
+    }
+
+    /**
+     * A request of a container that supports asynchronous processing
+     */
+    private static class AsyncMockHttpServletRequest extends MockHttpServletRequest {
+
+        MockAsyncContext asyncContext;
+
+        AsyncMockHttpServletRequest(String requestURI) {
+            super("GET", requestURI);
+            addHeader("Accept", "text/plain");
+        }
+
+        @Override
+        public String getPathTranslated() {
+            return null;
+        }
+
+        public boolean isAsyncSupported() {
+            return true;
+        }
+
+        public boolean isAsyncStarted() {
+            return asyncContext != null;
+        }
+
+        public AsyncContext startAsync() {
+            asyncContext = new MockAsyncContext(this);
+            return asyncContext;
+        }
+
+        public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+            return startAsync();
+        }
+
+        public AsyncContext getAsyncContext() {
+            return asyncContext;
+        }
+
+        public DispatcherType getDispatcherType() {
+            return DispatcherType.REQUEST;
+        }
+
+        public ServletContext getServletContext() {
+            return null;
+        }
+    }
+
+    private static class MockAsyncContext implements AsyncContext {
+
+        final ServletRequest      request;
+        final List<AsyncListener> listeners = new ArrayList<AsyncListener>();
+        final CountDownLatch      completed = new CountDownLatch(1);
+        long                      timeout   = -1;
+
+        MockAsyncContext(ServletRequest request) {
+            this.request = request;
+        }
+
+        void timeout() throws Exception {
+            for (AsyncListener listener : listeners) {
+                listener.onTimeout(new AsyncEvent(this));
+            }
+        }
+
+        public void complete() {
+            completed.countDown();
+        }
+
+        public void addListener(AsyncListener listener) {
+            listeners.add(listener);
+        }
+
+        public void addListener(AsyncListener listener,
+                                ServletRequest servletRequest,
+                                ServletResponse servletResponse) {
+            listeners.add(listener);
+        }
+
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+        public long getTimeout() {
+            return timeout;
+        }
+
+        public ServletRequest getRequest() {
+            return request;
+        }
+
+        public ServletResponse getResponse() {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean hasOriginalRequestAndResponse() {
+            return true;
+        }
+
+        public void dispatch() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void dispatch(String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void dispatch(ServletContext context, String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void start(Runnable run) {
+            throw new UnsupportedOperationException();
+        }
+
+        public <T extends AsyncListener> T createListener(Class<T> clazz) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.wink.common.internal.utils.CacheGroup;
+import org.apache.wink.common.internal.utils.ManagedCaches;
+import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.apache.wink.test.mock.TestUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests the <tt>wink.cacheStatistics</tt> property
+ */
+public class CacheStatisticsTest extends MockServletInvocationTest {
+
+    private static final String RESOURCE_CACHE = "ResourceRegistry.uriToResourceCache";
+
+    @Override
+    protected Class<?>[] getClasses() {
+        return new Class<?>[] {Resource.class};
+    }
+
+    @Override
+    protected String getPropertiesFile() {
+        return TestUtils.packageToPath(getClass().getName()) + ".properties";
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        getServlet().destroy();
+        super.tearDown();
+    }
+
+    @Path("/cached")
+    public static class Resource {
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String get() {
+            return "cached";
+        }
+    }
+
+    public void testResourceCacheStatistics() throws Exception {
+        assertTrue(ManagedCaches.isEnabled());
+        CacheGroup group = ManagedCaches.getGroup(RESOURCE_CACHE);
+        group.resetStatistics();
+        for (int i = 0; i < 3; ++i) {
+            MockHttpServletRequest request =
+                MockRequestConstructor.constructMockRequest("GET", "/cached", "text/plain");
+            MockHttpServletResponse response = invoke(request);
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(1, group.getMisses());
+        assertEquals(2, group.getHits());
+        assertEquals(1, group.getLoads());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = ManagedCaches.getObjectName(RESOURCE_CACHE);
+        assertTrue(server.isRegistered(objectName));
+        assertEquals(Long.valueOf(2), server.getAttribute(objectName, "Hits"));
+        server.invoke(objectName, "clear", null, null);
+        assertEquals(0, group.getSize());
+    }
+}
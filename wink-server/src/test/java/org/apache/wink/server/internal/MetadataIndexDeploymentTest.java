@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Application;
+
+import junit.framework.TestCase;
+
+import org.apache.wink.common.internal.registry.metadata.ClassMetadata;
+import org.apache.wink.common.internal.registry.metadata.MetadataIndex;
+
+/**
+ * Tests that each deployment loads and uses its own metadata index, as set by
+ * its <tt>wink.metadataIndex</tt> property
+ */
+public class MetadataIndexDeploymentTest extends TestCase {
+
+    private File        directory;
+    private ClassLoader contextClassLoader;
+
+    @Path("indexed")
+    public static class Resource {
+
+        @GET
+        public String get() {
+            return null;
+        }
+
+        // left out of the index on purpose
+        @POST
+        public void post(String entity) {
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = File.createTempFile("wink-metadata-index", "");
+        directory.delete();
+        File metaInf = new File(directory, "META-INF");
+        metaInf.mkdirs();
+        OutputStream os = new FileOutputStream(new File(metaInf, "wink-metadata-index"));
+        try {
+            os.write(("class " + Resource.class.getName()
+                + " resource stamp="
+                + MetadataIndex.getStamp(Resource.class)
+                + "\nmethod get()\n").getBytes("UTF-8"));
+        } finally {
+            os.close();
+        }
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread()
+            .setContextClassLoader(new URLClassLoader(new URL[] {directory.toURI().toURL()},
+                                                      getClass().getClassLoader()));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        new File(directory, "META-INF/wink-metadata-index").delete();
+        new File(directory, "META-INF").delete();
+        directory.delete();
+        super.tearDown();
+    }
+
+    private static DeploymentConfiguration deploy(boolean metadataIndex) {
+        DeploymentConfiguration configuration = new DeploymentConfiguration();
+        Properties properties = new Properties();
+        properties.setProperty("wink.metadataIndex", String.valueOf(metadataIndex));
+        configuration.setProperties(properties);
+        configuration.init();
+        configuration.addApplication(new Application() {
+
+            @Override
+            public Set<Class<?>> getClasses() {
+                return Collections.<Class<?>> singleton(Resource.class);
+            }
+        }, false);
+        return configuration;
+    }
+
+    public void testEachDeploymentHonorsItsProperty() {
+        DeploymentConfiguration indexed = deploy(true);
+        DeploymentConfiguration reflective = deploy(false);
+        DeploymentConfiguration otherIndexed = deploy(true);
+
+        assertNotNull(indexed.getMetadataIndex());
+        assertNull(reflective.getMetadataIndex());
+        assertNotNull(otherIndexed.getMetadataIndex());
+        assertNotSame(indexed.getMetadataIndex(), otherIndexed.getMetadataIndex());
+
+        // only the indexed method is collected when the index is used
+        ClassMetadata metadata =
+            indexed.getResourceRegistry().getRecord(Resource.class).getMetadata();
+        assertEquals(1, metadata.getResourceMethods().size());
+        metadata = reflective.getResourceRegistry().getRecord(Resource.class).getMetadata();
+        assertEquals(2, metadata.getResourceMethods().size());
+        metadata = otherIndexed.getResourceRegistry().getRecord(Resource.class).getMetadata();
+        assertEquals(1, metadata.getResourceMethods().size());
+
+        // the index is not left on the deploying thread
+        assertNull(MetadataIndex.getCurrent());
+    }
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal;
+
+import javax.ws.rs.core.Response.Status;
+
+import junit.framework.TestCase;
+
+public class StatusWebApplicationExceptionTest extends TestCase {
+
+    @Override
+    protected void tearDown() throws Exception {
+        StatusWebApplicationException.setFillStackTrace(true);
+        super.tearDown();
+    }
+
+    public void testFillStackTrace() {
+        StatusWebApplicationException e = new StatusWebApplicationException(Status.NOT_FOUND);
+        assertTrue(e.getStackTrace().length > 0);
+        assertEquals(404, e.getResponse().getStatus());
+    }
+
+    public void testNoStackTrace() {
+        StatusWebApplicationException.setFillStackTrace(false);
+        StatusWebApplicationException e = new StatusWebApplicationException(Status.NOT_FOUND);
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals(404, e.getResponse().getStatus());
+    }
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class AccessLogBufferTest extends TestCase {
+
+    private static AccessLogEntry add(AccessLogBuffer buffer, int status) {
+        AccessLogEntry entry = buffer.claim();
+        if (entry != null) {
+            entry.setStatus(status);
+            buffer.publish(entry);
+        }
+        return entry;
+    }
+
+    public void testCapacity() {
+        assertEquals(8, new AccessLogBuffer(5).getCapacity());
+        assertEquals(8, new AccessLogBuffer(8).getCapacity());
+    }
+
+    public void testDrainInOrder() {
+        AccessLogBuffer buffer = new AccessLogBuffer(4);
+        add(buffer, 200);
+        add(buffer, 201);
+        add(buffer, 202);
+        List<AccessLogEntry> batch = new ArrayList<AccessLogEntry>();
+        assertEquals(2, buffer.drain(batch, 2));
+        assertEquals(200, batch.get(0).getStatus());
+        assertEquals(201, batch.get(1).getStatus());
+        buffer.release(2);
+        batch.clear();
+        assertEquals(1, buffer.drain(batch, 10));
+        assertEquals(202, batch.get(0).getStatus());
+        buffer.release(1);
+        assertEquals(0, buffer.size());
+    }
+
+    public void testDropWhenFull() {
+        AccessLogBuffer buffer = new AccessLogBuffer(2);
+        assertNotNull(add(buffer, 200));
+        assertNotNull(add(buffer, 201));
+        assertNull(add(buffer, 202));
+        assertNull(add(buffer, 203));
+        assertEquals(2, buffer.getDroppedCount());
+
+        // the drained entries are reused only once they are released
+        List<AccessLogEntry> batch = new ArrayList<AccessLogEntry>();
+        assertEquals(2, buffer.drain(batch, 10));
+        assertNull(add(buffer, 204));
+        buffer.release(2);
+        assertNotNull(add(buffer, 205));
+        assertEquals(3, buffer.getDroppedCount());
+    }
+
+    public void testUnpublishedEntryStopsDrain() {
+        AccessLogBuffer buffer = new AccessLogBuffer(4);
+        AccessLogEntry pending = buffer.claim();
+        add(buffer, 201);
+        List<AccessLogEntry> batch = new ArrayList<AccessLogEntry>();
+        assertEquals(0, buffer.drain(batch, 10));
+        pending.setStatus(200);
+        buffer.publish(pending);
+        assertEquals(2, buffer.drain(batch, 10));
+        assertEquals(200, batch.get(0).getStatus());
+        assertEquals(201, batch.get(1).getStatus());
+    }
+
+    public void testFormat() {
+        AccessLogBuffer buffer = new AccessLogBuffer(1);
+        AccessLogEntry entry = buffer.claim();
+        entry.setTimestamp(1000);
+        entry.setHttpMethod("GET");
+        entry.setRequestUri("/a/1");
+        entry.setTemplates("/a", "{id}");
+        entry.setStatus(200);
+        entry.setBytes(12);
+        entry.setDuration(5000);
+        assertEquals("/a/{id}", entry.getUriTemplate());
+        assertEquals("1000 GET /a/1 /a/{id} 200 12 - 5", entry.toString());
+    }
+}
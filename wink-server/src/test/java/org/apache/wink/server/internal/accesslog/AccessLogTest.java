@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.accesslog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.wink.server.internal.RequestProcessor;
+import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
+import org.apache.wink.server.internal.timing.RequestPhase;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.apache.wink.test.mock.TestUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests the entries written by the access log
+ */
+public class AccessLogTest extends MockServletInvocationTest {
+
+    public static class CollectingSink implements AccessLogSink {
+
+        static final List<String> entries = new ArrayList<String>();
+        static final List<String> phases  = new ArrayList<String>();
+        static boolean            closed;
+
+        public void init(Properties properties) {
+            synchronized (entries) {
+                entries.clear();
+                phases.clear();
+                closed = false;
+            }
+        }
+
+        public void write(List<AccessLogEntry> batch) {
+            synchronized (entries) {
+                for (AccessLogEntry entry : batch) {
+                    entries.add(entry.getHttpMethod() + " "
+                        + entry.getRequestUri()
+                        + " "
+                        + entry.getUriTemplate()
+                        + " "
+                        + entry.getStatus()
+                        + " "
+                        + entry.getBytes()
+                        + " "
+                        + entry.getMediaType());
+                    assertTrue(entry.getDuration() >= 0);
+                    phases.add(String.valueOf(entry.isRecorded(RequestPhase.INVOCATION)));
+                }
+            }
+        }
+
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Override
+    protected Class<?>[] getClasses() {
+        return new Class<?>[] {Resource.class};
+    }
+
+    @Override
+    protected String getPropertiesFile() {
+        return TestUtils.packageToPath(getClass().getName()) + ".properties";
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        getAccessLog().stop();
+        super.tearDown();
+    }
+
+    @Path("/logged")
+    public static class Resource {
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String get() {
+            return "root";
+        }
+
+        @GET
+        @Path("{id}")
+        @Produces(MediaType.TEXT_PLAIN)
+        public String get(@PathParam("id") String id) {
+            if ("fail".equals(id)) {
+                throw new WebApplicationException(409);
+            }
+            return "item " + id;
+        }
+    }
+
+    private AccessLog getAccessLog() {
+        return RequestProcessor.getRequestProcessor(getServlet().getServletContext(), null)
+            .getConfiguration().getAccessLog();
+    }
+
+    private void get(String uri, int status) throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", uri, "text/plain");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(status, response.getStatus());
+    }
+
+    public void testEntries() throws Exception {
+        get("/logged", 200);
+        get("/logged/12", 200);
+        get("/logged/fail", 409);
+        get("/unknown", 404);
+
+        // stopping the access log writes the pending entries
+        AccessLog accessLog = getAccessLog();
+        accessLog.stop();
+        assertTrue(CollectingSink.closed);
+        assertEquals(0, accessLog.getBuffer().getDroppedCount());
+
+        List<String> entries = CollectingSink.entries;
+        assertEquals(4, entries.size());
+        assertEquals("GET /logged logged 200 4 text/plain", entries.get(0));
+        assertEquals("GET /logged/12 logged/{id} 200 7 text/plain", entries.get(1));
+        assertEquals("GET /logged/fail logged/{id} 409 0 null", entries.get(2));
+        assertEquals("GET /unknown null 404 0 null", entries.get(3));
+        assertEquals("true", CollectingSink.phases.get(1));
+        assertEquals("false", CollectingSink.phases.get(3));
+    }
+}
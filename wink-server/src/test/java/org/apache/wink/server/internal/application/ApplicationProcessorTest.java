@@ -73,6 +73,20 @@ public class ApplicationProcessorTest extends TestCase {
             }
             classes.add(clazz);
         }
+
+        public void addResources(List<?> resources, double priority) {
+            for (Object resource : resources) {
+                try {
+                    if (resource instanceof Class<?>) {
+                        addResource((Class<?>)resource, priority);
+                    } else {
+                        addResource(resource, priority);
+                    }
+                } catch (BadResource e) {
+                    // the registry logs and ignores the resources that fail
+                }
+            }
+        }
     }
 
     private static class ProvidersRegistryMock extends ProvidersRegistry {
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.lifecycle;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.wink.common.annotations.Scope;
+import org.apache.wink.common.annotations.Scope.ScopeType;
+import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests that the instances of a resource with the pooled scope are reused and
+ * injected again for each request
+ */
+public class PooledResourceTest extends MockServletInvocationTest {
+
+    @Override
+    protected Class<?>[] getClasses() {
+        return new Class<?>[] {PooledResource.class};
+    }
+
+    @Path("/pooled")
+    @Scope(ScopeType.POOLED)
+    public static class PooledResource {
+
+        @Context
+        private UriInfo uriInfo;
+
+        private String  name;
+
+        @QueryParam("name")
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @GET
+        public String get() {
+            return System.identityHashCode(this) + ":"
+                + uriInfo.getQueryParameters().getFirst("name")
+                + ":"
+                + name;
+        }
+    }
+
+    private String[] get(String path, String name) throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", path, "text/plain");
+        if (name != null) {
+            request.setQueryString("name=" + name);
+        }
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        return response.getContentAsString().split(":");
+    }
+
+    public void testInstanceReused() throws Exception {
+        String[] first = get("/pooled", "a");
+        assertEquals("a", first[1]);
+        assertEquals("a", first[2]);
+
+        String[] second = get("/pooled", "b");
+        assertEquals(first[0], second[0]);
+        assertEquals("b", second[1]);
+        assertEquals("b", second[2]);
+
+        // the injected values are reset
+        String[] third = get("/pooled", null);
+        assertEquals(first[0], third[0]);
+        assertEquals("null", third[1]);
+        assertEquals("null", third[2]);
+    }
+}
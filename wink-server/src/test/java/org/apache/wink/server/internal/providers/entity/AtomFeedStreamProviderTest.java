@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.providers.entity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.apache.wink.common.model.atom.AtomEntry;
+import org.apache.wink.common.model.atom.AtomFeed;
+import org.apache.wink.common.model.atom.AtomFeedStream;
+import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.apache.wink.test.mock.TestUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class AtomFeedStreamProviderTest extends MockServletInvocationTest {
+
+    @Override
+    protected Class<?>[] getClasses() {
+        return new Class<?>[] {TestResource.class};
+    }
+
+    @Path("test")
+    public static class TestResource {
+
+        @GET
+        @Path("atomfeedstream")
+        @Produces("application/atom+xml")
+        public AtomFeedStream getAtomFeedStream() throws IOException {
+            AtomFeed feed = AtomFeed.unmarshal(new StringReader(FEED));
+            List<AtomEntry> entries = new ArrayList<AtomEntry>(feed.getEntries());
+            feed.getEntries().clear();
+            return new AtomFeedStream(feed, entries.iterator());
+        }
+
+        @GET
+        @Path("generated")
+        @Produces("application/atom+xml")
+        public AtomFeedStream getGeneratedFeedStream() {
+            AtomFeed header = new AtomFeed();
+            header.setId("urn:generated");
+            return new AtomFeedStream(header, new Iterator<AtomEntry>() {
+
+                private int count = 0;
+
+                public boolean hasNext() {
+                    return count < ENTRIES;
+                }
+
+                public AtomEntry next() {
+                    AtomEntry entry = new AtomEntry();
+                    entry.setId("urn:generated:" + count++);
+                    return entry;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            });
+        }
+
+        @GET
+        @Path("failing")
+        @Produces("application/atom+xml")
+        public AtomFeedStream getFailingFeedStream() {
+            AtomFeed header = new AtomFeed();
+            header.setId("urn:failing");
+            return new AtomFeedStream(header, new FailingIterator());
+        }
+
+        @POST
+        @Path("atomfeedstream")
+        @Produces("application/atom+xml")
+        @Consumes("application/atom+xml")
+        public AtomFeedStream postAtomFeedStream(AtomFeedStream feed) {
+            return feed;
+        }
+
+        @POST
+        @Path("entries")
+        @Produces("text/plain")
+        @Consumes("application/atom+xml")
+        public String postEntries(Iterator<AtomEntry> entries) {
+            StringBuilder ids = new StringBuilder();
+            while (entries.hasNext()) {
+                ids.append(entries.next().getId()).append(' ');
+            }
+            return ids.toString().trim();
+        }
+    }
+
+    private static final int ENTRIES = 1000;
+
+    static volatile boolean   failingIteratorClosed;
+
+    public static class FailingIterator implements Iterator<AtomEntry>, Closeable {
+
+        public boolean hasNext() {
+            return true;
+        }
+
+        public AtomEntry next() {
+            throw new WebApplicationException(503);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void close() {
+            failingIteratorClosed = true;
+        }
+    }
+
+    public void testGetAtomFeedStream() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET",
+                                                        "/test/atomfeedstream",
+                                                        "application/atom+xml");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        String msg =
+            TestUtils.diffIgnoreUpdateWithAttributeQualifier(FEED, response.getContentAsString());
+        assertNull(msg, msg);
+    }
+
+    public void testPostAtomFeedStream() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("POST",
+                                                        "/test/atomfeedstream",
+                                                        "application/atom+xml");
+        request.setContentType("application/atom+xml");
+        request.setContent(FEED.getBytes());
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        String msg =
+            TestUtils.diffIgnoreUpdateWithAttributeQualifier(FEED, response.getContentAsString());
+        assertNull(msg, msg);
+    }
+
+    public void testPostEntries() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("POST", "/test/entries", "text/plain");
+        request.setContentType("application/atom+xml");
+        request.setContent(FEED.getBytes());
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        assertEquals("toptenvalidators", response.getContentAsString());
+    }
+
+    public void testGeneratedFeed() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET",
+                                                        "/test/generated",
+                                                        "application/atom+xml");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        byte[] generated = response.getContentAsByteArray();
+
+        // read the generated feed back
+        request = MockRequestConstructor.constructMockRequest("POST", "/test/entries", "text/plain");
+        request.setContentType("application/atom+xml");
+        request.setContent(generated);
+        response = invoke(request);
+        assertEquals(200, response.getStatus());
+        String[] ids = response.getContentAsString().split(" ");
+        assertEquals(ENTRIES, ids.length);
+        for (int i = 0; i < ENTRIES; ++i) {
+            assertEquals("urn:generated:" + i, ids[i]);
+        }
+    }
+
+    public void testFailingEntries() throws Exception {
+        failingIteratorClosed = false;
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET",
+                                                        "/test/failing",
+                                                        "application/atom+xml");
+        MockHttpServletResponse response = invoke(request);
+        // the header of the feed was already sent, the feed is left
+        // incomplete
+        assertFalse(response.getContentAsString().endsWith("</feed>"));
+        assertTrue(failingIteratorClosed);
+
+        // the pooled marshaller is still usable
+        testGeneratedFeed();
+    }
+
+    public void testPostNotAFeed() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("POST", "/test/entries", "text/plain");
+        request.setContentType("application/atom+xml");
+        request.setContent("<entry xmlns=\"http://www.w3.org/2005/Atom\"/>".getBytes());
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(400, response.getStatus());
+    }
+
+    private static final String FEED_STR =
+                                             "<feed xml:base=\"http://b216:8080/reporting/reports\" xmlns:opensearch=\"http://a9.com/-/spec/opensearch/1.1/\" xmlns=\"http://www.w3.org/2005/Atom\">" + "<id>urn:systinet2:reporting:collection:reportdefinition</id>"
+                                                 + "<updated>@TIME@</updated>"
+                                                 + "<title type=\"text\" xml:lang=\"en\">Report Definitions Collection</title>"
+                                                 + "<subtitle type=\"text\" xml:lang=\"en\">Collection of report definitions. Report definition is a XML document describing how to build the report. It describes data sources, data sets, business logic and rendering and report parameters. Report definitions may also use libraries.</subtitle>"
+                                                 + "<opensearch:itemsPerPage>1</opensearch:itemsPerPage>"
+                                                 + "<opensearch:startIndex>0</opensearch:startIndex>"
+                                                 + "<opensearch:totalResults>32</opensearch:totalResults>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports/?start-index=0&amp;max-results=30&amp;alt=text/plain\" type=\"text/plain\" rel=\"first\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports?alt=application/json\" type=\"application/json\" rel=\"alternate\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports\" rel=\"self\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports?alt=text/xml\" type=\"text/xml\" rel=\"alternate\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports\" type=\"application/atom+xml\" rel=\"edit\"/>"
+                                                 + "<author>"
+                                                 + "<name>admin</name>"
+                                                 + "</author>"
+                                                 + "<category label=\"report definitions\" scheme=\"urn:com:systinet:reporting:kind\" term=\"urn:com:systinet:reporting:kind:definitions:collection\"/>"
+                                                 + "<entry>"
+                                                 + "<id>toptenvalidators</id>"
+                                                 + "<updated>@TIME@</updated>"
+                                                 + "<title type=\"text\" xml:lang=\"en\">top ten validators</title>"
+                                                 + "<published>@TIME@</published>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports/toptenvalidators?alt=application/json\" type=\"application/json\" rel=\"alternate\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports/toptenvalidators?alt=text/plain\" type=\"text/plain\" rel=\"alternate\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports/toptenvalidators\" rel=\"self\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports/toptenvalidators?alt=text/xml\" type=\"text/xml\" rel=\"alternate\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports/toptenvalidators/documents/\" type=\"application/atom+xml\" rel=\"execute\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports/toptenvalidators\" type=\"application/atom+xml\" rel=\"edit\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports/toptenvalidators?alt=application/xml\" type=\"application/xml\" rel=\"alternate\"/>"
+                                                 + "<link href=\"http://b216:8080/reporting/reports/toptenvalidators\" type=\"application/xml\" rel=\"edit-media\"/>"
+                                                 + "<author>"
+                                                 + "<name>admin</name>"
+                                                 + "</author>"
+                                                 + "<category label=\"report definition\" scheme=\"urn:com:systinet:reporting:kind\" term=\"urn:com:systinet:reporting:kind:definition\"/>"
+                                                 + "<category label=\"Policy Manager - Homepage Report\" scheme=\"urn:com:systinet:policymgr:report:type\" term=\"aoi\"/>"
+                                                 + "</entry>"
+                                                 + "</feed>";
+
+    private static final String FEED;
+
+    static {
+        try {
+            GregorianCalendar calendar = new GregorianCalendar();
+            calendar.setTimeInMillis((new Date()).getTime());
+            XMLGregorianCalendar xmlGregCal =
+                DatatypeFactory.newInstance().newXMLGregorianCalendar(calendar);
+            FEED = FEED_STR.replace("@TIME@", xmlGregCal.toXMLFormat());
+        } catch (DatatypeConfigurationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
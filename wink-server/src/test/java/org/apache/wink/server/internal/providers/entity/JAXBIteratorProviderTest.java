@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.providers.entity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.wink.server.internal.providers.entity.JAXBCollectionXMLProviderTest.JAXBXmlRootElement;
+import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.apache.wink.test.mock.TestUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class JAXBIteratorProviderTest extends MockServletInvocationTest {
+
+    public static final String JAXBXmlRootElement_RESPONSE =
+                                                               "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><JAXBXmlRootElements><JAXBXmlRootElement><id>ID0</id><name>NAME0</name></JAXBXmlRootElement><JAXBXmlRootElement><id>ID1</id><name>NAME1</name></JAXBXmlRootElement><JAXBXmlRootElement><id>ID2</id><name>NAME2</name></JAXBXmlRootElement></JAXBXmlRootElements>";
+
+    @Override
+    protected Class<?>[] getClasses() {
+        return new Class<?>[] {Resource.class, JAXBXmlRootElementJSONProvider.class};
+    }
+
+    @Path("iterator")
+    public static class Resource {
+
+        @GET
+        @Path("iterator")
+        @Produces( {MediaType.TEXT_XML, MediaType.APPLICATION_JSON})
+        public Iterator<JAXBXmlRootElement> getIterator() {
+            return new Elements(3).iterator();
+        }
+
+        @GET
+        @Path("iterable")
+        @Produces( {MediaType.TEXT_XML, MediaType.APPLICATION_JSON})
+        public Elements getIterable() {
+            return new Elements(3);
+        }
+
+        @GET
+        @Path("empty")
+        @Produces( {MediaType.TEXT_XML, MediaType.APPLICATION_JSON})
+        public Iterator<JAXBXmlRootElement> getEmpty() {
+            return new Elements(0).iterator();
+        }
+    }
+
+    /**
+     * An Iterable that creates its elements on demand
+     */
+    public static class Elements implements Iterable<JAXBXmlRootElement> {
+
+        private final int size;
+
+        public Elements(int size) {
+            this.size = size;
+        }
+
+        public Iterator<JAXBXmlRootElement> iterator() {
+            return new Iterator<JAXBXmlRootElement>() {
+
+                private int i = 0;
+
+                public boolean hasNext() {
+                    return i < size;
+                }
+
+                public JAXBXmlRootElement next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    JAXBXmlRootElement element = new JAXBXmlRootElement();
+                    element.setId("ID" + i);
+                    element.setName("NAME" + i);
+                    ++i;
+                    return element;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class JAXBXmlRootElementJSONProvider implements
+        MessageBodyWriter<JAXBXmlRootElement> {
+
+        public long getSize(JAXBXmlRootElement t,
+                            Class<?> type,
+                            Type genericType,
+                            Annotation[] annotations,
+                            MediaType mediaType) {
+            return -1;
+        }
+
+        public boolean isWriteable(Class<?> type,
+                                   Type genericType,
+                                   Annotation[] annotations,
+                                   MediaType mediaType) {
+            return JAXBXmlRootElement.class == type;
+        }
+
+        public void writeTo(JAXBXmlRootElement t,
+                            Class<?> type,
+                            Type genericType,
+                            Annotation[] annotations,
+                            MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders,
+                            OutputStream entityStream) throws IOException,
+            WebApplicationException {
+            entityStream.write(("{\"id\":\"" + t.getId() + "\",\"name\":\"" + t.getName() + "\"}")
+                .getBytes("UTF-8"));
+        }
+    }
+
+    private MockHttpServletResponse get(String path, String accept) throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", path, accept);
+        MockHttpServletResponse invoke = invoke(request);
+        assertEquals(200, invoke.getStatus());
+        assertNull(invoke.getHeader("Content-Length"));
+        return invoke;
+    }
+
+    public void testXmlIterator() throws Exception {
+        MockHttpServletResponse invoke = get("/iterator/iterator", MediaType.TEXT_XML);
+        String msg =
+            TestUtils.diffIgnoreUpdateWithAttributeQualifier(JAXBXmlRootElement_RESPONSE, invoke
+                .getContentAsString());
+        assertNull(msg, msg);
+    }
+
+    public void testXmlIterable() throws Exception {
+        MockHttpServletResponse invoke = get("/iterator/iterable", MediaType.TEXT_XML);
+        String msg =
+            TestUtils.diffIgnoreUpdateWithAttributeQualifier(JAXBXmlRootElement_RESPONSE, invoke
+                .getContentAsString());
+        assertNull(msg, msg);
+    }
+
+    public void testJSONIterator() throws Exception {
+        MockHttpServletResponse invoke = get("/iterator/iterator", MediaType.APPLICATION_JSON);
+        assertEquals("[{\"id\":\"ID0\",\"name\":\"NAME0\"},{\"id\":\"ID1\",\"name\":\"NAME1\"},{\"id\":\"ID2\",\"name\":\"NAME2\"}]",
+                     invoke.getContentAsString());
+    }
+
+    public void testJSONEmptyIterator() throws Exception {
+        MockHttpServletResponse invoke = get("/iterator/empty", MediaType.APPLICATION_JSON);
+        assertEquals("[]", invoke.getContentAsString());
+    }
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import junit.framework.TestCase;
+
+import org.apache.wink.common.internal.application.ApplicationValidator;
+import org.apache.wink.common.internal.lifecycle.LifecycleManagersRegistry;
+import org.apache.wink.common.internal.lifecycle.ScopeLifecycleManager;
+
+public class AddResourcesTest extends TestCase {
+
+    @Path("a")
+    public static class A {
+        @GET
+        public String get() {
+            return null;
+        }
+    }
+
+    @Path("b/{id}")
+    public static class B {
+        @GET
+        public String get() {
+            return null;
+        }
+    }
+
+    @Path("c/d")
+    public static class C {
+        @GET
+        public String get() {
+            return null;
+        }
+    }
+
+    @Path("e")
+    public static class E {
+        @GET
+        public String get() {
+            return null;
+        }
+    }
+
+    @Path("parent/")
+    public static class Parent {
+    }
+
+    @Path("child")
+    @org.apache.wink.common.annotations.Parent(Parent.class)
+    public static class Child {
+        @GET
+        public String get() {
+            return null;
+        }
+    }
+
+    private static ResourceRegistry createRegistry(int threads) {
+        LifecycleManagersRegistry lifecycleManagersRegistry = new LifecycleManagersRegistry();
+        lifecycleManagersRegistry.addFactoryFactory(new ScopeLifecycleManager<Object>());
+        Properties properties = new Properties();
+        properties.setProperty("wink.registrationThreads", String.valueOf(threads)); //$NON-NLS-1$
+        return new ResourceRegistry(lifecycleManagersRegistry, new ApplicationValidator(),
+                                    properties);
+    }
+
+    private static List<Class<?>> getClasses(ResourceRegistry registry) {
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (ResourceRecord record : registry.getRecords()) {
+            classes.add(record.getMetadata().getResourceClass());
+        }
+        return classes;
+    }
+
+    public void testSameOrderAsSingleRegistration() {
+        List<Class<?>> resources =
+            Arrays.<Class<?>> asList(E.class, A.class, Child.class, C.class, B.class);
+
+        ResourceRegistry single = createRegistry(1);
+        for (Class<?> resource : resources) {
+            single.addResource(resource, 0.5);
+        }
+        ResourceRegistry bulk = createRegistry(4);
+        bulk.addResources(resources, 0.5);
+
+        assertEquals(getClasses(single), getClasses(bulk));
+        assertEquals(resources.size(), bulk.getRecords().size());
+        ResourceRecord child = bulk.getRecord(Child.class);
+        assertEquals("parent/child", child.getTemplateProcessor().getTemplate()); //$NON-NLS-1$
+    }
+
+    public void testDuplicatesAndInstances() {
+        A a = new A();
+        ResourceRegistry single = createRegistry(1);
+        single.addResource(a, 0.7);
+        single.addResource(A.class, 0.7);
+        single.addResource(B.class, 0.7);
+        single.addResource(new B(), 0.7);
+        single.addResource(C.class, 0.7);
+
+        ResourceRegistry bulk = createRegistry(4);
+        bulk.addResources(Arrays.asList(a, A.class, B.class, new B(), C.class), 0.7);
+
+        // the second A and the second B are ignored
+        assertEquals(3, bulk.getRecords().size());
+        assertEquals(getClasses(single), getClasses(bulk));
+        for (ResourceRecord record : bulk.getRecords()) {
+            assertEquals(0.7, record.getPriority());
+            if (record.getMetadata().getResourceClass() == A.class) {
+                assertSame(a, record.getObjectFactory().getInstance(null));
+            }
+        }
+    }
+
+    public void testSequential() {
+        ResourceRegistry registry = createRegistry(1);
+        registry.addResources(Arrays.<Class<?>> asList(B.class, A.class), 0.5);
+        assertEquals(Arrays.asList(B.class, A.class), getClasses(registry));
+    }
+
+    public void testInterrupted() {
+        List<Class<?>> resources =
+            Arrays.<Class<?>> asList(E.class, A.class, Child.class, C.class, B.class);
+        ResourceRegistry registry = createRegistry(4);
+        Thread.currentThread().interrupt();
+        try {
+            registry.addResources(resources, 0.5);
+            // the deploying thread finishes the registration and keeps its
+            // interrupted status
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(resources.size(), registry.getRecords().size());
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.registry;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.wink.common.annotations.Parent;
+import org.apache.wink.server.internal.RequestProcessor;
+import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.apache.wink.test.mock.TestUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests the <tt>wink.lazyResourceInitialization</tt> property
+ */
+public class LazyResourceInitializationTest extends MockServletInvocationTest {
+
+    static int constructed;
+
+    @Override
+    protected Class<?>[] getClasses() {
+        return new Class<?>[] {Books.class, Authors.class, Chapters.class};
+    }
+
+    @Override
+    protected String getPropertiesFile() {
+        return TestUtils.packageToPath(getClass().getName()) + ".properties";
+    }
+
+    @Path("/books")
+    public static class Books {
+
+        public Books() {
+            ++constructed;
+        }
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String list() {
+            return "books";
+        }
+
+        @GET
+        @Path("{id}")
+        @Produces(MediaType.TEXT_PLAIN)
+        public String get(@PathParam("id") String id) {
+            return "book " + id;
+        }
+    }
+
+    @Path("/authors")
+    public static class Authors {
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String list() {
+            return "authors";
+        }
+    }
+
+    @Parent(Books.class)
+    @Path("{book}/chapters")
+    public static class Chapters {
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String list(@PathParam("book") String book) {
+            return "chapters of " + book;
+        }
+    }
+
+    private ResourceRecord getRecord(Class<?> cls) throws Exception {
+        ResourceRegistry registry =
+            RequestProcessor.getRequestProcessor(getServlet().getServletContext(), null)
+                .getConfiguration().getResourceRegistry();
+        for (ResourceRecord record : registry.getRecords()) {
+            if (record.getClassMetadata().getResourceClass() == cls) {
+                return record;
+            }
+        }
+        fail(cls + " is not registered");
+        return null;
+    }
+
+    private String get(String path) throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", path, "text/plain");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(200, response.getStatus());
+        return response.getContentAsString();
+    }
+
+    public void testInitializedOnFirstMatch() throws Exception {
+        assertFalse(getRecord(Books.class).isInitialized());
+        assertFalse(getRecord(Authors.class).isInitialized());
+        assertFalse(getRecord(Chapters.class).isInitialized());
+        assertEquals("/books", getRecord(Books.class).getClassMetadata().getPath());
+        assertTrue(getRecord(Books.class).getClassMetadata().getResourceMethods().isEmpty());
+
+        constructed = 0;
+        assertEquals("authors", get("/authors"));
+        assertTrue(getRecord(Authors.class).isInitialized());
+        assertFalse(getRecord(Books.class).isInitialized());
+        assertFalse(getRecord(Chapters.class).isInitialized());
+        assertEquals(0, constructed);
+
+        assertEquals("book 1", get("/books/1"));
+        assertEquals("books", get("/books"));
+        assertTrue(getRecord(Books.class).isInitialized());
+        assertEquals(2, getRecord(Books.class).getMetadata().getResourceMethods().size()
+            + getRecord(Books.class).getMetadata().getSubResourceMethods().size());
+        assertEquals(2, constructed);
+
+        // the path of the child was built from the parent before it was
+        // initialized
+        assertEquals("chapters of 1", get("/books/1/chapters"));
+        assertTrue(getRecord(Chapters.class).isInitialized());
+    }
+}
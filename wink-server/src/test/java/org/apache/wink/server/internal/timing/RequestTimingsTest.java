@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *  
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *  
+ *******************************************************************************/
+
+package org.apache.wink.server.internal.timing;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.wink.server.internal.RequestProcessor;
+import org.apache.wink.server.internal.servlet.MockServletInvocationTest;
+import org.apache.wink.test.mock.MockRequestConstructor;
+import org.apache.wink.test.mock.TestUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests the per resource method timings of the request phases
+ */
+public class RequestTimingsTest extends MockServletInvocationTest {
+
+    @Override
+    protected Class<?>[] getClasses() {
+        return new Class<?>[] {Resource.class};
+    }
+
+    @Override
+    protected String getPropertiesFile() {
+        return TestUtils.packageToPath(getClass().getName()) + ".properties";
+    }
+
+    @Path("/timed")
+    public static class Resource {
+
+        @GET
+        @Path("{id}")
+        @Produces(MediaType.TEXT_PLAIN)
+        public String get(@PathParam("id") String id) {
+            if ("fail".equals(id)) {
+                throw new WebApplicationException(409);
+            }
+            return "item " + id;
+        }
+    }
+
+    private RequestTimings getRequestTimings() {
+        return RequestProcessor.getRequestProcessor(getServlet().getServletContext(), null)
+            .getConfiguration().getRequestTimings();
+    }
+
+    public void testPhasesOfResourceMethod() throws Exception {
+        for (int i = 0; i < 3; ++i) {
+            MockHttpServletRequest request =
+                MockRequestConstructor.constructMockRequest("GET", "/timed/" + i, "text/plain");
+            MockHttpServletResponse response = invoke(request);
+            assertEquals(200, response.getStatus());
+            assertEquals("item " + i, response.getContentAsString());
+        }
+
+        RequestTimings timings = getRequestTimings();
+        assertNotNull(timings);
+        String name = "GET " + Resource.class.getName() + ".get";
+        MethodTimings methodTimings = timings.getMethodTimings(name);
+        assertNotNull(methodTimings);
+        for (RequestPhase phase : RequestPhase.values()) {
+            assertEquals(phase.name(), 3, methodTimings.getHistogram(phase).getCount());
+            assertEquals(3, timings.getCount(name, phase.name()));
+        }
+        assertEquals(0, timings.getCount(RequestTimings.UNMATCHED, RequestPhase.INVOCATION
+            .name()));
+
+        timings.reset();
+        assertEquals(0, timings.getCount(name, RequestPhase.INVOCATION.name()));
+    }
+
+    public void testFailedInvocation() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", "/timed/fail", "text/plain");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(409, response.getStatus());
+
+        String name = "GET " + Resource.class.getName() + ".get";
+        RequestTimings timings = getRequestTimings();
+        assertEquals(1, timings.getCount(name, RequestPhase.INVOCATION.name()));
+        // the error response is timed as well
+        assertEquals(1, timings.getCount(name, RequestPhase.MEDIA_TYPE_NEGOTIATION.name()));
+        assertEquals(1, timings.getCount(name, RequestPhase.SERIALIZATION.name()));
+    }
+
+    public void testUnmatchedRequest() throws Exception {
+        MockHttpServletRequest request =
+            MockRequestConstructor.constructMockRequest("GET", "/unknown", "text/plain");
+        MockHttpServletResponse response = invoke(request);
+        assertEquals(404, response.getStatus());
+
+        RequestTimings timings = getRequestTimings();
+        assertEquals(1, timings.getCount(RequestTimings.UNMATCHED,
+                                         RequestPhase.ROOT_RESOURCE_MATCH.name()));
+        assertEquals(0, timings.getCount(RequestTimings.UNMATCHED, RequestPhase.INVOCATION
+            .name()));
+    }
+
+    public void testMBeanRegistration() throws Exception {
+        RequestTimings timings = getRequestTimings();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertNotNull(timings.getObjectName());
+        assertTrue(server.isRegistered(timings.getObjectName()));
+        assertEquals(RequestPhase.values().length, ((String[])server.getAttribute(timings
+            .getObjectName(), "Phases")).length);
+
+        ObjectName objectName = timings.getObjectName();
+        getServlet().destroy();
+        assertNull(timings.getObjectName());
+        assertFalse(server.isRegistered(objectName));
+    }
+
+    public void testHistogramPercentiles() {
+        PhaseHistogram histogram = new PhaseHistogram();
+        assertEquals(0, histogram.getPercentileNanos(50));
+        for (long i = 1; i <= 1000; ++i) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500, histogram.getMeanNanos());
+        assertEquals(1000000, histogram.getMaxNanos());
+        assertEquals(1000000, histogram.getPercentileNanos(100));
+        // the buckets are at most 25% wide
+        long median = histogram.getPercentileNanos(50);
+        assertTrue(String.valueOf(median), median >= 500000 && median <= 625000);
+        long p99 = histogram.getPercentileNanos(99);
+        assertTrue(String.valueOf(p99), p99 >= 990000 && p99 <= 1000000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+    }
+}